@@ -0,0 +1,6 @@
+-- connection pool settings per tenant, defaults are those previously hard-coded for every tenant
+ALTER TABLE `mifosplatform-tenants`.`tenants`
+ADD COLUMN `pool_initial_size` int(5) NOT NULL DEFAULT 5 AFTER `schema_password`,
+ADD COLUMN `pool_min_idle` int(5) NOT NULL DEFAULT 1 AFTER `pool_initial_size`,
+ADD COLUMN `pool_max_idle` int(5) NOT NULL DEFAULT 4 AFTER `pool_min_idle`,
+ADD COLUMN `pool_max_active` int(5) NOT NULL DEFAULT 5 AFTER `pool_max_idle`;
@@ -0,0 +1,7 @@
+ALTER TABLE `m_loan`
+ADD COLUMN `total_outstanding_derived` decimal(19,6) DEFAULT NULL AFTER `total_charges_due_at_disbursement_derived`,
+ADD COLUMN `total_overdue_derived` decimal(19,6) DEFAULT NULL AFTER `total_outstanding_derived`,
+ADD COLUMN `overdue_since_date_derived` date DEFAULT NULL AFTER `total_overdue_derived`,
+ADD COLUMN `next_due_date_derived` date DEFAULT NULL AFTER `overdue_since_date_derived`,
+ADD COLUMN `next_due_amount_derived` decimal(19,6) DEFAULT NULL AFTER `next_due_date_derived`,
+ADD COLUMN `arrears_recalculated_on_date` date DEFAULT NULL AFTER `next_due_amount_derived`;
@@ -0,0 +1,38 @@
+ALTER TABLE `m_loan`
+ADD COLUMN `principal_disbursed_derived` decimal(19,6) DEFAULT NULL AFTER `total_charges_due_at_disbursement_derived`,
+ADD COLUMN `principal_repaid_derived` decimal(19,6) DEFAULT NULL AFTER `principal_disbursed_derived`,
+ADD COLUMN `principal_outstanding_derived` decimal(19,6) DEFAULT NULL AFTER `principal_repaid_derived`,
+ADD COLUMN `interest_charged_derived` decimal(19,6) DEFAULT NULL AFTER `principal_outstanding_derived`,
+ADD COLUMN `interest_repaid_derived` decimal(19,6) DEFAULT NULL AFTER `interest_charged_derived`,
+ADD COLUMN `interest_waived_derived` decimal(19,6) DEFAULT NULL AFTER `interest_repaid_derived`,
+ADD COLUMN `interest_outstanding_derived` decimal(19,6) DEFAULT NULL AFTER `interest_waived_derived`,
+ADD COLUMN `fee_charges_charged_derived` decimal(19,6) DEFAULT NULL AFTER `interest_outstanding_derived`,
+ADD COLUMN `total_expected_repayment_derived` decimal(19,6) DEFAULT NULL AFTER `fee_charges_charged_derived`,
+ADD COLUMN `total_repayment_derived` decimal(19,6) DEFAULT NULL AFTER `total_expected_repayment_derived`,
+ADD COLUMN `total_waived_derived` decimal(19,6) DEFAULT NULL AFTER `total_repayment_derived`;
+
+-- populate summary of loans already disbursed from their repayment schedules
+UPDATE `m_loan` l
+JOIN (
+	SELECT ls.loan_id,
+		SUM(ls.principal_amount) AS principal,
+		SUM(IFNULL(ls.principal_completed_derived, 0)) AS principal_repaid,
+		SUM(ls.interest_amount) AS interest,
+		SUM(IFNULL(ls.interest_completed_derived, 0)) AS interest_repaid,
+		SUM(IFNULL(ls.interest_waived_derived, 0)) AS interest_waived
+	FROM `m_loan_repayment_schedule` ls
+	GROUP BY ls.loan_id
+) s ON s.loan_id = l.id
+SET l.principal_disbursed_derived = s.principal,
+	l.principal_repaid_derived = s.principal_repaid,
+	l.principal_outstanding_derived = s.principal - s.principal_repaid,
+	l.interest_charged_derived = s.interest,
+	l.interest_repaid_derived = s.interest_repaid,
+	l.interest_waived_derived = s.interest_waived,
+	l.interest_outstanding_derived = s.interest - s.interest_repaid - s.interest_waived,
+	l.fee_charges_charged_derived = IFNULL(l.total_charges_due_at_disbursement_derived, 0),
+	l.total_expected_repayment_derived = s.principal + s.interest + IFNULL(l.total_charges_due_at_disbursement_derived, 0),
+	l.total_repayment_derived = s.principal_repaid + s.interest_repaid,
+	l.total_waived_derived = s.interest_waived,
+	l.total_outstanding_derived = s.principal - s.principal_repaid + s.interest - s.interest_repaid - s.interest_waived
+WHERE l.disbursedon_date IS NOT NULL;
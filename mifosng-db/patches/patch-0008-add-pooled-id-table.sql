@@ -0,0 +1,19 @@
+-- blocks of ids for entities that use TenantAwarePooledIdGenerator instead of auto increment
+-- m_loan, m_loan_repayment_schedule, m_loan_transaction, m_loan_charge, m_deposit_account_transaction and m_note
+-- must only be inserted into through the platform from now on: the id columns keep auto_increment but an insert
+-- without an id can take an id of a block the generator has already reserved, and the platform's next insert
+-- with that id then fails with a duplicate key
+CREATE TABLE `m_pooled_id` (
+  `entity_table` varchar(255) NOT NULL,
+  `next_id` bigint(20) NOT NULL,
+  PRIMARY KEY (`entity_table`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- start each pool after the ids already in use
+INSERT INTO `m_pooled_id` (`entity_table`, `next_id`)
+SELECT 'm_loan', IFNULL(MAX(id), 0) + 1 FROM `m_loan`
+UNION ALL SELECT 'm_loan_repayment_schedule', IFNULL(MAX(id), 0) + 1 FROM `m_loan_repayment_schedule`
+UNION ALL SELECT 'm_loan_transaction', IFNULL(MAX(id), 0) + 1 FROM `m_loan_transaction`
+UNION ALL SELECT 'm_loan_charge', IFNULL(MAX(id), 0) + 1 FROM `m_loan_charge`
+UNION ALL SELECT 'm_deposit_account_transaction', IFNULL(MAX(id), 0) + 1 FROM `m_deposit_account_transaction`
+UNION ALL SELECT 'm_note', IFNULL(MAX(id), 0) + 1 FROM `m_note`;
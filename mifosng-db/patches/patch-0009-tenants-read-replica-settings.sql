@@ -0,0 +1,9 @@
+-- optional read replica per tenant for read only work, same schema name and credentials as the primary
+-- replica_max_lag_seconds: reads fall back to the primary when the replica is further behind (null to not check lag)
+-- the lag is read with SHOW SLAVE STATUS so the tenant's user needs the REPLICATION CLIENT privilege on the replica, e.g.
+-- GRANT REPLICATION CLIENT ON *.* TO 'root'@'%';
+-- without it the lag cannot be read and all reads of the tenant go to the primary
+ALTER TABLE `mifosplatform-tenants`.`tenants`
+ADD COLUMN `replica_schema_server` varchar(100) DEFAULT NULL AFTER `pool_max_active`,
+ADD COLUMN `replica_schema_server_port` varchar(10) DEFAULT NULL AFTER `replica_schema_server`,
+ADD COLUMN `replica_max_lag_seconds` int(5) DEFAULT 5 AFTER `replica_schema_server_port`;
@@ -0,0 +1,22 @@
+-- snapshots of the derived installment components of a loan taken while processing its repayments and waivers
+-- so a backdated or adjusted transaction only re-processes the transactions after the latest valid snapshot
+CREATE TABLE `m_loan_repayment_schedule_checkpoint` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `loan_id` bigint(20) NOT NULL,
+  `transactions_processed` int(11) NOT NULL,
+  `transactions_fingerprint` varchar(40) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FK_m_loan_repayment_schedule_checkpoint_loan` (`loan_id`),
+  CONSTRAINT `FK_m_loan_repayment_schedule_checkpoint_loan` FOREIGN KEY (`loan_id`) REFERENCES `m_loan` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `m_loan_repayment_schedule_checkpoint_installment` (
+  `checkpoint_id` bigint(20) NOT NULL,
+  `installment` smallint(5) NOT NULL,
+  `principal_completed_derived` decimal(19,6) DEFAULT NULL,
+  `interest_completed_derived` decimal(19,6) DEFAULT NULL,
+  `interest_waived_derived` decimal(19,6) DEFAULT NULL,
+  `completed_derived` bit(1) NOT NULL,
+  KEY `FK_m_loan_repayment_schedule_checkpoint_installment` (`checkpoint_id`),
+  CONSTRAINT `FK_m_loan_repayment_schedule_checkpoint_installment` FOREIGN KEY (`checkpoint_id`) REFERENCES `m_loan_repayment_schedule_checkpoint` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,3 @@
+-- clients are listed (and paged by keyset) in (lastname, firstname, id) order
+ALTER TABLE `m_client`
+ADD KEY `m_client_name_listing` (`lastname`, `firstname`, `id`);
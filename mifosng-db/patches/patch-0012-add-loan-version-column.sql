@@ -0,0 +1,2 @@
+ALTER TABLE `m_loan`
+ADD COLUMN `version` int(11) NOT NULL DEFAULT 0 AFTER `id`;
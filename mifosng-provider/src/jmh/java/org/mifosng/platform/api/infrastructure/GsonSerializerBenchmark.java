@@ -0,0 +1,94 @@
+package org.mifosng.platform.api.infrastructure;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.api.LoanScheduleNewData;
+import org.mifosng.platform.currency.domain.ApplicationCurrency;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.loan.domain.AmortizationMethod;
+import org.mifosng.platform.loan.domain.InterestCalculationPeriodMethod;
+import org.mifosng.platform.loan.domain.InterestMethod;
+import org.mifosng.platform.loan.domain.LoanCharge;
+import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
+import org.mifosng.platform.loan.domain.PeriodFrequencyType;
+import org.mifosng.platform.loanschedule.domain.DefaultLoanScheduleGeneratorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+/**
+ * Measures serializing a weekly loan schedule to JSON the ways the api does:
+ * in full, pretty printed, limited to the requested fields and streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonSerializerBenchmark {
+
+	@Param({ "12", "52", "104", "520" })
+	private int numberOfInstallments;
+
+	private final GoogleGsonSerializerHelper helper = new GoogleGsonSerializerHelper();
+	private final ApiJsonSerializerService serializerService = new GoogleGsonApiJsonSerializerService(this.helper);
+	private final Set<String> allParameters = Collections.<String> emptySet();
+	private final Set<String> periodsOnly = new HashSet<String>(Collections.singletonList("periods"));
+
+	private LoanScheduleNewData loanSchedule;
+
+	@Setup
+	public void setUp() {
+		final LoanProductRelatedDetail loanScheduleInfo = new LoanProductRelatedDetail(new MonetaryCurrency("USD", 2),
+				new BigDecimal("10000"), new BigDecimal("0.5"), PeriodFrequencyType.WEEKS, new BigDecimal("26"),
+				InterestMethod.DECLINING_BALANCE, InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD, Integer.valueOf(1),
+				PeriodFrequencyType.WEEKS, Integer.valueOf(this.numberOfInstallments), AmortizationMethod.EQUAL_INSTALLMENTS,
+				BigDecimal.ZERO);
+
+		this.loanSchedule = new DefaultLoanScheduleGeneratorFactory().create(InterestMethod.DECLINING_BALANCE).generate(
+				new ApplicationCurrency("USD", "US Dollar", 2, "currency.USD", "$"), loanScheduleInfo,
+				Integer.valueOf(this.numberOfInstallments), PeriodFrequencyType.WEEKS, new LocalDate(2012, 1, 2),
+				new LocalDate(2012, 1, 9), null, new HashSet<LoanCharge>());
+	}
+
+	@Benchmark
+	public String loanSchedule() {
+		return this.serializerService.serializeLoanScheduleDataToJson(false, this.allParameters, this.loanSchedule);
+	}
+
+	@Benchmark
+	public String loanSchedulePrettyPrinted() {
+		return this.serializerService.serializeLoanScheduleDataToJson(true, this.allParameters, this.loanSchedule);
+	}
+
+	@Benchmark
+	public String loanScheduleWithResponseParameters() {
+		return this.serializerService.serializeLoanScheduleDataToJson(false, this.periodsOnly, this.loanSchedule);
+	}
+
+	@Benchmark
+	public int loanSchedulePeriodsStreamed() throws IOException {
+		final Gson serializer = this.helper.createGsonBuilder(false);
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		this.helper.streamedJsonFrom(serializer, false, this.loanSchedule.getPeriods()).write(output);
+		return output.size();
+	}
+}
@@ -0,0 +1,103 @@
+package org.mifosng.platform.currency.domain;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.loan.domain.LoanRepaymentScheduleInstallment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares summing a loan schedule through {@link Money} with summing it
+ * through {@link MoneyAccumulator} for schedules from a year of monthly to
+ * ten years of weekly installments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+	@Param({ "12", "52", "104", "520" })
+	private int numberOfInstallments;
+
+	private final MonetaryCurrency currency = new MonetaryCurrency("USD", 2);
+	private List<LoanRepaymentScheduleInstallment> installments;
+
+	@Setup
+	public void setUp() {
+		this.installments = new ArrayList<LoanRepaymentScheduleInstallment>();
+
+		LocalDate dueDate = new LocalDate(2012, 1, 2);
+		for (int installmentNumber = 1; installmentNumber <= this.numberOfInstallments; installmentNumber++) {
+			// amounts as they are loaded from the database (scale of 6)
+			LoanRepaymentScheduleInstallment installment = new LoanRepaymentScheduleInstallment(null, installmentNumber, dueDate,
+					new BigDecimal("192.307692"), new BigDecimal("28.846154"));
+
+			// first half of the schedule is paid
+			if (installmentNumber <= this.numberOfInstallments / 2) {
+				installment.payInterestComponent(installment.getInterest(this.currency));
+				installment.payPrincipalComponent(installment.getPrincipal(this.currency));
+			}
+
+			this.installments.add(installment);
+			dueDate = dueDate.plusWeeks(1);
+		}
+	}
+
+	@Benchmark
+	public Money totalOutstandingUsingMoney() {
+		Money totalExpected = Money.zero(this.currency);
+		Money totalPaid = Money.zero(this.currency);
+		Money totalWaived = Money.zero(this.currency);
+
+		for (LoanRepaymentScheduleInstallment installment : this.installments) {
+			totalExpected = totalExpected.plus(installment.getPrincipal(this.currency)).plus(installment.getInterest(this.currency));
+			totalPaid = totalPaid.plus(installment.getPrincipalCompleted(this.currency).plus(installment.getInterestCompleted(this.currency)));
+			totalWaived = totalWaived.plus(installment.getInterestWaived(this.currency));
+		}
+
+		return totalExpected.minus(totalPaid.plus(totalWaived));
+	}
+
+	@Benchmark
+	public Money totalOutstandingUsingMoneyAccumulator() {
+		MoneyAccumulator totalOutstanding = MoneyAccumulator.zero(this.currency);
+
+		for (LoanRepaymentScheduleInstallment installment : this.installments) {
+			totalOutstanding.addMinorUnits(installment.getTotalDueInMinorUnits(this.currency));
+		}
+
+		return totalOutstanding.toMoney();
+	}
+
+	@Benchmark
+	public boolean isRepaidInFullUsingMoney() {
+		return totalOutstandingUsingMoney().isZero();
+	}
+
+	@Benchmark
+	public boolean isRepaidInFullUsingMoneyAccumulator() {
+		MoneyAccumulator totalOutstanding = MoneyAccumulator.zero(this.currency);
+
+		for (LoanRepaymentScheduleInstallment installment : this.installments) {
+			totalOutstanding.addMinorUnits(installment.getTotalDueInMinorUnits(this.currency));
+		}
+
+		return totalOutstanding.isZero();
+	}
+}
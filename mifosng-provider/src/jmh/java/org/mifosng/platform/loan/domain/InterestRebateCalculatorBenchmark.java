@@ -0,0 +1,79 @@
+package org.mifosng.platform.loan.domain;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the flat and declining balance {@link InterestRebateCalculator}s
+ * for a weekly loan paid off early, half way through its term.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestRebateCalculatorBenchmark {
+
+	@Param({ "12", "52", "104", "520" })
+	private int numberOfInstallments;
+
+	private final MonetaryCurrency currency = new MonetaryCurrency("USD", 2);
+	private final LocalDate disbursementDate = new LocalDate(2012, 1, 2);
+	private final BigDecimal interestRatePerAnnum = new BigDecimal("15");
+
+	private final InterestRebateCalculator flatInterestRebateCalculator = new DailyEquivalentFlatInterestRebateCalculator();
+	private final InterestRebateCalculator decliningBalanceInterestRebateCalculator = new DailyEquivalentDecliningBalanceInterestRebateCalculator();
+
+	private Money principal;
+	private LocalDate paidInFullDate;
+	private List<LoanRepaymentScheduleInstallment> installments;
+	private List<LoanTransaction> repayments;
+
+	@Setup
+	public void setUp() {
+		this.principal = Money.of(this.currency, new BigDecimal("192.31").multiply(BigDecimal.valueOf(this.numberOfInstallments)));
+		this.installments = new ArrayList<LoanRepaymentScheduleInstallment>();
+		this.repayments = new ArrayList<LoanTransaction>();
+
+		LocalDate dueDate = this.disbursementDate.plusWeeks(1);
+		for (int installmentNumber = 1; installmentNumber <= this.numberOfInstallments; installmentNumber++) {
+			this.installments.add(new LoanRepaymentScheduleInstallment(null, installmentNumber, dueDate,
+					new BigDecimal("192.307692"), new BigDecimal("28.846154")));
+			if (installmentNumber <= this.numberOfInstallments / 2) {
+				this.repayments.add(LoanTransaction.repayment(Money.of(this.currency, new BigDecimal("221.15")), dueDate));
+				this.paidInFullDate = dueDate;
+			}
+			dueDate = dueDate.plusWeeks(1);
+		}
+	}
+
+	@Benchmark
+	public Money flat() {
+		return this.flatInterestRebateCalculator.calculate(this.disbursementDate, this.paidInFullDate, this.principal,
+				this.interestRatePerAnnum, this.installments, this.repayments);
+	}
+
+	@Benchmark
+	public Money decliningBalance() {
+		return this.decliningBalanceInterestRebateCalculator.calculate(this.disbursementDate, this.paidInFullDate, this.principal,
+				this.interestRatePerAnnum, this.installments, this.repayments);
+	}
+}
@@ -0,0 +1,122 @@
+package org.mifosng.platform.loan.domain;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each {@link LoanRepaymentScheduleTransactionProcessor} replaying
+ * all transactions of a weekly loan (as on an adjustment or a backdated
+ * transaction) and applying the latest transaction only (as on a repayment).
+ *
+ * Each installment is repaid in two halves on its due date, up to 1000
+ * transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanRepaymentScheduleTransactionProcessorBenchmark {
+
+	private static final int MAXIMUM_NUMBER_OF_TRANSACTIONS = 1000;
+
+	@Param({ "MifosStyle", "HeavensFamily", "Creocore", "Adhikar" })
+	private String processorName;
+
+	@Param({ "12", "52", "104", "520" })
+	private int numberOfInstallments;
+
+	private final MonetaryCurrency currency = new MonetaryCurrency("USD", 2);
+	private LoanRepaymentScheduleTransactionProcessor processor;
+	private List<LoanRepaymentScheduleInstallment> installments;
+	private List<LoanTransaction> transactions;
+
+	private LoanTransaction latestTransaction;
+	private List<LoanRepaymentScheduleCheckpointInstallment> beforeLatestTransaction;
+
+	@Setup
+	public void setUp() {
+		this.processor = processorNamed(this.processorName);
+		this.installments = new ArrayList<LoanRepaymentScheduleInstallment>();
+		this.transactions = new ArrayList<LoanTransaction>();
+
+		LocalDate dueDate = new LocalDate(2012, 1, 9);
+		for (int installmentNumber = 1; installmentNumber <= this.numberOfInstallments; installmentNumber++) {
+			this.installments.add(new LoanRepaymentScheduleInstallment(null, installmentNumber, dueDate,
+					new BigDecimal("192.307692"), new BigDecimal("28.846154")));
+
+			final Money halfOfInstallment = Money.of(this.currency, new BigDecimal("110.58"));
+			for (int part = 0; part < 2 && this.transactions.size() < MAXIMUM_NUMBER_OF_TRANSACTIONS; part++) {
+				this.transactions.add(LoanTransaction.repayment(halfOfInstallment, dueDate));
+			}
+			dueDate = dueDate.plusWeeks(1);
+		}
+
+		final List<LoanTransaction> allButLatest = this.transactions.subList(0, this.transactions.size() - 1);
+		this.processor.handleTransaction(allButLatest, this.currency, this.installments);
+		this.latestTransaction = this.transactions.get(this.transactions.size() - 1);
+		this.beforeLatestTransaction = new ArrayList<LoanRepaymentScheduleCheckpointInstallment>();
+		for (LoanRepaymentScheduleInstallment installment : this.installments) {
+			this.beforeLatestTransaction.add(installment.derivedComponents());
+		}
+	}
+
+	/**
+	 * Puts the schedule back to just before the latest transaction; runs per
+	 * invocation only for {@link #latestTransaction()} which mutates it.
+	 */
+	@State(Scope.Benchmark)
+	public static class BeforeLatestTransaction {
+
+		@Setup(Level.Invocation)
+		public void restore(final LoanRepaymentScheduleTransactionProcessorBenchmark benchmark) {
+			for (int index = 0; index < benchmark.installments.size(); index++) {
+				benchmark.installments.get(index).restoreDerivedComponents(benchmark.beforeLatestTransaction.get(index));
+			}
+			benchmark.latestTransaction.resetDerivedComponents();
+		}
+	}
+
+	@Benchmark
+	public List<LoanRepaymentScheduleInstallment> fullReplay() {
+		this.processor.handleTransaction(this.transactions, this.currency, this.installments);
+		return this.installments;
+	}
+
+	@Benchmark
+	public List<LoanRepaymentScheduleInstallment> latestTransaction(final BeforeLatestTransaction beforeLatestTransaction) {
+		this.processor.handleTransaction(this.latestTransaction, this.currency, this.installments);
+		return this.installments;
+	}
+
+	private static LoanRepaymentScheduleTransactionProcessor processorNamed(final String processorName) {
+		LoanRepaymentScheduleTransactionProcessor processor = new MifosStyleLoanRepaymentScheduleTransactionProcessor();
+		if ("HeavensFamily".equals(processorName)) {
+			processor = new HeavensFamilyLoanRepaymentScheduleTransactionProcessor();
+		} else if ("Creocore".equals(processorName)) {
+			processor = new CreocoreLoanRepaymentScheduleTransactionProcessor();
+		} else if ("Adhikar".equals(processorName)) {
+			processor = new AdhikarLoanRepaymentScheduleTransactionProcessor();
+		}
+		return processor;
+	}
+}
@@ -0,0 +1,98 @@
+package org.mifosng.platform.loanschedule.domain;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.api.LoanScheduleNewData;
+import org.mifosng.platform.currency.domain.ApplicationCurrency;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.loan.domain.AmortizationMethod;
+import org.mifosng.platform.loan.domain.InterestCalculationPeriodMethod;
+import org.mifosng.platform.loan.domain.InterestMethod;
+import org.mifosng.platform.loan.domain.LoanCharge;
+import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
+import org.mifosng.platform.loan.domain.PeriodFrequencyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures generating weekly loan schedules with the flat and declining
+ * balance (equal principal and equal installments) methods, and the same
+ * terms answered again through {@link CachingLoanScheduleGeneratorFactory}
+ * as the loan calculator does while terms are being tweaked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanScheduleGenerationBenchmark {
+
+	@Param({ "12", "52" })
+	private int numberOfRepayments;
+
+	private final ApplicationCurrency currency = new ApplicationCurrency("USD", "US Dollar", 2, "currency.USD", "$");
+	private final LocalDate disbursementDate = new LocalDate(2012, 1, 2);
+	private final LocalDate firstRepaymentDate = new LocalDate(2012, 1, 9);
+	private final Set<LoanCharge> loanCharges = new HashSet<LoanCharge>();
+
+	private final LoanScheduleGeneratorFactory loanScheduleGeneratorFactory = new DefaultLoanScheduleGeneratorFactory();
+	private final LoanScheduleGeneratorFactory cachingLoanScheduleGeneratorFactory = new CachingLoanScheduleGeneratorFactory();
+
+	private LoanProductRelatedDetail flat;
+	private LoanProductRelatedDetail decliningBalanceEqualPrincipal;
+	private LoanProductRelatedDetail decliningBalanceEqualInstallments;
+
+	@Setup
+	public void setUp() {
+		this.flat = weeklyLoan(InterestMethod.FLAT, AmortizationMethod.EQUAL_INSTALLMENTS);
+		this.decliningBalanceEqualPrincipal = weeklyLoan(InterestMethod.DECLINING_BALANCE, AmortizationMethod.EQUAL_PRINCIPAL);
+		this.decliningBalanceEqualInstallments = weeklyLoan(InterestMethod.DECLINING_BALANCE, AmortizationMethod.EQUAL_INSTALLMENTS);
+	}
+
+	@Benchmark
+	public LoanScheduleNewData flat() {
+		return generate(this.loanScheduleGeneratorFactory, this.flat);
+	}
+
+	@Benchmark
+	public LoanScheduleNewData decliningBalanceEqualPrincipal() {
+		return generate(this.loanScheduleGeneratorFactory, this.decliningBalanceEqualPrincipal);
+	}
+
+	@Benchmark
+	public LoanScheduleNewData decliningBalanceEqualInstallments() {
+		return generate(this.loanScheduleGeneratorFactory, this.decliningBalanceEqualInstallments);
+	}
+
+	@Benchmark
+	public LoanScheduleNewData decliningBalanceEqualInstallmentsCached() {
+		return generate(this.cachingLoanScheduleGeneratorFactory, this.decliningBalanceEqualInstallments);
+	}
+
+	private LoanScheduleNewData generate(final LoanScheduleGeneratorFactory factory, final LoanProductRelatedDetail loanScheduleInfo) {
+		return factory.create(loanScheduleInfo.getInterestMethod()).generate(this.currency, loanScheduleInfo,
+				Integer.valueOf(this.numberOfRepayments), PeriodFrequencyType.WEEKS, this.disbursementDate,
+				this.firstRepaymentDate, null, this.loanCharges);
+	}
+
+	private LoanProductRelatedDetail weeklyLoan(final InterestMethod interestMethod, final AmortizationMethod amortizationMethod) {
+		// 0.5% per week, 26% per year
+		return new LoanProductRelatedDetail(new MonetaryCurrency("USD", 2), new BigDecimal("10000"), new BigDecimal("0.5"),
+				PeriodFrequencyType.WEEKS, new BigDecimal("26"), interestMethod, InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD,
+				Integer.valueOf(1), PeriodFrequencyType.WEEKS, Integer.valueOf(this.numberOfRepayments), amortizationMethod, BigDecimal.ZERO);
+	}
+}
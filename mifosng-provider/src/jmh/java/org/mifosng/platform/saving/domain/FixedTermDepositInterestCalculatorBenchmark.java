@@ -0,0 +1,54 @@
+package org.mifosng.platform.saving.domain;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.loan.domain.PeriodFrequencyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures calculating the interest on maturity of a fixed term deposit
+ * compounded monthly or quarterly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedTermDepositInterestCalculatorBenchmark {
+
+	@Param({ "12", "60" })
+	private int tenureInMonths;
+
+	@Param({ "1", "3" })
+	private int interestCompoundedEvery;
+
+	private final FixedTermDepositInterestCalculator calculator = new FixedTermDepositInterestCalculator();
+	private final BigDecimal maturityInterestRate = new BigDecimal("8.5");
+
+	private Money deposit;
+
+	@Setup
+	public void setUp() {
+		this.deposit = Money.of(new MonetaryCurrency("USD", 2), new BigDecimal("25000"));
+	}
+
+	@Benchmark
+	public Money interestOnMaturity() {
+		return this.calculator.calculateInterestOnMaturityFor(this.deposit, Integer.valueOf(this.tenureInMonths),
+				this.maturityInterestRate, Integer.valueOf(this.interestCompoundedEvery), PeriodFrequencyType.MONTHS);
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.ws.rs.Consumes;
@@ -18,11 +19,12 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
-import org.apache.commons.lang.StringUtils;
 import org.mifosng.platform.api.commands.ClientCommand;
 import org.mifosng.platform.api.commands.NoteCommand;
+import org.mifosng.platform.api.data.ApiParameterError;
 import org.mifosng.platform.api.data.ClientData;
 import org.mifosng.platform.api.data.ClientAccountSummaryCollectionData;
 import org.mifosng.platform.api.data.EntityIdentifier;
@@ -31,11 +33,13 @@ import org.mifosng.platform.api.data.OfficeLookup;
 import org.mifosng.platform.api.infrastructure.ApiDataConversionService;
 import org.mifosng.platform.api.infrastructure.ApiJsonSerializerService;
 import org.mifosng.platform.api.infrastructure.ApiParameterHelper;
+import org.mifosng.platform.client.service.ClientListCursor;
+import org.mifosng.platform.client.service.ClientListPage;
 import org.mifosng.platform.client.service.ClientReadPlatformService;
+import org.mifosng.platform.client.service.ClientSearchParameters;
 import org.mifosng.platform.client.service.ClientWritePlatformService;
+import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
 import org.mifosng.platform.organisation.service.OfficeReadPlatformService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -45,8 +49,6 @@ import org.springframework.stereotype.Component;
 @Scope("singleton")
 public class ClientsApiResource {
 
-	private final static Logger logger = LoggerFactory.getLogger(ClientsApiResource.class);
-
 	@Autowired
 	private ClientReadPlatformService clientReadPlatformService;
 
@@ -62,6 +64,10 @@ public class ClientsApiResource {
 	@Autowired
 	private ApiJsonSerializerService apiJsonSerializerService;
 
+	private static final String NEXT_CURSOR_HEADER = "X-Mifos-Next-Cursor";
+	private static final int DEFAULT_LIMIT = 200;
+	private static final int MAXIMUM_LIMIT = 1000;
+
 	private static final Set<String> typicalResponseParameters = new HashSet<String>(
 			Arrays.asList("id", "officeId", "officeName", "externalId", "firstname", "lastname", "joinedDate", "displayName", "clientOrBusinessName")
 	);
@@ -69,16 +75,24 @@ public class ClientsApiResource {
 	@GET
 	@Consumes({MediaType.APPLICATION_JSON})
 	@Produces({MediaType.APPLICATION_JSON})
-	public String retrieveAllIndividualClients(@Context final UriInfo uriInfo,
+	public Response retrieveAllIndividualClients(@Context final UriInfo uriInfo,
 			@QueryParam("sqlSearch") final String sqlSearch,
-			@QueryParam("officeId") final Integer officeId,
+			@QueryParam("officeId") final Long officeId,
 			@QueryParam("externalId") final String externalId,
 			@QueryParam("displayName") final String displayName,
 			@QueryParam("firstName") final String firstName,
 			@QueryParam("lastName") final String lastName,
-			@QueryParam("underHierarchy") final String hierarchy) {
+			@QueryParam("underHierarchy") final String hierarchy,
+			@QueryParam("cursor") final String cursor,
+			@QueryParam("limit") final Integer limit) {
+
+		validateLimit(limit);
+		final ClientListCursor after = cursor == null ? null : ClientListCursor.fromToken(cursor);
+		// clients are always listed a page at a time, the next page is found with the cursor header
+		final Integer pageSize = limit == null ? Integer.valueOf(DEFAULT_LIMIT) : limit;
 
-		final String extraCriteria = getClientCriteria(sqlSearch, officeId, externalId, displayName, firstName, lastName, hierarchy);
+		final ClientSearchParameters searchParameters = new ClientSearchParameters(sqlSearch, officeId, externalId, displayName,
+				firstName, lastName, hierarchy, after, pageSize);
 		
 		Set<String> responseParameters = ApiParameterHelper.extractFieldsForResponseIfProvided(uriInfo.getQueryParameters());
 		if (responseParameters.isEmpty()) {
@@ -86,61 +100,25 @@ public class ClientsApiResource {
 		}
 		boolean prettyPrint = ApiParameterHelper.prettyPrint(uriInfo.getQueryParameters());
 
-		Collection<ClientData> clients = this.clientReadPlatformService.retrieveAllIndividualClients(extraCriteria);
-		
-		return this.apiJsonSerializerService.serializeClientDataToJson(prettyPrint, responseParameters, clients);
-	}
-
-	private String getClientCriteria(String sqlSearch, Integer officeId,
-			String externalId, String displayName, String firstName,
-			String lastName, String hierarchy) {
-
-		String extraCriteria = "";
-
-		if (sqlSearch != null) {
-			extraCriteria = " and (" + sqlSearch + ")";
-		}
-
-		if (officeId != null) {
-			extraCriteria += " and office_id = " + officeId;
-		}
+		final ClientListPage page = this.clientReadPlatformService.retrieveAllIndividualClients(searchParameters);
 		
-		if (externalId != null) {
-			extraCriteria += " and external_id like " + sqlEncodeString(externalId);
-		}
-		
-		if (displayName != null) {
-			extraCriteria += " and concat(ifnull(firstname, ''), if(firstname > '',' ', '') , ifnull(lastname, '')) like "
-					+ sqlEncodeString(displayName);
-		}
+		final ResponseBuilder response = Response.ok().entity(
+				this.apiJsonSerializerService.streamClientDataToJson(prettyPrint, responseParameters, page.getClients()));
 		
-		if (firstName != null) {
-			extraCriteria += " and firstname like " + sqlEncodeString(firstName);
+		if (page.hasNextCursor()) {
+			response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toToken());
 		}
 		
-		if (lastName != null) {
-			extraCriteria += " and lastname like " + sqlEncodeString(lastName);
-		}
-		
-		if (hierarchy != null) {
-			extraCriteria += " and o.hierarchy like " + sqlEncodeString(hierarchy+"%");
-		}
-
-		if (StringUtils.isNotBlank(extraCriteria)) {
-			extraCriteria = extraCriteria.substring(4);
-		}
-
-		logger.info("extraCriteria; " + extraCriteria);
-
-		return extraCriteria;
+		return response.build();
 	}
 
-	private String sqlEncodeString(String str) {
-		String singleQuote = "'";
-		String twoSingleQuotes = "''";
-		return singleQuote
-				+ StringUtils.replace(str, singleQuote, twoSingleQuotes, -1)
-				+ singleQuote;
+	private void validateLimit(final Integer limit) {
+		if (limit != null && (limit.intValue() < 1 || limit.intValue() > MAXIMUM_LIMIT)) {
+			List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+			dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.client.limit.out.of.range",
+					"The parameter limit must be between 1 and " + MAXIMUM_LIMIT + ".", "limit", limit, 1, MAXIMUM_LIMIT));
+			throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
+		}
 	}
 
 	@GET
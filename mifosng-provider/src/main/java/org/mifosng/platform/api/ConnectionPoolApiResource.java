@@ -0,0 +1,44 @@
+package org.mifosng.platform.api;
+
+import java.util.Set;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.mifosng.platform.api.data.ConnectionPoolData;
+import org.mifosng.platform.api.infrastructure.ApiJsonSerializerService;
+import org.mifosng.platform.api.infrastructure.ApiParameterHelper;
+import org.mifosng.platform.infrastructure.ConnectionPoolReadPlatformService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/connectionpool")
+@Component
+@Scope("singleton")
+public class ConnectionPoolApiResource {
+
+	@Autowired
+	private ConnectionPoolReadPlatformService connectionPoolReadPlatformService;
+
+	@Autowired
+	private ApiJsonSerializerService apiJsonSerializerService;
+
+	@GET
+	@Consumes({MediaType.APPLICATION_JSON})
+	@Produces({MediaType.APPLICATION_JSON})
+	public String retrieveConnectionPool(@Context final UriInfo uriInfo) {
+
+		final Set<String> responseParameters = ApiParameterHelper.extractFieldsForResponseIfProvided(uriInfo.getQueryParameters());
+		final boolean prettyPrint = ApiParameterHelper.prettyPrint(uriInfo.getQueryParameters());
+
+		final ConnectionPoolData connectionPool = this.connectionPoolReadPlatformService.retrieveConnectionPoolOfTenant();
+
+		return this.apiJsonSerializerService.serializeConnectionPoolDataToJson(prettyPrint, responseParameters, connectionPool);
+	}
+}
@@ -1,5 +1,6 @@
 package org.mifosng.platform.api;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -145,7 +146,7 @@ public class LoanProductsApiResource {
 		if (template) {
 			responseParameters.addAll(Arrays.asList("currencyOptions", "amortizationTypeOptions", "interestTypeOptions", "interestCalculationPeriodTypeOptions", 
 					"repaymentFrequencyTypeOptions", "interestRateFrequencyTypeOptions", "fundOptions", "transactionProcessingStrategyOptions", "chargeOptions"));
-            Collection<ChargeData> chargeOptions = this.chargeReadPlatformService.retrieveLoanApplicableCharges();
+            Collection<ChargeData> chargeOptions = new ArrayList<ChargeData>(this.chargeReadPlatformService.retrieveLoanApplicableCharges());
             chargeOptions.removeAll(loanProduct.getCharges());
             loanProduct.setChargeOptions(chargeOptions);
 		}
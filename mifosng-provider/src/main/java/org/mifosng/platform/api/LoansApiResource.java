@@ -4,7 +4,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -38,6 +41,7 @@ import org.mifosng.platform.api.data.LoanChargeData;
 import org.mifosng.platform.api.data.LoanPermissionData;
 import org.mifosng.platform.api.data.LoanProductLookup;
 import org.mifosng.platform.api.data.LoanRepaymentTransactionData;
+import org.mifosng.platform.api.data.LoanTransactionIdentifier;
 import org.mifosng.platform.api.data.LoanTransactionData;
 import org.mifosng.platform.api.data.MoneyData;
 import org.mifosng.platform.api.data.StaffData;
@@ -48,6 +52,7 @@ import org.mifosng.platform.api.infrastructure.ApiParameterHelper;
 import org.mifosng.platform.charge.service.ChargeReadPlatformService;
 import org.mifosng.platform.exceptions.UnrecognizedQueryParamException;
 import org.mifosng.platform.fund.service.FundReadPlatformService;
+import org.mifosng.platform.infrastructure.TenantAwareTaskExecutor;
 import org.mifosng.platform.loan.service.CalculationPlatformService;
 import org.mifosng.platform.loan.service.LoanReadPlatformService;
 import org.mifosng.platform.loan.service.LoanWritePlatformService;
@@ -94,6 +99,9 @@ public class LoansApiResource {
 	@Autowired
 	private StaffReadPlatformService staffReadPlatformService;
 	
+	@Autowired
+	private TenantAwareTaskExecutor taskExecutor;
+	
 	private final static Set<String> typicalResponseParameters = new HashSet<String>(
 			Arrays.asList("id", "externalId", "clientId", "clientName", "fundId", "fundName",
 					"loanProductId", "loanProductName", "loanProductDescription", 
@@ -176,7 +184,74 @@ public class LoansApiResource {
 		}
 		boolean prettyPrint = ApiParameterHelper.prettyPrint(uriInfo.getQueryParameters());
 		
-		LoanBasicDetailsData loanBasicDetails = this.loanReadPlatformService.retrieveLoanAccountDetails(loanId);
+		final LoanBasicDetailsData loanBasicDetails = this.loanReadPlatformService.retrieveLoanAccountDetails(loanId);
+		
+		// the remaining reads only depend on the loan details so are run concurrently and joined below
+		final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
+		final boolean template = ApiParameterHelper.template(uriInfo.getQueryParameters());
+		
+		Future<Collection<LoanRepaymentTransactionData>> loanRepaymentsResult = null;
+		Future<LoanScheduleNewData> repaymentScheduleResult = null;
+		Future<Collection<LoanChargeData>> chargesResult = null;
+		if (!associationParameters.isEmpty()) {
+			loanRepaymentsResult = this.taskExecutor.submit(new Callable<Collection<LoanRepaymentTransactionData>>() {
+				@Override
+				public Collection<LoanRepaymentTransactionData> call() {
+					return loanReadPlatformService.retrieveLoanPayments(loanId);
+				}
+			});
+			repaymentScheduleResult = this.taskExecutor.submit(new Callable<LoanScheduleNewData>() {
+				@Override
+				public LoanScheduleNewData call() {
+					DisbursementData singleDisbursement = loanBasicDetails.toDisburementData();
+					return loanReadPlatformService.retrieveRepaymentSchedule(loanId, loanBasicDetails.getCurrency(), singleDisbursement);
+				}
+			});
+			chargesResult = this.taskExecutor.submit(new Callable<Collection<LoanChargeData>>() {
+				@Override
+				public Collection<LoanChargeData> call() {
+					return chargeReadPlatformService.retrieveLoanCharges(loanId);
+				}
+			});
+		}
+		
+		Future<Collection<LoanProductLookup>> productOptionsResult = null;
+		Future<Collection<FundData>> fundOptionsResult = null;
+		Future<Collection<TransactionProcessingStrategyData>> repaymentStrategyOptionsResult = null;
+		Future<Collection<ChargeData>> chargeOptionsResult = null;
+		Future<Collection<StaffData>> allowedLoanOfficersResult = null;
+		if (template) {
+			productOptionsResult = this.taskExecutor.submit(new Callable<Collection<LoanProductLookup>>() {
+				@Override
+				public Collection<LoanProductLookup> call() {
+					return loanProductReadPlatformService.retrieveAllLoanProductsForLookup();
+				}
+			});
+			fundOptionsResult = this.taskExecutor.submit(new Callable<Collection<FundData>>() {
+				@Override
+				public Collection<FundData> call() {
+					return fundReadPlatformService.retrieveAllFunds();
+				}
+			});
+			repaymentStrategyOptionsResult = this.taskExecutor.submit(new Callable<Collection<TransactionProcessingStrategyData>>() {
+				@Override
+				public Collection<TransactionProcessingStrategyData> call() {
+					return dropdownReadPlatformService.retreiveTransactionProcessingStrategies();
+				}
+			});
+			chargeOptionsResult = this.taskExecutor.submit(new Callable<Collection<ChargeData>>() {
+				@Override
+				public Collection<ChargeData> call() {
+					return chargeReadPlatformService.retrieveLoanApplicableCharges();
+				}
+			});
+			allowedLoanOfficersResult = this.taskExecutor.submit(new Callable<Collection<StaffData>>() {
+				@Override
+				public Collection<StaffData> call() {
+					return staffReadPlatformService.retrieveAllLoanOfficersByOffice(loanBasicDetails.getClientOfficeId());
+				}
+			});
+		}
 		
 		int loanRepaymentsCount = 0;
 		Collection<LoanRepaymentTransactionData> loanRepayments = null;
@@ -185,7 +260,6 @@ public class LoansApiResource {
         Collection<LoanChargeData> charges = null;
 
         boolean convenienceDataRequired = false;
-		final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
 		if (!associationParameters.isEmpty()) {
 			if (associationParameters.contains("all")) {
 				responseParameters.addAll(Arrays.asList("repaymentSchedule", "loanRepayments", "permissions", "convenienceData", "charges"));
@@ -193,13 +267,12 @@ public class LoansApiResource {
 				responseParameters.addAll(associationParameters);
 			}
 			
-			Collection<LoanRepaymentTransactionData> currentLoanRepayments = this.loanReadPlatformService.retrieveLoanPayments(loanId);
+			Collection<LoanRepaymentTransactionData> currentLoanRepayments = this.taskExecutor.join(loanRepaymentsResult);
 			if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
 				loanRepayments = currentLoanRepayments;
 				loanRepaymentsCount = loanRepayments.size();
 			}
-			DisbursementData singleDisbursement = loanBasicDetails.toDisburementData();
-			repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId, loanBasicDetails.getCurrency(), singleDisbursement);
+			repaymentSchedule = this.taskExecutor.join(repaymentScheduleResult);
 
 			MoneyData tolerance = MoneyData.of(loanBasicDetails.getCurrency(), loanBasicDetails.getInArrearsTolerance());
 			MoneyData totalOutstandingMoney = MoneyData.of(loanBasicDetails.getCurrency(), repaymentSchedule.totalOutstanding());
@@ -208,7 +281,7 @@ public class LoansApiResource {
 			permissions = this.loanReadPlatformService.retrieveLoanPermissions(loanBasicDetails, isWaiveAllowed, loanRepaymentsCount);
 			convenienceDataRequired = true;
 			
-            charges = this.chargeReadPlatformService.retrieveLoanCharges(loanId);
+            charges = this.taskExecutor.join(chargesResult);
             if (CollectionUtils.isEmpty(charges)) {
             	charges = null;
 			}
@@ -228,7 +301,6 @@ public class LoansApiResource {
 		ChargeData chargeTemplate = null;
 		Collection<StaffData> allowedLoanOfficers = null;
 
-		final boolean template = ApiParameterHelper.template(uriInfo.getQueryParameters());
 		if(template) {
 			responseParameters.addAll(
 						Arrays.asList("productOptions", "amortizationTypeOptions", "interestTypeOptions", "interestCalculationPeriodTypeOptions", 
@@ -236,7 +308,6 @@ public class LoansApiResource {
 						"repaymentStrategyOptions", "chargeOptions", "chargeTemplate", "loanOfficerOptions")
 			);
 			
-			productOptions = this.loanProductReadPlatformService.retrieveAllLoanProductsForLookup();
 			loanTermFrequencyTypeOptions = dropdownReadPlatformService.retrieveLoanTermFrequencyTypeOptions();
 			repaymentFrequencyTypeOptions = dropdownReadPlatformService.retrieveRepaymentFrequencyTypeOptions();
 			interestRateFrequencyTypeOptions = dropdownReadPlatformService.retrieveInterestRateFrequencyTypeOptions();
@@ -244,12 +315,13 @@ public class LoansApiResource {
 			amortizationTypeOptions = dropdownReadPlatformService.retrieveLoanAmortizationTypeOptions();
 			interestTypeOptions = dropdownReadPlatformService.retrieveLoanInterestTypeOptions();
 			interestCalculationPeriodTypeOptions = dropdownReadPlatformService.retrieveLoanInterestRateCalculatedInPeriodOptions();
-
-			fundOptions = this.fundReadPlatformService.retrieveAllFunds();
-			repaymentStrategyOptions = this.dropdownReadPlatformService.retreiveTransactionProcessingStrategies();
-			chargeOptions = this.chargeReadPlatformService.retrieveLoanApplicableCharges();
-			allowedLoanOfficers =  this.staffReadPlatformService.retrieveAllLoanOfficersByOffice(loanBasicDetails.getClientOfficeId());
 			chargeTemplate = this.chargeReadPlatformService.retrieveLoanChargeTemplate();
+
+			productOptions = this.taskExecutor.join(productOptionsResult);
+			fundOptions = this.taskExecutor.join(fundOptionsResult);
+			repaymentStrategyOptions = this.taskExecutor.join(repaymentStrategyOptionsResult);
+			chargeOptions = this.taskExecutor.join(chargeOptionsResult);
+			allowedLoanOfficers = this.taskExecutor.join(allowedLoanOfficersResult);
 		}
 		
 		final LoanAccountData loanAccount = new LoanAccountData(loanBasicDetails, convenienceDataRequired, 
@@ -409,6 +481,25 @@ public class LoansApiResource {
 		return response;
 	}
 
+	@POST
+	@Path("transactions")
+	@Consumes({ MediaType.APPLICATION_JSON })
+	@Produces({ MediaType.APPLICATION_JSON })
+	public String executeLoanTransactions(
+			@QueryParam("command") final String commandParam,
+			final String jsonRequestBody) {
+
+		if (!is(commandParam, "repayment")) {
+			throw new UnrecognizedQueryParamException("command", commandParam);
+		}
+
+		final List<LoanTransactionCommand> commands = this.apiDataConversionService.convertJsonToLoanTransactionCommands(jsonRequestBody);
+
+		final List<LoanTransactionIdentifier> identifiers = this.loanWritePlatformService.makeLoanRepayments(commands);
+
+		return this.apiJsonSerializerService.serializeLoanTransactionIdentifiers(identifiers);
+	}
+
 	@GET
 	@Path("{loanId}/transactions/template")
 	@Consumes({ MediaType.APPLICATION_JSON })
@@ -1,22 +1,27 @@
 package org.mifosng.platform.api;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
-import org.mifosng.platform.api.data.GenericResultsetData;
 import org.mifosng.platform.api.infrastructure.ApiJsonSerializerService;
 import org.mifosng.platform.api.infrastructure.ApiParameterHelper;
 import org.mifosng.platform.exceptions.NoAuthorizationException;
@@ -48,7 +53,8 @@ public class ReportsApiResource {
 	@GET
 	@Consumes({ MediaType.APPLICATION_JSON })
 	@Produces({ MediaType.APPLICATION_JSON, "application/x-msdownload" })
-	public Response retrieveReportList(@Context final UriInfo uriInfo) {
+	public Response retrieveReportList(@Context final UriInfo uriInfo,
+			@HeaderParam(HttpHeaders.ACCEPT_ENCODING) final String acceptEncoding) {
 
 		Map<String, String> extractedQueryParams = new HashMap<String, String>();
 
@@ -58,11 +64,8 @@ public class ReportsApiResource {
 				.getQueryParameters());
 
 		if (!exportCsv) {
-			GenericResultsetData result = this.readExtraDataAndReportingService
-					.retrieveGenericResultset(".", ".", extractedQueryParams);
-
-			final String json = this.apiJsonSerializerService
-					.serializeGenericResultsetDataToJson(prettyPrint, result);
+			final StreamingOutput json = streamedJsonFor(".", ".",
+					extractedQueryParams, prettyPrint);
 
 			return Response.ok().entity(json).build();
 		}
@@ -70,9 +73,7 @@ public class ReportsApiResource {
 		StreamingOutput result = this.readExtraDataAndReportingService
 				.retrieveReportCSV(".", ".", extractedQueryParams);
 
-		return Response
-				.ok()
-				.entity(result)
+		return csvResponse(result, acceptEncoding)
 				.header("Content-Disposition",
 						"attachment;filename=ReportList.csv").build();
 	}
@@ -84,7 +85,8 @@ public class ReportsApiResource {
 			"application/vnd.ms-excel", "application/pdf", "text/html" })
 	public Response retrieveReport(
 			@PathParam("reportName") final String reportName,
-			@Context final UriInfo uriInfo) {
+			@Context final UriInfo uriInfo,
+			@HeaderParam(HttpHeaders.ACCEPT_ENCODING) final String acceptEncoding) {
 
 		MultivaluedMap<String, String> queryParams = uriInfo
 				.getQueryParameters();
@@ -119,12 +121,8 @@ public class ReportsApiResource {
 			Map<String, String> reportParams = getReportParams(queryParams,
 					false);
 
-			GenericResultsetData result = this.readExtraDataAndReportingService
-					.retrieveGenericResultset(reportName, parameterTypeValue,
-							reportParams);
-
-			final String json = this.apiJsonSerializerService
-					.serializeGenericResultsetDataToJson(prettyPrint, result);
+			final StreamingOutput json = streamedJsonFor(reportName,
+					parameterTypeValue, reportParams, prettyPrint);
 
 			return Response.ok().entity(json).type(MediaType.APPLICATION_JSON)
 					.build();
@@ -135,15 +133,56 @@ public class ReportsApiResource {
 		StreamingOutput result = this.readExtraDataAndReportingService
 				.retrieveReportCSV(reportName, parameterTypeValue, reportParams);
 
-		return Response
-				.ok()
-				.entity(result)
+		return csvResponse(result, acceptEncoding)
 				.type("application/x-msdownload")
 				.header("Content-Disposition",
 						"attachment;filename=" + reportName.replaceAll(" ", "")
 								+ ".csv").build();
 	}
 
+	private StreamingOutput streamedJsonFor(final String name,
+			final String type, final Map<String, String> reportParams,
+			final boolean prettyPrint) {
+
+		return new StreamingOutput() {
+			@Override
+			public void write(final OutputStream output) throws IOException {
+				readExtraDataAndReportingService.processGenericResultset(name,
+						type, reportParams, apiJsonSerializerService
+								.streamGenericResultsetDataToJson(prettyPrint,
+										output));
+			}
+		};
+	}
+
+	/*
+	 * csv exports can be large so are compressed when the client accepts it.
+	 * The gzip stream of java 6 cannot sync flush, so compressed output reaches
+	 * the client as the deflater fills its buffer rather than on each flush of
+	 * the csv writer.
+	 */
+	private ResponseBuilder csvResponse(final StreamingOutput csv,
+			final String acceptEncoding) {
+
+		if (acceptEncoding == null
+				|| !acceptEncoding.toLowerCase().contains("gzip")) {
+			return Response.ok().entity(csv);
+		}
+
+		final StreamingOutput gzippedCsv = new StreamingOutput() {
+			@Override
+			public void write(final OutputStream output) throws IOException {
+				GZIPOutputStream gzipOutput = new GZIPOutputStream(output);
+				csv.write(gzipOutput);
+				gzipOutput.finish();
+			}
+		};
+
+		return Response.ok().entity(gzippedCsv)
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+	}
+
 	private void checkUserPermissionForReport(String reportName,
 			boolean parameterType) {
 
@@ -1,5 +1,7 @@
 package org.mifosng.platform.api.data;
 
+import java.math.BigDecimal;
+
 /**
  * Immutable data object for client loan accounts.
  */
@@ -10,6 +12,8 @@ public class ClientAccountSummaryData {
 	private final Long productId;
 	private final String productName;
 	private final Integer accountStatusId;
+	private final BigDecimal totalOutstanding;
+	private final BigDecimal totalOverdue;
 
 	public ClientAccountSummaryData(
 			final Long id, 
@@ -17,11 +21,24 @@ public class ClientAccountSummaryData {
 			final Long productId, 
 			final String loanProductName, 
 			final Integer loanStatusId) {
+		this(id, externalId, productId, loanProductName, loanStatusId, null, null);
+	}
+
+	public ClientAccountSummaryData(
+			final Long id, 
+			final String externalId,
+			final Long productId, 
+			final String loanProductName, 
+			final Integer loanStatusId,
+			final BigDecimal totalOutstanding,
+			final BigDecimal totalOverdue) {
 		this.id = id;
 		this.externalId = externalId;
 		this.productId = productId;
 		this.productName = loanProductName;
 		this.accountStatusId = loanStatusId;
+		this.totalOutstanding = totalOutstanding;
+		this.totalOverdue = totalOverdue;
 	}
 
 	public Long getId() {
@@ -43,4 +60,12 @@ public class ClientAccountSummaryData {
 	public Integer getAccountStatusId() {
 		return accountStatusId;
 	}
+
+	public BigDecimal getTotalOutstanding() {
+		return totalOutstanding;
+	}
+
+	public BigDecimal getTotalOverdue() {
+		return totalOverdue;
+	}
 }
\ No newline at end of file
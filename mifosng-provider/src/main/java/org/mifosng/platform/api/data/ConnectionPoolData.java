@@ -0,0 +1,80 @@
+package org.mifosng.platform.api.data;
+
+import java.util.List;
+
+/**
+ * Immutable data object representing the state of the connection pool of a tenant.
+ */
+public class ConnectionPoolData {
+
+	private final String name;
+	private final boolean started;
+	private final int initialSize;
+	private final int minIdle;
+	private final int maxIdle;
+	private final int maxActive;
+	private final int size;
+	private final int active;
+	private final int idle;
+	private final int waiting;
+	private final List<SlowQueryData> slowQueries;
+
+	public ConnectionPoolData(final String name, final boolean started, final int initialSize, final int minIdle, final int maxIdle, final int maxActive,
+			final int size, final int active, final int idle, final int waiting, final List<SlowQueryData> slowQueries) {
+		this.name = name;
+		this.started = started;
+		this.initialSize = initialSize;
+		this.minIdle = minIdle;
+		this.maxIdle = maxIdle;
+		this.maxActive = maxActive;
+		this.size = size;
+		this.active = active;
+		this.idle = idle;
+		this.waiting = waiting;
+		this.slowQueries = slowQueries;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isStarted() {
+		return started;
+	}
+
+	public int getInitialSize() {
+		return initialSize;
+	}
+
+	public int getMinIdle() {
+		return minIdle;
+	}
+
+	public int getMaxIdle() {
+		return maxIdle;
+	}
+
+	public int getMaxActive() {
+		return maxActive;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public int getActive() {
+		return active;
+	}
+
+	public int getIdle() {
+		return idle;
+	}
+
+	public int getWaiting() {
+		return waiting;
+	}
+
+	public List<SlowQueryData> getSlowQueries() {
+		return slowQueries;
+	}
+}
@@ -0,0 +1,36 @@
+package org.mifosng.platform.api.data;
+
+/**
+ * Identifies a transaction made on a loan by a bulk request (e.g. a repayment
+ * of a collection sheet).
+ */
+public class LoanTransactionIdentifier {
+
+	private Long loanId;
+	private Long transactionId;
+
+	public LoanTransactionIdentifier() {
+		//
+	}
+
+	public LoanTransactionIdentifier(final Long loanId, final Long transactionId) {
+		this.loanId = loanId;
+		this.transactionId = transactionId;
+	}
+
+	public Long getLoanId() {
+		return this.loanId;
+	}
+
+	public void setLoanId(final Long loanId) {
+		this.loanId = loanId;
+	}
+
+	public Long getTransactionId() {
+		return this.transactionId;
+	}
+
+	public void setTransactionId(final Long transactionId) {
+		this.transactionId = transactionId;
+	}
+}
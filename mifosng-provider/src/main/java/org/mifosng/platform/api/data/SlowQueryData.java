@@ -0,0 +1,41 @@
+package org.mifosng.platform.api.data;
+
+/**
+ * Immutable data object representing the statistics of a query reported as slow by a connection pool.
+ */
+public class SlowQueryData {
+
+	private final String query;
+	private final int invocations;
+	private final int failures;
+	private final long maxInvocationTime;
+	private final long averageInvocationTime;
+
+	public SlowQueryData(final String query, final int invocations, final int failures, final long maxInvocationTime, final long averageInvocationTime) {
+		this.query = query;
+		this.invocations = invocations;
+		this.failures = failures;
+		this.maxInvocationTime = maxInvocationTime;
+		this.averageInvocationTime = averageInvocationTime;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public int getInvocations() {
+		return invocations;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	public long getMaxInvocationTime() {
+		return maxInvocationTime;
+	}
+
+	public long getAverageInvocationTime() {
+		return averageInvocationTime;
+	}
+}
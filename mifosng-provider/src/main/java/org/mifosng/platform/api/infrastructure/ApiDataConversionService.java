@@ -1,5 +1,7 @@
 package org.mifosng.platform.api.infrastructure;
 
+import java.util.List;
+
 import org.mifosng.platform.api.commands.AdjustLoanTransactionCommand;
 import org.mifosng.platform.api.commands.BranchMoneyTransferCommand;
 import org.mifosng.platform.api.commands.ChargeCommand;
@@ -51,6 +53,8 @@ public interface ApiDataConversionService {
 
 	LoanStateTransitionCommand convertJsonToLoanStateTransitionCommand(Long resourceIdentifier, String jsonRequestBody);
 
+	List<LoanTransactionCommand> convertJsonToLoanTransactionCommands(String json);
+
 	LoanTransactionCommand convertJsonToLoanTransactionCommand(Long resourceIdentifier, String jsonRequestBody);
 
 	AdjustLoanTransactionCommand convertJsonToAdjustLoanTransactionCommand(
@@ -58,7 +58,15 @@ import com.google.gson.reflect.TypeToken;
 @Service
 public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 
+	/**
+	 * Repayments made together run in one transaction holding the lock of
+	 * every loan, so a request may only make this many.
+	 */
+	static final int MAXIMUM_NUMBER_OF_LOAN_TRANSACTIONS = 500;
+
 	private final Gson gsonConverter;
+	private final JsonParser parser = new JsonParser();
+	private final JsonParserHelper helper = new JsonParserHelper();
 	
 	public ApiDataConversionServiceImpl() {
 		gsonConverter = new Gson();
@@ -193,7 +201,6 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 	    Set<String> modifiedParameters = new HashSet<String>();
 	    
 	    // check array
-	    JsonParser parser = new JsonParser();
 		
 		String[] permissionIds = null;
 		JsonElement element = parser.parse(json);
@@ -243,7 +250,6 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 	    Long officeId = extractLongParameter("officeId", requestMap, modifiedParameters);
 	    
 	    // check array
-	    JsonParser parser = new JsonParser();
 		
 		String[] notSelectedRoles = null;
 		String[] roles = null;
@@ -349,7 +355,6 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
         String name = extractStringParameter("name", requestMap, modifiedParameters);
 
         // check array
-        JsonParser parser = new JsonParser();
         
         String[] clientMembers = null;
         JsonElement element = parser.parse(json);
@@ -410,7 +415,6 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 	    Integer interestCalculationPeriodTypeValue = extractIntegerParameter("interestCalculationPeriodType", requestMap, modifiedParameters);
 
         // check array
-        JsonParser parser = new JsonParser();
 
         String[] charges = null;
         JsonElement element = parser.parse(json);
@@ -455,9 +459,7 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 	    
 	    Set<String> modifiedParameters = new HashSet<String>();
 	    
-	    JsonParser parser = new JsonParser();
 	    JsonElement element = parser.parse(json);
-	    JsonParserHelper helper = new JsonParserHelper();
 	    
 	    final Long clientId = helper.extractLongNamed("clientId", element, modifiedParameters);
 	    final Long productId = helper.extractLongNamed("productId", element, modifiedParameters);
@@ -545,6 +547,74 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 	    return new LoanStateTransitionCommand(resourceIdentifier, eventDate, note);
 	}
 	
+	@Override
+	public List<LoanTransactionCommand> convertJsonToLoanTransactionCommands(final String json) {
+		if (StringUtils.isBlank(json)) {
+			throw new InvalidJsonException();
+		}
+		
+		// parsed once, the request map and each transaction are read from the parsed tree
+		JsonElement element = this.parser.parse(json);
+		
+		Type typeOfMap = new TypeToken<Map<String, Object>>(){}.getType();
+	    Map<String, Object> requestMap = gsonConverter.fromJson(element, typeOfMap);
+	    
+	    Set<String> supportedParams = new HashSet<String>(
+	    		Arrays.asList("transactions", "dateFormat", "locale")
+	    );
+	    
+	    checkForUnsupportedParameters(requestMap, supportedParams);
+	    
+	    Set<String> supportedTransactionParams = new HashSet<String>(
+	    		Arrays.asList("loanId", "transactionDate", "transactionAmount", "note")
+	    );
+	    
+	    List<LoanTransactionCommand> commands = new ArrayList<LoanTransactionCommand>();
+	    
+	    if (element.isJsonObject()) {
+	    	JsonObject object = element.getAsJsonObject();
+	    	if (object.has("transactions") && object.get("transactions").isJsonArray()) {
+	    		JsonArray array = object.get("transactions").getAsJsonArray();
+	    		if (array.size() > MAXIMUM_NUMBER_OF_LOAN_TRANSACTIONS) {
+	    			List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+	    			dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.loan.transaction.transactions.exceeds.max.length",
+	    					"The parameter transactions exceeds max length of " + MAXIMUM_NUMBER_OF_LOAN_TRANSACTIONS + ".", "transactions",
+	    					MAXIMUM_NUMBER_OF_LOAN_TRANSACTIONS, array.size()));
+	    			throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
+	    		}
+	    		for (int i = 0; i < array.size(); i++) {
+	    			Map<String, Object> transactionRequestMap = gsonConverter.fromJson(array.get(i), typeOfMap);
+	    			checkForUnsupportedParameters(transactionRequestMap, supportedTransactionParams);
+	    			
+	    			// date format and locale apply to all transactions
+	    			if (requestMap.containsKey("dateFormat")) {
+	    				transactionRequestMap.put("dateFormat", requestMap.get("dateFormat"));
+	    			}
+	    			if (requestMap.containsKey("locale")) {
+	    				transactionRequestMap.put("locale", requestMap.get("locale"));
+	    			}
+	    			Set<String> modifiedParameters = new HashSet<String>();
+	    			
+	    			Long loanId = extractLongParameter("loanId", transactionRequestMap, modifiedParameters);
+	    			LocalDate transactionDate = extractLocalDateParameter("transactionDate", transactionRequestMap, modifiedParameters);
+	    			BigDecimal transactionAmount = extractBigDecimalParameter("transactionAmount", transactionRequestMap, modifiedParameters);
+	    			String note = extractStringParameter("note", transactionRequestMap, modifiedParameters);
+	    			
+	    			commands.add(new LoanTransactionCommand(loanId, transactionDate, transactionAmount, note));
+	    		}
+	    	}
+	    }
+	    
+	    if (commands.isEmpty()) {
+	    	List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+	    	dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.loan.transaction.transactions.cannot.be.empty",
+	    			"The parameter transactions cannot be empty.", "transactions"));
+	    	throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
+	    }
+	    
+	    return commands;
+	}
+	
 	@Override
 	public LoanTransactionCommand convertJsonToLoanTransactionCommand(final Long resourceIdentifier, final String json) {
 		if (StringUtils.isBlank(json)) {
@@ -635,7 +705,6 @@ public class ApiDataConversionServiceImpl implements ApiDataConversionService {
 	    Set<String> modifiedParameters = new HashSet<String>();
 
 	    // check array
-	    JsonParser parser = new JsonParser();
 		
 		String[] currencies = null;
 		JsonElement element = parser.parse(json);
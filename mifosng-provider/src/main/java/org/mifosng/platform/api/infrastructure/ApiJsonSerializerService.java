@@ -1,8 +1,13 @@
 package org.mifosng.platform.api.infrastructure;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.mifosng.platform.api.LoanScheduleNewData;
 import org.mifosng.platform.api.data.AdditionalFieldsSetData;
 import org.mifosng.platform.api.data.AppUserData;
@@ -11,6 +16,7 @@ import org.mifosng.platform.api.data.ChargeData;
 import org.mifosng.platform.api.data.ClientAccountSummaryCollectionData;
 import org.mifosng.platform.api.data.ClientData;
 import org.mifosng.platform.api.data.ConfigurationData;
+import org.mifosng.platform.api.data.ConnectionPoolData;
 import org.mifosng.platform.api.data.DatatableData;
 import org.mifosng.platform.api.data.DepositAccountData;
 import org.mifosng.platform.api.data.DepositProductData;
@@ -21,6 +27,7 @@ import org.mifosng.platform.api.data.GroupData;
 import org.mifosng.platform.api.data.LoanAccountData;
 import org.mifosng.platform.api.data.LoanProductData;
 import org.mifosng.platform.api.data.LoanTransactionData;
+import org.mifosng.platform.api.data.LoanTransactionIdentifier;
 import org.mifosng.platform.api.data.NoteData;
 import org.mifosng.platform.api.data.OfficeData;
 import org.mifosng.platform.api.data.OfficeTransactionData;
@@ -28,6 +35,7 @@ import org.mifosng.platform.api.data.PermissionData;
 import org.mifosng.platform.api.data.RoleData;
 import org.mifosng.platform.api.data.SavingProductData;
 import org.mifosng.platform.api.data.StaffData;
+import org.mifosng.platform.noncore.GenericResultsetRowHandler;
 
 public interface ApiJsonSerializerService {
 
@@ -35,6 +43,8 @@ public interface ApiJsonSerializerService {
 	
 	String serializeGenericResultsetDataToJson(boolean prettyPrint, GenericResultsetData result);
 
+	GenericResultsetRowHandler streamGenericResultsetDataToJson(boolean prettyPrint, OutputStream output) throws IOException;
+
 	String serializeAdditionalFieldsSetDataToJson(boolean prettyPrint, Collection<AdditionalFieldsSetData> result);
 	
 	String serializeDatatableDataToJson(boolean prettyPrint, Collection<DatatableData> result);
@@ -81,6 +91,8 @@ public interface ApiJsonSerializerService {
 
 	String serializeClientDataToJson(boolean prettyPrint, Set<String> responseParameters, Collection<ClientData> clients);
 
+	StreamingOutput streamClientDataToJson(boolean prettyPrint, Set<String> responseParameters, Collection<ClientData> clients);
+
 	String serializeClientDataToJson(boolean prettyPrint, Set<String> responseParameters, ClientData clientData);
 
 	String serializeClientAccountSummaryCollectionDataToJson(boolean prettyPrint, Set<String> responseParameters, ClientAccountSummaryCollectionData clientAccount);
@@ -108,4 +120,8 @@ public interface ApiJsonSerializerService {
 	String serializeStaffDataToJson(boolean prettyPrint, Set<String> responseParameters, Collection<StaffData> staff);
 
 	String serializeEntityIdentifier(EntityIdentifier identifier);
+
+	String serializeLoanTransactionIdentifiers(List<LoanTransactionIdentifier> identifiers);
+
+	String serializeConnectionPoolDataToJson(boolean prettyPrint, Set<String> responseParameters, ConnectionPoolData connectionPool);
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package org.mifosng.platform.api.infrastructure;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.List;
+
+import org.mifosng.platform.api.data.GenericResultsetData;
+import org.mifosng.platform.api.data.ResultsetColumnHeader;
+import org.mifosng.platform.noncore.GenericResultsetRowHandler;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes the rows of a generic resultset to the response as they are read
+ * from the database. The JSON written is the same as serializing
+ * {@link GenericResultsetData} with {@link Gson}.
+ */
+public class GenericResultsetDataJsonWriter implements GenericResultsetRowHandler {
+
+	private final Gson serializer;
+	private final JsonWriter writer;
+
+	public GenericResultsetDataJsonWriter(final Gson serializer, final boolean prettyPrint, final OutputStream output) throws IOException {
+		this.serializer = serializer;
+		this.writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, "UTF-8")));
+		// match gson defaults for values written directly
+		this.writer.setHtmlSafe(true);
+		if (prettyPrint) {
+			this.writer.setIndent("  ");
+		}
+	}
+
+	@Override
+	public void processColumnHeaders(final List<ResultsetColumnHeader> columnHeaders) throws IOException {
+		this.writer.beginObject();
+		this.writer.name("columnHeaders");
+		this.writer.beginArray();
+		for (ResultsetColumnHeader columnHeader : columnHeaders) {
+			this.serializer.toJson(columnHeader, ResultsetColumnHeader.class, this.writer);
+		}
+		this.writer.endArray();
+		this.writer.name("data");
+		this.writer.beginArray();
+	}
+
+	@Override
+	public void processRow(final String[] columnValues) throws IOException {
+		this.writer.beginObject();
+		this.writer.name("row");
+		this.writer.beginArray();
+		for (String columnValue : columnValues) {
+			if (columnValue == null) {
+				this.writer.nullValue();
+			} else {
+				this.writer.value(columnValue);
+			}
+		}
+		this.writer.endArray();
+		this.writer.endObject();
+	}
+
+	@Override
+	public void processEnd() throws IOException {
+		this.writer.endArray();
+		this.writer.endObject();
+		this.writer.flush();
+	}
+}
@@ -1,10 +1,15 @@
 package org.mifosng.platform.api.infrastructure;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.mifosng.platform.api.LoanScheduleNewData;
 import org.mifosng.platform.api.data.AdditionalFieldsSetData;
 import org.mifosng.platform.api.data.AppUserData;
@@ -13,6 +18,7 @@ import org.mifosng.platform.api.data.ChargeData;
 import org.mifosng.platform.api.data.ClientAccountSummaryCollectionData;
 import org.mifosng.platform.api.data.ClientData;
 import org.mifosng.platform.api.data.ConfigurationData;
+import org.mifosng.platform.api.data.ConnectionPoolData;
 import org.mifosng.platform.api.data.DatatableData;
 import org.mifosng.platform.api.data.DepositAccountData;
 import org.mifosng.platform.api.data.DepositProductData;
@@ -23,6 +29,7 @@ import org.mifosng.platform.api.data.GroupData;
 import org.mifosng.platform.api.data.LoanAccountData;
 import org.mifosng.platform.api.data.LoanProductData;
 import org.mifosng.platform.api.data.LoanTransactionData;
+import org.mifosng.platform.api.data.LoanTransactionIdentifier;
 import org.mifosng.platform.api.data.NoteData;
 import org.mifosng.platform.api.data.OfficeData;
 import org.mifosng.platform.api.data.OfficeTransactionData;
@@ -30,6 +37,7 @@ import org.mifosng.platform.api.data.PermissionData;
 import org.mifosng.platform.api.data.RoleData;
 import org.mifosng.platform.api.data.SavingProductData;
 import org.mifosng.platform.api.data.StaffData;
+import org.mifosng.platform.noncore.GenericResultsetRowHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -62,6 +70,9 @@ public class GoogleGsonApiJsonSerializerService implements ApiJsonSerializerServ
 					"description", "allowedOffices", "currencyOptions"));
 	private static final Set<String> CONFIGURATION_DATA_PARAMETERS = new HashSet<String>(
 			Arrays.asList("selectedCurrencyOptions", "currencyOptions"));
+	private static final Set<String> CONNECTION_POOL_DATA_PARAMETERS = new HashSet<String>(
+			Arrays.asList("name", "started", "initialSize", "minIdle", "maxIdle",
+					"maxActive", "size", "active", "idle", "waiting", "slowQueries"));
 	private static final Set<String> FUND_DATA_PARAMETERS = new HashSet<String>(
 			Arrays.asList("id", "name", "externalId"));
 	private static final Set<String> STAFF_DATA_PARAMETERS = new HashSet<String>(
@@ -168,6 +179,12 @@ public class GoogleGsonApiJsonSerializerService implements ApiJsonSerializerServ
 					"chargeCalculationType", "chargeCalculationTypeOptions",
                     "chargeAppliesToOptions", "chargeTimeTypeOptions", "currencyOptions"));
 
+	private static final Set<String> ENTITY_IDENTIFIER_DATA_PARAMETERS = new HashSet<String>(
+			Arrays.asList("entityId"));
+
+	private static final Set<String> LOAN_TRANSACTION_IDENTIFIER_DATA_PARAMETERS = new HashSet<String>(
+			Arrays.asList("loanId", "transactionId"));
+
 	private final GoogleGsonSerializerHelper helper;
 
 	@Autowired
@@ -192,6 +209,13 @@ public class GoogleGsonApiJsonSerializerService implements ApiJsonSerializerServ
 		return helper.serializedJsonFrom(gsonDeserializer, resultsetData);
 	}
 
+	@Override
+	public GenericResultsetRowHandler streamGenericResultsetDataToJson(
+			final boolean prettyPrint, final OutputStream output) throws IOException {
+		final Gson gsonDeserializer = helper.createGsonBuilder(prettyPrint);
+		return new GenericResultsetDataJsonWriter(gsonDeserializer, prettyPrint, output);
+	}
+
 	@Override
 	public String serializeAdditionalFieldsSetDataToJson(
 			final boolean prettyPrint,
@@ -439,6 +463,16 @@ public class GoogleGsonApiJsonSerializerService implements ApiJsonSerializerServ
 				clients.toArray(new ClientData[clients.size()]));
 	}
 
+	@Override
+	public StreamingOutput streamClientDataToJson(final boolean prettyPrint,
+			final Set<String> responseParameters,
+			final Collection<ClientData> clients) {
+		final Gson gsonDeserializer = helper
+				.createGsonBuilderWithParameterExclusionSerializationStrategy(
+						CLIENT_DATA_PARAMETERS, prettyPrint, responseParameters);
+		return helper.streamedJsonFrom(gsonDeserializer, prettyPrint, clients);
+	}
+
 	@Override
 	public String serializeClientDataToJson(final boolean prettyPrint,
 			final Set<String> responseParameters, final ClientData client) {
@@ -569,8 +603,26 @@ public class GoogleGsonApiJsonSerializerService implements ApiJsonSerializerServ
 
 	@Override
 	public String serializeEntityIdentifier(final EntityIdentifier identifier) {
-		final Set<String> DATA_PARAMETERS = new HashSet<String>(Arrays.asList("entityId"));
-		final Gson gsonDeserializer = helper.createGsonBuilderWithParameterExclusionSerializationStrategy(DATA_PARAMETERS, false, DATA_PARAMETERS);
+		final Gson gsonDeserializer = helper.createGsonBuilderWithParameterExclusionSerializationStrategy(ENTITY_IDENTIFIER_DATA_PARAMETERS, false,
+				ENTITY_IDENTIFIER_DATA_PARAMETERS);
 		return helper.serializedJsonFrom(gsonDeserializer, identifier);
 	}
+
+	@Override
+	public String serializeLoanTransactionIdentifiers(final List<LoanTransactionIdentifier> identifiers) {
+		final Gson gsonDeserializer = helper.createGsonBuilderWithParameterExclusionSerializationStrategy(
+				LOAN_TRANSACTION_IDENTIFIER_DATA_PARAMETERS, false, LOAN_TRANSACTION_IDENTIFIER_DATA_PARAMETERS);
+		return helper.serializedJsonFrom(gsonDeserializer, identifiers.toArray(new LoanTransactionIdentifier[identifiers.size()]));
+	}
+
+	@Override
+	public String serializeConnectionPoolDataToJson(final boolean prettyPrint,
+			final Set<String> responseParameters,
+			final ConnectionPoolData connectionPool) {
+		final Gson gsonDeserializer = helper
+				.createGsonBuilderWithParameterExclusionSerializationStrategy(
+						CONNECTION_POOL_DATA_PARAMETERS, prettyPrint,
+						responseParameters);
+		return helper.serializedJsonFrom(gsonDeserializer, connectionPool);
+	}
 }
\ No newline at end of file
@@ -1,56 +1,137 @@
 package org.mifosng.platform.api.infrastructure;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.api.errorhandling.UnsupportedParameterException;
+import org.mifosng.platform.infrastructure.PlatformCache;
 import org.springframework.stereotype.Service;
 
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Helper class for serialization of java objects into JSON using google-gson.
+ *
+ * {@link Gson} instances are thread-safe and relatively expensive to build
+ * (each one builds its own reflective type adapters) so they are built once
+ * and reused: one without exclusions and, for responses limited to requested
+ * fields, one for each distinct request of a data type. The latter are kept
+ * in a bounded cache that evicts the least recently used.
  */
 @Service
 public class GoogleGsonSerializerHelper {
 
+	private static final int DEFAULT_MAXIMUM_CACHED_SERIALIZERS = 1000;
+
+	private final Gson serializer = buildGson(Collections.<String> emptySet(), false);
+	private final Gson prettyPrintSerializer = buildGson(Collections.<String> emptySet(), true);
+	private final PlatformCache<SerializerKey, Gson> serializersWithExclusions;
+
+	public GoogleGsonSerializerHelper() {
+		this(DEFAULT_MAXIMUM_CACHED_SERIALIZERS);
+	}
+
+	GoogleGsonSerializerHelper(final int maximumCachedSerializers) {
+		this.serializersWithExclusions = PlatformCache.shared(PlatformCache.NEVER_EXPIRES, maximumCachedSerializers);
+	}
+
 	public Gson createGsonBuilder(final boolean prettyPrint) {
-		final GsonBuilder builder = new GsonBuilder();
-		builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
-		builder.registerTypeAdapter(DateTime.class, new JodaDateTimeAdapter());
-		if (prettyPrint) {
-			builder.setPrettyPrinting();
-		}
-		return builder.create();
+		return prettyPrint ? this.prettyPrintSerializer : this.serializer;
 	}
-	
+
+	/**
+	 * Returns the serializer of a data type that only writes the requested
+	 * response parameters, or all parameters when none are requested.
+	 * 
+	 * The supported parameters identify the data type; a request for
+	 * unsupported parameters is never cached so always raises
+	 * {@link UnsupportedParameterException}.
+	 */
 	public Gson createGsonBuilderWithParameterExclusionSerializationStrategy(
-			final Set<String> supportedParameters, 
+			final Set<String> supportedParameters,
 			final boolean prettyPrint,
 			final Set<String> responseParameters) {
 
-		final Set<String> parameterNamesToSkip = new HashSet<String>();
+		if (responseParameters.isEmpty()) {
+			return createGsonBuilder(prettyPrint);
+		}
+
+		Gson gson = this.serializersWithExclusions.get(new SerializerKey(supportedParameters, responseParameters, prettyPrint));
+		if (gson == null) {
+			gson = buildGson(parameterNamesToSkip(supportedParameters, responseParameters), prettyPrint);
+			final SerializerKey key = new SerializerKey(new HashSet<String>(supportedParameters), new HashSet<String>(responseParameters), prettyPrint);
+			this.serializersWithExclusions.put(key, gson);
+		}
+		return gson;
+	}
 
-		if (!responseParameters.isEmpty()) {
+	int getNumberOfCachedSerializers() {
+		return this.serializersWithExclusions.getSize();
+	}
 
-			// strip out all know support parameters from expected response to
-			// see if unsupported parameters requested for response.
-			final Set<String> differentParametersDetectedSet = new HashSet<String>(responseParameters);
-			differentParametersDetectedSet.removeAll(supportedParameters);
+	private static Set<String> parameterNamesToSkip(final Set<String> supportedParameters, final Set<String> responseParameters) {
 
-			if (!differentParametersDetectedSet.isEmpty()) {
-				throw new UnsupportedParameterException(new ArrayList<String>(differentParametersDetectedSet));
-			}
+		// strip out all know support parameters from expected response to
+		// see if unsupported parameters requested for response.
+		final Set<String> differentParametersDetectedSet = new HashSet<String>(responseParameters);
+		differentParametersDetectedSet.removeAll(supportedParameters);
 
-			parameterNamesToSkip.addAll(supportedParameters);
-			parameterNamesToSkip.removeAll(responseParameters);
+		if (!differentParametersDetectedSet.isEmpty()) {
+			throw new UnsupportedParameterException(new ArrayList<String>(differentParametersDetectedSet));
 		}
 
+		final Set<String> parameterNamesToSkip = new HashSet<String>(supportedParameters);
+		parameterNamesToSkip.removeAll(responseParameters);
+
+		return parameterNamesToSkip;
+	}
+
+	public String serializedJsonFrom(final Gson serializer, final Object[] dataObjects) {
+		return serializer.toJson(dataObjects);
+	}
+
+	public String serializedJsonFrom(final Gson serializer, final Object singleDataObject) {
+		return serializer.toJson(singleDataObject);
+	}
+
+	/**
+	 * Returns a {@link StreamingOutput} that writes the data objects as a JSON
+	 * array element by element directly to the response rather than building
+	 * the entire response as a {@link String} first.
+	 */
+	public StreamingOutput streamedJsonFrom(final Gson serializer, final boolean prettyPrint, final Collection<?> dataObjects) {
+		return new StreamingOutput() {
+			@Override
+			public void write(final OutputStream output) throws IOException {
+				final JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, "UTF-8")));
+				if (prettyPrint) {
+					writer.setIndent("  ");
+				}
+				writer.beginArray();
+				for (Object dataObject : dataObjects) {
+					serializer.toJson(dataObject, dataObject.getClass(), writer);
+				}
+				writer.endArray();
+				writer.flush();
+			}
+		};
+	}
+
+	private static Gson buildGson(final Set<String> parameterNamesToSkip, final boolean prettyPrint) {
 		final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
 
 		final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
@@ -62,11 +143,40 @@ public class GoogleGsonSerializerHelper {
 		return builder.create();
 	}
 
-	public String serializedJsonFrom(final Gson serializer, final Object[] dataObjects) {
-		return serializer.toJson(dataObjects);
-	}
+	/**
+	 * Parameters are compared by value so data types whose supported
+	 * parameters are built on each call still share their serializers.
+	 */
+	private static final class SerializerKey {
 
-	public String serializedJsonFrom(final Gson serializer, final Object singleDataObject) {
-		return serializer.toJson(singleDataObject);
+		private final Set<String> supportedParameters;
+		private final Set<String> responseParameters;
+		private final boolean prettyPrint;
+		private final int hashCode;
+
+		public SerializerKey(final Set<String> supportedParameters, final Set<String> responseParameters, final boolean prettyPrint) {
+			this.supportedParameters = supportedParameters;
+			this.responseParameters = responseParameters;
+			this.prettyPrint = prettyPrint;
+			this.hashCode = 31 * (31 * supportedParameters.hashCode() + responseParameters.hashCode()) + (prettyPrint ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SerializerKey)) {
+				return false;
+			}
+			final SerializerKey other = (SerializerKey) obj;
+			return this.hashCode == other.hashCode && this.prettyPrint == other.prettyPrint
+					&& this.responseParameters.equals(other.responseParameters) && this.supportedParameters.equals(other.supportedParameters);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package org.mifosng.platform.charge.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.commands.ChargeCommand;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
 import org.mifosng.platform.user.domain.AppUser;
@@ -11,6 +13,7 @@ import java.math.BigDecimal;
 @Table(name = "m_charge", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"name"}, name = "name")
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Charge extends AbstractAuditableCustom<AppUser, Long> {
 
     @Column(name = "name", length = 100)
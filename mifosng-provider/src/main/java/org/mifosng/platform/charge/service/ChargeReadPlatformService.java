@@ -4,6 +4,7 @@ import org.mifosng.platform.api.data.ChargeData;
 import org.mifosng.platform.api.data.LoanChargeData;
 
 import java.util.Collection;
+import java.util.Map;
 
 public interface ChargeReadPlatformService {
 
@@ -17,7 +18,17 @@ public interface ChargeReadPlatformService {
 
     Collection<ChargeData> retrieveLoanProductCharges(Long loanProductId);
 
+    /**
+     * Retrieves the charges of many loan products at once, keyed by loan product id.
+     */
+    Map<Long, Collection<ChargeData>> retrieveLoanProductCharges(Collection<Long> loanProductIds);
+
     Collection<LoanChargeData> retrieveLoanCharges(Long loanId);
 
+    /**
+     * Retrieves the charges of many loans at once, keyed by loan id.
+     */
+    Map<Long, Collection<LoanChargeData>> retrieveLoanCharges(Collection<Long> loanIds);
+
     ChargeData retrieveLoanChargeTemplate();
 }
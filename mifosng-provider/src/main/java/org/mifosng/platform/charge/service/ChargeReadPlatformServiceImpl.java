@@ -10,39 +10,54 @@ import org.mifosng.platform.charge.domain.ChargeTimeType;
 import org.mifosng.platform.currency.service.CurrencyReadPlatformService;
 import org.mifosng.platform.exceptions.ChargeNotFoundException;
 import org.mifosng.platform.infrastructure.JdbcSupport;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
 import org.mifosng.platform.security.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mifosng.platform.charge.service.ChargeEnumerations.chargeAppliesTo;
 import static org.mifosng.platform.charge.service.ChargeEnumerations.chargeCalculationType;
 import static org.mifosng.platform.charge.service.ChargeEnumerations.chargeTimeType;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService {
 
+    // keeps the in list of bulk reads well within mysql packet and prepared statement limits
+    private static final int MAXIMUM_IDS_PER_QUERY = 500;
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final CurrencyReadPlatformService currencyReadPlatformService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public ChargeReadPlatformServiceImpl(PlatformSecurityContext context,
                                          final CurrencyReadPlatformService currencyReadPlatformService,
-                                         final TenantAwareRoutingDataSource dataSource) {
+                                         final TenantAwareRoutingDataSource dataSource,
+                                         final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.currencyReadPlatformService = currencyReadPlatformService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -106,6 +121,18 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
         return this.jdbcTemplate.query(sql, rm, new Object[] {loanProductId});
     }
 
+    @Override
+    public Map<Long, Collection<ChargeData>> retrieveLoanProductCharges(final Collection<Long> loanProductIds) {
+
+        this.context.authenticatedUser();
+
+        ChargeMapper rm = new ChargeMapper();
+
+        String sql = "select plc.product_loan_id as ownerId, " + rm.loanProductChargeSchema() + " where c.is_deleted=0 and plc.product_loan_id in ";
+
+        return retrieveGroupedByOwner(sql, rm, loanProductIds);
+    }
+
     @Override
     public Collection<LoanChargeData> retrieveLoanCharges(Long loanId) {
         this.context.authenticatedUser();
@@ -117,15 +144,65 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
         return this.jdbcTemplate.query(sql, rm, new Object[] {loanId});
     }
 
+    @Override
+    public Map<Long, Collection<LoanChargeData>> retrieveLoanCharges(final Collection<Long> loanIds) {
+        this.context.authenticatedUser();
+
+        LoanChargeMapper rm = new LoanChargeMapper();
+
+        String sql = "select lc.loan_id as ownerId, " + rm.loanChargeSchema() + " where c.is_deleted=0 and lc.loan_id in ";
+
+        return retrieveGroupedByOwner(sql, rm, loanIds);
+    }
+
+    /*
+     * runs the sql (ending with an 'in') for batches of owner ids and groups the rows by the ownerId column,
+     * every owner id is in the returned map even if it has no rows
+     */
+    private <T> Map<Long, Collection<T>> retrieveGroupedByOwner(final String sql, final RowMapper<T> rm, final Collection<Long> ownerIds) {
+
+        final Map<Long, Collection<T>> rowsByOwner = new LinkedHashMap<Long, Collection<T>>();
+        for (Long ownerId : ownerIds) {
+            rowsByOwner.put(ownerId, new ArrayList<T>());
+        }
+
+        final List<Long> distinctOwnerIds = new ArrayList<Long>(rowsByOwner.keySet());
+        for (int from = 0; from < distinctOwnerIds.size(); from += MAXIMUM_IDS_PER_QUERY) {
+            final List<Long> batch = distinctOwnerIds.subList(from, Math.min(from + MAXIMUM_IDS_PER_QUERY, distinctOwnerIds.size()));
+
+            final StringBuilder placeholders = new StringBuilder("(");
+            for (int i = 0; i < batch.size(); i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
+            }
+            placeholders.append(')');
+
+            this.jdbcTemplate.query(sql + placeholders, new RowCallbackHandler() {
+                private int rowNum = 0;
+
+                @Override
+                public void processRow(final ResultSet rs) throws SQLException {
+                    rowsByOwner.get(rs.getLong("ownerId")).add(rm.mapRow(rs, this.rowNum++));
+                }
+            }, batch.toArray());
+        }
+
+        return rowsByOwner;
+    }
+
     @Override
     public Collection<ChargeData> retrieveLoanApplicableCharges() {
         this.context.authenticatedUser();
 
-        ChargeMapper rm = new ChargeMapper();
+        return this.referenceDataCache.get(ReferenceDataCache.LOAN_CHARGES, new ReferenceDataCache.Loader<Collection<ChargeData>>() {
+            @Override
+            public Collection<ChargeData> load() {
+                ChargeMapper rm = new ChargeMapper();
 
-        String sql = "select " + rm.chargeSchema() + " where c.is_deleted=0 and c.is_active=1 and c.charge_applies_to_enum=? order by c.name ";
+                String sql = "select " + rm.chargeSchema() + " where c.is_deleted=0 and c.is_active=1 and c.charge_applies_to_enum=? order by c.name ";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] {ChargeAppliesTo.LOAN.getValue()});
+                return Collections.unmodifiableCollection(jdbcTemplate.query(sql, rm, new Object[] {ChargeAppliesTo.LOAN.getValue()}));
+            }
+        });
     }
 
     @Override
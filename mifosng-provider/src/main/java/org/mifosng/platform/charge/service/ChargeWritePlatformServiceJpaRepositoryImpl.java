@@ -4,6 +4,7 @@ import org.mifosng.platform.api.commands.ChargeCommand;
 import org.mifosng.platform.charge.domain.*;
 import org.mifosng.platform.exceptions.ChargeNotFoundException;
 import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.security.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,11 +19,14 @@ public class ChargeWritePlatformServiceJpaRepositoryImpl implements ChargeWriteP
 
     private final PlatformSecurityContext context;
     private final ChargeRepository chargeRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public ChargeWritePlatformServiceJpaRepositoryImpl(PlatformSecurityContext context, ChargeRepository chargeRepository) {
+    public ChargeWritePlatformServiceJpaRepositoryImpl(PlatformSecurityContext context, ChargeRepository chargeRepository,
+                                                       final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.chargeRepository = chargeRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional
@@ -42,6 +46,7 @@ public class ChargeWritePlatformServiceJpaRepositoryImpl implements ChargeWriteP
                     chargeAppliesTo, chargeTimeType, chargeCalculationType, command.isActive());
 
             this.chargeRepository.saveAndFlush(charge);
+            this.referenceDataCache.evict(ReferenceDataCache.LOAN_CHARGES);
 
             return charge.getId();
         } catch (DataIntegrityViolationException dve) {
@@ -69,6 +74,7 @@ public class ChargeWritePlatformServiceJpaRepositoryImpl implements ChargeWriteP
             chargeForUpdate.update(command);
 
             this.chargeRepository.saveAndFlush(chargeForUpdate);
+            this.referenceDataCache.evict(ReferenceDataCache.LOAN_CHARGES);
 
             return chargeForUpdate.getId();
         } catch (DataIntegrityViolationException dve) {
@@ -90,6 +96,7 @@ public class ChargeWritePlatformServiceJpaRepositoryImpl implements ChargeWriteP
         chargeForDelete.delete();
 
         chargeRepository.saveAndFlush(chargeForDelete);
+        this.referenceDataCache.evict(ReferenceDataCache.LOAN_CHARGES);
 
         return chargeForDelete.getId();
     }
@@ -6,7 +6,10 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.GenericGenerator;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
+import org.mifosng.platform.infrastructure.AbstractPersistableCustom;
+import org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator;
 import org.mifosng.platform.loan.domain.Loan;
 import org.mifosng.platform.loan.domain.LoanTransaction;
 import org.mifosng.platform.saving.domain.DepositAccount;
@@ -14,6 +17,7 @@ import org.mifosng.platform.user.domain.AppUser;
 
 @Entity
 @Table(name = "m_note")
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
 public class Note extends AbstractAuditableCustom<AppUser, Long> {
 
 	@ManyToOne
@@ -0,0 +1,158 @@
+package org.mifosng.platform.client.service;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mifosng.platform.api.data.ApiParameterError;
+import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
+
+/**
+ * Position in the listing of clients ordered by (lastname, firstname, id)
+ * after which the next page of clients starts.
+ *
+ * The listing is ordered on the columns as stored so that it can be read in
+ * order from the (lastname, firstname, id) index. Missing names are kept as
+ * null, which MySQL orders before any other name (including an empty one).
+ *
+ * Passed to and from API clients as an opaque (hex encoded) token so that it
+ * is safe to use in a query string without any further encoding.
+ */
+public class ClientListCursor {
+
+	private static final char SEPARATOR = '\n';
+	private static final char NULL_NAME = '-';
+	private static final char NAME = '+';
+
+	private final String lastname;
+	private final String firstname;
+	private final Long id;
+
+	/**
+	 * Cursor positioned at the client with the names (as stored) and id passed.
+	 */
+	public static ClientListCursor at(final String lastname, final String firstname, final Long id) {
+		return new ClientListCursor(lastname, firstname, id);
+	}
+
+	public static ClientListCursor fromToken(final String token) {
+		try {
+			final String decoded = new String(hexToBytes(token), "UTF-8");
+
+			final int firstSeparator = decoded.indexOf(SEPARATOR);
+			final int secondSeparator = decoded.indexOf(SEPARATOR, firstSeparator + 1);
+			if (firstSeparator < 0 || secondSeparator < 0) {
+				throw invalidCursor(token);
+			}
+
+			return new ClientListCursor(decodeName(decoded.substring(0, firstSeparator), token),
+					decodeName(decoded.substring(firstSeparator + 1, secondSeparator), token), Long.valueOf(decoded.substring(secondSeparator + 1)));
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		} catch (IllegalArgumentException e) {
+			throw invalidCursor(token);
+		}
+	}
+
+	private ClientListCursor(final String lastname, final String firstname, final Long id) {
+		this.lastname = lastname;
+		this.firstname = firstname;
+		this.id = id;
+	}
+
+	public String toToken() {
+		try {
+			final String value = new StringBuilder(encodeName(this.lastname)).append(SEPARATOR).append(encodeName(this.firstname)).append(SEPARATOR)
+					.append(this.id).toString();
+			return bytesToHex(value.getBytes("UTF-8"));
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Appends the keyset criteria that select the clients ordered after this
+	 * cursor, binding its values to the parameters passed.
+	 */
+	public void appendCriteriaForClientsAfter(final StringBuilder sqlBuilder, final List<Object> params) {
+
+		sqlBuilder.append(" and (").append(greaterThan("c.lastname", this.lastname, params));
+		sqlBuilder.append(" or (").append(equalTo("c.lastname", this.lastname, params));
+		sqlBuilder.append(" and (").append(greaterThan("c.firstname", this.firstname, params));
+		sqlBuilder.append(" or (").append(equalTo("c.firstname", this.firstname, params));
+		sqlBuilder.append(" and c.id > ?))))");
+		params.add(this.id);
+	}
+
+	private static String greaterThan(final String column, final String name, final List<Object> params) {
+		if (name == null) {
+			return column + " is not null";
+		}
+		params.add(name);
+		return column + " > ?";
+	}
+
+	private static String equalTo(final String column, final String name, final List<Object> params) {
+		if (name == null) {
+			return column + " is null";
+		}
+		params.add(name);
+		return column + " = ?";
+	}
+
+	public String getLastname() {
+		return lastname;
+	}
+
+	public String getFirstname() {
+		return firstname;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	private static String encodeName(final String name) {
+		return name == null ? String.valueOf(NULL_NAME) : NAME + name;
+	}
+
+	private static String decodeName(final String encoded, final String token) {
+		if (encoded.length() == 1 && encoded.charAt(0) == NULL_NAME) {
+			return null;
+		}
+		if (encoded.length() == 0 || encoded.charAt(0) != NAME) {
+			throw invalidCursor(token);
+		}
+		return encoded.substring(1);
+	}
+
+	private static String bytesToHex(final byte[] bytes) {
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private static byte[] hexToBytes(final String hex) {
+		if (hex.length() % 2 != 0) {
+			throw new IllegalArgumentException(hex);
+		}
+		final byte[] bytes = new byte[hex.length() / 2];
+		for (int index = 0; index < bytes.length; index++) {
+			final int high = Character.digit(hex.charAt(index * 2), 16);
+			final int low = Character.digit(hex.charAt(index * 2 + 1), 16);
+			if (high < 0 || low < 0) {
+				throw new IllegalArgumentException(hex);
+			}
+			bytes[index] = (byte) ((high << 4) + low);
+		}
+		return bytes;
+	}
+
+	private static PlatformApiDataValidationException invalidCursor(final String token) {
+		final List<ApiParameterError> dataValidationErrors = Arrays.asList(ApiParameterError.parameterError("validation.msg.client.cursor.invalid",
+				"The parameter cursor is invalid.", "cursor", token));
+		return new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
+	}
+}
@@ -0,0 +1,36 @@
+package org.mifosng.platform.client.service;
+
+import java.util.Collection;
+
+import org.mifosng.platform.api.data.ClientData;
+
+/**
+ * Clients listed for one set of {@link ClientSearchParameters} along with the
+ * cursor to pass back for the next page, if there may be one.
+ */
+public class ClientListPage {
+
+	private final Collection<ClientData> clients;
+	private final ClientListCursor nextCursor;
+
+	public ClientListPage(final Collection<ClientData> clients, final ClientListCursor nextCursor) {
+		this.clients = clients;
+		this.nextCursor = nextCursor;
+	}
+
+	public Collection<ClientData> getClients() {
+		return clients;
+	}
+
+	/**
+	 * The cursor positioned at the last client listed when the page is full,
+	 * otherwise null.
+	 */
+	public ClientListCursor getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean hasNextCursor() {
+		return this.nextCursor != null;
+	}
+}
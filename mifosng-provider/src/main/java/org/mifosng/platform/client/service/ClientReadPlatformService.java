@@ -9,7 +9,13 @@ import org.mifosng.platform.api.data.NoteData;
 
 public interface ClientReadPlatformService {
 
-	Collection<ClientData> retrieveAllIndividualClients(String extraCriteria);
+	/**
+	 * Returns the clients matching the search parameters ordered by
+	 * lastname, firstname and id. When a limit is given, at most that many
+	 * clients positioned after the cursor (if any) are returned, with the
+	 * cursor of the next page when more clients follow.
+	 */
+	ClientListPage retrieveAllIndividualClients(ClientSearchParameters searchParameters);
 
 	ClientData retrieveIndividualClient(Long clientId);
 
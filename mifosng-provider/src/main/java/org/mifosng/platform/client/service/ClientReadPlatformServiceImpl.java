@@ -1,5 +1,6 @@
 package org.mifosng.platform.client.service;
 
+import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -24,8 +25,11 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class ClientReadPlatformServiceImpl implements ClientReadPlatformService {
 
 	private final JdbcTemplate jdbcTemplate;
@@ -46,7 +50,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 
 
 	@Override
-	public Collection<ClientData> retrieveAllIndividualClients(final String extraCriteria) {
+	public ClientListPage retrieveAllIndividualClients(final ClientSearchParameters searchParameters) {
 
 		AppUser currentUser = context.authenticatedUser();
 		String hierarchy = currentUser.getOffice().getHierarchy();
@@ -54,14 +58,68 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 		
 		ClientMapper rm = new ClientMapper();
 
-		String sql = "select " + rm.clientSchema();
+		final List<Object> params = new ArrayList<Object>();
+		params.add(hierarchySearchString);
 
-		if (StringUtils.isNotBlank(extraCriteria))			
-			sql += " and (" + extraCriteria + ")";
+		final StringBuilder sqlBuilder = new StringBuilder("select ").append(rm.clientSchema());
 
-		sql += " order by c.lastname ASC, c.firstname ASC";
+		if (StringUtils.isNotBlank(searchParameters.getSqlSearch())) {
+			sqlBuilder.append(" and (").append(searchParameters.getSqlSearch()).append(")");
+		}
+
+		if (searchParameters.getOfficeId() != null) {
+			sqlBuilder.append(" and c.office_id = ?");
+			params.add(searchParameters.getOfficeId());
+		}
+
+		if (searchParameters.getExternalId() != null) {
+			sqlBuilder.append(" and c.external_id like ?");
+			params.add(searchParameters.getExternalId());
+		}
+
+		if (searchParameters.getDisplayName() != null) {
+			sqlBuilder.append(" and concat(ifnull(c.firstname, ''), if(c.firstname > '',' ', '') , ifnull(c.lastname, '')) like ?");
+			params.add(searchParameters.getDisplayName());
+		}
+
+		if (searchParameters.getFirstname() != null) {
+			sqlBuilder.append(" and c.firstname like ?");
+			params.add(searchParameters.getFirstname());
+		}
+
+		if (searchParameters.getLastname() != null) {
+			sqlBuilder.append(" and c.lastname like ?");
+			params.add(searchParameters.getLastname());
+		}
+
+		if (searchParameters.getHierarchy() != null) {
+			sqlBuilder.append(" and o.hierarchy like ?");
+			params.add(searchParameters.getHierarchy() + "%");
+		}
 
-		return this.jdbcTemplate.query(sql, rm, new Object[] {hierarchySearchString});
+		// keyset pagination: continue after the last client of the previous page
+		final ClientListCursor after = searchParameters.getAfter();
+		if (after != null) {
+			after.appendCriteriaForClientsAfter(sqlBuilder, params);
+		}
+
+		sqlBuilder.append(" order by c.lastname ASC, c.firstname ASC, c.id ASC");
+
+		if (searchParameters.isLimited()) {
+			// one more client than the page to know whether more clients follow it
+			sqlBuilder.append(" limit ?");
+			params.add(Integer.valueOf(searchParameters.getLimit().intValue() + 1));
+		}
+
+		final List<ClientData> clients = this.jdbcTemplate.query(sqlBuilder.toString(), rm, params.toArray());
+
+		ClientListCursor nextCursor = null;
+		if (searchParameters.isLimited() && clients.size() > searchParameters.getLimit().intValue()) {
+			clients.remove(clients.size() - 1);
+			nextCursor = rm.positionOfClientBeforeLast();
+		}
+
+		return new ClientListPage(clients, nextCursor);
 	}
 
 	@Override
@@ -111,6 +169,9 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 
 	private static final class ClientMapper implements RowMapper<ClientData> {
 
+		private ClientListCursor positionOfClientBeforeLast;
+		private ClientListCursor positionOfLastClient;
+
 		public String clientSchema() {
 			return "c.office_id as officeId, o.name as officeName, c.id as id, c.firstname as firstname, c.lastname as lastname, c.display_name as displayName, " +
 				   "c.external_id as externalId, c.joining_date as joinedDate from m_client c join m_office o on o.id = c.office_id " +
@@ -124,10 +185,13 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 			Long officeId = JdbcSupport.getLong(rs, "officeId");
 			Long id = JdbcSupport.getLong(rs, "id");
 			String firstname = rs.getString("firstname");
+			String lastname = rs.getString("lastname");
+			// taken before blank names are presented as empty
+			this.positionOfClientBeforeLast = this.positionOfLastClient;
+			this.positionOfLastClient = ClientListCursor.at(lastname, firstname, id);
 			if (StringUtils.isBlank(firstname)) {
 				firstname = "";
 			}
-			String lastname = rs.getString("lastname");
 			String displayName = rs.getString("displayName");
 			String externalId = rs.getString("externalId");
 			LocalDate joinedDate = JdbcSupport.getLocalDate(rs, "joinedDate");
@@ -138,6 +202,13 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 					lastname, displayName, externalId, joinedDate);
 		}
 
+		/**
+		 * The position of the client mapped before the last one, keeping its
+		 * names as stored.
+		 */
+		public ClientListCursor positionOfClientBeforeLast() {
+			return this.positionOfClientBeforeLast;
+		}
 	}
 
     private static final class ClientLookupMapper implements RowMapper<ClientLookup>{
@@ -229,7 +300,8 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 			StringBuilder accountsSummary = new StringBuilder("l.id as id, l.external_id as externalId,");
 			accountsSummary
 					.append("l.product_id as productId, lp.name as productName,")
-					.append("l.loan_status_id as statusId ")
+					.append("l.loan_status_id as statusId, ")
+					.append("l.total_outstanding_derived as totalOutstanding, l.total_overdue_derived as totalOverdue ")
 					.append("from m_loan l ")
 					.append("LEFT JOIN m_product_loan AS lp ON lp.id = l.product_id ");
 
@@ -245,8 +317,10 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 			Long productId = JdbcSupport.getLong(rs, "productId");
 			String loanProductName = rs.getString("productName");
 			Integer loanStatusId = JdbcSupport.getInteger(rs, "statusId");
+			BigDecimal totalOutstanding = rs.getBigDecimal("totalOutstanding");
+			BigDecimal totalOverdue = rs.getBigDecimal("totalOverdue");
 
-			return new ClientAccountSummaryData(id, externalId, productId, loanProductName, loanStatusId);
+			return new ClientAccountSummaryData(id, externalId, productId, loanProductName, loanStatusId, totalOutstanding, totalOverdue);
 		}
 	}
 	
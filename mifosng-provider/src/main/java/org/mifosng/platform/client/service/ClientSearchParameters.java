@@ -0,0 +1,74 @@
+package org.mifosng.platform.client.service;
+
+/**
+ * Immutable filters and page details used when listing clients.
+ *
+ * All filters except <code>sqlSearch</code> are bound as parameters of the
+ * query. <code>sqlSearch</code> is by design a fragment of SQL supplied by the
+ * API client and is appended as is.
+ */
+public class ClientSearchParameters {
+
+	private final String sqlSearch;
+	private final Long officeId;
+	private final String externalId;
+	private final String displayName;
+	private final String firstname;
+	private final String lastname;
+	private final String hierarchy;
+	private final ClientListCursor after;
+	private final Integer limit;
+
+	public ClientSearchParameters(final String sqlSearch, final Long officeId, final String externalId, final String displayName,
+			final String firstname, final String lastname, final String hierarchy, final ClientListCursor after, final Integer limit) {
+		this.sqlSearch = sqlSearch;
+		this.officeId = officeId;
+		this.externalId = externalId;
+		this.displayName = displayName;
+		this.firstname = firstname;
+		this.lastname = lastname;
+		this.hierarchy = hierarchy;
+		this.after = after;
+		this.limit = limit;
+	}
+
+	public String getSqlSearch() {
+		return sqlSearch;
+	}
+
+	public Long getOfficeId() {
+		return officeId;
+	}
+
+	public String getExternalId() {
+		return externalId;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public String getFirstname() {
+		return firstname;
+	}
+
+	public String getLastname() {
+		return lastname;
+	}
+
+	public String getHierarchy() {
+		return hierarchy;
+	}
+
+	public ClientListCursor getAfter() {
+		return after;
+	}
+
+	public Integer getLimit() {
+		return limit;
+	}
+
+	public boolean isLimited() {
+		return this.limit != null;
+	}
+}
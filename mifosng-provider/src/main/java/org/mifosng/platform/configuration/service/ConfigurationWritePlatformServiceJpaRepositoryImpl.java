@@ -11,6 +11,7 @@ import org.mifosng.platform.api.data.ApiParameterError;
 import org.mifosng.platform.currency.domain.ApplicationCurrency;
 import org.mifosng.platform.currency.domain.ApplicationCurrencyRepository;
 import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.organisation.domain.OrganisationCurrency;
 import org.mifosng.platform.organisation.domain.OrganisationCurrencyRepository;
 import org.mifosng.platform.security.PlatformSecurityContext;
@@ -24,13 +25,16 @@ public class ConfigurationWritePlatformServiceJpaRepositoryImpl implements Confi
 	private final PlatformSecurityContext context;
 	private final ApplicationCurrencyRepository applicationCurrencyRepository;
 	private final OrganisationCurrencyRepository organisationCurrencyRepository;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
 	public ConfigurationWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, 
-			final ApplicationCurrencyRepository applicationCurrencyRepository, final OrganisationCurrencyRepository organisationCurrencyRepository) {
+			final ApplicationCurrencyRepository applicationCurrencyRepository, final OrganisationCurrencyRepository organisationCurrencyRepository,
+			final ReferenceDataCache referenceDataCache) {
 		this.context = context;
 		this.applicationCurrencyRepository = applicationCurrencyRepository;
 		this.organisationCurrencyRepository = organisationCurrencyRepository;
+		this.referenceDataCache = referenceDataCache;
 	}
 	
 	@Transactional
@@ -67,6 +71,10 @@ public class ConfigurationWritePlatformServiceJpaRepositoryImpl implements Confi
 		this.organisationCurrencyRepository.deleteAll();
 		this.organisationCurrencyRepository.save(allowedCurrencies);
 		
+		// cached charges carry the details of their currency
+		this.referenceDataCache.evict(ReferenceDataCache.CURRENCIES);
+		this.referenceDataCache.evict(ReferenceDataCache.LOAN_CHARGES);
+		
 		if (!dataValidationErrors.isEmpty()) {
 			throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
 		}
@@ -0,0 +1,168 @@
+package org.mifosng.platform.currency.domain;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Mutable accumulator of monetary amounts held as a scaled long of 'minor
+ * units' (e.g. cents for a currency with two digits after decimal).
+ *
+ * Intended for use inside loops over installments and transactions where
+ * summing through {@link Money} creates several {@link BigDecimal}'s per
+ * iteration. Additions and subtractions of amounts already at the scale of
+ * the currency are exact long arithmetic. Amounts are rounded exactly as
+ * {@link Money} rounds them so results are identical to the equivalent
+ * {@link Money} arithmetic. Convert back to {@link Money} using
+ * {@link #toMoney()} at the domain/persistence boundary.
+ *
+ * Not thread-safe.
+ */
+public final class MoneyAccumulator implements Comparable<MoneyAccumulator> {
+
+	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+	private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+
+	private final String currencyCode;
+	private final int currencyDigitsAfterDecimal;
+	private long minorUnits;
+
+	public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+		return new MoneyAccumulator(currency.getCode(), currency.getDigitsAfterDecimal(), 0L);
+	}
+
+	public static MoneyAccumulator of(final Money money) {
+		return new MoneyAccumulator(money.getCurrencyCode(), money.getCurrencyDigitsAfterDecimal(), minorUnitsOf(money.getCurrencyDigitsAfterDecimal(), money.getAmount()));
+	}
+
+	/**
+	 * Returns the amount in minor units of the currency, rounded in the same
+	 * way as {@link Money#of(MonetaryCurrency, BigDecimal)}.
+	 */
+	public static long minorUnitsOf(final MonetaryCurrency currency, final BigDecimal amount) {
+		return minorUnitsOf(currency.getDigitsAfterDecimal(), amount);
+	}
+
+	private static long minorUnitsOf(final int digitsAfterDecimal, final BigDecimal amount) {
+		if (amount.signum() == 0) {
+			return 0L;
+		}
+		BigInteger unscaled = amount.setScale(digitsAfterDecimal, RoundingMode.HALF_EVEN).unscaledValue();
+		if (unscaled.compareTo(MAX_LONG) > 0 || unscaled.compareTo(MIN_LONG) < 0) {
+			throw new ArithmeticException("Amount " + amount.toPlainString() + " cannot be represented in minor units.");
+		}
+		return unscaled.longValue();
+	}
+
+	private MoneyAccumulator(final String currencyCode, final int currencyDigitsAfterDecimal, final long minorUnits) {
+		this.currencyCode = currencyCode;
+		this.currencyDigitsAfterDecimal = currencyDigitsAfterDecimal;
+		this.minorUnits = minorUnits;
+	}
+
+	public MoneyAccumulator add(final Money money) {
+		checkCurrencyEqual(money);
+		return addMinorUnits(minorUnitsOf(this.currencyDigitsAfterDecimal, money.getAmount()));
+	}
+
+	public MoneyAccumulator subtract(final Money money) {
+		checkCurrencyEqual(money);
+		return subtractMinorUnits(minorUnitsOf(this.currencyDigitsAfterDecimal, money.getAmount()));
+	}
+
+	/**
+	 * Adds the amount passed, rounding in the same way as
+	 * {@link Money#plus(BigDecimal)}.
+	 */
+	public MoneyAccumulator add(final BigDecimal amount) {
+		if (amount.scale() <= this.currencyDigitsAfterDecimal) {
+			return addMinorUnits(minorUnitsOf(this.currencyDigitsAfterDecimal, amount));
+		}
+		this.minorUnits = minorUnitsOf(this.currencyDigitsAfterDecimal, toBigDecimal().add(amount));
+		return this;
+	}
+
+	/**
+	 * Subtracts the amount passed, rounding in the same way as
+	 * {@link Money#minus(BigDecimal)}.
+	 */
+	public MoneyAccumulator subtract(final BigDecimal amount) {
+		return add(amount.negate());
+	}
+
+	public MoneyAccumulator addMinorUnits(final long minorUnitsToAdd) {
+		final long result = this.minorUnits + minorUnitsToAdd;
+		// overflow if both operands have the same sign and the result has a different one
+		if (((this.minorUnits ^ result) & (minorUnitsToAdd ^ result)) < 0) {
+			throw new ArithmeticException("Monetary amount overflow.");
+		}
+		this.minorUnits = result;
+		return this;
+	}
+
+	public MoneyAccumulator subtractMinorUnits(final long minorUnitsToSubtract) {
+		final long result = this.minorUnits - minorUnitsToSubtract;
+		// overflow if the operands have different signs and the result differs in sign from this
+		if (((this.minorUnits ^ minorUnitsToSubtract) & (this.minorUnits ^ result)) < 0) {
+			throw new ArithmeticException("Monetary amount overflow.");
+		}
+		this.minorUnits = result;
+		return this;
+	}
+
+	public MoneyAccumulator reset() {
+		this.minorUnits = 0L;
+		return this;
+	}
+
+	public long getMinorUnits() {
+		return this.minorUnits;
+	}
+
+	public boolean isZero() {
+		return this.minorUnits == 0L;
+	}
+
+	public boolean isGreaterThanZero() {
+		return this.minorUnits > 0L;
+	}
+
+	public boolean isLessThanZero() {
+		return this.minorUnits < 0L;
+	}
+
+	public boolean isGreaterThan(final MoneyAccumulator other) {
+		return this.compareTo(other) > 0;
+	}
+
+	@Override
+	public int compareTo(final MoneyAccumulator other) {
+		if (this.currencyCode.equals(other.currencyCode) == false) {
+			throw new UnsupportedOperationException("currencies are different.");
+		}
+		return this.minorUnits < other.minorUnits ? -1 : (this.minorUnits == other.minorUnits ? 0 : 1);
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(this.minorUnits, this.currencyDigitsAfterDecimal);
+	}
+
+	public Money toMoney() {
+		return Money.of(new MonetaryCurrency(this.currencyCode, this.currencyDigitsAfterDecimal), toBigDecimal());
+	}
+
+	private void checkCurrencyEqual(final Money money) {
+		if (this.currencyCode.equals(money.getCurrencyCode()) == false) {
+			throw new UnsupportedOperationException("currencies are different.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder()
+		.append(this.currencyCode)
+		.append(' ')
+		.append(toBigDecimal().toPlainString())
+		.toString();
+	}
+}
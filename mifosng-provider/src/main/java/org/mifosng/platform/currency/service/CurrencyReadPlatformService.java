@@ -9,4 +9,6 @@ public interface CurrencyReadPlatformService {
 	List<CurrencyData> retrieveAllowedCurrencies();
 	
 	List<CurrencyData> retrieveAllPlatformCurrencies();
+
+	CurrencyData retrieveCurrency(String currencyCode);
 }
\ No newline at end of file
@@ -2,27 +2,40 @@ package org.mifosng.platform.currency.service;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 
 import org.mifosng.platform.api.data.CurrencyData;
+import org.mifosng.platform.currency.domain.ApplicationCurrency;
+import org.mifosng.platform.currency.domain.ApplicationCurrencyRepository;
+import org.mifosng.platform.exceptions.CurrencyNotFoundException;
 import org.mifosng.platform.infrastructure.JdbcSupport;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
 import org.mifosng.platform.security.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class CurrencyReadPlatformServiceImpl implements CurrencyReadPlatformService {
 
 	private final JdbcTemplate jdbcTemplate;
 	private final PlatformSecurityContext context;
+	private final ApplicationCurrencyRepository applicationCurrencyRepository;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
-	public CurrencyReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+	public CurrencyReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
+			final ApplicationCurrencyRepository applicationCurrencyRepository, final ReferenceDataCache referenceDataCache) {
 		this.context = context;
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.applicationCurrencyRepository = applicationCurrencyRepository;
+		this.referenceDataCache = referenceDataCache;
 	}
 	
 	@Override
@@ -30,11 +43,16 @@ public class CurrencyReadPlatformServiceImpl implements CurrencyReadPlatformServ
 
 		context.authenticatedUser();
 
-		String sql = "select c.code as code, c.name as name, c.decimal_places as decimalPlaces, c.display_symbol as displaySymbol, c.internationalized_name_code as nameCode from m_organisation_currency c order by c.name";
+		return this.referenceDataCache.get(ReferenceDataCache.CURRENCIES, new ReferenceDataCache.Loader<List<CurrencyData>>() {
+			@Override
+			public List<CurrencyData> load() {
+				String sql = "select c.code as code, c.name as name, c.decimal_places as decimalPlaces, c.display_symbol as displaySymbol, c.internationalized_name_code as nameCode from m_organisation_currency c order by c.name";
 
-		RowMapper<CurrencyData> rm = new CurrencyMapper();
+				RowMapper<CurrencyData> rm = new CurrencyMapper();
 
-		return this.jdbcTemplate.query(sql, rm, new Object[] {});
+				return Collections.unmodifiableList(jdbcTemplate.query(sql, rm, new Object[] {}));
+			}
+		});
 	}
 
 	@Override
@@ -47,6 +65,17 @@ public class CurrencyReadPlatformServiceImpl implements CurrencyReadPlatformServ
 		return this.jdbcTemplate.query(sql, rm, new Object[] {});
 	}
 
+	@Override
+	public CurrencyData retrieveCurrency(final String currencyCode) {
+
+		// a cacheable query over the cached m_currency entities
+		final ApplicationCurrency currency = this.applicationCurrencyRepository.findOneByCode(currencyCode);
+		if (currency == null) {
+			throw new CurrencyNotFoundException(currencyCode);
+		}
+		return new CurrencyData(currency.getCode(), currency.getName(), currency.getDecimalPlaces(), currency.getDisplaySymbol(), currency.getNameCode());
+	}
+
 	private static final class CurrencyMapper implements RowMapper<CurrencyData> {
 
 		@Override
@@ -6,6 +6,8 @@ import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.commands.FundCommand;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
 import org.mifosng.platform.user.domain.AppUser;
@@ -15,6 +17,7 @@ import org.mifosng.platform.user.domain.AppUser;
 		@UniqueConstraint(columnNames = {"name"}, name="fund_name_org"), 
 		@UniqueConstraint(columnNames = {"external_id"}, name="fund_externalid_org")
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Fund extends AbstractAuditableCustom<AppUser, Long> {
 	
 	@SuppressWarnings("unused")
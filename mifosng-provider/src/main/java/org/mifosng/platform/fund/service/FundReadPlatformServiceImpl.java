@@ -3,9 +3,11 @@ package org.mifosng.platform.fund.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.mifosng.platform.api.data.FundData;
 import org.mifosng.platform.exceptions.FundNotFoundException;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
 import org.mifosng.platform.security.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,18 +15,23 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class FundReadPlatformServiceImpl implements FundReadPlatformService {
 
 	private final JdbcTemplate jdbcTemplate;
 	private final PlatformSecurityContext context;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
 	public FundReadPlatformServiceImpl(final PlatformSecurityContext context,
-			final TenantAwareRoutingDataSource dataSource) {
+			final TenantAwareRoutingDataSource dataSource, final ReferenceDataCache referenceDataCache) {
 		this.context = context;
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.referenceDataCache = referenceDataCache;
 	}
 	
 	private static final class FundMapper implements RowMapper<FundData> {
@@ -50,12 +57,17 @@ public class FundReadPlatformServiceImpl implements FundReadPlatformService {
 
 		context.authenticatedUser();
 
-		FundMapper rm = new FundMapper();
-		String sql = "select "
-				+ rm.schema()
-				+ " order by f.name";
-
-		return this.jdbcTemplate.query(sql, rm, new Object[] {});
+		return this.referenceDataCache.get(ReferenceDataCache.FUNDS, new ReferenceDataCache.Loader<Collection<FundData>>() {
+			@Override
+			public Collection<FundData> load() {
+				FundMapper rm = new FundMapper();
+				String sql = "select "
+						+ rm.schema()
+						+ " order by f.name";
+
+				return Collections.unmodifiableCollection(jdbcTemplate.query(sql, rm, new Object[] {}));
+			}
+		});
 	}
 	
 	@Override
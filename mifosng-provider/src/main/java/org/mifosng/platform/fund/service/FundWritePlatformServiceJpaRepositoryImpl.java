@@ -5,6 +5,7 @@ import org.mifosng.platform.exceptions.FundNotFoundException;
 import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
 import org.mifosng.platform.fund.domain.Fund;
 import org.mifosng.platform.fund.domain.FundRepository;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.security.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,11 +21,14 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
 	
 	private final PlatformSecurityContext context;
 	private final FundRepository fundRepository;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
-	public FundWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final FundRepository fundRepository) {
+	public FundWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final FundRepository fundRepository,
+			final ReferenceDataCache referenceDataCache) {
 		this.context = context;
 		this.fundRepository = fundRepository;
+		this.referenceDataCache = referenceDataCache;
 	}
 
 	@Transactional
@@ -40,6 +44,7 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
 			Fund fund = Fund.createNew(command.getName(), command.getExternalId());
 			
 			this.fundRepository.saveAndFlush(fund);
+			this.referenceDataCache.evict(ReferenceDataCache.FUNDS);
 			
 			return fund.getId();
 		} catch (DataIntegrityViolationException dve) {
@@ -66,6 +71,7 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
 			fund.update(command);
 			
 			this.fundRepository.saveAndFlush(fund);
+			this.referenceDataCache.evict(ReferenceDataCache.FUNDS);
 	
 			return fund.getId();
 		} catch (DataIntegrityViolationException dve) {
@@ -18,8 +18,11 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
 
     private final JdbcTemplate jdbcTemplate;
@@ -4,32 +4,37 @@ import java.io.Serializable;
 import java.util.Date;
 
 import javax.persistence.Column;
+import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.OneToOne;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
 import org.joda.time.DateTime;
 import org.springframework.data.domain.Auditable;
 import org.springframework.data.jpa.domain.AbstractAuditable;
-import org.springframework.data.jpa.domain.AbstractPersistable;
 
 /**
- * A custom copy of {@link AbstractAuditable} to override the column names used on database.
+ * A custom copy of {@link AbstractAuditable} to override the column names used on database
+ * and to let entities choose their id generator (see {@link AbstractPersistableCustom}).
  * 
  * Abstract base class for auditable entities. Stores the audition values in
  * persistent fields.
  * 
+ * The users are lazy references: loading an entity only reads their ids
+ * and a user is loaded the first time something returned by
+ * {@link #getCreatedBy()} or {@link #getLastModifiedBy()} is used.
+ * 
  * @param <U> the auditing type. Typically some kind of user.
  * @param <PK> the type of the auditing type's identifier
  */
 @MappedSuperclass
-public abstract class AbstractAuditableCustom<U, PK extends Serializable> extends AbstractPersistable<PK> implements Auditable<U, PK> {
+public abstract class AbstractAuditableCustom<U, PK extends Serializable> extends AbstractPersistableCustom<PK> implements Auditable<U, PK> {
 
     private static final long serialVersionUID = 141481953116476081L;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="createdby_id")
     private U                 createdBy;
 
@@ -37,7 +42,7 @@ public abstract class AbstractAuditableCustom<U, PK extends Serializable> extend
     @Temporal(TemporalType.TIMESTAMP)
     private Date              createdDate;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="lastmodifiedby_id")
     private U                 lastModifiedBy;
 
@@ -0,0 +1,128 @@
+package org.mifosng.platform.infrastructure;
+
+import java.io.Serializable;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * A custom copy of {@link AbstractPersistable} whose id generator can be
+ * chosen by each entity.
+ * 
+ * The id is generated by the generator named {@link #ENTITY_ID_GENERATOR}.
+ * That is the database's native generation, an identity column on MySQL (see
+ * package-info), unless the entity declares its own generator of that name,
+ * which hibernate looks up before the package level one, e.g.
+ * 
+ * <pre>
+ * &#064;GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
+ * </pre>
+ * 
+ * for entities whose inserts should be batched (see
+ * {@link TenantAwarePooledIdGenerator}).
+ * 
+ * Abstract base class for entities. Allows parameterization of id type, chooses
+ * auto-generation and implements {@link #equals(Object)} and
+ * {@link #hashCode()} based on that id.
+ * 
+ * @param <PK> the type of the identifier
+ */
+@MappedSuperclass
+public abstract class AbstractPersistableCustom<PK extends Serializable> implements Persistable<PK> {
+
+	public static final String ENTITY_ID_GENERATOR = "entity_id";
+
+	private static final long serialVersionUID = 9181640245194392646L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO, generator = ENTITY_ID_GENERATOR)
+	private PK id;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.springframework.data.domain.Persistable#getId()
+	 */
+	@Override
+	public PK getId() {
+
+		return id;
+	}
+
+	/**
+	 * Sets the id of the entity.
+	 * 
+	 * @param id the id to set
+	 */
+	protected void setId(final PK id) {
+
+		this.id = id;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.springframework.data.domain.Persistable#isNew()
+	 */
+	@Override
+	public boolean isNew() {
+
+		return null == getId();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return String.format("Entity of type %s with id: %s", this.getClass().getName(), getId());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+
+		if (null == obj) {
+			return false;
+		}
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!getClass().equals(obj.getClass())) {
+			return false;
+		}
+
+		AbstractPersistableCustom<?> that = (AbstractPersistableCustom<?>) obj;
+
+		return null == this.getId() ? false : this.getId().equals(that.getId());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+
+		int hashCode = 17;
+
+		hashCode += null == getId() ? 0 : getId().hashCode() * 31;
+
+		return hashCode;
+	}
+}
@@ -1,8 +1,9 @@
 package org.mifosng.platform.infrastructure;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import org.mifosng.platform.user.domain.AppUser;
-import org.mifosng.platform.user.domain.AppUserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -10,8 +11,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 public class AuditorAwareImpl implements AuditorAware<AppUser> {
 
-    @Autowired
-    private AppUserRepository userRepository;
+    private static final Long SUPER_USER_ID = Long.valueOf(1);
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public AppUser getCurrentAuditor() {
@@ -31,7 +34,11 @@ public class AuditorAwareImpl implements AuditorAware<AppUser> {
         return currentUser;
     }
 
+    /**
+     * Only the id of the auditor is stored so a reference to the super user
+     * is enough; it is not read from the database.
+     */
     private AppUser retrieveSuperUser() {
-        return this.userRepository.findOne(Long.valueOf("1"));
+        return this.entityManager.getReference(AppUser.class, SUPER_USER_ID);
     }
 }
@@ -0,0 +1,174 @@
+package org.mifosng.platform.infrastructure;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * A caching decorator of {@link JdbcTenantDetailsService} so that the tenants
+ * database is not queried on every request to the platform.
+ *
+ * Tenant details are cached in a {@link PlatformCache} for a configurable time
+ * to live and the number of cached identifiers is bounded. Unknown tenant
+ * identifiers are also cached (for a shorter time) so that requests with
+ * invalid identifiers do not hit the tenants database each time. They are kept
+ * in a smaller cache of their own so that requests cycling through invalid
+ * identifiers cannot evict the details of valid tenants.
+ *
+ * Hit/miss counts and eviction operations are exposed over JMX.
+ */
+@Service
+@Primary
+@ManagedResource(objectName = "mifosng:type=TenantDetailsCache", description = "Cache of tenant details loaded from tenants database.")
+public class CachingTenantDetailsService implements TenantDetailsService {
+
+	private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000L;
+	private static final long DEFAULT_UNKNOWN_TENANT_TIME_TO_LIVE_MILLIS = 30 * 1000L;
+	private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+	private static final int DEFAULT_UNKNOWN_TENANT_MAXIMUM_SIZE = 100;
+
+	private final TenantDetailsService tenantDetailsService;
+	private final PlatformCache<String, MifosPlatformTenant> cache;
+	// message of the rejection by unknown tenant identifier
+	private final PlatformCache<String, String> unknownTenantCache;
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	@Autowired
+	public CachingTenantDetailsService(final JdbcTenantDetailsService tenantDetailsService) {
+		this(tenantDetailsService, DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_MAXIMUM_SIZE, DEFAULT_UNKNOWN_TENANT_TIME_TO_LIVE_MILLIS,
+				DEFAULT_UNKNOWN_TENANT_MAXIMUM_SIZE);
+	}
+
+	CachingTenantDetailsService(final TenantDetailsService tenantDetailsService, final long timeToLiveMillis, final int maximumSize,
+			final long unknownTenantTimeToLiveMillis, final int unknownTenantMaximumSize) {
+		this.tenantDetailsService = tenantDetailsService;
+		// tenant details are looked up before the tenant of the request is known
+		this.cache = PlatformCache.shared(timeToLiveMillis, maximumSize);
+		this.unknownTenantCache = PlatformCache.shared(unknownTenantTimeToLiveMillis, unknownTenantMaximumSize);
+	}
+
+	@Override
+	public MifosPlatformTenant loadTenantById(final String tenantIdentifier) {
+
+		if (tenantIdentifier == null) {
+			return this.tenantDetailsService.loadTenantById(tenantIdentifier);
+		}
+
+		final MifosPlatformTenant cached = this.cache.get(tenantIdentifier);
+		if (cached != null) {
+			return cached;
+		}
+
+		final String unknownTenantMessage = this.unknownTenantCache.get(tenantIdentifier);
+		if (unknownTenantMessage != null) {
+			throw new InvalidTenantIdentiferException(unknownTenantMessage);
+		}
+
+		this.missCount.incrementAndGet();
+		try {
+			MifosPlatformTenant tenant = this.tenantDetailsService.loadTenantById(tenantIdentifier);
+			this.cache.put(tenantIdentifier, tenant);
+			return tenant;
+		} catch (InvalidTenantIdentiferException e) {
+			this.unknownTenantCache.put(tenantIdentifier, e.getMessage());
+			throw e;
+		}
+	}
+
+	/**
+	 * Not cached, only used when warming up connection pools at startup.
+	 */
+	@Override
+	public List<MifosPlatformTenant> findAllTenants() {
+		return this.tenantDetailsService.findAllTenants();
+	}
+
+	@ManagedOperation(description = "Evicts the cached details of tenant with given identifier.")
+	public void evict(final String tenantIdentifier) {
+		this.cache.evict(tenantIdentifier);
+		this.unknownTenantCache.evict(tenantIdentifier);
+	}
+
+	@ManagedOperation(description = "Evicts the cached details of all tenants.")
+	public void evictAll() {
+		this.cache.evictAll();
+		this.unknownTenantCache.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of requests served from cached tenant details.")
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of requests rejected from cached unknown tenant identifiers.")
+	public long getUnknownTenantHitCount() {
+		return this.unknownTenantCache.getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of requests that had to query the tenants database.")
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	@ManagedAttribute(description = "Number of cached entries evicted due to expiry, size or explicit eviction.")
+	public long getEvictionCount() {
+		return this.cache.getEvictionCount() + this.unknownTenantCache.getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Number of tenant identifiers currently cached.")
+	public int getSize() {
+		return this.cache.getSize();
+	}
+
+	@ManagedAttribute(description = "Number of unknown tenant identifiers currently cached.")
+	public int getUnknownTenantSize() {
+		return this.unknownTenantCache.getSize();
+	}
+
+	@ManagedAttribute
+	public long getTimeToLiveMillis() {
+		return this.cache.getTimeToLiveMillis();
+	}
+
+	@ManagedAttribute
+	public void setTimeToLiveMillis(final long timeToLiveMillis) {
+		this.cache.setTimeToLiveMillis(timeToLiveMillis);
+	}
+
+	@ManagedAttribute
+	public long getUnknownTenantTimeToLiveMillis() {
+		return this.unknownTenantCache.getTimeToLiveMillis();
+	}
+
+	@ManagedAttribute
+	public void setUnknownTenantTimeToLiveMillis(final long unknownTenantTimeToLiveMillis) {
+		this.unknownTenantCache.setTimeToLiveMillis(unknownTenantTimeToLiveMillis);
+	}
+
+	@ManagedAttribute
+	public int getMaximumSize() {
+		return this.cache.getMaximumSize();
+	}
+
+	@ManagedAttribute
+	public void setMaximumSize(final int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+
+	@ManagedAttribute
+	public int getUnknownTenantMaximumSize() {
+		return this.unknownTenantCache.getMaximumSize();
+	}
+
+	@ManagedAttribute
+	public void setUnknownTenantMaximumSize(final int unknownTenantMaximumSize) {
+		this.unknownTenantCache.setMaximumSize(unknownTenantMaximumSize);
+	}
+}
@@ -0,0 +1,10 @@
+package org.mifosng.platform.infrastructure;
+
+import org.mifosng.platform.api.data.ConnectionPoolData;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+public interface ConnectionPoolReadPlatformService {
+
+	@PreAuthorize(value = "hasRole('ORGANISATION_ADMINISTRATION_SUPER_USER_ROLE')")
+	ConnectionPoolData retrieveConnectionPoolOfTenant();
+}
@@ -8,4 +8,17 @@ import javax.sql.DataSource;
 public interface DataSourcePerTenantService {
 
 	DataSource retrieveTenantAwareDataSource();
+
+	/**
+	 * Returns the read replica connection pool of the current tenant, or null
+	 * if it has none or the replica is too far behind its primary.
+	 */
+	DataSource retrieveTenantAwareReadReplicaDataSource();
+
+	/**
+	 * Returns a small connection pool of the current tenant for work that holds
+	 * a connection for much longer than a request does (e.g. a batch job
+	 * streaming a whole table). Its connections are never removed as abandoned.
+	 */
+	DataSource retrieveTenantAwareLongRunningDataSource();
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package org.mifosng.platform.infrastructure;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exposes the statistics of hibernate's second level and query cache regions
+ * over JMX and allows them to be evicted.
+ *
+ * The regions (see <code>ehcache.xml</code>) hold the reference entities the
+ * write services load on each command (products, charges, funds, staff,
+ * offices, currencies, transaction processing strategies and roles) and are
+ * local to each node. Entries are keyed by tenant so tenants never see each
+ * others entities. Changes made through the write services update the cache
+ * when their transaction commits; changes made directly on the database or
+ * on another node are picked up after the time to live of the region or by
+ * evicting it here.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=SecondLevelCache", description = "Hibernate second level cache of reference entities.")
+public class HibernateSecondLevelCache {
+
+	private final Statistics statistics;
+	private final Cache cache;
+
+	@Autowired
+	public HibernateSecondLevelCache(final EntityManagerFactory entityManagerFactory) {
+		final HibernateEntityManagerFactory hibernateEntityManagerFactory = (HibernateEntityManagerFactory) entityManagerFactory;
+		this.statistics = hibernateEntityManagerFactory.getSessionFactory().getStatistics();
+		this.cache = hibernateEntityManagerFactory.getSessionFactory().getCache();
+	}
+
+	@ManagedAttribute(description = "Names of the second level cache regions.")
+	public String[] getRegionNames() {
+		return this.statistics.getSecondLevelCacheRegionNames();
+	}
+
+	@ManagedAttribute(description = "Number of entities and collections read from the second level cache.")
+	public long getHitCount() {
+		return this.statistics.getSecondLevelCacheHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of entities and collections not found in the second level cache.")
+	public long getMissCount() {
+		return this.statistics.getSecondLevelCacheMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of query results read from the query cache.")
+	public long getQueryHitCount() {
+		return this.statistics.getQueryCacheHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of query results not found in the query cache.")
+	public long getQueryMissCount() {
+		return this.statistics.getQueryCacheMissCount();
+	}
+
+	@ManagedOperation(description = "Number of reads of the named region found in the cache.")
+	public long regionHitCount(final String regionName) {
+		return regionStatistics(regionName).getHitCount();
+	}
+
+	@ManagedOperation(description = "Number of reads of the named region not found in the cache.")
+	public long regionMissCount(final String regionName) {
+		return regionStatistics(regionName).getMissCount();
+	}
+
+	@ManagedOperation(description = "Number of entries put in the named region.")
+	public long regionPutCount(final String regionName) {
+		return regionStatistics(regionName).getPutCount();
+	}
+
+	@ManagedOperation(description = "Number of entries of all tenants held in memory by the named region.")
+	public long regionSize(final String regionName) {
+		return regionStatistics(regionName).getElementCountInMemory();
+	}
+
+	@ManagedOperation(description = "Evicts the entities (e.g. org.mifosng.platform.fund.domain.Fund) of all tenants.")
+	public void evictEntityRegion(final String entityName) {
+		this.cache.evictEntityRegion(entityName);
+	}
+
+	@ManagedOperation(description = "Evicts all entities, collections and query results of all tenants.")
+	public void evictAll() {
+		this.cache.evictEntityRegions();
+		this.cache.evictCollectionRegions();
+		this.cache.evictQueryRegions();
+		this.cache.evictDefaultQueryRegion();
+	}
+
+	@ManagedOperation(description = "Resets the statistics of all regions.")
+	public void resetStatistics() {
+		this.statistics.clear();
+	}
+
+	private SecondLevelCacheStatistics regionStatistics(final String regionName) {
+		final SecondLevelCacheStatistics regionStatistics = this.statistics.getSecondLevelCacheStatistics(regionName);
+		if (regionStatistics == null) {
+			throw new IllegalArgumentException("No second level cache region named " + regionName);
+		}
+		return regionStatistics;
+	}
+}
@@ -2,6 +2,7 @@ package org.mifosng.platform.infrastructure;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -30,9 +31,7 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
 		
 		try {
 			TenantMapper rm = new TenantMapper();
-			String sql = "select id, name, schema_name as schemaName, schema_server as schemaServer, schema_server_port as schemaServerPort, " +
-					" schema_username as schemaUsername, schema_password as schemaPassword " +
-					" from tenants t where t.identifier like ?";
+			String sql = rm.schema() + " where t.identifier like ?";
 	
 			return this.jdbcTemplate.queryForObject(sql, rm, new Object[] {tenantIdentifier});
 		} catch (EmptyResultDataAccessException e) {
@@ -40,8 +39,25 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
 		}
 	}
 	
+	@Override
+	public List<MifosPlatformTenant> findAllTenants() {
+		
+		TenantMapper rm = new TenantMapper();
+		String sql = rm.schema() + " order by t.id";
+		
+		return this.jdbcTemplate.query(sql, rm);
+	}
+	
 	private static final class TenantMapper implements RowMapper<MifosPlatformTenant> {
 
+		public String schema() {
+			return "select id, name, schema_name as schemaName, schema_server as schemaServer, schema_server_port as schemaServerPort, " +
+					" schema_username as schemaUsername, schema_password as schemaPassword, " +
+					" pool_initial_size as poolInitialSize, pool_min_idle as poolMinIdle, pool_max_idle as poolMaxIdle, pool_max_active as poolMaxActive, " +
+					" replica_schema_server as replicaSchemaServer, replica_schema_server_port as replicaSchemaServerPort, replica_max_lag_seconds as replicaMaxLagSeconds " +
+					" from tenants t";
+		}
+
 		@Override
 		public MifosPlatformTenant mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
 
@@ -52,8 +68,16 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
 			String schemaServerPort = rs.getString("schemaServerPort");
 			String schemaUsername = rs.getString("schemaUsername");
 			String schemaPassword = rs.getString("schemaPassword");
+			int poolInitialSize = rs.getInt("poolInitialSize");
+			int poolMinIdle = rs.getInt("poolMinIdle");
+			int poolMaxIdle = rs.getInt("poolMaxIdle");
+			int poolMaxActive = rs.getInt("poolMaxActive");
+			String replicaSchemaServer = rs.getString("replicaSchemaServer");
+			String replicaSchemaServerPort = rs.getString("replicaSchemaServerPort");
+			Integer replicaMaxLagSeconds = JdbcSupport.getInteger(rs, "replicaMaxLagSeconds");
 			
-			return new MifosPlatformTenant(id, name, schemaName, schemaServer, schemaServerPort, schemaUsername, schemaPassword);
+			return new MifosPlatformTenant(id, name, schemaName, schemaServer, schemaServerPort, schemaUsername, schemaPassword,
+					poolInitialSize, poolMinIdle, poolMaxIdle, poolMaxActive, replicaSchemaServer, replicaSchemaServerPort, replicaMaxLagSeconds);
 		}
 	}
 }
\ No newline at end of file
@@ -9,9 +9,30 @@ public class MifosPlatformTenant {
 	private final String schemaServerPort;
 	private final String schemaUsername;
 	private final String schemaPassword;
+	private final int poolInitialSize;
+	private final int poolMinIdle;
+	private final int poolMaxIdle;
+	private final int poolMaxActive;
+	private final String replicaSchemaServer;
+	private final String replicaSchemaServerPort;
+	private final Integer replicaMaxLagSeconds;
 
 	public MifosPlatformTenant(final Long id, final String name, final String schemaName, 
 			final String schemaServer, final String schemaServerPort, final String schemaUsername, final String schemaPassword) {
+		this(id, name, schemaName, schemaServer, schemaServerPort, schemaUsername, schemaPassword, 5, 1, 4, 5);
+	}
+
+	public MifosPlatformTenant(final Long id, final String name, final String schemaName, 
+			final String schemaServer, final String schemaServerPort, final String schemaUsername, final String schemaPassword,
+			final int poolInitialSize, final int poolMinIdle, final int poolMaxIdle, final int poolMaxActive) {
+		this(id, name, schemaName, schemaServer, schemaServerPort, schemaUsername, schemaPassword, poolInitialSize, poolMinIdle, poolMaxIdle,
+				poolMaxActive, null, null, null);
+	}
+
+	public MifosPlatformTenant(final Long id, final String name, final String schemaName, 
+			final String schemaServer, final String schemaServerPort, final String schemaUsername, final String schemaPassword,
+			final int poolInitialSize, final int poolMinIdle, final int poolMaxIdle, final int poolMaxActive,
+			final String replicaSchemaServer, final String replicaSchemaServerPort, final Integer replicaMaxLagSeconds) {
 		this.id = id;
 		this.name = name;
 		this.schemaName = schemaName;
@@ -19,6 +40,13 @@ public class MifosPlatformTenant {
 		this.schemaServerPort = schemaServerPort;
 		this.schemaUsername = schemaUsername;
 		this.schemaPassword = schemaPassword;
+		this.poolInitialSize = poolInitialSize;
+		this.poolMinIdle = poolMinIdle;
+		this.poolMaxIdle = poolMaxIdle;
+		this.poolMaxActive = poolMaxActive;
+		this.replicaSchemaServer = replicaSchemaServer;
+		this.replicaSchemaServerPort = replicaSchemaServerPort;
+		this.replicaMaxLagSeconds = replicaMaxLagSeconds;
 	}
 
 	public Long getId() {
@@ -48,4 +76,40 @@ public class MifosPlatformTenant {
 	public String getSchemaPassword() {
 		return schemaPassword;
 	}
+
+	public int getPoolInitialSize() {
+		return poolInitialSize;
+	}
+
+	public int getPoolMinIdle() {
+		return poolMinIdle;
+	}
+
+	public int getPoolMaxIdle() {
+		return poolMaxIdle;
+	}
+
+	public int getPoolMaxActive() {
+		return poolMaxActive;
+	}
+
+	public boolean hasReadReplica() {
+		return replicaSchemaServer != null;
+	}
+
+	public String getReplicaSchemaServer() {
+		return replicaSchemaServer;
+	}
+
+	public String getReplicaSchemaServerPort() {
+		return replicaSchemaServerPort;
+	}
+
+	/**
+	 * How far in seconds the read replica may be behind the primary before
+	 * reads go to the primary instead, or null if its lag is not checked.
+	 */
+	public Integer getReplicaMaxLagSeconds() {
+		return replicaMaxLagSeconds;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,395 @@
+package org.mifosng.platform.infrastructure;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In memory cache used by the platform's caching services, which expose its
+ * counts and settings over JMX as their own.
+ *
+ * Entries expire after a time to live (which can be given per entry, e.g.
+ * shorter for negative entries) and once the cache holds its maximum size the
+ * least recently used entry is evicted. A cache created
+ * {@link #perTenant(long, int)} keys its entries by the tenant of the current
+ * thread so tenants never see each others entries; one created
+ * {@link #shared(long, int)} holds entries that do not depend on the tenant.
+ *
+ * {@link #get(Object, Loader)} reads through: only one thread loads an entry
+ * at a time, others waiting for it use the value it loaded, and a value loaded
+ * while an entry was evicted is not cached as it may be from before the
+ * change. Evictions requested within a transaction with
+ * {@link #evictAfterCompletion(Object)} are applied again once it completes.
+ * Loaders read from the primary database rather than a read replica (see
+ * {@link ReadReplicaRoutingContext#beginReadingFromPrimary()}) as a value read
+ * from a replica that is behind would be cached for longer than it lags.
+ *
+ * Cached values are shared between threads so must not be modified by
+ * callers.
+ */
+public final class PlatformCache<K, V> {
+
+	/**
+	 * Time to live of entries that never expire.
+	 */
+	public static final long NEVER_EXPIRES = Long.MAX_VALUE;
+
+	private static final int NUMBER_OF_LOAD_LOCKS = 64;
+
+	/**
+	 * Reads the value of an entry on a cache miss.
+	 */
+	public interface Loader<V> {
+		V load();
+	}
+
+	private final boolean perTenant;
+	private final Map<ScopedKey, CachedValue<V>> entries;
+	private final Object[] loadLocks = new Object[NUMBER_OF_LOAD_LOCKS];
+
+	private volatile long timeToLiveMillis;
+	private volatile int maximumSize;
+
+	// incremented on each eviction so a value loaded while an eviction happened is not cached
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public static <K, V> PlatformCache<K, V> perTenant(final long timeToLiveMillis, final int maximumSize) {
+		return new PlatformCache<K, V>(true, timeToLiveMillis, maximumSize);
+	}
+
+	public static <K, V> PlatformCache<K, V> shared(final long timeToLiveMillis, final int maximumSize) {
+		return new PlatformCache<K, V>(false, timeToLiveMillis, maximumSize);
+	}
+
+	private PlatformCache(final boolean perTenant, final long timeToLiveMillis, final int maximumSize) {
+		this.perTenant = perTenant;
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.maximumSize = maximumSize;
+		this.entries = new LinkedHashMap<ScopedKey, CachedValue<V>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<ScopedKey, CachedValue<V>> eldest) {
+				if (size() > PlatformCache.this.maximumSize) {
+					PlatformCache.this.evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+		for (int i = 0; i < NUMBER_OF_LOAD_LOCKS; i++) {
+			this.loadLocks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Returns the cached value or null if it is not cached or has expired.
+	 */
+	public V get(final K key) {
+		final CachedValue<V> cached = lookup(scoped(key), System.currentTimeMillis());
+		if (cached == null) {
+			this.missCount.incrementAndGet();
+			return null;
+		}
+		this.hitCount.incrementAndGet();
+		return cached.getValue();
+	}
+
+	/**
+	 * Returns the cached value, using the loader to read and cache it when it
+	 * is not cached or has expired.
+	 */
+	public V get(final K key, final Loader<V> loader) {
+		return get(key, Long.MIN_VALUE, loader);
+	}
+
+	/**
+	 * Returns the cached value if it was cached at or after the time given,
+	 * otherwise uses the loader to read and cache it again.
+	 */
+	public V get(final K key, final long cachedSince, final Loader<V> loader) {
+
+		final ScopedKey scopedKey = scoped(key);
+
+		CachedValue<V> cached = lookup(scopedKey, System.currentTimeMillis());
+		if (cached == null || cached.isCachedBefore(cachedSince)) {
+			synchronized (loadLockOf(scopedKey)) {
+				cached = lookup(scopedKey, System.currentTimeMillis());
+				if (cached == null || cached.isCachedBefore(cachedSince)) {
+					this.missCount.incrementAndGet();
+					final long generationBeforeLoad = this.generation.get();
+					final V value = loadFromPrimary(loader);
+					if (generationBeforeLoad == this.generation.get()) {
+						store(scopedKey, value, null);
+					}
+					return value;
+				}
+			}
+		}
+
+		this.hitCount.incrementAndGet();
+		return cached.getValue();
+	}
+
+	public void put(final K key, final V value) {
+		store(scoped(key), value, null);
+	}
+
+	/**
+	 * Caches the value for the time given rather than the time to live of the
+	 * cache.
+	 */
+	public void put(final K key, final V value, final long timeToLiveMillis) {
+		store(scoped(key), value, Long.valueOf(timeToLiveMillis));
+	}
+
+	/**
+	 * Evicts the entry (of the current tenant).
+	 */
+	public void evict(final K key) {
+		remove(scoped(key));
+	}
+
+	/**
+	 * Evicts the entry (of the current tenant) now and again after the current
+	 * transaction (if any) completes, so that it cannot be re-cached with the
+	 * state from before a change made in the transaction.
+	 */
+	public void evictAfterCompletion(final K key) {
+		final ScopedKey scopedKey = scoped(key);
+		remove(scopedKey);
+		afterCompletion(new Runnable() {
+			@Override
+			public void run() {
+				remove(scopedKey);
+			}
+		});
+	}
+
+	/**
+	 * Evicts all entries of the current tenant now and again after the current
+	 * transaction (if any) completes.
+	 */
+	public void evictAllOfTenantAfterCompletion() {
+		final Long tenantId = currentTenantId();
+		removeAllOfTenant(tenantId);
+		afterCompletion(new Runnable() {
+			@Override
+			public void run() {
+				removeAllOfTenant(tenantId);
+			}
+		});
+	}
+
+	/**
+	 * Evicts the entry of every tenant.
+	 */
+	public void evictOfAllTenants(final K key) {
+		synchronized (this.entries) {
+			this.generation.incrementAndGet();
+			for (Iterator<ScopedKey> iterator = this.entries.keySet().iterator(); iterator.hasNext();) {
+				if (iterator.next().key.equals(key)) {
+					iterator.remove();
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	public void evictAll() {
+		synchronized (this.entries) {
+			this.generation.incrementAndGet();
+			this.evictionCount.addAndGet(this.entries.size());
+			this.entries.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	public int getSize() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	public long getTimeToLiveMillis() {
+		return this.timeToLiveMillis;
+	}
+
+	/**
+	 * Applies straight away to all entries cached without a time to live of
+	 * their own.
+	 */
+	public void setTimeToLiveMillis(final long timeToLiveMillis) {
+		this.timeToLiveMillis = timeToLiveMillis;
+	}
+
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Evicts the least recently used entries beyond the new maximum size.
+	 */
+	public void setMaximumSize(final int maximumSize) {
+		synchronized (this.entries) {
+			this.maximumSize = maximumSize;
+			final Iterator<CachedValue<V>> leastRecentlyUsedFirst = this.entries.values().iterator();
+			while (this.entries.size() > maximumSize) {
+				leastRecentlyUsedFirst.next();
+				leastRecentlyUsedFirst.remove();
+				this.evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	private CachedValue<V> lookup(final ScopedKey scopedKey, final long now) {
+		synchronized (this.entries) {
+			final CachedValue<V> cached = this.entries.get(scopedKey);
+			if (cached != null && cached.isExpiredAt(now, this.timeToLiveMillis)) {
+				this.entries.remove(scopedKey);
+				this.evictionCount.incrementAndGet();
+				return null;
+			}
+			return cached;
+		}
+	}
+
+	private void store(final ScopedKey scopedKey, final V value, final Long timeToLiveMillis) {
+		final CachedValue<V> cached = new CachedValue<V>(value, System.currentTimeMillis(), timeToLiveMillis);
+		synchronized (this.entries) {
+			this.entries.put(scopedKey, cached);
+		}
+	}
+
+	private void remove(final ScopedKey scopedKey) {
+		synchronized (this.entries) {
+			this.generation.incrementAndGet();
+			if (this.entries.remove(scopedKey) != null) {
+				this.evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	private void removeAllOfTenant(final Long tenantId) {
+		synchronized (this.entries) {
+			this.generation.incrementAndGet();
+			for (Iterator<ScopedKey> iterator = this.entries.keySet().iterator(); iterator.hasNext();) {
+				if (iterator.next().isOfTenant(tenantId)) {
+					iterator.remove();
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	private static <V> V loadFromPrimary(final Loader<V> loader) {
+		final boolean wasReadingFromPrimary = ReadReplicaRoutingContext.beginReadingFromPrimary();
+		try {
+			return loader.load();
+		} finally {
+			ReadReplicaRoutingContext.endReadingFromPrimary(wasReadingFromPrimary);
+		}
+	}
+
+	private Object loadLockOf(final ScopedKey scopedKey) {
+		return this.loadLocks[(scopedKey.hashCode() & Integer.MAX_VALUE) % NUMBER_OF_LOAD_LOCKS];
+	}
+
+	private ScopedKey scoped(final K key) {
+		return new ScopedKey(this.perTenant ? currentTenantId() : null, key);
+	}
+
+	private Long currentTenantId() {
+		final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+		return tenant == null ? Long.valueOf(0) : tenant.getId();
+	}
+
+	private static void afterCompletion(final Runnable eviction) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(@SuppressWarnings("unused") final int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+
+	private static final class ScopedKey {
+
+		private final Long tenantId;
+		private final Object key;
+		private final int hashCode;
+
+		public ScopedKey(final Long tenantId, final Object key) {
+			this.tenantId = tenantId;
+			this.key = key;
+			this.hashCode = 31 * (tenantId == null ? 0 : tenantId.hashCode()) + key.hashCode();
+		}
+
+		public boolean isOfTenant(final Long tenantId) {
+			return tenantId.equals(this.tenantId);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ScopedKey)) {
+				return false;
+			}
+			final ScopedKey other = (ScopedKey) obj;
+			return this.hashCode == other.hashCode && this.key.equals(other.key)
+					&& (this.tenantId == null ? other.tenantId == null : this.tenantId.equals(other.tenantId));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	private static final class CachedValue<V> {
+
+		private final V value;
+		private final long cachedAt;
+		private final Long timeToLiveMillis;
+
+		public CachedValue(final V value, final long cachedAt, final Long timeToLiveMillis) {
+			this.value = value;
+			this.cachedAt = cachedAt;
+			this.timeToLiveMillis = timeToLiveMillis;
+		}
+
+		public boolean isExpiredAt(final long now, final long defaultTimeToLiveMillis) {
+			final long timeToLive = this.timeToLiveMillis == null ? defaultTimeToLiveMillis : this.timeToLiveMillis.longValue();
+			return now - this.cachedAt >= timeToLive;
+		}
+
+		public boolean isCachedBefore(final long time) {
+			return this.cachedAt < time;
+		}
+
+		public V getValue() {
+			return this.value;
+		}
+	}
+}
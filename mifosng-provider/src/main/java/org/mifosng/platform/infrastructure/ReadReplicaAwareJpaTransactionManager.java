@@ -0,0 +1,38 @@
+package org.mifosng.platform.infrastructure;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A {@link JpaTransactionManager} that lets the
+ * {@link TenantAwareRoutingDataSource} know the transaction it takes a
+ * connection for is read only, so read only transactions can run on the
+ * tenant's read replica.
+ *
+ * Transactions running on the replica only read from the second level cache,
+ * so entities and queries read from a replica that is behind are not cached
+ * for requests reading from the primary.
+ */
+public class ReadReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+	private static final long serialVersionUID = 4183327513045587462L;
+
+	@Override
+	protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+		ReadReplicaRoutingContext.beginningReadOnlyTransaction(definition.isReadOnly());
+		try {
+			super.doBegin(transaction, definition);
+			if (ReadReplicaRoutingContext.hasTransactionBegunOnReplica()) {
+				final EntityManagerHolder entityManagerHolder = (EntityManagerHolder) TransactionSynchronizationManager
+						.getResource(getEntityManagerFactory());
+				entityManagerHolder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+			}
+		} finally {
+			ReadReplicaRoutingContext.beginningReadOnlyTransaction(false);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.mifosng.platform.infrastructure;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks how far the read replica of each tenant is behind its primary so that
+ * reads only go to a replica that is close enough.
+ *
+ * The lag is read from <code>SHOW SLAVE STATUS</code> on the replica at most
+ * once per check interval for each tenant, by one thread while others waiting
+ * for it use the lag it read. A replica that is not replicating,
+ * or whose lag cannot be read, is treated as too far behind. Tenants without a
+ * maximum lag (e.g. a stand-in replica in testing) are not checked.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=ReadReplicaRouting", description = "Routing of read only work to tenant read replicas.")
+public class ReadReplicaLagMonitor {
+
+	private final static Logger logger = LoggerFactory.getLogger(ReadReplicaLagMonitor.class);
+
+	private static final long DEFAULT_CHECK_INTERVAL_MILLIS = 5 * 1000L;
+
+	// seconds behind of the replica of each tenant by tenant id, null if not replicating
+	private final PlatformCache<Long, Long> lagSecondsByTenant = PlatformCache.shared(PlatformCache.NEVER_EXPIRES, Integer.MAX_VALUE);
+
+	private long checkIntervalMillis = DEFAULT_CHECK_INTERVAL_MILLIS;
+
+	private final AtomicLong replicaCount = new AtomicLong();
+	private final AtomicLong lagFallbackCount = new AtomicLong();
+
+	/**
+	 * Returns whether read only work of the tenant may use its replica, reading
+	 * the replica's lag if it was last read longer than the check interval ago.
+	 */
+	public boolean isWithinAllowedLag(final MifosPlatformTenant tenant, final DataSource replica) {
+
+		final Integer maximumLagSeconds = tenant.getReplicaMaxLagSeconds();
+		if (maximumLagSeconds == null) {
+			this.replicaCount.incrementAndGet();
+			return true;
+		}
+
+		final Long lagSeconds = this.lagSecondsByTenant.get(tenant.getId(), System.currentTimeMillis() - this.checkIntervalMillis,
+				new PlatformCache.Loader<Long>() {
+					@Override
+					public Long load() {
+						return readLagSeconds(tenant, replica);
+					}
+				});
+
+		final boolean withinAllowedLag = lagSeconds != null && lagSeconds.longValue() <= maximumLagSeconds.intValue();
+		if (withinAllowedLag) {
+			this.replicaCount.incrementAndGet();
+		} else {
+			this.lagFallbackCount.incrementAndGet();
+		}
+		return withinAllowedLag;
+	}
+
+	/**
+	 * Returns the seconds the replica is behind or null if it is not replicating.
+	 */
+	protected Long readLagSeconds(final MifosPlatformTenant tenant, final DataSource replica) {
+		try {
+			final List<Map<String, Object>> status = new JdbcTemplate(replica).queryForList("SHOW SLAVE STATUS");
+			if (status.isEmpty()) {
+				logger.warn("Read replica of tenant " + tenant.getName() + " is not replicating, reading from primary.");
+				return null;
+			}
+			final Object secondsBehindMaster = status.get(0).get("Seconds_Behind_Master");
+			return secondsBehindMaster == null ? null : Long.valueOf(((Number) secondsBehindMaster).longValue());
+		} catch (DataAccessException e) {
+			logger.warn("Unable to read the lag of the read replica of tenant " + tenant.getName() + ", reading from primary.", e);
+			return null;
+		}
+	}
+
+	@ManagedOperation(description = "Seconds the read replica of the tenant was behind when last checked, -1 if not replicating or not checked.")
+	public long lagSecondsOf(final Long tenantId) {
+		final Long lagSeconds = this.lagSecondsByTenant.get(tenantId);
+		return lagSeconds == null ? -1 : lagSeconds.longValue();
+	}
+
+	@ManagedOperation(description = "Forgets the last lag checks so the replicas are checked on their next use.")
+	public void evictAll() {
+		this.lagSecondsByTenant.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of times read only work was sent to a read replica.")
+	public long getReplicaCount() {
+		return this.replicaCount.get();
+	}
+
+	@ManagedAttribute(description = "Number of times read only work went to the primary because the replica was too far behind.")
+	public long getLagFallbackCount() {
+		return this.lagFallbackCount.get();
+	}
+
+	@ManagedAttribute
+	public long getCheckIntervalMillis() {
+		return this.checkIntervalMillis;
+	}
+
+	@ManagedAttribute
+	public void setCheckIntervalMillis(final long checkIntervalMillis) {
+		this.checkIntervalMillis = checkIntervalMillis;
+	}
+}
@@ -0,0 +1,117 @@
+package org.mifosng.platform.infrastructure;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides per thread whether the {@link TenantAwareRoutingDataSource} may hand
+ * out a connection to the tenant's read replica.
+ *
+ * Work is read only when it runs in a read only transaction, either a real one
+ * (e.g. the spring data repository finders) or a
+ * <code>@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)</code>
+ * scope as used by the jdbc read services. Once a connection has been handed
+ * out for other work the request may have written, so the rest of the request
+ * reads from the primary to see its own writes.
+ *
+ * Values that are cached for other requests are read from the primary (see
+ * {@link #beginReadingFromPrimary()}) so a replica that is behind cannot put
+ * stale values into a cache that outlives its lag.
+ */
+public class ReadReplicaRoutingContext {
+
+	private static final ThreadLocal<Boolean> beginningReadOnlyTransaction = new ThreadLocal<Boolean>();
+	private static final ThreadLocal<Boolean> transactionBegunOnReplica = new ThreadLocal<Boolean>();
+	private static final ThreadLocal<Boolean> written = new ThreadLocal<Boolean>();
+	private static final ThreadLocal<Boolean> readingFromPrimary = new ThreadLocal<Boolean>();
+
+	public static boolean isReadOnly() {
+		final boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				|| Boolean.TRUE.equals(beginningReadOnlyTransaction.get());
+		return readOnly && !hasWritten();
+	}
+
+	/**
+	 * Returns whether a connection handed out now may go to the read replica.
+	 */
+	public static boolean mayReadFromReplica() {
+		return isReadOnly() && !isReadingFromPrimary();
+	}
+
+	/**
+	 * The transaction manager takes the connection of a transaction before the
+	 * transaction is marked read only so it flags the read only transaction it
+	 * is beginning here.
+	 */
+	public static void beginningReadOnlyTransaction(final boolean readOnly) {
+		transactionBegunOnReplica.remove();
+		if (readOnly) {
+			beginningReadOnlyTransaction.set(Boolean.TRUE);
+		} else {
+			beginningReadOnlyTransaction.remove();
+		}
+	}
+
+	/**
+	 * Records that the connection handed out was the read replica's, so the
+	 * transaction manager knows when the transaction it is beginning runs on
+	 * the replica.
+	 */
+	public static void markReadFromReplica() {
+		if (Boolean.TRUE.equals(beginningReadOnlyTransaction.get())) {
+			transactionBegunOnReplica.set(Boolean.TRUE);
+		}
+	}
+
+	public static boolean hasTransactionBegunOnReplica() {
+		return Boolean.TRUE.equals(transactionBegunOnReplica.get());
+	}
+
+	/**
+	 * Reads from the primary until {@link #endReadingFromPrimary(boolean)} is
+	 * called with the value returned, without marking the request as written.
+	 * Connections already bound to a transaction are not affected so callers
+	 * reading within a transaction must use a connection of their own.
+	 */
+	public static boolean beginReadingFromPrimary() {
+		final boolean wasReadingFromPrimary = isReadingFromPrimary();
+		readingFromPrimary.set(Boolean.TRUE);
+		return wasReadingFromPrimary;
+	}
+
+	public static void endReadingFromPrimary(final boolean wasReadingFromPrimary) {
+		if (!wasReadingFromPrimary) {
+			readingFromPrimary.remove();
+		}
+	}
+
+	public static boolean isReadingFromPrimary() {
+		return Boolean.TRUE.equals(readingFromPrimary.get());
+	}
+
+	public static void markWritten() {
+		written.set(Boolean.TRUE);
+	}
+
+	public static boolean hasWritten() {
+		return Boolean.TRUE.equals(written.get());
+	}
+
+	/**
+	 * Carries whether the request has written over to another thread working
+	 * on the request.
+	 */
+	public static void setWritten(final boolean hasWritten) {
+		if (hasWritten) {
+			markWritten();
+		} else {
+			written.remove();
+		}
+	}
+
+	public static void clear() {
+		beginningReadOnlyTransaction.remove();
+		transactionBegunOnReplica.remove();
+		written.remove();
+		readingFromPrimary.remove();
+	}
+}
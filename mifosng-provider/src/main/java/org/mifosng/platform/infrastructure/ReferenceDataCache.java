@@ -0,0 +1,117 @@
+package org.mifosng.platform.infrastructure;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read through cache per tenant of the reference data (products, funds,
+ * charges, currencies etc.) offered as options by the template endpoints so
+ * that loading a form does not query the tenant database each time. These
+ * lookups are plain sql queries so are not covered by the 2nd level cache of
+ * the entities they read.
+ *
+ * Each kind of reference data is cached as a whole under a region. The write
+ * services evict the region of the data they change after their transaction
+ * completes (see {@link PlatformCache#evictAfterCompletion(Object)}). Data
+ * maintained outside the platform (e.g. the transaction processing
+ * strategies) is picked up after the time to live.
+ *
+ * Cached values are shared between requests so must not be modified by
+ * callers.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=ReferenceDataCache", description = "Cache of reference data lookups per tenant.")
+public class ReferenceDataCache {
+
+	public static final String LOAN_PRODUCTS = "loanProducts";
+	public static final String FUNDS = "funds";
+	public static final String LOAN_CHARGES = "loanCharges";
+	public static final String CURRENCIES = "currencies";
+	public static final String TRANSACTION_PROCESSING_STRATEGIES = "transactionProcessingStrategies";
+
+	private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000L;
+	private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	/**
+	 * Reads the reference data of a region from the database on a cache miss.
+	 */
+	public interface Loader<T> {
+		T load();
+	}
+
+	private final PlatformCache<String, Object> cache = PlatformCache.perTenant(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_MAXIMUM_SIZE);
+
+	/**
+	 * Returns the cached value of the region for the current tenant, using the
+	 * loader to read and cache it when it is not cached or has expired.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(final String region, final Loader<T> loader) {
+		return (T) this.cache.get(region, new PlatformCache.Loader<Object>() {
+			@Override
+			public Object load() {
+				return loader.load();
+			}
+		});
+	}
+
+	/**
+	 * Evicts the region of the current tenant now and again after the current
+	 * transaction (if any) completes.
+	 */
+	public void evict(final String region) {
+		this.cache.evictAfterCompletion(region);
+	}
+
+	@ManagedOperation(description = "Evicts the named region (e.g. funds) of all tenants.")
+	public void evictRegion(final String region) {
+		this.cache.evictOfAllTenants(region);
+	}
+
+	@ManagedOperation(description = "Evicts all reference data of all tenants.")
+	public void evictAll() {
+		this.cache.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of lookups that used cached reference data.")
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of lookups that read reference data from the database.")
+	public long getMissCount() {
+		return this.cache.getMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of cached reference data regions evicted.")
+	public long getEvictionCount() {
+		return this.cache.getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Number of reference data regions currently cached across all tenants.")
+	public int getSize() {
+		return this.cache.getSize();
+	}
+
+	@ManagedAttribute
+	public long getTimeToLiveMillis() {
+		return this.cache.getTimeToLiveMillis();
+	}
+
+	@ManagedAttribute
+	public void setTimeToLiveMillis(final long timeToLiveMillis) {
+		this.cache.setTimeToLiveMillis(timeToLiveMillis);
+	}
+
+	@ManagedAttribute
+	public int getMaximumSize() {
+		return this.cache.getMaximumSize();
+	}
+
+	@ManagedAttribute
+	public void setMaximumSize(final int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+}
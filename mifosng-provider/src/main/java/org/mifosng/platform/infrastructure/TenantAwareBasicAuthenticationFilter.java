@@ -48,6 +48,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
 		HttpServletRequest request = (HttpServletRequest) req;
 		HttpServletResponse response = (HttpServletResponse) res;
 		
+		ReadReplicaRoutingContext.clear();
 		try {
 		
 			if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
@@ -78,7 +79,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
 			response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Mifos Platform API" + "\"");
 	        response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
 		} finally {
-			
+			ReadReplicaRoutingContext.clear();
 		}
 	}
 }
\ No newline at end of file
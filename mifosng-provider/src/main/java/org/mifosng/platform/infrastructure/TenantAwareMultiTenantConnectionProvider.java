@@ -0,0 +1,77 @@
+package org.mifosng.platform.infrastructure;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands hibernate connections to the database of the session's tenant through
+ * the {@link TenantAwareRoutingDataSource}.
+ * 
+ * The routing data source picks the database from the tenant of the current
+ * thread, so a connection asked for a different tenant than that (a session
+ * used after the thread moved on to another tenant) is refused rather than
+ * mixing the two.
+ */
+@Service
+public class TenantAwareMultiTenantConnectionProvider implements MultiTenantConnectionProvider {
+
+	private static final long serialVersionUID = -1745314924183585427L;
+
+	private final TenantAwareRoutingDataSource dataSource;
+
+	@Autowired
+	public TenantAwareMultiTenantConnectionProvider(final TenantAwareRoutingDataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	@Override
+	public Connection getAnyConnection() throws SQLException {
+		return this.dataSource.getConnection();
+	}
+
+	@Override
+	public void releaseAnyConnection(final Connection connection) throws SQLException {
+		connection.close();
+	}
+
+	@Override
+	public Connection getConnection(final String tenantIdentifier) throws SQLException {
+
+		final String currentTenantIdentifier = ThreadLocalTenantIdentifierResolver.tenantIdentifierOf(ThreadLocalContextUtil.getTenant());
+		if (!currentTenantIdentifier.equals(tenantIdentifier)) {
+			throw new IllegalStateException("Session of tenant " + tenantIdentifier + " used while handling tenant " + currentTenantIdentifier);
+		}
+
+		return this.dataSource.getConnection();
+	}
+
+	@Override
+	public void releaseConnection(@SuppressWarnings("unused") final String tenantIdentifier, final Connection connection) throws SQLException {
+		connection.close();
+	}
+
+	@Override
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public boolean isUnwrappableAs(final Class unwrapType) {
+		return MultiTenantConnectionProvider.class.equals(unwrapType) || TenantAwareMultiTenantConnectionProvider.class.isAssignableFrom(unwrapType);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T unwrap(final Class<T> unwrapType) {
+		if (isUnwrappableAs(unwrapType)) {
+			return (T) this;
+		}
+		throw new UnknownUnwrapTypeException(unwrapType);
+	}
+}
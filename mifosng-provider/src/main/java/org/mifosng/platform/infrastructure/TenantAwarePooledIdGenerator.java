@@ -0,0 +1,104 @@
+package org.mifosng.platform.infrastructure;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.type.Type;
+
+/**
+ * Hands out entity identifiers in blocks reserved from the
+ * <code>m_pooled_id</code> table of the tenant's database (one row per entity
+ * table) so that hibernate can batch the inserts of new entities, which it
+ * cannot do with identity columns.
+ *
+ * Blocks are reserved by hibernate's {@link TableGenerator} in a separate
+ * transaction with an optimistic update of the row, so several nodes can
+ * share a database. There is a single session factory for all tenants and a
+ * block is only valid for the database it came from, so a {@link TableGenerator}
+ * is kept per tenant.
+ *
+ * An entity uses it by declaring it as its id generator (see
+ * {@link AbstractPersistableCustom}); the <code>m_pooled_id</code> table and
+ * block size are defaults that the generator's parameters can override.
+ *
+ * Rows of a table using it must only be inserted through hibernate. An insert
+ * leaving the id to auto increment can take an id of a block already reserved
+ * and make the next insert of that block fail with a duplicate key.
+ */
+public class TenantAwarePooledIdGenerator implements IdentifierGenerator, Configurable {
+
+	public static final String STRATEGY = "org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator";
+
+	private final ConcurrentMap<Long, TableGenerator> tenantToGeneratorMap = new ConcurrentHashMap<Long, TableGenerator>();
+	private volatile TableGenerator noTenantGenerator;
+
+	private Type type;
+	private Properties params;
+	private Dialect dialect;
+
+	@Override
+	public void configure(final Type type, final Properties params, final Dialect dialect) throws MappingException {
+		this.type = type;
+		this.params = withPooledIdTableDefaults(params);
+		this.dialect = dialect;
+
+		// check the configuration once up front rather than on first insert for each tenant
+		newGenerator();
+	}
+
+	@Override
+	public Serializable generate(final SessionImplementor session, final Object object) {
+		return generatorForCurrentTenant().generate(session, object);
+	}
+
+	private TableGenerator generatorForCurrentTenant() {
+
+		final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+		if (tenant == null) {
+			if (this.noTenantGenerator == null) {
+				synchronized (this) {
+					if (this.noTenantGenerator == null) {
+						this.noTenantGenerator = newGenerator();
+					}
+				}
+			}
+			return this.noTenantGenerator;
+		}
+
+		TableGenerator generator = this.tenantToGeneratorMap.get(tenant.getId());
+		if (generator == null) {
+			final TableGenerator newGenerator = newGenerator();
+			generator = this.tenantToGeneratorMap.putIfAbsent(tenant.getId(), newGenerator);
+			if (generator == null) {
+				generator = newGenerator;
+			}
+		}
+		return generator;
+	}
+
+	protected TableGenerator newGenerator() {
+		final TableGenerator generator = new TableGenerator();
+		generator.configure(this.type, this.params, this.dialect);
+		return generator;
+	}
+
+	static Properties withPooledIdTableDefaults(final Properties params) {
+		final Properties withDefaults = new Properties();
+		withDefaults.setProperty(TableGenerator.TABLE_PARAM, "m_pooled_id");
+		withDefaults.setProperty(TableGenerator.SEGMENT_COLUMN_PARAM, "entity_table");
+		withDefaults.setProperty(TableGenerator.VALUE_COLUMN_PARAM, "next_id");
+		withDefaults.setProperty(TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, "true");
+		withDefaults.setProperty(TableGenerator.INCREMENT_PARAM, "100");
+		withDefaults.setProperty(TableGenerator.OPT_PARAM, "pooled-lo");
+		withDefaults.putAll(params);
+		return withDefaults;
+	}
+}
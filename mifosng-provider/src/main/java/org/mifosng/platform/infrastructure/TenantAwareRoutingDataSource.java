@@ -19,19 +19,38 @@ import org.springframework.stereotype.Service;
  * 
  * The {@link DataSourcePerTenantService} is responsible for returning the
  * appropriate {@link DataSource} for the tenant of this request.
+ * 
+ * Read only work (see {@link ReadReplicaRoutingContext}) goes to the tenant's
+ * read replica when it has one that is not too far behind, otherwise to the
+ * tenant's primary database. Other work marks the request as written (see
+ * {@link ReadReplicaRoutingContext#markWritten()}) so its later reads see its
+ * writes.
  */
 @Service(value="tenantAwareDataSource")
 public class TenantAwareRoutingDataSource extends AbstractDataSource {
 
+	private final DataSourcePerTenantService dataSourcePerTenantService;
+
 	@Autowired
-	private DataSourcePerTenantService dataSourcePerTenantService;
-	
+	public TenantAwareRoutingDataSource(final DataSourcePerTenantService dataSourcePerTenantService) {
+		this.dataSourcePerTenantService = dataSourcePerTenantService;
+	}
+
 	@Override
 	public Connection getConnection() throws SQLException {
 		return determineTargetDataSource().getConnection();
 	}
 
-	private DataSource determineTargetDataSource() {
+	DataSource determineTargetDataSource() {
+		if (ReadReplicaRoutingContext.mayReadFromReplica()) {
+			final DataSource replica = dataSourcePerTenantService.retrieveTenantAwareReadReplicaDataSource();
+			if (replica != null) {
+				ReadReplicaRoutingContext.markReadFromReplica();
+				return replica;
+			}
+		} else if (!ReadReplicaRoutingContext.isReadingFromPrimary()) {
+			ReadReplicaRoutingContext.markWritten();
+		}
 		return dataSourcePerTenantService.retrieveTenantAwareDataSource();
 	}
 
@@ -0,0 +1,154 @@
+package org.mifosng.platform.infrastructure;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mifosng.platform.exceptions.PlatformInternalServerException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs independent reads of a request concurrently on a small bounded pool of
+ * threads. The tenant ({@link ThreadLocalContextUtil}) and security context of
+ * the submitting thread are carried over to the thread running each read, as
+ * is whether the request has written (see {@link ReadReplicaRoutingContext}).
+ *
+ * When all threads are busy and the queue is full a read is run on the
+ * submitting thread, so under load requests fall back to running their reads
+ * one after another rather than failing.
+ *
+ * Each concurrent read takes its own connection from the tenants pool so the
+ * pool size bounds how much a single request fans out.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=TenantAwareTaskExecutor", description = "Executor of concurrent reads within a request.")
+public class TenantAwareTaskExecutor implements DisposableBean {
+
+	private static final int DEFAULT_POOL_SIZE = 8;
+	private static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+	private final ThreadPoolExecutor executor;
+
+	public TenantAwareTaskExecutor() {
+		this(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	TenantAwareTaskExecutor(final int poolSize, final int queueCapacity) {
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+				new ReadThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Starts the read with the tenant and security context of the current thread.
+	 */
+	public <T> Future<T> submit(final Callable<T> read) {
+		return this.executor.submit(new ContextPropagatingCallable<T>(read));
+	}
+
+	/**
+	 * Waits for the read to complete, rethrowing any runtime exception thrown
+	 * by it (e.g. a not found exception) as is.
+	 */
+	public <T> T join(final Future<T> result) {
+		try {
+			return result.get();
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PlatformInternalServerException("error.msg.concurrent.read.failed", "Unexpected error while reading data.", cause.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PlatformInternalServerException("error.msg.concurrent.read.interrupted", "Interrupted while reading data.");
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdown();
+	}
+
+	@ManagedAttribute(description = "Number of threads currently running reads.")
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+	@ManagedAttribute(description = "Number of reads waiting for a thread.")
+	public int getQueueSize() {
+		return this.executor.getQueue().size();
+	}
+
+	@ManagedAttribute(description = "Number of reads completed.")
+	public long getCompletedTaskCount() {
+		return this.executor.getCompletedTaskCount();
+	}
+
+	private static final class ContextPropagatingCallable<T> implements Callable<T> {
+
+		private final Callable<T> read;
+		private final MifosPlatformTenant tenant;
+		private final SecurityContext securityContext;
+		private final boolean hasWritten;
+
+		public ContextPropagatingCallable(final Callable<T> read) {
+			this.read = read;
+			this.tenant = ThreadLocalContextUtil.getTenant();
+			this.securityContext = SecurityContextHolder.getContext();
+			this.hasWritten = ReadReplicaRoutingContext.hasWritten();
+		}
+
+		@Override
+		public T call() throws Exception {
+
+			// may be run on the submitting thread so restore rather than clear its context afterwards
+			final MifosPlatformTenant previousTenant = ThreadLocalContextUtil.getTenant();
+			final SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+			final boolean previousHasWritten = ReadReplicaRoutingContext.hasWritten();
+			try {
+				setTenant(this.tenant);
+				SecurityContextHolder.setContext(this.securityContext);
+				ReadReplicaRoutingContext.setWritten(this.hasWritten);
+				return this.read.call();
+			} finally {
+				setTenant(previousTenant);
+				SecurityContextHolder.setContext(previousSecurityContext);
+				ReadReplicaRoutingContext.setWritten(previousHasWritten);
+			}
+		}
+
+		private static void setTenant(final MifosPlatformTenant tenant) {
+			if (tenant == null) {
+				ThreadLocalContextUtil.clearTenant();
+			} else {
+				ThreadLocalContextUtil.setTenant(tenant);
+			}
+		}
+	}
+
+	private static final class ReadThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			final Thread thread = new Thread(runnable, "mifosng-read-" + this.threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package org.mifosng.platform.infrastructure;
 
+import java.util.List;
+
 public interface TenantDetailsService {
 
 	MifosPlatformTenant loadTenantById(String tenantId);
 
-}
+	List<MifosPlatformTenant> findAllTenants();
+}
\ No newline at end of file
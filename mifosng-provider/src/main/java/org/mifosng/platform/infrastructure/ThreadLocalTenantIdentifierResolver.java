@@ -0,0 +1,34 @@
+package org.mifosng.platform.infrastructure;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tells hibernate which tenant a new session is for, using the tenant of the
+ * request held in {@link ThreadLocalContextUtil}.
+ * 
+ * Hibernate includes the identifier in the keys of the second level cache so
+ * entities cached for one tenant are never returned to another.
+ */
+@Service
+public class ThreadLocalTenantIdentifierResolver implements CurrentTenantIdentifierResolver {
+
+	/**
+	 * Sessions opened outside of a request use the tenants database.
+	 */
+	public static final String NO_TENANT = "none";
+
+	@Override
+	public String resolveCurrentTenantIdentifier() {
+		return tenantIdentifierOf(ThreadLocalContextUtil.getTenant());
+	}
+
+	@Override
+	public boolean validateExistingCurrentSessions() {
+		return false;
+	}
+
+	public static String tenantIdentifierOf(final MifosPlatformTenant tenant) {
+		return tenant == null ? NO_TENANT : tenant.getId().toString();
+	}
+}
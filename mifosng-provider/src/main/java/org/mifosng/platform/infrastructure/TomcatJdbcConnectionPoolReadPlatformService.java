@@ -0,0 +1,83 @@
+package org.mifosng.platform.infrastructure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport;
+import org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport.QueryStats;
+import org.mifosng.platform.api.data.ConnectionPoolData;
+import org.mifosng.platform.api.data.SlowQueryData;
+import org.mifosng.platform.security.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reports the state of the tomcat jdbc connection pool of the tenant of this
+ * request along with the statistics gathered by its {@link SlowQueryReport}
+ * interceptor.
+ */
+@Service
+public class TomcatJdbcConnectionPoolReadPlatformService implements ConnectionPoolReadPlatformService {
+
+	private static final int MAXIMUM_SLOW_QUERIES_REPORTED = 20;
+
+	private final PlatformSecurityContext context;
+	private final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+
+	@Autowired
+	public TomcatJdbcConnectionPoolReadPlatformService(final PlatformSecurityContext context, final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService) {
+		this.context = context;
+		this.dataSourcePerTenantService = dataSourcePerTenantService;
+	}
+
+	@Override
+	public ConnectionPoolData retrieveConnectionPoolOfTenant() {
+
+		context.authenticatedUser();
+
+		MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+
+		DataSource dataSource = this.dataSourcePerTenantService.retrieveExistingDataSourceFor(tenant);
+		if (dataSource == null) {
+			return new ConnectionPoolData(tenant.getSchemaName() + "_pool", false, tenant.getPoolInitialSize(), tenant.getPoolMinIdle(),
+					tenant.getPoolMaxIdle(), tenant.getPoolMaxActive(), 0, 0, 0, 0, new ArrayList<SlowQueryData>());
+		}
+
+		boolean started = dataSource.getPool() != null;
+
+		return new ConnectionPoolData(dataSource.getName(), started, dataSource.getInitialSize(), dataSource.getMinIdle(),
+				dataSource.getMaxIdle(), dataSource.getMaxActive(), dataSource.getSize(), dataSource.getActive(), dataSource.getIdle(),
+				dataSource.getWaitCount(), retrieveSlowQueries(dataSource.getName()));
+	}
+
+	private List<SlowQueryData> retrieveSlowQueries(final String poolName) {
+
+		List<QueryStats> allQueryStats = new ArrayList<QueryStats>();
+		Map<String, QueryStats> queryStatsByQuery = SlowQueryReport.getPoolStats(poolName);
+		if (queryStatsByQuery != null) {
+			allQueryStats.addAll(queryStatsByQuery.values());
+		}
+
+		// slowest first
+		Collections.sort(allQueryStats, new Comparator<QueryStats>() {
+			@Override
+			public int compare(final QueryStats first, final QueryStats second) {
+				return first.getMaxInvocationTime() < second.getMaxInvocationTime() ? 1
+						: (first.getMaxInvocationTime() == second.getMaxInvocationTime() ? 0 : -1);
+			}
+		});
+
+		List<SlowQueryData> slowQueries = new ArrayList<SlowQueryData>();
+		for (QueryStats queryStats : allQueryStats.subList(0, Math.min(MAXIMUM_SLOW_QUERIES_REPORTED, allQueryStats.size()))) {
+			long averageInvocationTime = queryStats.getNrOfInvocations() == 0 ? 0 : queryStats.getTotalInvocationTime() / queryStats.getNrOfInvocations();
+			slowQueries.add(new SlowQueryData(queryStats.getQuery(), queryStats.getNrOfInvocations(), queryStats.getFailures(),
+					queryStats.getMaxInvocationTime(), averageInvocationTime));
+		}
+
+		return slowQueries;
+	}
+}
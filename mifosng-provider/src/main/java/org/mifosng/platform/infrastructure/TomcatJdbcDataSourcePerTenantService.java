@@ -1,15 +1,21 @@
 package org.mifosng.platform.infrastructure;
 
-import java.util.Map;
+import java.sql.SQLException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.sql.DataSource;
 
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
 /**
  * Implementation that returns a new or existing tomcat 7 jdbc connection pool
@@ -17,16 +23,40 @@ import org.springframework.stereotype.Service;
  * variable for this request.
  * 
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link MifosPlatformTenant} for the request.
+ *
+ * The size of each pool is taken from the tenants details. Pools for all known
+ * tenants are created and filled once the application context has started so
+ * the first request to a tenant does not pay for creating its pool.
+ *
+ * A tenant with a read replica gets a second pool of the same size against the
+ * replica, used for read only work while {@link ReadReplicaLagMonitor} finds the
+ * replica close enough behind the primary.
+ *
+ * Connections of the tenants pool held longer than a minute are removed as
+ * abandoned once the pool is half full. Work that has to hold a connection
+ * for longer, such as streaming the loan portfolio, uses a separate small pool
+ * of the tenant that never removes connections as abandoned.
  */
 @Service
-public class TomcatJdbcDataSourcePerTenantService implements DataSourcePerTenantService {
+public class TomcatJdbcDataSourcePerTenantService implements DataSourcePerTenantService, ApplicationListener<ContextRefreshedEvent> {
 
-	private final Map<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<Long, DataSource>(1);
+	private final static Logger logger = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+	static final int LONG_RUNNING_POOL_MAX_ACTIVE = 2;
+
+	private final ConcurrentMap<Long, org.apache.tomcat.jdbc.pool.DataSource> tenantToDataSourceMap = new ConcurrentHashMap<Long, org.apache.tomcat.jdbc.pool.DataSource>(1);
+	private final ConcurrentMap<Long, org.apache.tomcat.jdbc.pool.DataSource> tenantToReplicaDataSourceMap = new ConcurrentHashMap<Long, org.apache.tomcat.jdbc.pool.DataSource>(1);
+	private final ConcurrentMap<Long, org.apache.tomcat.jdbc.pool.DataSource> tenantToLongRunningDataSourceMap = new ConcurrentHashMap<Long, org.apache.tomcat.jdbc.pool.DataSource>(1);
 	private final DataSource tenantDataSource;
+	private final TenantDetailsService tenantDetailsService;
+	private final ReadReplicaLagMonitor readReplicaLagMonitor;
 	
 	@Autowired
-	public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+	public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource, final TenantDetailsService tenantDetailsService,
+			final ReadReplicaLagMonitor readReplicaLagMonitor) {
 		this.tenantDataSource = tenantDataSource;
+		this.tenantDetailsService = tenantDetailsService;
+		this.readReplicaLagMonitor = readReplicaLagMonitor;
 	}
 	
 	@Override
@@ -38,38 +68,202 @@ public class TomcatJdbcDataSourcePerTenantService implements DataSourcePerTenant
 		MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
 		if (tenant != null) {
 			// if tenant information available switch to appropriate datasource for that tenant.
-			if (this.tenantToDataSourceMap.containsKey(tenant.getId())) {
-				tenantDataSource = this.tenantToDataSourceMap.get(tenant.getId());
-			} else {
-				tenantDataSource = createNewDataSourceFor(tenant);
-				this.tenantToDataSourceMap.put(tenant.getId(), tenantDataSource);
-			}			
+			tenantDataSource = retrieveDataSourceFor(tenant);
 		}
 		
 		return tenantDataSource;
 	}
 
-	private DataSource createNewDataSourceFor(final MifosPlatformTenant tenant) {
+	@Override
+	public DataSource retrieveTenantAwareReadReplicaDataSource() {
+
+		MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+		if (tenant == null || !tenant.hasReadReplica()) {
+			return null;
+		}
+
+		org.apache.tomcat.jdbc.pool.DataSource replica = retrieveReplicaDataSourceFor(tenant);
+
+		return this.readReplicaLagMonitor.isWithinAllowedLag(tenant, replica) ? replica : null;
+	}
+
+	@Override
+	public DataSource retrieveTenantAwareLongRunningDataSource() {
+
+		MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+		if (tenant == null) {
+			return this.tenantDataSource;
+		}
+
+		return retrieveLongRunningDataSourceFor(tenant);
+	}
+
+	/**
+	 * Returns the connection pool of the tenant, creating it if this is the
+	 * first request for the tenant. A pool is created at most once per tenant.
+	 */
+	public org.apache.tomcat.jdbc.pool.DataSource retrieveDataSourceFor(final MifosPlatformTenant tenant) {
+
+		org.apache.tomcat.jdbc.pool.DataSource dataSource = this.tenantToDataSourceMap.get(tenant.getId());
+		if (dataSource == null) {
+			synchronized (this.tenantToDataSourceMap) {
+				dataSource = this.tenantToDataSourceMap.get(tenant.getId());
+				if (dataSource == null) {
+					dataSource = createNewDataSourceFor(tenant, tenant.getSchemaServer(), tenant.getSchemaServerPort(), tenant.getSchemaName() + "_pool");
+					this.tenantToDataSourceMap.put(tenant.getId(), dataSource);
+				}
+			}
+		}
+
+		return dataSource;
+	}
+
+	/**
+	 * Returns the read replica connection pool of a tenant that has a read
+	 * replica, creating it on first use.
+	 */
+	public org.apache.tomcat.jdbc.pool.DataSource retrieveReplicaDataSourceFor(final MifosPlatformTenant tenant) {
+
+		org.apache.tomcat.jdbc.pool.DataSource dataSource = this.tenantToReplicaDataSourceMap.get(tenant.getId());
+		if (dataSource == null) {
+			synchronized (this.tenantToReplicaDataSourceMap) {
+				dataSource = this.tenantToReplicaDataSourceMap.get(tenant.getId());
+				if (dataSource == null) {
+					dataSource = createNewDataSourceFor(tenant, tenant.getReplicaSchemaServer(), tenant.getReplicaSchemaServerPort(),
+							tenant.getSchemaName() + "_replica_pool");
+					this.tenantToReplicaDataSourceMap.put(tenant.getId(), dataSource);
+				}
+			}
+		}
+
+		return dataSource;
+	}
+
+	/**
+	 * Returns the pool of the tenant for connections held longer than the
+	 * abandon timeout, creating it on first use. It starts empty as it is only
+	 * used by batch jobs.
+	 */
+	public org.apache.tomcat.jdbc.pool.DataSource retrieveLongRunningDataSourceFor(final MifosPlatformTenant tenant) {
+
+		org.apache.tomcat.jdbc.pool.DataSource dataSource = this.tenantToLongRunningDataSourceMap.get(tenant.getId());
+		if (dataSource == null) {
+			synchronized (this.tenantToLongRunningDataSourceMap) {
+				dataSource = this.tenantToLongRunningDataSourceMap.get(tenant.getId());
+				if (dataSource == null) {
+					validatePoolSettingsOf(tenant);
+					dataSource = new org.apache.tomcat.jdbc.pool.DataSource(longRunningPoolConfigurationFor(tenant));
+					this.tenantToLongRunningDataSourceMap.put(tenant.getId(), dataSource);
+				}
+			}
+		}
+
+		return dataSource;
+	}
+
+	/**
+	 * Returns the connection pool of the tenant only if it has already been created.
+	 */
+	public org.apache.tomcat.jdbc.pool.DataSource retrieveExistingDataSourceFor(final MifosPlatformTenant tenant) {
+		return this.tenantToDataSourceMap.get(tenant.getId());
+	}
+
+	@Override
+	public void onApplicationEvent(final ContextRefreshedEvent event) {
+		try {
+			for (MifosPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+				warmUp(tenant);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Unable to warm up connection pools of tenants, pools will be created on first request.", e);
+		}
+	}
+
+	private void warmUp(final MifosPlatformTenant tenant) {
+		try {
+			org.apache.tomcat.jdbc.pool.DataSource dataSource = retrieveDataSourceFor(tenant);
+			// creates the pool filling it with the initial number of connections
+			dataSource.createPool();
+			logger.info("Connection pool " + dataSource.getName() + " started with " + dataSource.getSize() + " connections.");
+			if (tenant.hasReadReplica()) {
+				org.apache.tomcat.jdbc.pool.DataSource replica = retrieveReplicaDataSourceFor(tenant);
+				replica.createPool();
+				logger.info("Connection pool " + replica.getName() + " started with " + replica.getSize() + " connections.");
+			}
+		} catch (SQLException e) {
+			logger.warn("Unable to warm up connection pool of tenant " + tenant.getName() + ".", e);
+		} catch (IllegalArgumentException e) {
+			logger.warn("Unable to warm up connection pool of tenant " + tenant.getName() + ".", e);
+		}
+	}
+
+	/**
+	 * Rejects pool sizes that tomcat jdbc would otherwise silently adjust, so a
+	 * mistake in the tenants details fails creating the tenants pool rather
+	 * than leaving it sized differently from what was configured.
+	 */
+	static void validatePoolSettingsOf(final MifosPlatformTenant tenant) {
+		final String pool = "Connection pool of tenant " + tenant.getName() + ": ";
+		Assert.isTrue(tenant.getPoolMaxActive() > 0, pool + "maximum active connections must be greater than zero.");
+		Assert.isTrue(tenant.getPoolInitialSize() >= 0 && tenant.getPoolInitialSize() <= tenant.getPoolMaxActive(),
+				pool + "initial size must be between zero and the maximum active connections.");
+		Assert.isTrue(tenant.getPoolMinIdle() >= 0 && tenant.getPoolMinIdle() <= tenant.getPoolMaxIdle(),
+				pool + "minimum idle connections must be between zero and the maximum idle connections.");
+		Assert.isTrue(tenant.getPoolMaxIdle() <= tenant.getPoolMaxActive(), pool + "maximum idle connections must not exceed the maximum active connections.");
+	}
+
+	private org.apache.tomcat.jdbc.pool.DataSource createNewDataSourceFor(final MifosPlatformTenant tenant, final String schemaServer,
+			final String schemaServerPort, final String poolName) {
+		validatePoolSettingsOf(tenant);
+
+		return new org.apache.tomcat.jdbc.pool.DataSource(poolConfigurationFor(tenant, schemaServer, schemaServerPort, poolName));
+	}
+
+	/**
+	 * The long running pool differs from the tenants pool only in its size and
+	 * in never removing (or warning about) connections held for long.
+	 */
+	static PoolConfiguration longRunningPoolConfigurationFor(final MifosPlatformTenant tenant) {
+
+		PoolConfiguration poolConfiguration = poolConfigurationFor(tenant, tenant.getSchemaServer(), tenant.getSchemaServerPort(),
+				tenant.getSchemaName() + "_long_running_pool");
+
+		poolConfiguration.setInitialSize(0);
+		poolConfiguration.setMinIdle(0);
+		poolConfiguration.setMaxIdle(1);
+		poolConfiguration.setMaxActive(LONG_RUNNING_POOL_MAX_ACTIVE);
+
+		poolConfiguration.setRemoveAbandoned(false);
+		poolConfiguration.setSuspectTimeout(0);
+
+		return poolConfiguration;
+	}
+
+	static PoolConfiguration poolConfigurationFor(final MifosPlatformTenant tenant, final String schemaServer, final String schemaServerPort,
+			final String poolName) {
+
     	// see http://www.tomcatexpert.com/blog/2010/04/01/configuring-jdbc-pool-high-concurrency
 		
 		StringBuilder jdbcUrlBuilder = new StringBuilder("jdbc:mysql://")
-														.append(tenant.getSchemaServer())
+														.append(schemaServer)
 														.append(':')
-														.append(tenant.getSchemaServerPort())
+														.append(schemaServerPort)
 														.append('/')
 														.append(tenant.getSchemaName());
 		
     	PoolConfiguration poolConfiguration = new PoolProperties();
     	poolConfiguration.setDriverClassName("com.mysql.jdbc.Driver");
-    	poolConfiguration.setName(tenant.getSchemaName() + "_pool");
+    	poolConfiguration.setName(poolName);
     	poolConfiguration.setUrl(jdbcUrlBuilder.toString());
     	poolConfiguration.setUsername(tenant.getSchemaUsername());
     	poolConfiguration.setPassword(tenant.getSchemaPassword());
+    	// prepared statements (e.g. of reports) are prepared once per connection on the server and reused
+    	poolConfiguration.setConnectionProperties("useServerPrepStmts=true;cachePrepStmts=true;prepStmtCacheSize=250;prepStmtCacheSqlLimit=2048");
     	
-    	poolConfiguration.setInitialSize(5);
-    	poolConfiguration.setMaxActive(5);
-    	poolConfiguration.setMinIdle(1);
-    	poolConfiguration.setMaxIdle(4);
+    	poolConfiguration.setInitialSize(tenant.getPoolInitialSize());
+    	poolConfiguration.setMaxActive(tenant.getPoolMaxActive());
+    	poolConfiguration.setMinIdle(tenant.getPoolMinIdle());
+    	poolConfiguration.setMaxIdle(tenant.getPoolMaxIdle());
     	
     	poolConfiguration.setSuspectTimeout(60);
     	poolConfiguration.setTimeBetweenEvictionRunsMillis(30000);
@@ -84,9 +278,12 @@ public class TomcatJdbcDataSourcePerTenantService implements DataSourcePerTenant
     	poolConfiguration.setLogAbandoned(true);
     	poolConfiguration.setAbandonWhenPercentageFull(50);
     	
-    	poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
+    	// ResetAbandonedTimer goes first so every call on a connection (not only those reaching the driver) counts as use,
+    	// letting code streaming a resultset (see GenericDataServiceImpl) keep its connection from being removed as abandoned
+    	poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ResetAbandonedTimer;"
+    			+ "org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
                 + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
     	
-    	return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
+    	return poolConfiguration;
 	}
 }
\ No newline at end of file
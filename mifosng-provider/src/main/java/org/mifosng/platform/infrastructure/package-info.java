@@ -0,0 +1,10 @@
+/**
+ * Entities take their id from the database's native generation, an identity
+ * column on MySQL, unless they declare their own generator named
+ * {@link org.mifosng.platform.infrastructure.AbstractPersistableCustom#ENTITY_ID_GENERATOR}.
+ */
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = "native")
+package org.mifosng.platform.infrastructure;
+
+import org.hibernate.annotations.GenericGenerator;
+
@@ -8,6 +8,7 @@ import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -117,14 +118,13 @@ public class DailyEquivalentDecliningBalanceInterestRebateCalculator implements
 			final MonetaryCurrency currency,
 			final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments) {
 
-		Money cumulativeInterest = Money.zero(currency);
+		MoneyAccumulator cumulativeInterest = MoneyAccumulator.zero(currency);
 
 		for (LoanRepaymentScheduleInstallment scheduledRepayment : repaymentScheduleInstallments) {
-			cumulativeInterest = cumulativeInterest.plus(scheduledRepayment
-					.getInterest(currency));
+			cumulativeInterest.addMinorUnits(scheduledRepayment.getInterestInMinorUnits(currency));
 		}
 
-		return cumulativeInterest;
+		return cumulativeInterest.toMoney();
 	}
 
 }
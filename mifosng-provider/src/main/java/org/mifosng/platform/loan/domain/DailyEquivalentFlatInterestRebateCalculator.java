@@ -8,6 +8,7 @@ import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
 
 // FIXME - KW - this might be deprecated now
 @SuppressWarnings("unused")
@@ -60,13 +61,12 @@ public class DailyEquivalentFlatInterestRebateCalculator implements
 			final MonetaryCurrency currency,
 			final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments) {
 
-		Money cumulativeInterest = Money.zero(currency);
+		MoneyAccumulator cumulativeInterest = MoneyAccumulator.zero(currency);
 
 		for (LoanRepaymentScheduleInstallment scheduledRepayment : repaymentScheduleInstallments) {
-			cumulativeInterest = cumulativeInterest.plus(scheduledRepayment
-					.getInterest(currency));
+			cumulativeInterest.addMinorUnits(scheduledRepayment.getInterestInMinorUnits(currency));
 		}
 
-		return cumulativeInterest;
+		return cumulativeInterest.toMoney();
 	}
 }
\ No newline at end of file
@@ -20,9 +20,12 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
 import org.joda.time.DateTime;
@@ -33,17 +36,29 @@ import org.mifosng.platform.api.data.LoanSchedulePeriodData;
 import org.mifosng.platform.client.domain.Client;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
 import org.mifosng.platform.exceptions.InvalidLoanStateTransitionException;
 import org.mifosng.platform.exceptions.InvalidLoanTransactionTypeException;
 import org.mifosng.platform.fund.domain.Fund;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
+import org.mifosng.platform.infrastructure.AbstractPersistableCustom;
+import org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator;
 import org.mifosng.platform.staff.domain.Staff;
 import org.mifosng.platform.user.domain.AppUser;
 
 @Entity
 @Table(name = "m_loan", uniqueConstraints = @UniqueConstraint(columnNames = { "external_id" }))
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
 public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 
+	/*
+	 * incremented on each update so writers outside of jpa (see LoanPortfolioRecomputationJob) can leave loans changed since they read them
+	 */
+	@SuppressWarnings("unused")
+	@Version
+	@Column(name = "version", nullable = false)
+	private Integer version;
+
 	@ManyToOne
 	@JoinColumn(name = "client_id", nullable = false)
 	private Client client;
@@ -136,12 +151,14 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 	private Date maturedOnDate;
 
     @LazyCollection(LazyCollectionOption.FALSE)
+    @BatchSize(size = 100)
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "loan", orphanRemoval = true)
     private Set<LoanCharge> charges;
 
 	// see
 	// http://stackoverflow.com/questions/4334970/hibernate-cannot-simultaneously-fetch-multiple-bags
 	@LazyCollection(LazyCollectionOption.FALSE)
+	@BatchSize(size = 100)
 	@OneToMany(cascade = CascadeType.ALL, mappedBy = "loan", orphanRemoval = true)
 	private final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments = new ArrayList<LoanRepaymentScheduleInstallment>();
 
@@ -149,16 +166,24 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 	// http://stackoverflow.com/questions/4334970/hibernate-cannot-simultaneously-fetch-multiple-bags
 	@OrderBy(value = "dateOf, id")
 	@LazyCollection(LazyCollectionOption.FALSE)
+	@BatchSize(size = 100)
 	@OneToMany(cascade = CascadeType.ALL, mappedBy = "loan", orphanRemoval = true)
 	private final List<LoanTransaction> loanTransactions = new ArrayList<LoanTransaction>();
 
 	@Column(name = "interest_rebate_amount", scale = 6, precision = 19)
 	private BigDecimal interestRebateOwed;
 	
-	@SuppressWarnings("unused") // derived field used in GETs only at present
 	@Column(name = "total_charges_due_at_disbursement_derived", scale = 6, precision = 19)
 	private BigDecimal totalChargesDueAtDisbursement;
 
+	@Embedded
+	private LoanSummary summary;
+
+	// only read when a backdated or adjusted transaction needs the schedule re-processed
+	@OrderBy(value = "transactionsProcessed")
+	@OneToMany(cascade = CascadeType.ALL, mappedBy = "loan", orphanRemoval = true)
+	private final List<LoanRepaymentScheduleCheckpoint> repaymentScheduleCheckpoints = new ArrayList<LoanRepaymentScheduleCheckpoint>();
+
 	@Transient
 	private final InterestRebateCalculatorFactory interestRebateCalculatorFactory = new DailyEquivalentInterestRebateCalculatorFactory();
 	
@@ -309,6 +334,7 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 		// FIXME - rewrite over loan schedule by default for now but worth putting in check to see if required
 		// i.e. only a client change wouldn't require it, only if one of parameters related to loan schedule calculation is changed.
 		this.repaymentScheduleInstallments.clear();
+		this.repaymentScheduleCheckpoints.clear();
 		for (LoanSchedulePeriodData scheduledLoanInstallment : modifiedLoanSchedule.getPeriods()) {
 			
 			if (scheduledLoanInstallment.isRepaymentPeriod()) {
@@ -332,7 +358,11 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 		Collections.sort(repaymentsOrWaivers, transactionComparator);
 		
 		final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = this.transactionProcessor.determineProcessor(this.transactionProcessingStrategy);
-		loanRepaymentScheduleTransactionProcessor.handleTransaction(repaymentsOrWaivers, getCurrency(), this.repaymentScheduleInstallments);
+		repaymentScheduleCheckpoints().reprocess(loanRepaymentScheduleTransactionProcessor, repaymentsOrWaivers, getCurrency(), this.repaymentScheduleInstallments);
+	}
+
+	private LoanRepaymentScheduleCheckpoints repaymentScheduleCheckpoints() {
+		return new LoanRepaymentScheduleCheckpoints(this, this.repaymentScheduleCheckpoints);
 	}
 
 	public void submitApplication(
@@ -474,6 +504,7 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 			final List<LoanRepaymentScheduleInstallment> modifiedLoanRepaymentSchedule,
 			LoanLifecycleStateMachine loanLifecycleStateMachine) {
 		this.repaymentScheduleInstallments.clear();
+		this.repaymentScheduleCheckpoints.clear();
 		for (LoanRepaymentScheduleInstallment modifiedInstallment : modifiedLoanRepaymentSchedule) {
 			modifiedInstallment.updateLoan(this);
 			this.repaymentScheduleInstallments.add(modifiedInstallment);
@@ -520,6 +551,8 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 					"cannot.be.after.first.repayment.due.date", errorMessage,
 					disbursedOn, firstRepaymentDueDate);
 		}
+
+		updateSummary();
 	}
 
 	public void undoDisbursal(
@@ -529,7 +562,9 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 		this.loanStatus = statusEnum.getValue();
 		
 		this.loanTransactions.clear();
+		this.repaymentScheduleCheckpoints.clear();
 		this.disbursedOnDate = null;
+		this.summary = null;
 	}
 
 	public void waive(final LoanTransaction loanTransaction, final LoanLifecycleStateMachine loanLifecycleStateMachine) {
@@ -574,6 +609,7 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 					waived, getInArrearsTolerance());
 		}
 
+		updateSummary();
 		doPostLoanTransactionChecks(loanTransaction, loanLifecycleStateMachine);
 	}
 
@@ -629,9 +665,11 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 		if (isTransactionChronologicallyLatest && !adjusted) {
 			loanRepaymentScheduleTransactionProcessor.handleTransaction(loanTransaction, getCurrency(), this.repaymentScheduleInstallments);
 		} else {
-			loanRepaymentScheduleTransactionProcessor.handleTransaction(repaymentsOrWaivers, getCurrency(), this.repaymentScheduleInstallments);
+			// only re-process from the first transaction affected by the backdated repayment or adjustment
+			repaymentScheduleCheckpoints().reprocess(loanRepaymentScheduleTransactionProcessor, repaymentsOrWaivers, getCurrency(), this.repaymentScheduleInstallments);
 		}
 		
+		updateSummary();
 		doPostLoanTransactionChecks(loanTransaction, loanLifecycleStateMachine);
 	}
 
@@ -755,51 +793,35 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 	}
 
 	private boolean isRepaidInFull() {
-		
-		MonetaryCurrency currency = loanCurrency();
-		
-		Money cumulativeOriginalPrincipalExpected = Money.zero(currency);
-		Money cumulativeOriginalInterestExpected = Money.zero(currency);
-		Money cumulativeOriginalTotalExpected = Money.zero(currency);
-		
-		Money cumulativeTotalPaid = Money.zero(currency);
-		Money cumulativeTotalWaived = Money.zero(currency);
-		
-		for (LoanRepaymentScheduleInstallment scheduledRepayment : this.repaymentScheduleInstallments) {
-			cumulativeOriginalPrincipalExpected = cumulativeOriginalPrincipalExpected.plus(scheduledRepayment.getPrincipal(currency));
-			cumulativeOriginalInterestExpected = cumulativeOriginalInterestExpected.plus(scheduledRepayment.getInterest(currency));
-			
-			cumulativeTotalPaid = cumulativeTotalPaid.plus(scheduledRepayment.getPrincipalCompleted(currency).plus(scheduledRepayment.getInterestCompleted(currency)));
-			cumulativeTotalWaived = cumulativeTotalWaived.plus(scheduledRepayment.getInterestWaived(currency));
-		}
-		
-		cumulativeOriginalTotalExpected = cumulativeOriginalPrincipalExpected.plus(cumulativeOriginalInterestExpected);
-		
-		Money totalOutstanding = cumulativeOriginalTotalExpected.minus(cumulativeTotalPaid.plus(cumulativeTotalWaived));
-		boolean isRepaidInFull = totalOutstanding.isZero();
-		
-		return isRepaidInFull;
+		return summary().isRepaidInFull(loanCurrency());
 	}
 	
 	private boolean isOverPaid() {
 		
-		Money totalPaidInRepayments = getTotalPaidInRepayments();
-		
 		MonetaryCurrency currency = loanCurrency();
-
-		Money cumulativeOriginalExpectedTotal = Money.zero(currency);
-		Money cumulativeTotalPaidOnInstallments = Money.zero(currency);
-		Money cumulativeTotalWaivedOnInstallments = Money.zero(currency);
 		
-		for (LoanRepaymentScheduleInstallment scheduledRepayment : this.repaymentScheduleInstallments) {
-			cumulativeOriginalExpectedTotal = cumulativeOriginalExpectedTotal.plus(scheduledRepayment.getPrincipal(currency));
-			cumulativeTotalPaidOnInstallments = cumulativeTotalPaidOnInstallments.plus(scheduledRepayment.getPrincipalCompleted(currency).plus(scheduledRepayment.getInterestCompleted(currency)));
-			cumulativeTotalWaivedOnInstallments = cumulativeTotalWaivedOnInstallments.plus(scheduledRepayment.getInterestWaived(currency));
-		}
+		MoneyAccumulator totalPaidInRepayments = accumulateTotalPaidInRepayments(currency);
+		MoneyAccumulator cumulativeTotalPaidOnInstallments = MoneyAccumulator.of(summary().getTotalRepayment(currency));
 		
 		return totalPaidInRepayments.isGreaterThan(cumulativeTotalPaidOnInstallments);
 	}
 
+	/**
+	 * Recalculates the persisted balances of this loan from its schedule, to
+	 * be called after each change to the schedule.
+	 */
+	private void updateSummary() {
+		summary().update(loanCurrency(), this.repaymentScheduleInstallments, this.totalChargesDueAtDisbursement, new LocalDate());
+	}
+
+	private LoanSummary summary() {
+		// hibernate leaves an embedded component null when all its columns are null (i.e. loan not disbursed)
+		if (this.summary == null) {
+			this.summary = new LoanSummary();
+		}
+		return this.summary;
+	}
+
 	private MonetaryCurrency loanCurrency() {
 		return this.loanRepaymentScheduleDetail.getCurrency();
 	}
@@ -1141,15 +1163,23 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 	}
 
 	public Money getTotalOutstanding() {
-		return getTotalPrincipalOnLoan().plus(getTotalInterestOnLoan()).minus(getTotalPaidInRepayments());
+		MonetaryCurrency currency = loanCurrency();
+		
+		MoneyAccumulator totalOutstanding = MoneyAccumulator.of(summary().getTotalPrincipalAndInterestExpected(currency));
+		
+		return totalOutstanding.subtractMinorUnits(accumulateTotalPaidInRepayments(currency).getMinorUnits()).toMoney();
 	}
 
 	private Money getTotalPaidInRepayments() {
-		Money cumulativePaid = Money.zero(this.loanRepaymentScheduleDetail.getPrincipal().getCurrency());
+		return accumulateTotalPaidInRepayments(loanCurrency()).toMoney();
+	}
+
+	private MoneyAccumulator accumulateTotalPaidInRepayments(final MonetaryCurrency currency) {
+		MoneyAccumulator cumulativePaid = MoneyAccumulator.zero(currency);
 
 		for (LoanTransaction repayment : this.loanTransactions) {
 			if (repayment.isRepayment()) {
-				cumulativePaid = cumulativePaid.plus(repayment.getAmount());
+				cumulativePaid.add(repayment.getAmount());
 			}
 		}
 
@@ -1180,30 +1210,6 @@ public class Loan extends AbstractAuditableCustom<AppUser, Long> {
 		return rebate;
 	}
 
-	private Money getTotalInterestOnLoan() {
-		Money cumulativeInterest = Money.zero(this.loanRepaymentScheduleDetail
-				.getPrincipal().getCurrency());
-
-		for (LoanRepaymentScheduleInstallment scheduledRepayment : this.repaymentScheduleInstallments) {
-			cumulativeInterest = cumulativeInterest.plus(scheduledRepayment
-					.getInterest(loanCurrency()));
-		}
-
-		return cumulativeInterest;
-	}
-
-	private Money getTotalPrincipalOnLoan() {
-		Money cumulativePrincipal = Money.zero(this.loanRepaymentScheduleDetail
-				.getPrincipal().getCurrency());
-
-		for (LoanRepaymentScheduleInstallment scheduledRepayment : this.repaymentScheduleInstallments) {
-			cumulativePrincipal = cumulativePrincipal.plus(scheduledRepayment
-					.getPrincipal(loanCurrency()));
-		}
-
-		return cumulativePrincipal;
-	}
-
 	public Money getInterestRebateOwed() {
 		return Money.of(this.loanRepaymentScheduleDetail.getCurrency(),
 				this.interestRebateOwed);
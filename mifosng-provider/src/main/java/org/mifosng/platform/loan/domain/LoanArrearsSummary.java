@@ -0,0 +1,90 @@
+package org.mifosng.platform.loan.domain;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+
+/**
+ * The derived arrears state of a loan (outstanding, overdue and next due)
+ * as of a given date, accumulated from its repayment schedule installments.
+ *
+ * An installment is overdue when its due date is before the as of date (see
+ * {@link LoanRepaymentScheduleInstallment#isOverdueOn(LocalDate)}); the next
+ * due installment is the earliest installment with an amount still due that
+ * is not overdue.
+ */
+public class LoanArrearsSummary {
+
+	private final Long loanId;
+	private final LocalDate asOfDate;
+
+	private BigDecimal totalOutstanding = BigDecimal.ZERO;
+	private BigDecimal totalOverdue = BigDecimal.ZERO;
+	private LocalDate overdueSinceDate;
+	private LocalDate nextDueDate;
+	private BigDecimal nextDueAmount;
+
+	public LoanArrearsSummary(final Long loanId, final LocalDate asOfDate) {
+		this.loanId = loanId;
+		this.asOfDate = asOfDate;
+	}
+
+	public void addInstallment(final LocalDate dueDate, final BigDecimal principal, final BigDecimal principalCompleted,
+			final BigDecimal interest, final BigDecimal interestCompleted, final BigDecimal interestWaived) {
+
+		final BigDecimal due = valueOf(principal).add(valueOf(interest)).subtract(valueOf(principalCompleted))
+				.subtract(valueOf(interestCompleted)).subtract(valueOf(interestWaived));
+
+		if (due.signum() <= 0) {
+			return;
+		}
+
+		this.totalOutstanding = this.totalOutstanding.add(due);
+
+		if (dueDate.isBefore(this.asOfDate)) {
+			this.totalOverdue = this.totalOverdue.add(due);
+			if (this.overdueSinceDate == null || dueDate.isBefore(this.overdueSinceDate)) {
+				this.overdueSinceDate = dueDate;
+			}
+		} else if (this.nextDueDate == null || dueDate.isBefore(this.nextDueDate)) {
+			this.nextDueDate = dueDate;
+			this.nextDueAmount = due;
+		}
+	}
+
+	private static BigDecimal valueOf(final BigDecimal amount) {
+		return amount == null ? BigDecimal.ZERO : amount;
+	}
+
+	public Long getLoanId() {
+		return this.loanId;
+	}
+
+	public LocalDate getAsOfDate() {
+		return this.asOfDate;
+	}
+
+	public BigDecimal getTotalOutstanding() {
+		return this.totalOutstanding;
+	}
+
+	public BigDecimal getTotalOverdue() {
+		return this.totalOverdue;
+	}
+
+	public LocalDate getOverdueSinceDate() {
+		return this.overdueSinceDate;
+	}
+
+	public LocalDate getNextDueDate() {
+		return this.nextDueDate;
+	}
+
+	public BigDecimal getNextDueAmount() {
+		return this.nextDueAmount;
+	}
+
+	public boolean isInArrears() {
+		return this.totalOverdue.signum() > 0;
+	}
+}
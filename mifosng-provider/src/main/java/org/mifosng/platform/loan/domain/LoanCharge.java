@@ -11,16 +11,19 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.GenericGenerator;
 import org.mifosng.platform.api.commands.LoanChargeCommand;
 import org.mifosng.platform.charge.domain.Charge;
 import org.mifosng.platform.charge.domain.ChargeCalculationType;
 import org.mifosng.platform.charge.domain.ChargeTimeType;
 import org.mifosng.platform.currency.domain.Money;
-import org.springframework.data.jpa.domain.AbstractPersistable;
+import org.mifosng.platform.infrastructure.AbstractPersistableCustom;
+import org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator;
 
 @Entity 
 @Table(name = "m_loan_charge")
-public class LoanCharge extends AbstractPersistable<Long> {
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
+public class LoanCharge extends AbstractPersistableCustom<Long> {
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "loan_id", referencedColumnName = "id", nullable=false)
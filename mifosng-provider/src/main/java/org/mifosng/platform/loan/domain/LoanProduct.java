@@ -13,6 +13,8 @@ import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.commands.LoanProductCommand;
 import org.mifosng.platform.charge.domain.Charge;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
@@ -31,6 +33,7 @@ import org.mifosng.platform.user.domain.AppUser;
  */
 @Entity
 @Table(name = "m_product_loan")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class LoanProduct extends AbstractAuditableCustom<AppUser, Long> {
 
 	@ManyToOne
@@ -51,6 +54,7 @@ public class LoanProduct extends AbstractAuditableCustom<AppUser, Long> {
     @JoinTable(name = "m_product_loan_charge",
             joinColumns = @JoinColumn(name = "product_loan_id"),
             inverseJoinColumns = @JoinColumn(name = "charge_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Charge> charges;
 
 	@Embedded
@@ -0,0 +1,114 @@
+package org.mifosng.platform.loan.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * A snapshot of the derived components of every installment of a loan taken
+ * after processing the first {@link #getTransactionsProcessed()} of its
+ * chronologically sorted repayments and waivers.
+ *
+ * The transactions are recorded by a fingerprint of their ids so a checkpoint
+ * can be checked against the transactions of the loan when it is loaded again
+ * in a later command.
+ *
+ * @see LoanRepaymentScheduleCheckpoints
+ */
+@Entity
+@Table(name = "m_loan_repayment_schedule_checkpoint")
+public class LoanRepaymentScheduleCheckpoint extends AbstractPersistable<Long> {
+
+	@ManyToOne(optional = false)
+	@JoinColumn(name = "loan_id", nullable = false)
+	private Loan loan;
+
+	@Column(name = "transactions_processed", nullable = false)
+	private Integer transactionsProcessed;
+
+	@Column(name = "transactions_fingerprint", length = 40, nullable = false)
+	private String transactionsFingerprint;
+
+	@ElementCollection
+	@CollectionTable(name = "m_loan_repayment_schedule_checkpoint_installment", joinColumns = @JoinColumn(name = "checkpoint_id"))
+	private List<LoanRepaymentScheduleCheckpointInstallment> installments = new ArrayList<LoanRepaymentScheduleCheckpointInstallment>();
+
+	public static LoanRepaymentScheduleCheckpoint capture(final Loan loan, final int transactionsProcessed, final String transactionsFingerprint,
+			final List<LoanRepaymentScheduleInstallment> installments) {
+
+		final List<LoanRepaymentScheduleCheckpointInstallment> derivedComponents = new ArrayList<LoanRepaymentScheduleCheckpointInstallment>(installments.size());
+		for (LoanRepaymentScheduleInstallment installment : installments) {
+			derivedComponents.add(installment.derivedComponents());
+		}
+
+		return new LoanRepaymentScheduleCheckpoint(loan, transactionsProcessed, transactionsFingerprint, derivedComponents);
+	}
+
+	protected LoanRepaymentScheduleCheckpoint() {
+		//
+	}
+
+	private LoanRepaymentScheduleCheckpoint(final Loan loan, final int transactionsProcessed, final String transactionsFingerprint,
+			final List<LoanRepaymentScheduleCheckpointInstallment> installments) {
+		this.loan = loan;
+		this.transactionsProcessed = transactionsProcessed;
+		this.transactionsFingerprint = transactionsFingerprint;
+		this.installments = installments;
+	}
+
+	public int getTransactionsProcessed() {
+		return this.transactionsProcessed.intValue();
+	}
+
+	/**
+	 * A checkpoint is only valid for the same installments and the same
+	 * leading sequence of transactions it was taken after.
+	 */
+	public boolean isValidFor(final String[] transactionFingerprints, final List<LoanRepaymentScheduleInstallment> currentInstallments) {
+
+		if (this.transactionsProcessed.intValue() > transactionFingerprints.length
+				|| !this.transactionsFingerprint.equals(transactionFingerprints[this.transactionsProcessed.intValue() - 1])) {
+			return false;
+		}
+
+		if (this.installments.size() != currentInstallments.size()) {
+			return false;
+		}
+
+		final Map<Integer, LoanRepaymentScheduleCheckpointInstallment> byInstallmentNumber = installmentsByNumber();
+		for (LoanRepaymentScheduleInstallment installment : currentInstallments) {
+			if (!byInstallmentNumber.containsKey(installment.getInstallmentNumber())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public void restore(final List<LoanRepaymentScheduleInstallment> currentInstallments) {
+		final Map<Integer, LoanRepaymentScheduleCheckpointInstallment> byInstallmentNumber = installmentsByNumber();
+		for (LoanRepaymentScheduleInstallment installment : currentInstallments) {
+			installment.restoreDerivedComponents(byInstallmentNumber.get(installment.getInstallmentNumber()));
+		}
+	}
+
+	private Map<Integer, LoanRepaymentScheduleCheckpointInstallment> installmentsByNumber() {
+		final Map<Integer, LoanRepaymentScheduleCheckpointInstallment> byInstallmentNumber = new HashMap<Integer, LoanRepaymentScheduleCheckpointInstallment>(
+				this.installments.size());
+		for (LoanRepaymentScheduleCheckpointInstallment installment : this.installments) {
+			byInstallmentNumber.put(installment.getInstallmentNumber(), installment);
+		}
+		return byInstallmentNumber;
+	}
+}
@@ -0,0 +1,62 @@
+package org.mifosng.platform.loan.domain;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * The derived (completed and waived) components of one installment as they
+ * were when a {@link LoanRepaymentScheduleCheckpoint} was taken.
+ */
+@Embeddable
+public class LoanRepaymentScheduleCheckpointInstallment {
+
+	@Column(name = "installment", nullable = false)
+	private Integer installmentNumber;
+
+	@Column(name = "principal_completed_derived", scale = 6, precision = 19)
+	private BigDecimal principalCompleted;
+
+	@Column(name = "interest_completed_derived", scale = 6, precision = 19)
+	private BigDecimal interestCompleted;
+
+	@Column(name = "interest_waived_derived", scale = 6, precision = 19)
+	private BigDecimal interestWaived;
+
+	@Column(name = "completed_derived", nullable = false)
+	private boolean completed;
+
+	protected LoanRepaymentScheduleCheckpointInstallment() {
+		//
+	}
+
+	public LoanRepaymentScheduleCheckpointInstallment(final Integer installmentNumber, final BigDecimal principalCompleted,
+			final BigDecimal interestCompleted, final BigDecimal interestWaived, final boolean completed) {
+		this.installmentNumber = installmentNumber;
+		this.principalCompleted = principalCompleted;
+		this.interestCompleted = interestCompleted;
+		this.interestWaived = interestWaived;
+		this.completed = completed;
+	}
+
+	public Integer getInstallmentNumber() {
+		return this.installmentNumber;
+	}
+
+	public BigDecimal getPrincipalCompleted() {
+		return this.principalCompleted;
+	}
+
+	public BigDecimal getInterestCompleted() {
+		return this.interestCompleted;
+	}
+
+	public BigDecimal getInterestWaived() {
+		return this.interestWaived;
+	}
+
+	public boolean isCompleted() {
+		return this.completed;
+	}
+}
@@ -0,0 +1,154 @@
+package org.mifosng.platform.loan.domain;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+
+/**
+ * Supports re-processing a loan schedule from the first affected transaction
+ * forward rather than replaying the entire loan history.
+ *
+ * Whilst processing, snapshots ({@link LoanRepaymentScheduleCheckpoint}) of
+ * the derived components of every installment are taken at regular intervals
+ * and kept with the loan. A snapshot remains valid for as long as the
+ * chronologically sorted repayments/waivers it was taken after are unchanged,
+ * so when a backdated transaction is added or an existing one is adjusted, the
+ * schedule is restored from the latest valid snapshot and only the
+ * transactions after it are processed again.
+ *
+ * Snapshots identify the transactions they were taken after by their ids, so
+ * they are only taken after transactions that have already been saved. The
+ * transactions of the current command are saved with it, so later commands
+ * can restore from snapshots taken after them.
+ *
+ * The result is identical to that of
+ * {@link AbstractLoanRepaymentScheduleTransactionProcessor#handleTransaction(List, MonetaryCurrency, List)}
+ * as the transactions before the snapshot are exactly those that produced it.
+ */
+public class LoanRepaymentScheduleCheckpoints {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final Loan loan;
+	private final List<LoanRepaymentScheduleCheckpoint> checkpoints;
+
+	/**
+	 * @param checkpoints the (persistent) checkpoints of the loan ordered by
+	 *            the number of transactions processed.
+	 */
+	public LoanRepaymentScheduleCheckpoints(final Loan loan, final List<LoanRepaymentScheduleCheckpoint> checkpoints) {
+		this.loan = loan;
+		this.checkpoints = checkpoints;
+	}
+
+	/**
+	 * Re-processes the loan schedule for the (chronologically sorted)
+	 * repayments and waivers passed.
+	 *
+	 * @return the number of transactions that actually had to be processed.
+	 */
+	public int reprocess(
+			final LoanRepaymentScheduleTransactionProcessor processor,
+			final List<LoanTransaction> repaymentsOrWaivers,
+			final MonetaryCurrency currency,
+			final List<LoanRepaymentScheduleInstallment> installments) {
+
+		final String[] transactionFingerprints = fingerprintsOf(repaymentsOrWaivers);
+
+		int startingFrom = 0;
+
+		final LoanRepaymentScheduleCheckpoint restorePoint = latestCheckpointValidFor(transactionFingerprints, installments);
+		if (restorePoint == null) {
+			this.checkpoints.clear();
+			for (LoanRepaymentScheduleInstallment installment : installments) {
+				installment.resetDerivedComponents();
+			}
+		} else {
+			discardCheckpointsAfter(restorePoint);
+			restorePoint.restore(installments);
+			startingFrom = restorePoint.getTransactionsProcessed();
+		}
+
+		final int checkpointInterval = checkpointIntervalFor(repaymentsOrWaivers.size());
+
+		for (int index = startingFrom; index < repaymentsOrWaivers.size(); index++) {
+			LoanTransaction loanTransaction = repaymentsOrWaivers.get(index);
+
+			loanTransaction.resetDerivedComponents();
+			processor.handleTransaction(loanTransaction, currency, installments);
+
+			int numberOfTransactionsProcessed = index + 1;
+			String transactionsFingerprint = transactionFingerprints[index];
+			if (numberOfTransactionsProcessed % checkpointInterval == 0 && numberOfTransactionsProcessed < repaymentsOrWaivers.size()
+					&& transactionsFingerprint != null) {
+				this.checkpoints.add(LoanRepaymentScheduleCheckpoint.capture(this.loan, numberOfTransactionsProcessed, transactionsFingerprint, installments));
+			}
+		}
+
+		return repaymentsOrWaivers.size() - startingFrom;
+	}
+
+	/**
+	 * Snapshots are taken roughly every sqrt(n) transactions which bounds both
+	 * the number of snapshots held and the number of transactions replayed
+	 * after restoring one.
+	 */
+	private int checkpointIntervalFor(final int numberOfTransactions) {
+		return Math.max(1, (int) Math.sqrt(numberOfTransactions));
+	}
+
+	private LoanRepaymentScheduleCheckpoint latestCheckpointValidFor(final String[] transactionFingerprints,
+			final List<LoanRepaymentScheduleInstallment> installments) {
+		LoanRepaymentScheduleCheckpoint latestValid = null;
+		for (LoanRepaymentScheduleCheckpoint checkpoint : this.checkpoints) {
+			if (checkpoint.isValidFor(transactionFingerprints, installments)) {
+				latestValid = checkpoint;
+			} else {
+				break;
+			}
+		}
+		return latestValid;
+	}
+
+	private void discardCheckpointsAfter(final LoanRepaymentScheduleCheckpoint restorePoint) {
+		int index = this.checkpoints.indexOf(restorePoint);
+		this.checkpoints.subList(index + 1, this.checkpoints.size()).clear();
+	}
+
+	/**
+	 * Returns for each n the SHA-1 of the ids of the first n transactions, or
+	 * null from the first transaction that has not been saved yet.
+	 */
+	private static String[] fingerprintsOf(final List<LoanTransaction> repaymentsOrWaivers) {
+
+		final String[] fingerprints = new String[repaymentsOrWaivers.size()];
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (int index = 0; index < repaymentsOrWaivers.size(); index++) {
+				final Long id = repaymentsOrWaivers.get(index).getId();
+				if (id == null) {
+					break;
+				}
+				digest.update(id.toString().getBytes(UTF_8));
+				digest.update((byte) ',');
+				fingerprints[index] = toHex(((MessageDigest) digest.clone()).digest());
+			}
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+		return fingerprints;
+	}
+
+	private static String toHex(final byte[] bytes) {
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
@@ -11,14 +11,19 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.hibernate.annotations.GenericGenerator;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
+import org.mifosng.platform.infrastructure.AbstractPersistableCustom;
+import org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator;
 import org.mifosng.platform.user.domain.AppUser;
 
 @Entity
 @Table(name = "m_loan_repayment_schedule")
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
 public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<AppUser, Long> {
 
     @ManyToOne(optional = false)
@@ -106,12 +111,61 @@ public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<Ap
 	}
 
 	public boolean isInterestDue(final MonetaryCurrency currency) {
-		return getInterest(currency).minus(getInterestCompleted(currency).plus(getInterestWaived(currency))).isGreaterThanZero();
+		return getInterestDueInMinorUnits(currency) > 0L;
 	}
 	
 	public Money getTotal(MonetaryCurrency currency) {
 		return getPrincipal(currency).plus(getInterest(currency));
 	}
+
+	/**
+	 * The principal and interest expected on this installment in minor units
+	 * of the currency, see {@link MoneyAccumulator}.
+	 */
+	public long getTotalInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.principal) + MoneyAccumulator.minorUnitsOf(currency, this.interest);
+	}
+
+	public long getInterestInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.interest);
+	}
+
+	public long getPrincipalInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.principal);
+	}
+
+	public long getPrincipalCompletedInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.principalCompleted);
+	}
+
+	public long getInterestCompletedInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.interestCompleted);
+	}
+
+	public long getInterestWaivedInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.interestWaived);
+	}
+
+	/**
+	 * The principal and interest paid on this installment in minor units of
+	 * the currency, see {@link MoneyAccumulator}.
+	 */
+	public long getTotalCompletedInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.principalCompleted) + MoneyAccumulator.minorUnitsOf(currency, this.interestCompleted);
+	}
+
+	/**
+	 * The principal and interest still due (not paid or waived) on this
+	 * installment in minor units of the currency, see {@link MoneyAccumulator}.
+	 */
+	public long getTotalDueInMinorUnits(final MonetaryCurrency currency) {
+		return getTotalInMinorUnits(currency) - getTotalCompletedInMinorUnits(currency) - MoneyAccumulator.minorUnitsOf(currency, this.interestWaived);
+	}
+
+	private long getInterestDueInMinorUnits(final MonetaryCurrency currency) {
+		return MoneyAccumulator.minorUnitsOf(currency, this.interest) - MoneyAccumulator.minorUnitsOf(currency, this.interestCompleted)
+				- MoneyAccumulator.minorUnitsOf(currency, this.interestWaived);
+	}
 	
 	public void updateLoan(final Loan loan) {
 		this.loan = loan;
@@ -130,16 +184,11 @@ public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<Ap
 	}
 	
 	public boolean isPrincipalCompleted(final MonetaryCurrency currency) {
-		return getPrincipal(currency).minus(getPrincipalCompleted(currency)).isZero();
+		return MoneyAccumulator.minorUnitsOf(currency, this.principal) == MoneyAccumulator.minorUnitsOf(currency, this.principalCompleted);
 	}
 
 	public Money getTotalDue(MonetaryCurrency currency) {
-		final Money totalPaidOrWaived = getInterestWaived(currency).plus(getTotalCompleted(currency));
-		return getTotal(currency).minus(totalPaidOrWaived);
-	}
-
-	private Money getTotalCompleted(MonetaryCurrency currency) {
-		return getPrincipalCompleted(currency).plus(getInterestCompleted(currency));
+		return MoneyAccumulator.zero(currency).addMinorUnits(getTotalDueInMinorUnits(currency)).toMoney();
 	}
 
 	public void resetDerivedComponents() {
@@ -165,7 +214,7 @@ public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<Ap
 			interestPortionOfTransaction = interestPortionOfTransaction.plus(transactionAmountRemaining);
 		}
 		
-		this.completed = getTotalDue(currency).isZero();
+		this.completed = getTotalDueInMinorUnits(currency) == 0L;
 		
 		return interestPortionOfTransaction;
 	}
@@ -185,7 +234,7 @@ public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<Ap
 			principalPortionOfTransaction = principalPortionOfTransaction.plus(transactionAmountRemaining);
 		}
 		
-		this.completed = getTotalDue(currency).isZero();
+		this.completed = getTotalDueInMinorUnits(currency) == 0L;
 		
 		return principalPortionOfTransaction;
 	}
@@ -204,7 +253,7 @@ public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<Ap
 			waivedInterestPortionOfTransaction = waivedInterestPortionOfTransaction.plus(transactionAmountRemaining);
 		}
 		
-		this.completed = getTotalDue(currency).isZero();
+		this.completed = getTotalDueInMinorUnits(currency) == 0L;
 		
 		return waivedInterestPortionOfTransaction;
 	}
@@ -212,4 +261,23 @@ public class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<Ap
 	public boolean isOverdueOn(final LocalDate transactionDate) {
 		return this.getDueDate().isBefore(transactionDate);
 	}
+
+	/**
+	 * Captures the derived (completed and waived) components of this
+	 * installment so they can later be restored without re-processing the
+	 * transactions that produced them.
+	 * 
+	 * @see LoanRepaymentScheduleCheckpoints
+	 */
+	LoanRepaymentScheduleCheckpointInstallment derivedComponents() {
+		return new LoanRepaymentScheduleCheckpointInstallment(this.installmentNumber, this.principalCompleted, this.interestCompleted,
+				this.interestWaived, this.completed);
+	}
+
+	void restoreDerivedComponents(final LoanRepaymentScheduleCheckpointInstallment derivedComponents) {
+		this.principalCompleted = derivedComponents.getPrincipalCompleted();
+		this.interestCompleted = derivedComponents.getInterestCompleted();
+		this.interestWaived = derivedComponents.getInterestWaived();
+		this.completed = derivedComponents.isCompleted();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package org.mifosng.platform.loan.domain;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
+
+/**
+ * Summary of the balances of a {@link Loan} (what is due, paid, waived and
+ * outstanding, in arrears and next due) derived from its repayment schedule
+ * and persisted on <code>m_loan</code> so balances can be read from the loan
+ * row without scanning the schedule.
+ *
+ * Updated by the loan in the same transaction as each change to its schedule;
+ * the arrears part is as of the date of the last update and is refreshed
+ * nightly by the loan portfolio recomputation job (see
+ * {@link LoanArrearsSummary}).
+ */
+@Embeddable
+public class LoanSummary {
+
+	@Column(name = "principal_disbursed_derived", scale = 6, precision = 19)
+	private BigDecimal principalDisbursed;
+
+	@Column(name = "principal_repaid_derived", scale = 6, precision = 19)
+	private BigDecimal principalRepaid;
+
+	@Column(name = "principal_outstanding_derived", scale = 6, precision = 19)
+	private BigDecimal principalOutstanding;
+
+	@Column(name = "interest_charged_derived", scale = 6, precision = 19)
+	private BigDecimal interestCharged;
+
+	@Column(name = "interest_repaid_derived", scale = 6, precision = 19)
+	private BigDecimal interestRepaid;
+
+	@Column(name = "interest_waived_derived", scale = 6, precision = 19)
+	private BigDecimal interestWaived;
+
+	@Column(name = "interest_outstanding_derived", scale = 6, precision = 19)
+	private BigDecimal interestOutstanding;
+
+	@Column(name = "fee_charges_charged_derived", scale = 6, precision = 19)
+	private BigDecimal feeChargesCharged;
+
+	@Column(name = "total_expected_repayment_derived", scale = 6, precision = 19)
+	private BigDecimal totalExpectedRepayment;
+
+	@Column(name = "total_repayment_derived", scale = 6, precision = 19)
+	private BigDecimal totalRepayment;
+
+	@Column(name = "total_waived_derived", scale = 6, precision = 19)
+	private BigDecimal totalWaived;
+
+	@Column(name = "total_outstanding_derived", scale = 6, precision = 19)
+	private BigDecimal totalOutstanding;
+
+	@Column(name = "total_overdue_derived", scale = 6, precision = 19)
+	private BigDecimal totalOverdue;
+
+	@Temporal(TemporalType.DATE)
+	@Column(name = "overdue_since_date_derived")
+	private Date overdueSinceDate;
+
+	@Temporal(TemporalType.DATE)
+	@Column(name = "next_due_date_derived")
+	private Date nextDueDate;
+
+	@Column(name = "next_due_amount_derived", scale = 6, precision = 19)
+	private BigDecimal nextDueAmount;
+
+	@Temporal(TemporalType.DATE)
+	@Column(name = "arrears_recalculated_on_date")
+	private Date arrearsRecalculatedOnDate;
+
+	/**
+	 * Recalculates the summary from the installments in a single pass.
+	 */
+	public void update(final MonetaryCurrency currency, final List<LoanRepaymentScheduleInstallment> installments,
+			final BigDecimal chargesDueAtDisbursement, final LocalDate asOfDate) {
+
+		final MoneyAccumulator principal = MoneyAccumulator.zero(currency);
+		final MoneyAccumulator principalCompleted = MoneyAccumulator.zero(currency);
+		final MoneyAccumulator interest = MoneyAccumulator.zero(currency);
+		final MoneyAccumulator interestCompleted = MoneyAccumulator.zero(currency);
+		final MoneyAccumulator waived = MoneyAccumulator.zero(currency);
+		final MoneyAccumulator overdue = MoneyAccumulator.zero(currency);
+
+		LocalDate overdueSince = null;
+		LocalDate nextDue = null;
+		long nextDueInMinorUnits = 0L;
+
+		for (LoanRepaymentScheduleInstallment installment : installments) {
+			principal.addMinorUnits(installment.getPrincipalInMinorUnits(currency));
+			principalCompleted.addMinorUnits(installment.getPrincipalCompletedInMinorUnits(currency));
+			interest.addMinorUnits(installment.getInterestInMinorUnits(currency));
+			interestCompleted.addMinorUnits(installment.getInterestCompletedInMinorUnits(currency));
+			waived.addMinorUnits(installment.getInterestWaivedInMinorUnits(currency));
+
+			final long dueInMinorUnits = installment.getTotalDueInMinorUnits(currency);
+			if (dueInMinorUnits > 0L) {
+				if (installment.isOverdueOn(asOfDate)) {
+					overdue.addMinorUnits(dueInMinorUnits);
+					if (overdueSince == null) {
+						overdueSince = installment.getDueDate();
+					}
+				} else if (nextDue == null) {
+					nextDue = installment.getDueDate();
+					nextDueInMinorUnits = dueInMinorUnits;
+				}
+			}
+		}
+
+		final BigDecimal feeCharges = chargesDueAtDisbursement == null ? BigDecimal.ZERO : chargesDueAtDisbursement;
+
+		this.principalDisbursed = principal.toBigDecimal();
+		this.principalRepaid = principalCompleted.toBigDecimal();
+		this.principalOutstanding = BigDecimal.valueOf(principal.getMinorUnits() - principalCompleted.getMinorUnits(),
+				currency.getDigitsAfterDecimal());
+		this.interestCharged = interest.toBigDecimal();
+		this.interestRepaid = interestCompleted.toBigDecimal();
+		this.interestWaived = waived.toBigDecimal();
+		this.interestOutstanding = BigDecimal.valueOf(interest.getMinorUnits() - interestCompleted.getMinorUnits() - waived.getMinorUnits(),
+				currency.getDigitsAfterDecimal());
+		this.feeChargesCharged = feeCharges;
+		this.totalExpectedRepayment = this.principalDisbursed.add(this.interestCharged).add(feeCharges);
+		this.totalRepayment = this.principalRepaid.add(this.interestRepaid);
+		this.totalWaived = this.interestWaived;
+		this.totalOutstanding = this.principalOutstanding.add(this.interestOutstanding);
+
+		this.totalOverdue = overdue.toBigDecimal();
+		this.overdueSinceDate = overdueSince == null ? null : overdueSince.toDate();
+		this.nextDueDate = nextDue == null ? null : nextDue.toDate();
+		this.nextDueAmount = nextDue == null ? null : BigDecimal.valueOf(nextDueInMinorUnits, currency.getDigitsAfterDecimal());
+		this.arrearsRecalculatedOnDate = asOfDate.toDate();
+	}
+
+	/**
+	 * The principal and interest expected over the life of the loan.
+	 */
+	public Money getTotalPrincipalAndInterestExpected(final MonetaryCurrency currency) {
+		return Money.of(currency, valueOf(this.principalDisbursed)).plus(valueOf(this.interestCharged));
+	}
+
+	/**
+	 * The principal and interest paid on the installments of the loan.
+	 */
+	public Money getTotalRepayment(final MonetaryCurrency currency) {
+		return Money.of(currency, valueOf(this.totalRepayment));
+	}
+
+	public Money getTotalOutstanding(final MonetaryCurrency currency) {
+		return Money.of(currency, valueOf(this.totalOutstanding));
+	}
+
+	public Money getTotalOverdue(final MonetaryCurrency currency) {
+		return Money.of(currency, valueOf(this.totalOverdue));
+	}
+
+	public boolean isRepaidInFull(final MonetaryCurrency currency) {
+		return getTotalOutstanding(currency).isZero();
+	}
+
+	public LocalDate getNextDueDate() {
+		return this.nextDueDate == null ? null : new LocalDate(this.nextDueDate);
+	}
+
+	private static BigDecimal valueOf(final BigDecimal amount) {
+		return amount == null ? BigDecimal.ZERO : amount;
+	}
+}
@@ -15,10 +15,13 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.hibernate.annotations.GenericGenerator;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
+import org.mifosng.platform.infrastructure.AbstractPersistableCustom;
+import org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator;
 import org.mifosng.platform.user.domain.AppUser;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -28,6 +31,7 @@ import org.springframework.format.annotation.DateTimeFormat;
  */
 @Entity
 @Table(name = "m_loan_transaction")
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
 public class LoanTransaction extends AbstractAuditableCustom<AppUser, Long> {
 
     @ManyToOne(optional = false)
@@ -193,5 +197,6 @@ public class LoanTransaction extends AbstractAuditableCustom<AppUser, Long> {
 	public void resetDerivedComponents() {
 		this.principalPortion = BigDecimal.ZERO;
 		this.interestPortion = BigDecimal.ZERO;
+		this.interestWaivedPortion = BigDecimal.ZERO;
 	}
 }
\ No newline at end of file
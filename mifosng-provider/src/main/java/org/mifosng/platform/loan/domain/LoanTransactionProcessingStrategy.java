@@ -4,6 +4,8 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.data.TransactionProcessingStrategyData;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
 import org.mifosng.platform.user.domain.AppUser;
@@ -13,6 +15,7 @@ import org.mifosng.platform.user.domain.AppUser;
  */
 @Entity
 @Table(name = "ref_loan_transaction_processing_strategy")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class LoanTransactionProcessingStrategy extends AbstractAuditableCustom<AppUser, Long> {
 
 	@Column(name = "code", unique=true)
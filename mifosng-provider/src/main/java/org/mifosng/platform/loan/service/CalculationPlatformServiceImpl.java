@@ -18,7 +18,6 @@ import org.mifosng.platform.loan.domain.LoanPayoffSummary;
 import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
 import org.mifosng.platform.loan.domain.LoanRepository;
 import org.mifosng.platform.loan.domain.PeriodFrequencyType;
-import org.mifosng.platform.loanschedule.domain.DefaultLoanScheduleGeneratorFactory;
 import org.mifosng.platform.loanschedule.domain.LoanScheduleGenerator;
 import org.mifosng.platform.loanschedule.domain.LoanScheduleGeneratorFactory;
 import org.mifosng.platform.security.PlatformSecurityContext;
@@ -41,11 +40,12 @@ public class CalculationPlatformServiceImpl implements CalculationPlatformServic
 			final LoanRepository loanRepository, 
 			final ApplicationCurrencyRepository applicationCurrencyRepository, 
 			final LoanProductRelatedDetailAssembler loanProductRelatedDetailAssembler,
-			final LoanChargeAssembler loanChargeAssembler) {
+			final LoanChargeAssembler loanChargeAssembler,
+			final LoanScheduleGeneratorFactory loanScheduleFactory) {
 		this.context = context;
 		this.loanRepository = loanRepository;
 		this.applicationCurrencyRepository = applicationCurrencyRepository;
-		this.loanScheduleFactory = new DefaultLoanScheduleGeneratorFactory();
+		this.loanScheduleFactory = loanScheduleFactory;
 		this.loanProductRelatedDetailAssembler = loanProductRelatedDetailAssembler;
 		this.loanChargeAssembler = loanChargeAssembler;
 	}
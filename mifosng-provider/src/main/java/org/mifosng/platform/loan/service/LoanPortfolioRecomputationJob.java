@@ -0,0 +1,549 @@
+package org.mifosng.platform.loan.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.exceptions.PlatformInternalServerException;
+import org.mifosng.platform.infrastructure.DataSourcePerTenantService;
+import org.mifosng.platform.infrastructure.JdbcSupport;
+import org.mifosng.platform.infrastructure.MifosPlatformTenant;
+import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
+import org.mifosng.platform.infrastructure.TenantDetailsService;
+import org.mifosng.platform.infrastructure.ThreadLocalContextUtil;
+import org.mifosng.platform.loan.domain.LoanArrearsSummary;
+import org.mifosng.platform.loan.domain.LoanStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * End of day job recomputing the derived arrears state (outstanding, overdue
+ * and next due, see {@link LoanArrearsSummary}) of all active loans of each
+ * tenant into the <code>*_derived</code> columns of <code>m_loan</code>.
+ *
+ * The repayment schedules of active loans are streamed from the database
+ * ordered by loan and cut into chunks of whole loans. Each chunk is
+ * summarised and written back with a single batched update in its own
+ * transaction on a pool of writer threads, so the run scales with the cores
+ * available. The writers use at most half of the tenants connection pool,
+ * leaving the rest for requests. The streaming read holds its connection for
+ * the whole run, longer than the tenants pool lets a connection be held before
+ * removing it as abandoned, so it is taken from the long running pool of the
+ * tenant (see {@link DataSourcePerTenantService}) instead. The number of
+ * chunks waiting for a writer is bounded so memory use does not grow with the
+ * size of the portfolio.
+ *
+ * Only one run recomputes a tenant at a time, across all nodes: the streaming
+ * connection holds a MySQL named lock of the tenant for the whole run and a
+ * tenant whose lock is taken is skipped.
+ *
+ * Repayments keep the balances of a loan up to date as they are made (see
+ * {@link org.mifosng.platform.loan.domain.LoanSummary}), so the update of a
+ * loan only applies while its version is the one streamed. A loan changed
+ * since is skipped and keeps its live balances until the next run.
+ *
+ * A chunk that fails is logged and counted and does not stop the run; its
+ * loans keep the values of the previous run. Progress, throughput and errors
+ * of the current (or last) run are exposed over JMX.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=LoanPortfolioRecomputation", description = "End of day recomputation of loan arrears.")
+public class LoanPortfolioRecomputationJob {
+
+	private final static Logger logger = LoggerFactory.getLogger(LoanPortfolioRecomputationJob.class);
+
+	private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private final TenantDetailsService tenantDetailsService;
+	private final DataSourcePerTenantService dataSourcePerTenantService;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private final AtomicBoolean running = new AtomicBoolean(false);
+	private final AtomicLong loansToProcess = new AtomicLong();
+	private final AtomicLong loansProcessed = new AtomicLong();
+	private final AtomicLong loansFailed = new AtomicLong();
+	private final AtomicLong loansSkipped = new AtomicLong();
+	private final AtomicLong chunksProcessed = new AtomicLong();
+	private final AtomicLong chunksFailed = new AtomicLong();
+	private volatile long runStartedAt;
+	private volatile long runFinishedAt;
+	private volatile String lastError;
+
+	@Autowired
+	public LoanPortfolioRecomputationJob(final TenantDetailsService tenantDetailsService, final DataSourcePerTenantService dataSourcePerTenantService,
+			final TenantAwareRoutingDataSource dataSource) {
+		this.tenantDetailsService = tenantDetailsService;
+		this.dataSourcePerTenantService = dataSourcePerTenantService;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	@Scheduled(cron = "0 0 1 * * ?")
+	@ManagedOperation(description = "Recomputes the arrears of active loans of all tenants.")
+	public void recomputeAllTenants() {
+		run(this.tenantDetailsService.findAllTenants());
+	}
+
+	@ManagedOperation(description = "Recomputes the arrears of active loans of the tenant with the given identifier.")
+	public void recomputeTenant(final String tenantIdentifier) {
+		final List<MifosPlatformTenant> tenants = new ArrayList<MifosPlatformTenant>();
+		tenants.add(this.tenantDetailsService.loadTenantById(tenantIdentifier));
+		run(tenants);
+	}
+
+	private void run(final List<MifosPlatformTenant> tenants) {
+
+		if (!this.running.compareAndSet(false, true)) {
+			logger.info("Loan portfolio recomputation is already running, ignoring request to start it again.");
+			return;
+		}
+
+		try {
+			this.loansToProcess.set(0);
+			this.loansProcessed.set(0);
+			this.loansFailed.set(0);
+			this.loansSkipped.set(0);
+			this.chunksProcessed.set(0);
+			this.chunksFailed.set(0);
+			this.lastError = null;
+			this.runStartedAt = System.currentTimeMillis();
+			this.runFinishedAt = 0;
+
+			final LocalDate asOfDate = new LocalDate();
+			for (MifosPlatformTenant tenant : tenants) {
+				try {
+					recompute(tenant, asOfDate);
+				} catch (RuntimeException e) {
+					this.lastError = e.getMessage();
+					logger.error("Loan portfolio recomputation of tenant " + tenant.getName() + " failed.", e);
+				}
+			}
+		} finally {
+			this.runFinishedAt = System.currentTimeMillis();
+			this.running.set(false);
+			logger.info("Loan portfolio recomputation processed " + this.loansProcessed.get() + " loans (" + this.loansFailed.get()
+					+ " failed, " + this.loansSkipped.get() + " changed while running) in " + getRunDurationMillis() + " ms.");
+		}
+	}
+
+	private void recompute(final MifosPlatformTenant tenant, final LocalDate asOfDate) {
+
+		// the streaming connection comes from the long running pool, the writers use at most half of the pool
+		final int writers = Math.max(1, Math.min(this.parallelism, tenant.getPoolMaxActive() / 2));
+		final ExecutorService executor = Executors.newFixedThreadPool(writers, new WriterThreadFactory(tenant));
+
+		ThreadLocalContextUtil.setTenant(tenant);
+		try {
+			final JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(this.dataSourcePerTenantService.retrieveTenantAwareLongRunningDataSource());
+			streamingJdbcTemplate.execute(new ConnectionCallback<Object>() {
+				@Override
+				public Object doInConnection(final Connection con) throws SQLException {
+					if (!lockTenant(con, tenant)) {
+						logger.info("Loan portfolio recomputation of tenant " + tenant.getName() + " is already running, skipping it.");
+						return null;
+					}
+					try {
+						recomputeLocked(con, tenant, asOfDate, executor, writers);
+					} finally {
+						unlockTenant(con, tenant);
+					}
+					return null;
+				}
+			});
+		} finally {
+			ThreadLocalContextUtil.clearTenant();
+			executor.shutdown();
+		}
+	}
+
+	private void recomputeLocked(final Connection con, final MifosPlatformTenant tenant, final LocalDate asOfDate, final ExecutorService executor,
+			final int writers) throws SQLException {
+
+		final Integer activeStatus = LoanStatus.ACTIVE.getValue();
+		this.loansToProcess.addAndGet(this.jdbcTemplate.queryForLong("select count(*) from m_loan l where l.loan_status_id = ?", activeStatus));
+
+		final ChunkingRowCallbackHandler chunker = new ChunkingRowCallbackHandler(tenant, asOfDate, executor, writers * 2);
+		final PreparedStatement ps = new StreamingStatementCreator(activeStatus).createPreparedStatement(con);
+		try {
+			final ResultSet rs = ps.executeQuery();
+			try {
+				while (rs.next()) {
+					chunker.processRow(rs);
+				}
+			} finally {
+				JdbcUtils.closeResultSet(rs);
+			}
+		} finally {
+			JdbcUtils.closeStatement(ps);
+		}
+		chunker.submitChunk();
+		chunker.awaitSubmittedChunks();
+	}
+
+	/*
+	 * mysql named locks belong to the connection taking them and are server wide, so the lock name carries the tenants schema
+	 */
+	private static boolean lockTenant(final Connection con, final MifosPlatformTenant tenant) throws SQLException {
+		return selectLockFunction(con, "select get_lock(?, 0)", tenant);
+	}
+
+	private static void unlockTenant(final Connection con, final MifosPlatformTenant tenant) throws SQLException {
+		selectLockFunction(con, "select release_lock(?)", tenant);
+	}
+
+	private static boolean selectLockFunction(final Connection con, final String sql, final MifosPlatformTenant tenant) throws SQLException {
+		final PreparedStatement ps = con.prepareStatement(sql);
+		try {
+			ps.setString(1, "mifosng.loan.recomputation." + tenant.getSchemaName());
+			final ResultSet rs = ps.executeQuery();
+			try {
+				return rs.next() && rs.getInt(1) == 1;
+			} finally {
+				JdbcUtils.closeResultSet(rs);
+			}
+		} finally {
+			JdbcUtils.closeStatement(ps);
+		}
+	}
+
+	private void write(final List<InstallmentRow> rows, final LocalDate asOfDate) {
+
+		final List<LoanArrearsSummary> summaries = new ArrayList<LoanArrearsSummary>();
+		final List<Integer> versions = new ArrayList<Integer>();
+		LoanArrearsSummary summary = null;
+		for (InstallmentRow row : rows) {
+			if (summary == null || !summary.getLoanId().equals(row.loanId)) {
+				summary = new LoanArrearsSummary(row.loanId, asOfDate);
+				summaries.add(summary);
+				versions.add(row.version);
+			}
+			summary.addInstallment(row.dueDate, row.principal, row.principalCompleted, row.interest, row.interestCompleted, row.interestWaived);
+		}
+
+		try {
+			final int[] updateCounts = this.transactionTemplate.execute(new TransactionCallback<int[]>() {
+				@Override
+				public int[] doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+					// the version is left as is, so the update does not fail a repayment of a loan read before it
+					return LoanPortfolioRecomputationJob.this.jdbcTemplate.batchUpdate(
+							"update m_loan set total_outstanding_derived = ?, total_overdue_derived = ?, overdue_since_date_derived = ?, "
+									+ "next_due_date_derived = ?, next_due_amount_derived = ?, arrears_recalculated_on_date = ? where id = ? and version = ?",
+							new LoanArrearsSummaryBatchSetter(summaries, versions));
+				}
+			});
+			int loansChanged = 0;
+			for (int updateCount : updateCounts) {
+				if (updateCount == 0) {
+					loansChanged++;
+				}
+			}
+			this.loansProcessed.addAndGet(summaries.size() - loansChanged);
+			this.loansSkipped.addAndGet(loansChanged);
+			this.chunksProcessed.incrementAndGet();
+		} catch (RuntimeException e) {
+			this.loansFailed.addAndGet(summaries.size());
+			this.chunksFailed.incrementAndGet();
+			this.lastError = e.getMessage();
+			logger.error("Unable to recompute arrears of loans " + summaries.get(0).getLoanId() + " to "
+					+ summaries.get(summaries.size() - 1).getLoanId() + ".", e);
+		}
+	}
+
+	@ManagedAttribute(description = "Whether a recomputation is currently running.")
+	public boolean isRunning() {
+		return this.running.get();
+	}
+
+	@ManagedAttribute(description = "Number of active loans to process in the current or last run.")
+	public long getLoansToProcess() {
+		return this.loansToProcess.get();
+	}
+
+	@ManagedAttribute(description = "Number of loans recomputed in the current or last run.")
+	public long getLoansProcessed() {
+		return this.loansProcessed.get();
+	}
+
+	@ManagedAttribute(description = "Number of loans not recomputed due to errors in the current or last run.")
+	public long getLoansFailed() {
+		return this.loansFailed.get();
+	}
+
+	@ManagedAttribute(description = "Number of loans changed while the current or last run was recomputing them and so left as they were.")
+	public long getLoansSkipped() {
+		return this.loansSkipped.get();
+	}
+
+	@ManagedAttribute(description = "Number of chunks written in the current or last run.")
+	public long getChunksProcessed() {
+		return this.chunksProcessed.get();
+	}
+
+	@ManagedAttribute(description = "Number of chunks that failed in the current or last run.")
+	public long getChunksFailed() {
+		return this.chunksFailed.get();
+	}
+
+	@ManagedAttribute(description = "Message of the last error of the current or last run.")
+	public String getLastError() {
+		return this.lastError;
+	}
+
+	@ManagedAttribute(description = "Duration in milliseconds of the current or last run.")
+	public long getRunDurationMillis() {
+		if (this.runStartedAt == 0) {
+			return 0;
+		}
+		final long end = this.runFinishedAt == 0 ? System.currentTimeMillis() : this.runFinishedAt;
+		return end - this.runStartedAt;
+	}
+
+	@ManagedAttribute(description = "Loans recomputed per second in the current or last run.")
+	public long getLoansPerSecond() {
+		final long durationMillis = getRunDurationMillis();
+		return durationMillis == 0 ? 0 : this.loansProcessed.get() * 1000 / durationMillis;
+	}
+
+	@ManagedAttribute
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	@ManagedAttribute
+	public void setChunkSize(final int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	@ManagedAttribute
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	@ManagedAttribute
+	public void setParallelism(final int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Cuts the streamed installments into chunks of whole loans and hands each
+	 * chunk to a writer, blocking the stream while too many chunks are waiting.
+	 */
+	private final class ChunkingRowCallbackHandler implements RowCallbackHandler {
+
+		private final MifosPlatformTenant tenant;
+		private final LocalDate asOfDate;
+		private final ExecutorService executor;
+		private final Semaphore chunksInFlight;
+		private final List<Future<?>> submitted = new ArrayList<Future<?>>();
+
+		private List<InstallmentRow> chunk = new ArrayList<InstallmentRow>();
+		private Long currentLoanId;
+		private int loansInChunk = 0;
+
+		public ChunkingRowCallbackHandler(final MifosPlatformTenant tenant, final LocalDate asOfDate, final ExecutorService executor,
+				final int maximumChunksInFlight) {
+			this.tenant = tenant;
+			this.asOfDate = asOfDate;
+			this.executor = executor;
+			this.chunksInFlight = new Semaphore(maximumChunksInFlight);
+		}
+
+		@Override
+		public void processRow(final ResultSet rs) throws SQLException {
+
+			final InstallmentRow row = new InstallmentRow(rs);
+			if (!row.loanId.equals(this.currentLoanId)) {
+				if (this.loansInChunk == LoanPortfolioRecomputationJob.this.chunkSize) {
+					submitChunk();
+				}
+				this.currentLoanId = row.loanId;
+				this.loansInChunk++;
+			}
+			this.chunk.add(row);
+		}
+
+		public void submitChunk() {
+			if (this.chunk.isEmpty()) {
+				return;
+			}
+
+			final List<InstallmentRow> rows = this.chunk;
+			this.chunk = new ArrayList<InstallmentRow>();
+			this.loansInChunk = 0;
+
+			acquireChunkInFlight();
+			this.submitted.add(this.executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					ThreadLocalContextUtil.setTenant(ChunkingRowCallbackHandler.this.tenant);
+					try {
+						write(rows, ChunkingRowCallbackHandler.this.asOfDate);
+					} finally {
+						ThreadLocalContextUtil.clearTenant();
+						ChunkingRowCallbackHandler.this.chunksInFlight.release();
+					}
+				}
+			}));
+		}
+
+		public void awaitSubmittedChunks() {
+			for (Future<?> result : this.submitted) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					throw new PlatformInternalServerException("error.msg.loan.portfolio.recomputation.failed",
+							"Unexpected error while recomputing loan portfolio.", e.getCause().getMessage());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new PlatformInternalServerException("error.msg.loan.portfolio.recomputation.interrupted",
+							"Interrupted while recomputing loan portfolio.");
+				}
+			}
+		}
+
+		private void acquireChunkInFlight() {
+			try {
+				this.chunksInFlight.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new PlatformInternalServerException("error.msg.loan.portfolio.recomputation.interrupted",
+						"Interrupted while recomputing loan portfolio.");
+			}
+		}
+	}
+
+	/**
+	 * Streams the installments of active loans row by row (MySQL only streams
+	 * a forward only, read only result set with a fetch size of
+	 * {@link Integer#MIN_VALUE}) instead of reading the whole portfolio into
+	 * memory.
+	 */
+	private static final class StreamingStatementCreator implements PreparedStatementCreator {
+
+		private final Integer loanStatus;
+
+		public StreamingStatementCreator(final Integer loanStatus) {
+			this.loanStatus = loanStatus;
+		}
+
+		@Override
+		public PreparedStatement createPreparedStatement(final Connection con) throws SQLException {
+			final PreparedStatement ps = con.prepareStatement(
+					"select r.loan_id as loanId, l.version as version, r.duedate as dueDate, r.principal_amount as principal, r.principal_completed_derived as principalCompleted, "
+							+ "r.interest_amount as interest, r.interest_completed_derived as interestCompleted, r.interest_waived_derived as interestWaived "
+							+ "from m_loan l join m_loan_repayment_schedule r on r.loan_id = l.id "
+							+ "where l.loan_status_id = ? order by r.loan_id, r.installment",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			ps.setFetchSize(Integer.MIN_VALUE);
+			ps.setInt(1, this.loanStatus);
+			return ps;
+		}
+	}
+
+	private static final class InstallmentRow {
+
+		private final Long loanId;
+		private final Integer version;
+		private final LocalDate dueDate;
+		private final BigDecimal principal;
+		private final BigDecimal principalCompleted;
+		private final BigDecimal interest;
+		private final BigDecimal interestCompleted;
+		private final BigDecimal interestWaived;
+
+		public InstallmentRow(final ResultSet rs) throws SQLException {
+			this.loanId = rs.getLong("loanId");
+			this.version = rs.getInt("version");
+			this.dueDate = JdbcSupport.getLocalDate(rs, "dueDate");
+			this.principal = rs.getBigDecimal("principal");
+			this.principalCompleted = rs.getBigDecimal("principalCompleted");
+			this.interest = rs.getBigDecimal("interest");
+			this.interestCompleted = rs.getBigDecimal("interestCompleted");
+			this.interestWaived = rs.getBigDecimal("interestWaived");
+		}
+	}
+
+	private static final class LoanArrearsSummaryBatchSetter implements BatchPreparedStatementSetter {
+
+		private final List<LoanArrearsSummary> summaries;
+		private final List<Integer> versions;
+
+		public LoanArrearsSummaryBatchSetter(final List<LoanArrearsSummary> summaries, final List<Integer> versions) {
+			this.summaries = summaries;
+			this.versions = versions;
+		}
+
+		@Override
+		public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+			final LoanArrearsSummary summary = this.summaries.get(i);
+			ps.setBigDecimal(1, summary.getTotalOutstanding());
+			ps.setBigDecimal(2, summary.getTotalOverdue());
+			ps.setDate(3, toSqlDate(summary.getOverdueSinceDate()));
+			ps.setDate(4, toSqlDate(summary.getNextDueDate()));
+			ps.setBigDecimal(5, summary.getNextDueAmount());
+			ps.setDate(6, toSqlDate(summary.getAsOfDate()));
+			ps.setLong(7, summary.getLoanId());
+			ps.setInt(8, this.versions.get(i));
+		}
+
+		@Override
+		public int getBatchSize() {
+			return this.summaries.size();
+		}
+
+		private static java.sql.Date toSqlDate(final LocalDate date) {
+			return date == null ? null : new java.sql.Date(date.toDate().getTime());
+		}
+	}
+
+	private static final class WriterThreadFactory implements ThreadFactory {
+
+		private final String namePrefix;
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		public WriterThreadFactory(final MifosPlatformTenant tenant) {
+			this.namePrefix = "mifosng-recompute-" + tenant.getName() + "-";
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			final Thread thread = new Thread(runnable, this.namePrefix + this.threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -21,18 +21,15 @@ import org.mifosng.platform.api.data.LoanSchedulePeriodData;
 import org.mifosng.platform.api.data.LoanTransactionData;
 import org.mifosng.platform.api.data.MoneyData;
 import org.mifosng.platform.client.service.ClientReadPlatformService;
-import org.mifosng.platform.currency.domain.ApplicationCurrency;
-import org.mifosng.platform.currency.domain.ApplicationCurrencyRepository;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
-import org.mifosng.platform.exceptions.CurrencyNotFoundException;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
+import org.mifosng.platform.currency.service.CurrencyReadPlatformService;
 import org.mifosng.platform.exceptions.LoanNotFoundException;
 import org.mifosng.platform.exceptions.LoanTransactionNotFoundException;
 import org.mifosng.platform.infrastructure.JdbcSupport;
 import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
 import org.mifosng.platform.loan.domain.Loan;
-import org.mifosng.platform.loan.domain.LoanRepository;
-import org.mifosng.platform.loan.domain.LoanTransaction;
-import org.mifosng.platform.loan.domain.LoanTransactionRepository;
 import org.mifosng.platform.loan.domain.LoanTransactionType;
 import org.mifosng.platform.loanproduct.service.LoanEnumerations;
 import org.mifosng.platform.loanproduct.service.LoanProductReadPlatformService;
@@ -42,31 +39,28 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
 	private final JdbcTemplate jdbcTemplate;
 	private final PlatformSecurityContext context;
-	private final LoanRepository loanRepository;
-	private final ApplicationCurrencyRepository applicationCurrencyRepository;
+	private final CurrencyReadPlatformService currencyReadPlatformService;
 	private final LoanProductReadPlatformService loanProductReadPlatformService;
 	private final ClientReadPlatformService clientReadPlatformService;
-	private final LoanTransactionRepository loanTransactionRepository;
 
 	@Autowired
 	public LoanReadPlatformServiceImpl(
 			final PlatformSecurityContext context,
-			final LoanRepository loanRepository,
-			final LoanTransactionRepository loanTransactionRepository,
-			final ApplicationCurrencyRepository applicationCurrencyRepository,
+			final CurrencyReadPlatformService currencyReadPlatformService,
 			final LoanProductReadPlatformService loanProductReadPlatformService,
 			final ClientReadPlatformService clientReadPlatformService,
 			final TenantAwareRoutingDataSource dataSource) {
 		this.context = context;
-		this.loanRepository = loanRepository;
-		this.loanTransactionRepository = loanTransactionRepository;
-		this.applicationCurrencyRepository = applicationCurrencyRepository;
+		this.currencyReadPlatformService = currencyReadPlatformService;
 		this.loanProductReadPlatformService = loanProductReadPlatformService;
 		this.clientReadPlatformService = clientReadPlatformService;
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
@@ -212,35 +206,25 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
 		context.authenticatedUser();
 
-		// TODO - OPTIMIZE - write simple sql query to fetch back date of
-		// possible next transaction date.
-		Loan loan = this.loanRepository.findOne(loanId);
-		if (loan == null) {
-			throw new LoanNotFoundException(loanId);
-		}
+		final LoanTransactionTemplate template = retrieveLoanTransactionTemplate(loanId);
+		final CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(template.getCurrencyCode());
 
-		final String currencyCode = loan.repaymentScheduleDetail()
-				.getPrincipal().getCurrencyCode();
-		ApplicationCurrency currency = this.applicationCurrencyRepository
-				.findOneByCode(currencyCode);
-		if (currency == null) {
-			throw new CurrencyNotFoundException(currencyCode);
+		LocalDate possibleNextRepaymentDate = template.getEarliestUnpaidInstallmentDate();
+		if (possibleNextRepaymentDate == null) {
+			possibleNextRepaymentDate = new LocalDate();
+		}
+		final LocalDate lastRepaymentDate = template.getLastRepaymentDate();
+		if (lastRepaymentDate != null && lastRepaymentDate.isAfter(possibleNextRepaymentDate)) {
+			possibleNextRepaymentDate = lastRepaymentDate;
 		}
 
-		CurrencyData currencyData = new CurrencyData(currency.getCode(),
-				currency.getName(), currency.getDecimalPlaces(),
-				currency.getDisplaySymbol(), currency.getNameCode());
-
-		LocalDate earliestUnpaidInstallmentDate = loan
-				.possibleNextRepaymentDate();
-		Money possibleNextRepaymentAmount = loan.possibleNextRepaymentAmount();
 		MoneyData possibleNextRepayment = MoneyData.of(currencyData,
-				possibleNextRepaymentAmount.getAmount());
+				template.getEarliestUnpaidInstallmentTotalDue().getAmount());
 
 		LoanTransactionData newRepaymentDetails = new LoanTransactionData();
 		newRepaymentDetails.setTransactionType(LoanEnumerations
 				.transactionType(LoanTransactionType.REPAYMENT));
-		newRepaymentDetails.setDate(earliestUnpaidInstallmentDate);
+		newRepaymentDetails.setDate(possibleNextRepaymentDate);
 		newRepaymentDetails.setTotal(possibleNextRepayment);
 
 		return newRepaymentDetails;
@@ -251,28 +235,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
 		context.authenticatedUser();
 
-		// TODO - OPTIMIZE - write simple sql query to fetch back date of
-		// possible next transaction date.
-		Loan loan = this.loanRepository.findOne(loanId);
-		if (loan == null) {
-			throw new LoanNotFoundException(loanId);
-		}
-
-		final String currencyCode = loan.repaymentScheduleDetail()
-				.getPrincipal().getCurrencyCode();
-		ApplicationCurrency currency = this.applicationCurrencyRepository
-				.findOneByCode(currencyCode);
-		if (currency == null) {
-			throw new CurrencyNotFoundException(currencyCode);
-		}
-
-		CurrencyData currencyData = new CurrencyData(currency.getCode(),
-				currency.getName(), currency.getDecimalPlaces(),
-				currency.getDisplaySymbol(), currency.getNameCode());
+		final LoanTransactionTemplate template = retrieveLoanTransactionTemplate(loanId);
+		final CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(template.getCurrencyCode());
 
-		Money totalOutstanding = loan.getTotalOutstanding();
 		MoneyData totalOutstandingData = MoneyData.of(currencyData,
-				totalOutstanding.getAmount());
+				template.getTotalOutstanding().getAmount());
 
 		LoanTransactionData newWaiverDetails = new LoanTransactionData();
 		newWaiverDetails.setTransactionType(LoanEnumerations
@@ -283,47 +250,52 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 		return newWaiverDetails;
 	}
 
+	private LoanTransactionTemplate retrieveLoanTransactionTemplate(final Long loanId) {
+		try {
+			LoanTransactionTemplateMapper rm = new LoanTransactionTemplateMapper();
+
+			String sql = "select " + rm.schema() + " where l.id = ?";
+
+			return this.jdbcTemplate.queryForObject(sql, rm, new Object[] { loanId });
+		} catch (EmptyResultDataAccessException e) {
+			throw new LoanNotFoundException(loanId);
+		}
+	}
+
 	@Override
 	public LoanTransactionData retrieveLoanTransactionDetails(
 			final Long loanId, final Long transactionId) {
 
 		context.authenticatedUser();
 
-		Loan loan = this.loanRepository.findOne(loanId);
-		if (loan == null) {
-			throw new LoanNotFoundException(loanId);
-		}
+		LoanTransactionDetail transaction;
+		try {
+			LoanTransactionDetailMapper rm = new LoanTransactionDetailMapper();
 
-		final String currencyCode = loan.repaymentScheduleDetail()
-				.getPrincipal().getCurrencyCode();
-		ApplicationCurrency currency = this.applicationCurrencyRepository
-				.findOneByCode(currencyCode);
-		if (currency == null) {
-			throw new CurrencyNotFoundException(currencyCode);
+			String sql = "select " + rm.schema() + " where l.id = ?";
+
+			transaction = this.jdbcTemplate.queryForObject(sql, rm, new Object[] { transactionId, loanId });
+		} catch (EmptyResultDataAccessException e) {
+			throw new LoanNotFoundException(loanId);
 		}
 
-		LoanTransaction transaction = this.loanTransactionRepository
-				.findOne(transactionId);
-		if (transaction == null) {
+		if (transaction.getLoanId() == null) {
 			throw new LoanTransactionNotFoundException(transactionId);
 		}
 
-		if (transaction.isNotBelongingToLoanOf(loan)) {
+		if (!transaction.getLoanId().equals(loanId)) {
 			throw new LoanTransactionNotFoundException(transactionId, loanId);
 		}
 
-		CurrencyData currencyData = new CurrencyData(currency.getCode(),
-				currency.getName(), currency.getDecimalPlaces(),
-				currency.getDisplaySymbol(), currency.getNameCode());
+		CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(transaction.getCurrencyCode());
 		MoneyData total = MoneyData.of(currencyData, transaction.getAmount());
-		LocalDate date = transaction.getTransactionDate();
 
 		LoanTransactionData loanRepaymentData = new LoanTransactionData();
 		loanRepaymentData.setTransactionType(LoanEnumerations
 				.transactionType(transaction.getTypeOf()));
 		loanRepaymentData.setId(transactionId);
 		loanRepaymentData.setTotal(total);
-		loanRepaymentData.setDate(date);
+		loanRepaymentData.setDate(transaction.getTransactionDate());
 
 		return loanRepaymentData;
 	}
@@ -553,4 +525,162 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * What the repayment and waiver templates need from a loan, read without
+	 * loading the loan with its schedule and transactions.
+	 */
+	private static final class LoanTransactionTemplate {
+
+		private final String currencyCode;
+		private final LocalDate earliestUnpaidInstallmentDate;
+		private final Money earliestUnpaidInstallmentTotalDue;
+		private final LocalDate lastRepaymentDate;
+		private final Money totalOutstanding;
+
+		public LoanTransactionTemplate(final String currencyCode, final LocalDate earliestUnpaidInstallmentDate,
+				final Money earliestUnpaidInstallmentTotalDue, final LocalDate lastRepaymentDate, final Money totalOutstanding) {
+			this.currencyCode = currencyCode;
+			this.earliestUnpaidInstallmentDate = earliestUnpaidInstallmentDate;
+			this.earliestUnpaidInstallmentTotalDue = earliestUnpaidInstallmentTotalDue;
+			this.lastRepaymentDate = lastRepaymentDate;
+			this.totalOutstanding = totalOutstanding;
+		}
+
+		public String getCurrencyCode() {
+			return currencyCode;
+		}
+
+		public LocalDate getEarliestUnpaidInstallmentDate() {
+			return earliestUnpaidInstallmentDate;
+		}
+
+		public Money getEarliestUnpaidInstallmentTotalDue() {
+			return earliestUnpaidInstallmentTotalDue;
+		}
+
+		public LocalDate getLastRepaymentDate() {
+			return lastRepaymentDate;
+		}
+
+		public Money getTotalOutstanding() {
+			return totalOutstanding;
+		}
+	}
+
+	/**
+	 * Works out the same figures as {@link Loan#possibleNextRepaymentDate()},
+	 * {@link Loan#possibleNextRepaymentAmount()} and
+	 * {@link Loan#getTotalOutstanding()}, rounding each amount to the currency
+	 * before adding it up as they do.
+	 */
+	private static final class LoanTransactionTemplateMapper implements RowMapper<LoanTransactionTemplate> {
+
+		private static final String REPAYMENTS = " from m_loan_transaction tr where tr.loan_id = l.id and tr.transaction_type_enum = "
+				+ LoanTransactionType.REPAYMENT.getValue() + " and tr.contra_id is null";
+
+		public String schema() {
+			return " l.currency_code as currencyCode, l.currency_digits as currencyDigits,"
+					+ " ifnull(l.principal_disbursed_derived, 0) as principalDisbursed, ifnull(l.interest_charged_derived, 0) as interestCharged,"
+					+ " (select ifnull(sum(tr.amount), 0)" + REPAYMENTS + ") as totalRepaid,"
+					+ " (select max(tr.transaction_date)" + REPAYMENTS + " and tr.amount > 0) as lastRepaymentDate,"
+					+ " ls.duedate as dueDate, ifnull(ls.principal_amount, 0) as principal, ifnull(ls.interest_amount, 0) as interest,"
+					+ " ifnull(ls.principal_completed_derived, 0) as principalCompleted, ifnull(ls.interest_completed_derived, 0) as interestCompleted,"
+					+ " ifnull(ls.interest_waived_derived, 0) as interestWaived"
+					+ " from m_loan l"
+					+ " left join m_loan_repayment_schedule ls on ls.id = (select ls2.id from m_loan_repayment_schedule ls2"
+					+ " where ls2.loan_id = l.id and ls2.completed_derived = 0 order by ls2.installment limit 1)";
+		}
+
+		@Override
+		public LoanTransactionTemplate mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+
+			final String currencyCode = rs.getString("currencyCode");
+			final MonetaryCurrency currency = new MonetaryCurrency(currencyCode, JdbcSupport.getInteger(rs, "currencyDigits"));
+
+			final LocalDate dueDate = JdbcSupport.getLocalDate(rs, "dueDate");
+			final Money totalDue = MoneyAccumulator.zero(currency)
+					.addMinorUnits(minorUnitsOf(currency, rs, "principal"))
+					.addMinorUnits(minorUnitsOf(currency, rs, "interest"))
+					.subtractMinorUnits(minorUnitsOf(currency, rs, "principalCompleted"))
+					.subtractMinorUnits(minorUnitsOf(currency, rs, "interestCompleted"))
+					.subtractMinorUnits(minorUnitsOf(currency, rs, "interestWaived")).toMoney();
+
+			final LocalDate lastRepaymentDate = JdbcSupport.getLocalDate(rs, "lastRepaymentDate");
+			final Money totalOutstanding = MoneyAccumulator.zero(currency)
+					.addMinorUnits(minorUnitsOf(currency, rs, "principalDisbursed"))
+					.addMinorUnits(minorUnitsOf(currency, rs, "interestCharged"))
+					.subtractMinorUnits(minorUnitsOf(currency, rs, "totalRepaid")).toMoney();
+
+			return new LoanTransactionTemplate(currencyCode, dueDate, totalDue, lastRepaymentDate, totalOutstanding);
+		}
+
+		private static long minorUnitsOf(final MonetaryCurrency currency, final ResultSet rs, final String columnName) throws SQLException {
+			return MoneyAccumulator.minorUnitsOf(currency, rs.getBigDecimal(columnName));
+		}
+	}
+
+	private static final class LoanTransactionDetail {
+
+		private final Long loanId;
+		private final LoanTransactionType typeOf;
+		private final LocalDate transactionDate;
+		private final BigDecimal amount;
+		private final String currencyCode;
+
+		public LoanTransactionDetail(final Long loanId, final LoanTransactionType typeOf, final LocalDate transactionDate,
+				final BigDecimal amount, final String currencyCode) {
+			this.loanId = loanId;
+			this.typeOf = typeOf;
+			this.transactionDate = transactionDate;
+			this.amount = amount;
+			this.currencyCode = currencyCode;
+		}
+
+		public Long getLoanId() {
+			return loanId;
+		}
+
+		public LoanTransactionType getTypeOf() {
+			return typeOf;
+		}
+
+		public LocalDate getTransactionDate() {
+			return transactionDate;
+		}
+
+		public BigDecimal getAmount() {
+			return amount;
+		}
+
+		public String getCurrencyCode() {
+			return currencyCode;
+		}
+	}
+
+	/**
+	 * Reads a transaction together with the currency of the loan asked for; a
+	 * row is returned whenever the loan exists with the transaction columns
+	 * null if there is no such transaction.
+	 */
+	private static final class LoanTransactionDetailMapper implements RowMapper<LoanTransactionDetail> {
+
+		public String schema() {
+			return " tr.loan_id as transactionLoanId, tr.transaction_type_enum as transactionType, tr.transaction_date as transactionDate,"
+					+ " tr.amount as amount, l.currency_code as currencyCode"
+					+ " from m_loan l"
+					+ " left join m_loan_transaction tr on tr.id = ?";
+		}
+
+		@Override
+		public LoanTransactionDetail mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+
+			final Long transactionLoanId = JdbcSupport.getLong(rs, "transactionLoanId");
+			final Integer transactionType = JdbcSupport.getInteger(rs, "transactionType");
+			final LoanTransactionType typeOf = transactionType == null ? null : LoanTransactionType.fromInt(transactionType);
+			final LocalDate transactionDate = JdbcSupport.getLocalDate(rs, "transactionDate");
+			final BigDecimal amount = rs.getBigDecimal("amount");
+
+			return new LoanTransactionDetail(transactionLoanId, typeOf, transactionDate, amount, rs.getString("currencyCode"));
+		}
+	}
+}
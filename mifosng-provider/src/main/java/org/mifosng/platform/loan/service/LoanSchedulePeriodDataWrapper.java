@@ -5,99 +5,81 @@ import java.util.Collection;
 
 import org.mifosng.platform.api.data.LoanSchedulePeriodData;
 
+/**
+ * Cumulative totals of the periods of a loan schedule, summed in a single pass
+ * over the periods.
+ */
 public class LoanSchedulePeriodDataWrapper {
 
-	private final Collection<LoanSchedulePeriodData> periods;
+	private BigDecimal cumulativePrincipalDisbursed = BigDecimal.ZERO;
+	private BigDecimal cumulativePrincipalDue = BigDecimal.ZERO;
+	private BigDecimal cumulativePrincipalPaid = BigDecimal.ZERO;
+	private BigDecimal cumulativePrincipalOutstanding = BigDecimal.ZERO;
+	private BigDecimal cumulativeInterestExpected = BigDecimal.ZERO;
+	private BigDecimal cumulativeInterestPaid = BigDecimal.ZERO;
+	private BigDecimal cumulativeInterestWaived = BigDecimal.ZERO;
+	private BigDecimal cumulativeInterestOutstanding = BigDecimal.ZERO;
+	private BigDecimal cumulativeChargesToDate = BigDecimal.ZERO;
+	private BigDecimal cumulativeChargesPaid = BigDecimal.ZERO;
+	private BigDecimal cumulativeChargesOutstanding = BigDecimal.ZERO;
 
 	public LoanSchedulePeriodDataWrapper(final Collection<LoanSchedulePeriodData> periods) {
-		this.periods = periods;
+		for (LoanSchedulePeriodData period : periods) {
+			this.cumulativePrincipalDisbursed = this.cumulativePrincipalDisbursed.add(period.principalDisbursed());
+			this.cumulativePrincipalDue = this.cumulativePrincipalDue.add(period.principalDue());
+			this.cumulativePrincipalPaid = this.cumulativePrincipalPaid.add(period.principalPaid());
+			this.cumulativePrincipalOutstanding = this.cumulativePrincipalOutstanding.add(period.principalOutstanding());
+			this.cumulativeInterestExpected = this.cumulativeInterestExpected.add(period.interestDue());
+			this.cumulativeInterestPaid = this.cumulativeInterestPaid.add(period.interestPaid());
+			this.cumulativeInterestWaived = this.cumulativeInterestWaived.add(period.interestWaived());
+			this.cumulativeInterestOutstanding = this.cumulativeInterestOutstanding.add(period.interestOutstanding());
+			this.cumulativeChargesToDate = this.cumulativeChargesToDate.add(period.chargesDue());
+			this.cumulativeChargesPaid = this.cumulativeChargesPaid.add(period.chargesPaid());
+			this.cumulativeChargesOutstanding = this.cumulativeChargesOutstanding.add(period.chargesOutstanding());
+		}
 	}
-	
+
 	public BigDecimal deriveCumulativePrincipalDisbursed() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.principalDisbursed());
-		}
-		return cumulativeValue;
+		return this.cumulativePrincipalDisbursed;
 	}
 
 	public BigDecimal deriveCumulativePrincipalDue() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.principalDue());
-		}
-		return cumulativeValue;
+		return this.cumulativePrincipalDue;
 	}
 
 	public BigDecimal deriveCumulativePrincipalPaid() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.principalPaid());
-		}
-		return cumulativeValue;
+		return this.cumulativePrincipalPaid;
 	}
 
 	public BigDecimal deriveCumulativePrincipalOutstanding() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.principalOutstanding());
-		}
-		return cumulativeValue;
+		return this.cumulativePrincipalOutstanding;
 	}
 
 	public BigDecimal deriveCumulativeInterestExpected() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.interestDue());
-		}
-		return cumulativeValue;
+		return this.cumulativeInterestExpected;
 	}
 
 	public BigDecimal deriveCumulativeInterestPaid() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.interestPaid());
-		}
-		return cumulativeValue;
+		return this.cumulativeInterestPaid;
 	}
 
 	public BigDecimal deriveCumulativeInterestWaived() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.interestWaived());
-		}
-		return cumulativeValue;
+		return this.cumulativeInterestWaived;
 	}
 
 	public BigDecimal deriveCumulativeInterestOutstanding() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.interestOutstanding());
-		}
-		return cumulativeValue;
+		return this.cumulativeInterestOutstanding;
 	}
 
 	public BigDecimal deriveCumulativeChargesToDate() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.chargesDue());
-		}
-		return cumulativeValue;
+		return this.cumulativeChargesToDate;
 	}
 
 	public BigDecimal deriveCumulativeChargesPaid() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.chargesPaid());
-		}
-		return cumulativeValue;
+		return this.cumulativeChargesPaid;
 	}
 
 	public BigDecimal deriveCumulativeChargesOutstanding() {
-		BigDecimal cumulativeValue = BigDecimal.ZERO;
-		for (LoanSchedulePeriodData period : this.periods) {
-			cumulativeValue = cumulativeValue.add(period.chargesOutstanding());
-		}
-		return cumulativeValue;
+		return this.cumulativeChargesOutstanding;
 	}
 }
\ No newline at end of file
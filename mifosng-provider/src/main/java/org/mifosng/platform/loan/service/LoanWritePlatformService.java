@@ -1,11 +1,14 @@
 package org.mifosng.platform.loan.service;
 
+import java.util.List;
+
 import org.mifosng.platform.api.commands.AdjustLoanTransactionCommand;
 import org.mifosng.platform.api.commands.LoanStateTransitionCommand;
 import org.mifosng.platform.api.commands.LoanTransactionCommand;
 import org.mifosng.platform.api.commands.LoanApplicationCommand;
 import org.mifosng.platform.api.commands.UndoStateTransitionCommand;
 import org.mifosng.platform.api.data.EntityIdentifier;
+import org.mifosng.platform.api.data.LoanTransactionIdentifier;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 public interface LoanWritePlatformService {
@@ -40,6 +43,12 @@ public interface LoanWritePlatformService {
 	@PreAuthorize(value = "hasAnyRole('PORTFOLIO_MANAGEMENT_SUPER_USER_ROLE', 'CAN_MAKE_LOAN_REPAYMENT_ROLE', 'CAN_MAKE_LOAN_REPAYMENT_IN_THE_PAST_ROLE')")
 	public EntityIdentifier makeLoanRepayment(LoanTransactionCommand command);
 
+	/**
+	 * Makes the repayments (e.g. of a collection sheet) in one transaction, either all are made or none.
+	 */
+	@PreAuthorize(value = "hasAnyRole('PORTFOLIO_MANAGEMENT_SUPER_USER_ROLE', 'CAN_MAKE_LOAN_REPAYMENT_ROLE', 'CAN_MAKE_LOAN_REPAYMENT_IN_THE_PAST_ROLE')")
+	List<LoanTransactionIdentifier> makeLoanRepayments(List<LoanTransactionCommand> commands);
+
 	@PreAuthorize(value = "hasAnyRole('PORTFOLIO_MANAGEMENT_SUPER_USER_ROLE')")
 	EntityIdentifier adjustLoanTransaction(AdjustLoanTransactionCommand command);
 
@@ -3,7 +3,10 @@ package org.mifosng.platform.loan.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -16,8 +19,10 @@ import org.mifosng.platform.api.commands.LoanChargeCommand;
 import org.mifosng.platform.api.commands.LoanStateTransitionCommand;
 import org.mifosng.platform.api.commands.LoanTransactionCommand;
 import org.mifosng.platform.api.commands.UndoStateTransitionCommand;
+import org.mifosng.platform.api.data.ApiParameterError;
 import org.mifosng.platform.api.data.EntityIdentifier;
 import org.mifosng.platform.api.data.LoanSchedulePeriodData;
+import org.mifosng.platform.api.data.LoanTransactionIdentifier;
 import org.mifosng.platform.client.domain.Client;
 import org.mifosng.platform.client.domain.ClientRepository;
 import org.mifosng.platform.client.domain.Note;
@@ -29,6 +34,7 @@ import org.mifosng.platform.exceptions.LoanNotInSubmittedAndPendingApprovalState
 import org.mifosng.platform.exceptions.LoanProductNotFoundException;
 import org.mifosng.platform.exceptions.LoanTransactionNotFoundException;
 import org.mifosng.platform.exceptions.NoAuthorizationException;
+import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
 import org.mifosng.platform.fund.domain.Fund;
 import org.mifosng.platform.loan.domain.DefaultLoanLifecycleStateMachine;
 import org.mifosng.platform.loan.domain.Loan;
@@ -454,6 +460,108 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
 		return new EntityIdentifier(loan.getId());
 	}
 
+	@Transactional
+	@Override
+	public List<LoanTransactionIdentifier> makeLoanRepayments(final List<LoanTransactionCommand> commands) {
+
+		AppUser currentUser = context.authenticatedUser();
+
+		List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+		Set<Long> loanIds = new HashSet<Long>();
+		for (int i = 0; i < commands.size(); i++) {
+			LoanTransactionCommand command = commands.get(i);
+			try {
+				LoanTransactionCommandValidator validator = new LoanTransactionCommandValidator(command);
+				validator.validate();
+				loanIds.add(command.getLoanId());
+			} catch (PlatformApiDataValidationException e) {
+				dataValidationErrors.addAll(errorsOfBulkItem(i, e.getErrors()));
+			}
+		}
+
+		if (!dataValidationErrors.isEmpty()) {
+			throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
+		}
+
+		// all loans are read in one query and their collections in batches (see Loan)
+		Map<Long, Loan> loansById = new HashMap<Long, Loan>();
+		for (Loan loan : this.loanRepository.findAll(loanIds)) {
+			loansById.put(loan.getId(), loan);
+		}
+
+		// the loan rules checked by each repayment are checked up front so the items breaking them can be reported together
+		for (int i = 0; i < commands.size(); i++) {
+			LoanTransactionCommand command = commands.get(i);
+			LocalDate transactionDate = command.getTransactionDate();
+			if (this.isBeforeToday(transactionDate) && currentUser.canNotMakeRepaymentOnLoanInPast()) {
+				throw new NoAuthorizationException("error.msg.no.permission.to.make.repayment.on.loan.in.past");
+			}
+
+			List<ApiParameterError> itemErrors = new ArrayList<ApiParameterError>();
+			Loan loan = loansById.get(command.getLoanId());
+			if (loan == null) {
+				itemErrors.add(ApiParameterError.parameterError("error.msg.loan.id.invalid",
+						"Loan with identifier " + command.getLoanId() + " does not exist", "loanId", command.getLoanId()));
+			} else if (transactionDate.isBefore(loan.getDisbursementDate())) {
+				itemErrors.add(ApiParameterError.parameterError("error.msg.loan.repayment.cannot.be.before.disbursement.date",
+						"The transaction date cannot be before the loan disbursement date: " + loan.getDisbursementDate().toString(),
+						"transactionDate", transactionDate, loan.getDisbursementDate()));
+			} else if (transactionDate.isAfter(new LocalDate())) {
+				itemErrors.add(ApiParameterError.parameterError("error.msg.loan.repayment.cannot.be.a.future.date",
+						"The transaction date cannot be in the future.", "transactionDate", transactionDate));
+			}
+			dataValidationErrors.addAll(errorsOfBulkItem(i, itemErrors));
+		}
+
+		if (!dataValidationErrors.isEmpty()) {
+			throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.", dataValidationErrors);
+		}
+
+		LoanLifecycleStateMachine loanLifecycleStateMachine = defaultLoanLifecycleStateMachine();
+		List<LoanTransaction> repayments = new ArrayList<LoanTransaction>(commands.size());
+		for (LoanTransactionCommand command : commands) {
+			Loan loan = loansById.get(command.getLoanId());
+
+			Money repayment = Money.of(loan.repaymentScheduleDetail().getPrincipal().getCurrency(), command.getTransactionAmount());
+
+			LoanTransaction loanRepayment = LoanTransaction.repayment(repayment, command.getTransactionDate());
+			loan.makeRepayment(loanRepayment, loanLifecycleStateMachine);
+			repayments.add(loanRepayment);
+		}
+
+		this.loanTransactionRepository.save(repayments);
+		this.loanRepository.save(loansById.values());
+
+		List<Note> notes = new ArrayList<Note>();
+		List<LoanTransactionIdentifier> identifiers = new ArrayList<LoanTransactionIdentifier>(commands.size());
+		for (int i = 0; i < commands.size(); i++) {
+			LoanTransactionCommand command = commands.get(i);
+			LoanTransaction loanRepayment = repayments.get(i);
+
+			String noteText = command.getNote();
+			if (StringUtils.isNotBlank(noteText)) {
+				notes.add(Note.loanTransactionNote(loansById.get(command.getLoanId()), loanRepayment, noteText));
+			}
+			identifiers.add(new LoanTransactionIdentifier(command.getLoanId(), loanRepayment.getId()));
+		}
+		this.noteRepository.save(notes);
+
+		// the schedule and loan updates of all repayments go to the database as jdbc batches
+		this.loanRepository.flush();
+
+		return identifiers;
+	}
+
+	/*
+	 * prefixes the parameter of each error with the position of the item in the bulk request e.g. transactions[3].transactionAmount
+	 */
+	private List<ApiParameterError> errorsOfBulkItem(final int index, final List<ApiParameterError> errors) {
+		for (ApiParameterError error : errors) {
+			error.setParameterName("transactions[" + index + "]." + error.getParameterName());
+		}
+		return errors;
+	}
+
 	@Transactional
 	@Override
 	public EntityIdentifier adjustLoanTransaction(final AdjustLoanTransactionCommand command) {
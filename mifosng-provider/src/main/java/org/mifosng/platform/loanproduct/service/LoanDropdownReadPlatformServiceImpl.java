@@ -10,10 +10,12 @@ import static org.mifosng.platform.loanproduct.service.LoanEnumerations.repaymen
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.mifosng.platform.api.data.EnumOptionData;
 import org.mifosng.platform.api.data.TransactionProcessingStrategyData;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.loan.domain.AmortizationMethod;
 import org.mifosng.platform.loan.domain.InterestCalculationPeriodMethod;
 import org.mifosng.platform.loan.domain.InterestMethod;
@@ -27,10 +29,13 @@ import org.springframework.stereotype.Service;
 public class LoanDropdownReadPlatformServiceImpl implements LoanDropdownReadPlatformService {
 
 	private final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
-	public LoanDropdownReadPlatformServiceImpl(final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository) {
+	public LoanDropdownReadPlatformServiceImpl(final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository,
+			final ReferenceDataCache referenceDataCache) {
 		this.loanTransactionProcessingStrategyRepository = loanTransactionProcessingStrategyRepository;
+		this.referenceDataCache = referenceDataCache;
 	}
 	
 	@Override
@@ -94,13 +99,18 @@ public class LoanDropdownReadPlatformServiceImpl implements LoanDropdownReadPlat
 	@Override
 	public Collection<TransactionProcessingStrategyData> retreiveTransactionProcessingStrategies() {
 		
-		Collection<TransactionProcessingStrategyData> strategyOptions = new ArrayList<TransactionProcessingStrategyData>();
-		
-		List<LoanTransactionProcessingStrategy> strategies = this.loanTransactionProcessingStrategyRepository.findAll();
-		for (LoanTransactionProcessingStrategy strategy : strategies) {
-			strategyOptions.add(strategy.toData());
-		}
-		
-		return strategyOptions;
+		return this.referenceDataCache.get(ReferenceDataCache.TRANSACTION_PROCESSING_STRATEGIES, new ReferenceDataCache.Loader<Collection<TransactionProcessingStrategyData>>() {
+			@Override
+			public Collection<TransactionProcessingStrategyData> load() {
+				Collection<TransactionProcessingStrategyData> strategyOptions = new ArrayList<TransactionProcessingStrategyData>();
+				
+				List<LoanTransactionProcessingStrategy> strategies = loanTransactionProcessingStrategyRepository.findAll();
+				for (LoanTransactionProcessingStrategy strategy : strategies) {
+					strategyOptions.add(strategy.toData());
+				}
+				
+				return Collections.unmodifiableCollection(strategyOptions);
+			}
+		});
 	}
 }
\ No newline at end of file
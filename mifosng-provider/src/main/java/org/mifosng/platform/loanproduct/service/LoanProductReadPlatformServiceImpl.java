@@ -3,8 +3,11 @@ package org.mifosng.platform.loanproduct.service;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.DateTime;
 import org.mifosng.platform.api.data.ChargeData;
@@ -20,6 +23,7 @@ import org.mifosng.platform.currency.service.CurrencyReadPlatformService;
 import org.mifosng.platform.exceptions.LoanProductNotFoundException;
 import org.mifosng.platform.fund.service.FundReadPlatformService;
 import org.mifosng.platform.infrastructure.JdbcSupport;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
 import org.mifosng.platform.loan.domain.AmortizationMethod;
 import org.mifosng.platform.loan.domain.InterestCalculationPeriodMethod;
@@ -31,8 +35,11 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatformService {
 
 	private final PlatformSecurityContext context;
@@ -41,6 +48,7 @@ public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatfo
 	private final LoanDropdownReadPlatformService dropdownReadPlatformService;
 	private final FundReadPlatformService fundReadPlatformService;
     private final ChargeReadPlatformService chargeReadPlatformService;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
 	public LoanProductReadPlatformServiceImpl(
@@ -49,13 +57,15 @@ public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatfo
 			final FundReadPlatformService fundReadPlatformService,
 			final LoanDropdownReadPlatformService dropdownReadPlatformService,
             final ChargeReadPlatformService chargeReadPlatformService,
-			final TenantAwareRoutingDataSource dataSource) {
+			final TenantAwareRoutingDataSource dataSource,
+			final ReferenceDataCache referenceDataCache) {
 		this.context = context;
 		this.currencyReadPlatformService = currencyReadPlatformService;
 		this.fundReadPlatformService = fundReadPlatformService;
 		this.dropdownReadPlatformService = dropdownReadPlatformService;
         this.chargeReadPlatformService = chargeReadPlatformService;
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.referenceDataCache = referenceDataCache;
 	}
 
 	@Override
@@ -90,10 +100,16 @@ public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatfo
 		String sql = "select " + rm.loanProductSchema();
 
 		Collection<LoanProductData> loanProducts = this.jdbcTemplate.query(sql, rm, new Object[] {});
-        for (LoanProductData loanProduct : loanProducts){
-            Collection<ChargeData> charges = this.chargeReadPlatformService.retrieveLoanProductCharges(loanProduct.getId());
-            loanProduct.setCharges(charges);
-        }
+
+		List<Long> loanProductIds = new ArrayList<Long>(loanProducts.size());
+		for (LoanProductData loanProduct : loanProducts) {
+			loanProductIds.add(loanProduct.getId());
+		}
+
+		Map<Long, Collection<ChargeData>> chargesByLoanProductId = this.chargeReadPlatformService.retrieveLoanProductCharges(loanProductIds);
+		for (LoanProductData loanProduct : loanProducts) {
+			loanProduct.setCharges(chargesByLoanProductId.get(loanProduct.getId()));
+		}
 
         return loanProducts;
 	}
@@ -103,11 +119,16 @@ public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatfo
 
 		this.context.authenticatedUser();
 
-		LoanProductLookupMapper rm = new LoanProductLookupMapper();
+		return this.referenceDataCache.get(ReferenceDataCache.LOAN_PRODUCTS, new ReferenceDataCache.Loader<Collection<LoanProductLookup>>() {
+			@Override
+			public Collection<LoanProductLookup> load() {
+				LoanProductLookupMapper rm = new LoanProductLookupMapper();
 
-		String sql = "select " + rm.loanProductLookupSchema();
+				String sql = "select " + rm.loanProductLookupSchema();
 
-		return this.jdbcTemplate.query(sql, rm, new Object[] {});
+				return Collections.unmodifiableCollection(jdbcTemplate.query(sql, rm, new Object[] {}));
+			}
+		});
 	}
 
 	@Override
@@ -17,6 +17,7 @@ import org.mifosng.platform.exceptions.LoanProductNotFoundException;
 import org.mifosng.platform.exceptions.LoanTransactionProcessingStrategyNotFoundException;
 import org.mifosng.platform.fund.domain.Fund;
 import org.mifosng.platform.fund.domain.FundRepository;
+import org.mifosng.platform.infrastructure.ReferenceDataCache;
 import org.mifosng.platform.loan.domain.AmortizationMethod;
 import org.mifosng.platform.loan.domain.InterestCalculationPeriodMethod;
 import org.mifosng.platform.loan.domain.InterestMethod;
@@ -41,17 +42,19 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
 	private final FundRepository fundRepository;
 	private final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository;
     private final ChargeRepository chargeRepository;
+	private final ReferenceDataCache referenceDataCache;
 
 	@Autowired
 	public LoanProductWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final LoanProductRepository loanProductRepository,  
 			final AprCalculator aprCalculator, final FundRepository fundRepository, final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository,
-            final ChargeRepository chargeRepository) {
+            final ChargeRepository chargeRepository, final ReferenceDataCache referenceDataCache) {
 		this.context = context;
 		this.loanProductRepository = loanProductRepository;
 		this.aprCalculator = aprCalculator;
 		this.fundRepository = fundRepository;
 		this.loanTransactionProcessingStrategyRepository = loanTransactionProcessingStrategyRepository;
         this.chargeRepository = chargeRepository;
+		this.referenceDataCache = referenceDataCache;
 	}
 	
 	@Transactional
@@ -93,6 +96,7 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
 				amortizationMethod, command.getInArrearsTolerance(), charges);
 		 
 		this.loanProductRepository.save(loanproduct);
+		this.referenceDataCache.evict(ReferenceDataCache.LOAN_PRODUCTS);
 
 		return new EntityIdentifier(loanproduct.getId());
 	}
@@ -149,6 +153,7 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
 		product.update(command, fund, loanTransactionProcessingStrategy, charges);
 		
 		this.loanProductRepository.save(product);
+		this.referenceDataCache.evict(ReferenceDataCache.LOAN_PRODUCTS);
 		
 		return new EntityIdentifier(Long.valueOf(product.getId()));
 	}
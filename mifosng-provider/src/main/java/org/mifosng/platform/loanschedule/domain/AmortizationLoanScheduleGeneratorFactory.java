@@ -4,19 +4,22 @@ import org.mifosng.platform.loan.domain.AmortizationMethod;
 
 public class AmortizationLoanScheduleGeneratorFactory {
 
+	private static final AmortizationLoanScheduleGenerator equalInstallmentsGenerator = new EqualInstallmentsAmortizationLoanScheduleGenerator();
+	private static final AmortizationLoanScheduleGenerator equalPrincipalGenerator = new EqualPrincipalAmortizationLoanScheduleGenerator();
+
 	public AmortizationLoanScheduleGenerator createGenerator(final AmortizationMethod amortizationMethod) {
 		
-		AmortizationLoanScheduleGenerator generator = new EqualInstallmentsAmortizationLoanScheduleGenerator();
+		AmortizationLoanScheduleGenerator generator = equalInstallmentsGenerator;
 		
 		switch (amortizationMethod) {
 		case INVALID:
-			generator = new EqualInstallmentsAmortizationLoanScheduleGenerator();
+			generator = equalInstallmentsGenerator;
 			break;
 		case EQUAL_INSTALLMENTS:
-			generator = new EqualInstallmentsAmortizationLoanScheduleGenerator();
+			generator = equalInstallmentsGenerator;
 			break;
 		case EQUAL_PRINCIPAL:
-			generator = new EqualPrincipalAmortizationLoanScheduleGenerator();
+			generator = equalPrincipalGenerator;
 			break;
 		}
 		
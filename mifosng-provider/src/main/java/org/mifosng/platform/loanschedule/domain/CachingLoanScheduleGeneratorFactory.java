@@ -0,0 +1,207 @@
+package org.mifosng.platform.loanschedule.domain;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.mifosng.platform.api.LoanScheduleNewData;
+import org.mifosng.platform.currency.domain.ApplicationCurrency;
+import org.mifosng.platform.infrastructure.PlatformCache;
+import org.mifosng.platform.loan.domain.InterestMethod;
+import org.mifosng.platform.loan.domain.LoanCharge;
+import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
+import org.mifosng.platform.loan.domain.PeriodFrequencyType;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link LoanScheduleGeneratorFactory} whose generators remember the
+ * schedules they generate so the same terms entered again in the loan
+ * calculator are answered without regenerating the schedule.
+ *
+ * A generated schedule depends only on the terms, dates, currency and the
+ * charges due at disbursement it is generated from, all of which are part of
+ * the key, so cached schedules never go stale and are shared across tenants.
+ * Schedules are immutable {@link LoanScheduleNewData} and must not be
+ * modified by callers. Once the cache is full the least recently used
+ * schedule is evicted.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=LoanScheduleCache", description = "Cache of generated loan schedules.")
+public class CachingLoanScheduleGeneratorFactory implements LoanScheduleGeneratorFactory {
+
+	private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	private final Map<InterestMethod, LoanScheduleGenerator> generators = new EnumMap<InterestMethod, LoanScheduleGenerator>(InterestMethod.class);
+	private final PlatformCache<ScheduleKey, LoanScheduleNewData> cache;
+
+	public CachingLoanScheduleGeneratorFactory() {
+		this(new DefaultLoanScheduleGeneratorFactory(), DEFAULT_MAXIMUM_SIZE);
+	}
+
+	CachingLoanScheduleGeneratorFactory(final LoanScheduleGeneratorFactory loanScheduleGeneratorFactory, final int maximumSize) {
+		this.cache = PlatformCache.shared(PlatformCache.NEVER_EXPIRES, maximumSize);
+		for (InterestMethod interestMethod : InterestMethod.values()) {
+			final LoanScheduleGenerator generator = loanScheduleGeneratorFactory.create(interestMethod);
+			if (generator != null) {
+				this.generators.put(interestMethod, new CachingLoanScheduleGenerator(interestMethod, generator));
+			}
+		}
+	}
+
+	@Override
+	public LoanScheduleGenerator create(final InterestMethod interestMethod) {
+		return this.generators.get(interestMethod);
+	}
+
+	@ManagedOperation(description = "Evicts all cached loan schedules.")
+	public void evictAll() {
+		this.cache.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of loan schedules served from cache.")
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of loan schedules that had to be generated.")
+	public long getMissCount() {
+		return this.cache.getMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of cached loan schedules evicted.")
+	public long getEvictionCount() {
+		return this.cache.getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Number of loan schedules currently cached.")
+	public int getSize() {
+		return this.cache.getSize();
+	}
+
+	@ManagedAttribute
+	public int getMaximumSize() {
+		return this.cache.getMaximumSize();
+	}
+
+	@ManagedAttribute
+	public void setMaximumSize(final int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+
+	private final class CachingLoanScheduleGenerator implements LoanScheduleGenerator {
+
+		private final InterestMethod interestMethod;
+		private final LoanScheduleGenerator generator;
+
+		public CachingLoanScheduleGenerator(final InterestMethod interestMethod, final LoanScheduleGenerator generator) {
+			this.interestMethod = interestMethod;
+			this.generator = generator;
+		}
+
+		@Override
+		public LoanScheduleNewData generate(
+				final ApplicationCurrency applicationCurrency,
+				final LoanProductRelatedDetail loanScheduleInfo,
+				final Integer loanTermFrequency,
+				final PeriodFrequencyType loanTermFrequencyType,
+				final LocalDate disbursementDate,
+				final LocalDate firstRepaymentDate,
+				final LocalDate interestCalculatedFrom,
+				final Set<LoanCharge> loanCharges) {
+
+			final ScheduleKey key = ScheduleKey.of(this.interestMethod, applicationCurrency, loanScheduleInfo, loanTermFrequency,
+					loanTermFrequencyType, disbursementDate, firstRepaymentDate, interestCalculatedFrom, loanCharges);
+
+			return cache.get(key, new PlatformCache.Loader<LoanScheduleNewData>() {
+				@Override
+				public LoanScheduleNewData load() {
+					return generator.generate(applicationCurrency, loanScheduleInfo, loanTermFrequency, loanTermFrequencyType,
+							disbursementDate, firstRepaymentDate, interestCalculatedFrom, loanCharges);
+				}
+			});
+		}
+	}
+
+	/**
+	 * The inputs a generated schedule depends on. Charges only contribute the
+	 * total due at disbursement as that is all generators take from them.
+	 * Amounts and rates are compared by value, so e.g. 1000 and 1000.00 give
+	 * the same key.
+	 */
+	static final class ScheduleKey {
+
+		private final Object[] values;
+		private final int hashCode;
+
+		private ScheduleKey(final Object... values) {
+			this.values = values;
+			this.hashCode = Arrays.hashCode(values);
+		}
+
+		static ScheduleKey of(
+				final InterestMethod interestMethod,
+				final ApplicationCurrency applicationCurrency,
+				final LoanProductRelatedDetail loanScheduleInfo,
+				final Integer loanTermFrequency,
+				final PeriodFrequencyType loanTermFrequencyType,
+				final LocalDate disbursementDate,
+				final LocalDate firstRepaymentDate,
+				final LocalDate interestCalculatedFrom,
+				final Set<LoanCharge> loanCharges) {
+
+			BigDecimal chargesDueAtTimeOfDisbursement = BigDecimal.ZERO;
+			for (LoanCharge loanCharge : loanCharges) {
+				if (loanCharge.isDueAtDisbursement()) {
+					chargesDueAtTimeOfDisbursement = chargesDueAtTimeOfDisbursement.add(loanCharge.calculateMonetaryAmount(loanScheduleInfo.getPrincipal()));
+				}
+			}
+
+			return new ScheduleKey(interestMethod,
+					applicationCurrency.getCode(), applicationCurrency.getName(),
+					applicationCurrency.getDisplaySymbol(), applicationCurrency.getNameCode(),
+					loanScheduleInfo.getPrincipal().getCurrencyCode(),
+					loanScheduleInfo.getPrincipal().getCurrencyDigitsAfterDecimal(),
+					normalized(loanScheduleInfo.getPrincipal().getAmount()),
+					normalized(loanScheduleInfo.getAnnualNominalInterestRate()),
+					loanScheduleInfo.getInterestCalculationPeriodMethod(),
+					loanScheduleInfo.getAmortizationMethod(),
+					loanScheduleInfo.getRepayEvery(),
+					loanScheduleInfo.getRepaymentPeriodFrequencyType(),
+					loanScheduleInfo.getNumberOfRepayments(),
+					loanTermFrequency, loanTermFrequencyType,
+					disbursementDate, firstRepaymentDate, interestCalculatedFrom,
+					normalized(chargesDueAtTimeOfDisbursement));
+		}
+
+		private static BigDecimal normalized(final BigDecimal value) {
+			if (value == null) {
+				return null;
+			}
+			// zero is compared on its own as stripTrailingZeros keeps the scale of zero
+			return value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ScheduleKey)) {
+				return false;
+			}
+			final ScheduleKey other = (ScheduleKey) obj;
+			return this.hashCode == other.hashCode && Arrays.equals(this.values, other.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+}
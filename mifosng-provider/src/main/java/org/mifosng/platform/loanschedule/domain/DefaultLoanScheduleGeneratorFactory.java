@@ -2,9 +2,16 @@ package org.mifosng.platform.loanschedule.domain;
 
 import org.mifosng.platform.loan.domain.InterestMethod;
 
+/**
+ * Generators hold no per schedule state so the same instance of each is
+ * handed out for every request.
+ */
 public class DefaultLoanScheduleGeneratorFactory implements
 		LoanScheduleGeneratorFactory {
 
+	private static final LoanScheduleGenerator flatMethodLoanScheduleGenerator = new FlatMethodLoanScheduleGenerator();
+	private static final LoanScheduleGenerator decliningBalanceMethodLoanScheduleGenerator = new DecliningBalanceMethodLoanScheduleGenerator();
+
 	@Override
 	public LoanScheduleGenerator create(final InterestMethod interestMethod) {
 
@@ -12,10 +19,10 @@ public class DefaultLoanScheduleGeneratorFactory implements
 
 		switch (interestMethod) {
 		case FLAT:
-			loanScheduleGenerator = new FlatMethodLoanScheduleGenerator();
+			loanScheduleGenerator = flatMethodLoanScheduleGenerator;
 			break;
 		case DECLINING_BALANCE:
-			loanScheduleGenerator = new DecliningBalanceMethodLoanScheduleGenerator();
+			loanScheduleGenerator = decliningBalanceMethodLoanScheduleGenerator;
 			break;
 		case INVALID:
 			break;
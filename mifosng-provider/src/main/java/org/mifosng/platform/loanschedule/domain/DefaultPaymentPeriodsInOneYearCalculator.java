@@ -79,13 +79,13 @@ public class DefaultPaymentPeriodsInOneYearCalculator implements
 			fraction = numberOfDaysInterestCalculationGrace.doubleValue() * every.doubleValue();
 			break;
 		case WEEKS:
-			fraction = numberOfDaysInterestCalculationGrace.doubleValue() / (Double.valueOf("7.0") * every.doubleValue());
+			fraction = numberOfDaysInterestCalculationGrace.doubleValue() / (7.0 * every.doubleValue());
 			break;
 		case MONTHS:
-			fraction = numberOfDaysInterestCalculationGrace.doubleValue() / (Double.valueOf("30.0") * every.doubleValue());
+			fraction = numberOfDaysInterestCalculationGrace.doubleValue() / (30.0 * every.doubleValue());
 			break;
 		case YEARS:
-			fraction = numberOfDaysInterestCalculationGrace.doubleValue() / (Double.valueOf("365.0") * every.doubleValue());
+			fraction = numberOfDaysInterestCalculationGrace.doubleValue() / (365.0 * every.doubleValue());
 			break;
 		case INVALID:
 			fraction = Double.valueOf("0");
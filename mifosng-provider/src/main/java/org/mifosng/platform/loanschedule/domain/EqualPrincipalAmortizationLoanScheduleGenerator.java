@@ -14,6 +14,7 @@ import org.mifosng.platform.api.data.LoanSchedulePeriodData;
 import org.mifosng.platform.currency.domain.ApplicationCurrency;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
 import org.mifosng.platform.loan.domain.LoanCharge;
 import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
 
@@ -42,8 +43,9 @@ public class EqualPrincipalAmortizationLoanScheduleGenerator implements Amortiza
 
 		Money outstandingBalance = loanScheduleInfo.getPrincipal();
 		Money principalDisbursed = loanScheduleInfo.getPrincipal(); 
-		Money totalPrincipal = Money.zero(monetaryCurrency);
-		Money totalInterest = Money.zero(monetaryCurrency);
+		// running totals are held in minor units rather than as a new Money per installment
+		final MoneyAccumulator totalPrincipal = MoneyAccumulator.zero(monetaryCurrency);
+		final MoneyAccumulator totalInterest = MoneyAccumulator.zero(monetaryCurrency);
 		
 		double interestCalculationGraceOnRepaymentPeriodFraction = this.paymentPeriodsInOneYearCalculator.calculateRepaymentPeriodAsAFractionOfDays(loanScheduleInfo.getRepaymentPeriodFrequencyType(), 
 												loanScheduleInfo.getRepayEvery(), interestCalculatedFrom, scheduledDates, idealDisbursementDateBasedOnFirstRepaymentDate);
@@ -64,8 +66,8 @@ public class EqualPrincipalAmortizationLoanScheduleGenerator implements Amortiza
 		
 		int loanTermInDays = Integer.valueOf(0);
 		BigDecimal cumulativePrincipalDisbursed = principalDisbursed.getAmount();
-		BigDecimal cumulativePrincipalDue = BigDecimal.ZERO;
-		BigDecimal cumulativeInterestExpected = BigDecimal.ZERO;
+		final MoneyAccumulator cumulativePrincipalDue = MoneyAccumulator.zero(monetaryCurrency);
+		final MoneyAccumulator cumulativeInterestExpected = MoneyAccumulator.zero(monetaryCurrency);
 		BigDecimal totalExpectedRepayment = chargesDueAtTimeOfDisbursement;
 		
 		LocalDate startDate = disbursementDate;
@@ -78,21 +80,21 @@ public class EqualPrincipalAmortizationLoanScheduleGenerator implements Amortiza
 			Money interestForInstallment = this.periodicInterestRateCalculator.calculateInterestOn(outstandingBalance, periodInterestRateForRepaymentPeriod, daysInPeriod, loanScheduleInfo);
 			Money principalForInstallment = this.periodicInterestRateCalculator.calculatePrincipalOn(totalDuePerInstallment, interestForInstallment, loanScheduleInfo);
 			
-			if (interestCalculationGraceOnRepaymentPeriodFraction >= Integer.valueOf(1).doubleValue()) {
+			if (interestCalculationGraceOnRepaymentPeriodFraction >= 1.0) {
 				Money graceOnInterestForRepaymentPeriod = interestForInstallment;
 				interestForInstallment = interestForInstallment.minus(graceOnInterestForRepaymentPeriod);
-				interestCalculationGraceOnRepaymentPeriodFraction = interestCalculationGraceOnRepaymentPeriodFraction - Integer.valueOf(1).doubleValue();
-			} else if (interestCalculationGraceOnRepaymentPeriodFraction > Double.valueOf("0.25") && interestCalculationGraceOnRepaymentPeriodFraction < Integer.valueOf(1).doubleValue()) {
+				interestCalculationGraceOnRepaymentPeriodFraction = interestCalculationGraceOnRepaymentPeriodFraction - 1.0;
+			} else if (interestCalculationGraceOnRepaymentPeriodFraction > 0.25 && interestCalculationGraceOnRepaymentPeriodFraction < 1.0) {
 				Money graceOnInterestForRepaymentPeriod = interestForInstallment.multipliedBy(interestCalculationGraceOnRepaymentPeriodFraction);
 				interestForInstallment = interestForInstallment.minus(graceOnInterestForRepaymentPeriod);
-				interestCalculationGraceOnRepaymentPeriodFraction = Double.valueOf("0");
+				interestCalculationGraceOnRepaymentPeriodFraction = 0.0;
 			}
 			
-			totalPrincipal = totalPrincipal.plus(principalForInstallment);
-			totalInterest = totalInterest.plus(interestForInstallment);
+			totalPrincipal.add(principalForInstallment);
+			totalInterest.add(interestForInstallment);
 			
 			if (periodNumber == loanScheduleInfo.getNumberOfRepayments()) {
-				Money principalDifference = totalPrincipal.minus(loanScheduleInfo.getPrincipal());
+				Money principalDifference = totalPrincipal.toMoney().minus(loanScheduleInfo.getPrincipal());
 				if (principalDifference.isLessThanZero()) {
 					principalForInstallment = principalForInstallment.plus(principalDifference.abs());
 				} else if (principalDifference.isGreaterThanZero()) {
@@ -114,15 +116,15 @@ public class EqualPrincipalAmortizationLoanScheduleGenerator implements Amortiza
 			
 			// handle cumulative fields
 			loanTermInDays += daysInPeriod;
-			cumulativePrincipalDue = cumulativePrincipalDue.add(principalForInstallment.getAmount());
-			cumulativeInterestExpected = cumulativeInterestExpected.add(interestForInstallment.getAmount());
+			cumulativePrincipalDue.add(principalForInstallment);
+			cumulativeInterestExpected.add(interestForInstallment);
 			totalExpectedRepayment = totalExpectedRepayment.add(totalInstallmentDue.getAmount());
 			startDate = scheduledDueDate;
 
 			periodNumber++;
 		}
 	
-		final BigDecimal cumulativePrincipalOutstanding = cumulativePrincipalDisbursed.subtract(cumulativePrincipalDue);
+		final BigDecimal cumulativePrincipalOutstanding = cumulativePrincipalDisbursed.subtract(cumulativePrincipalDue.toBigDecimal());
 		
 		CurrencyData currencyData = new CurrencyData(
 				currency.getCode(), 
@@ -131,7 +133,7 @@ public class EqualPrincipalAmortizationLoanScheduleGenerator implements Amortiza
 				currency.getDisplaySymbol(),
 				currency.getNameCode());
 		
-		return new LoanScheduleNewData(currencyData, periods, loanTermInDays, cumulativePrincipalDisbursed, cumulativePrincipalDue, 
-				cumulativePrincipalOutstanding, cumulativeInterestExpected, cumulativeChargesToDate, totalExpectedRepayment);
+		return new LoanScheduleNewData(currencyData, periods, loanTermInDays, cumulativePrincipalDisbursed, cumulativePrincipalDue.toBigDecimal(), 
+				cumulativePrincipalOutstanding, cumulativeInterestExpected.toBigDecimal(), cumulativeChargesToDate, totalExpectedRepayment);
 	}
 }
\ No newline at end of file
@@ -16,12 +16,16 @@ import org.mifosng.platform.api.data.LoanSchedulePeriodData;
 import org.mifosng.platform.currency.domain.ApplicationCurrency;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.currency.domain.MoneyAccumulator;
 import org.mifosng.platform.loan.domain.LoanCharge;
 import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
 import org.mifosng.platform.loan.domain.PeriodFrequencyType;
 
 public class FlatMethodLoanScheduleGenerator implements LoanScheduleGenerator {
 
+	private static final MathContext mc = new MathContext(8, RoundingMode.HALF_EVEN);
+	private static final BigDecimal oneHundred = BigDecimal.valueOf(100.0);
+
 	private final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
 	private final PaymentPeriodsInOneYearCalculator paymentPeriodsInOneYearCalculator = new DefaultPaymentPeriodsInOneYearCalculator();
 	
@@ -40,13 +44,11 @@ public class FlatMethodLoanScheduleGenerator implements LoanScheduleGenerator {
 		
 		final List<LocalDate> scheduledDates = this.scheduledDateGenerator.generate(loanScheduleInfo, disbursementDate, firstRepaymentDate);
 
-		MathContext mc = new MathContext(8, RoundingMode.HALF_EVEN);
-		
 		BigDecimal loanTermPeriodsInYear = BigDecimal.valueOf(this.paymentPeriodsInOneYearCalculator.calculate(loanTermFrequencyType));
 		BigDecimal interestRateForLoanTerm = loanScheduleInfo
 				.getAnnualNominalInterestRate()
 				.divide(loanTermPeriodsInYear, mc)
-				.divide(BigDecimal.valueOf(Double.valueOf("100.0")), mc)
+				.divide(oneHundred, mc)
 				.multiply(BigDecimal.valueOf(loanTermFrequency));
 		
 		final MonetaryCurrency monetaryCurrency = loanScheduleInfo.getPrincipal().getCurrency();
@@ -58,10 +60,11 @@ public class FlatMethodLoanScheduleGenerator implements LoanScheduleGenerator {
 				.dividedBy(loanScheduleInfo.getNumberOfRepayments(),
 						RoundingMode.HALF_EVEN);
 
-		Money outstandingBalance = loanScheduleInfo.getPrincipal();
 		Money principalDisbursed = loanScheduleInfo.getPrincipal(); 
-		Money totalPrincipal = Money.zero(outstandingBalance.getCurrency());
-		Money totalInterest = Money.zero(outstandingBalance.getCurrency());
+		// running totals are held in minor units rather than as a new Money per installment
+		final MoneyAccumulator outstandingBalance = MoneyAccumulator.of(loanScheduleInfo.getPrincipal());
+		final MoneyAccumulator totalPrincipal = MoneyAccumulator.zero(monetaryCurrency);
+		final MoneyAccumulator totalInterest = MoneyAccumulator.zero(monetaryCurrency);
 		
 		BigDecimal chargesDueAtTimeOfDisbursement = BigDecimal.ZERO;
 		for (LoanCharge loanCharge : loanCharges) {
@@ -79,28 +82,28 @@ public class FlatMethodLoanScheduleGenerator implements LoanScheduleGenerator {
 		
 		int loanTermInDays = Integer.valueOf(0);
 		BigDecimal cumulativePrincipalDisbursed = principalDisbursed.getAmount();
-		BigDecimal cumulativePrincipalDue = BigDecimal.ZERO;
-		BigDecimal cumulativeInterestExpected = BigDecimal.ZERO;
+		final MoneyAccumulator cumulativePrincipalDue = MoneyAccumulator.zero(monetaryCurrency);
+		final MoneyAccumulator cumulativeInterestExpected = MoneyAccumulator.zero(monetaryCurrency);
 		BigDecimal totalExpectedRepayment = chargesDueAtTimeOfDisbursement;
 		
 		LocalDate startDate = disbursementDate;
 		int periodNumber = 1;
 		for (LocalDate scheduledDueDate : scheduledDates) {
-			totalPrincipal = totalPrincipal.plus(principalPerInstallment);
-			totalInterest = totalInterest.plus(interestPerInstallment);
+			totalPrincipal.add(principalPerInstallment);
+			totalInterest.add(interestPerInstallment);
 			
 			// number of days from startDate to this scheduledDate
 			int daysInPeriod = Days.daysBetween(startDate.toDateMidnight().toDateTime(), scheduledDueDate.toDateMidnight().toDateTime()).getDays();
 
 			if (periodNumber == loanScheduleInfo.getNumberOfRepayments()) {
-				final Money difference = totalPrincipal.minus(loanScheduleInfo.getPrincipal());
+				final Money difference = totalPrincipal.toMoney().minus(loanScheduleInfo.getPrincipal());
 				if (difference.isLessThanZero()) {
 					principalPerInstallment = principalPerInstallment.plus(difference.abs());
 				} else if (difference.isGreaterThanZero()) {
 					principalPerInstallment = principalPerInstallment.minus(difference.abs());
 				}
 				
-				final Money interestDifference = totalInterest.minus(totalInterestForLoanTerm);
+				final Money interestDifference = totalInterest.toMoney().minus(totalInterestForLoanTerm);
 				if (interestDifference.isLessThanZero()) {
 					interestPerInstallment = interestPerInstallment.plus(interestDifference.abs());
 				} else if (interestDifference.isGreaterThanZero()) {
@@ -109,27 +112,27 @@ public class FlatMethodLoanScheduleGenerator implements LoanScheduleGenerator {
 			}
 
 			Money totalInstallmentDue = principalPerInstallment.plus(interestPerInstallment);
-			outstandingBalance = outstandingBalance.minus(principalPerInstallment);
+			outstandingBalance.subtract(principalPerInstallment);
 			
 			LoanSchedulePeriodData installment = LoanSchedulePeriodData.repaymentOnlyPeriod(periodNumber, startDate, 
 					scheduledDueDate, 
 					principalPerInstallment.getAmount(), 
-					outstandingBalance.getAmount(), 
+					outstandingBalance.toBigDecimal(), 
 					interestPerInstallment.getAmount(), totalInstallmentDue.getAmount());
 
 			periods.add(installment);
 			
 			// handle cumulative fields
 			loanTermInDays += daysInPeriod;
-			cumulativePrincipalDue = cumulativePrincipalDue.add(principalPerInstallment.getAmount());
-			cumulativeInterestExpected = cumulativeInterestExpected.add(interestPerInstallment.getAmount());
+			cumulativePrincipalDue.add(principalPerInstallment);
+			cumulativeInterestExpected.add(interestPerInstallment);
 			totalExpectedRepayment = totalExpectedRepayment.add(totalInstallmentDue.getAmount());
 			startDate = scheduledDueDate;
 
 			periodNumber++;
 		}
 		
-		final BigDecimal cumulativePrincipalOutstanding = cumulativePrincipalDisbursed.subtract(cumulativePrincipalDue);
+		final BigDecimal cumulativePrincipalOutstanding = cumulativePrincipalDisbursed.subtract(cumulativePrincipalDue.toBigDecimal());
 		
 		CurrencyData currencyData = new CurrencyData(
 				currency.getCode(), 
@@ -138,7 +141,7 @@ public class FlatMethodLoanScheduleGenerator implements LoanScheduleGenerator {
 				currency.getDisplaySymbol(),
 				currency.getNameCode());
 		
-		return new LoanScheduleNewData(currencyData, periods, loanTermInDays, cumulativePrincipalDisbursed, cumulativePrincipalDue, 
-				cumulativePrincipalOutstanding, cumulativeInterestExpected, cumulativeChargesToDate, totalExpectedRepayment);
+		return new LoanScheduleNewData(currencyData, periods, loanTermInDays, cumulativePrincipalDisbursed, cumulativePrincipalDue.toBigDecimal(), 
+				cumulativePrincipalOutstanding, cumulativeInterestExpected.toBigDecimal(), cumulativeChargesToDate, totalExpectedRepayment);
 	}
 }
\ No newline at end of file
@@ -10,12 +10,14 @@ import org.mifosng.platform.loan.domain.PeriodFrequencyType;
 
 public class PeriodicInterestRateCalculator {
 
+	private static final MathContext mc = new MathContext(8, RoundingMode.HALF_EVEN);
+	private static final BigDecimal daysInYear = BigDecimal.valueOf(365L);
+	private static final BigDecimal oneHundred = BigDecimal.valueOf(100.0);
+
 	private final PaymentPeriodsInOneYearCalculator paymentPeriodsInOneYearCalculator = new DefaultPaymentPeriodsInOneYearCalculator();
 	
 	public BigDecimal calculateFrom(final PeriodFrequencyType loanTermFrequencyType, final BigDecimal annualNominalInterestRate) {
 		
-		MathContext mc = new MathContext(8, RoundingMode.HALF_EVEN);
-		
 		Integer paymentPeriodsInOneYear = this.paymentPeriodsInOneYearCalculator.calculate(loanTermFrequencyType);
 		
 		BigDecimal divisor = BigDecimal.valueOf(paymentPeriodsInOneYear * 100);
@@ -24,8 +26,6 @@ public class PeriodicInterestRateCalculator {
 	
 	public BigDecimal calculateFrom(final LoanProductRelatedDetail loanScheduleInfo) {
 		
-		MathContext mc = new MathContext(8, RoundingMode.HALF_EVEN);
-		
 		Integer paymentPeriodsInOneYear = this.paymentPeriodsInOneYearCalculator.calculate(loanScheduleInfo.getRepaymentPeriodFrequencyType());
 		
 		BigDecimal divisor = BigDecimal.valueOf(paymentPeriodsInOneYear * 100);
@@ -40,17 +40,16 @@ public class PeriodicInterestRateCalculator {
 			final int daysInPeriod, 
 			final LoanProductRelatedDetail loanScheduleInfo) {
 
-		MathContext mc = new MathContext(8, RoundingMode.HALF_EVEN);
 		Money interestDue = Money.zero(outstandingBalance.getCurrency());
 		
 		switch (loanScheduleInfo.getInterestCalculationPeriodMethod()) {
 		case DAILY:
 			BigDecimal dailyInterestRate = loanScheduleInfo.getAnnualNominalInterestRate()
-			.divide(BigDecimal.valueOf(Long.valueOf(365)), mc)
-			.divide(BigDecimal.valueOf(Double.valueOf("100.0")), mc)
+			.divide(daysInYear, mc)
+			.divide(oneHundred, mc)
 			.multiply(BigDecimal.valueOf(loanScheduleInfo.getRepayEvery()));
 	
-			BigDecimal equivalentInterestRateForPeriod = dailyInterestRate.multiply(BigDecimal.valueOf(Long.valueOf(daysInPeriod)));
+			BigDecimal equivalentInterestRateForPeriod = dailyInterestRate.multiply(BigDecimal.valueOf(daysInPeriod));
 			
 			interestDue = outstandingBalance.multiplyRetainScale(equivalentInterestRateForPeriod, RoundingMode.HALF_EVEN);
 			break;
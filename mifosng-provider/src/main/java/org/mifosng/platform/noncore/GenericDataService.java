@@ -1,17 +1,36 @@
 package org.mifosng.platform.noncore;
 
-import javax.sql.rowset.CachedRowSet;
+import java.io.IOException;
+import java.util.List;
 
 import org.mifosng.platform.api.data.GenericResultsetData;
 
 public interface GenericDataService {
 
-	CachedRowSet getCachedResultSet(String sql, String errorMsg);
-
 	void updateSQL(String sql, String sqlErrorMsg);
 
 	GenericResultsetData fillGenericResultSet(final String sql);
 
+	/**
+	 * As {@link #fillGenericResultSet(String)} but runs the sql as a prepared
+	 * statement binding the parameters in order.
+	 */
+	GenericResultsetData fillGenericResultSet(String sql, List<String> parameters);
+
+	/**
+	 * Runs the query passing each row to the handler as it is read using a
+	 * forward only, streaming cursor. The connection is held until the last
+	 * row is handled, so while rows keep being handled it is touched now and
+	 * then to keep the pool from removing it as abandoned.
+	 */
+	void processGenericResultSet(String sql, GenericResultsetRowHandler handler) throws IOException;
+
+	/**
+	 * As {@link #processGenericResultSet(String, GenericResultsetRowHandler)}
+	 * but runs the sql as a prepared statement binding the parameters in order.
+	 */
+	void processGenericResultSet(String sql, List<String> parameters, GenericResultsetRowHandler handler) throws IOException;
+
 	String replace(String str, String pattern, String replace);
 
 	String wrapSQL(String sql);
@@ -1,6 +1,8 @@
 package org.mifosng.platform.noncore;
 
+import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -9,19 +11,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.sql.DataSource;
-import javax.sql.rowset.CachedRowSet;
 
 import org.mifosng.platform.api.data.GenericResultsetData;
 import org.mifosng.platform.api.data.ResultsetColumnHeader;
-import org.mifosng.platform.api.data.ResultsetDataRow;
 import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
 import org.mifosng.platform.infrastructure.TenantAwareRoutingDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-
-import com.sun.rowset.CachedRowSetImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class GenericDataServiceImpl implements GenericDataService {
@@ -29,6 +29,13 @@ public class GenericDataServiceImpl implements GenericDataService {
 	private final static Logger logger = LoggerFactory
 			.getLogger(GenericDataServiceImpl.class);
 
+	/**
+	 * How often a connection streaming a resultset is touched, well within the
+	 * abandon timeout of the tenants connection pool (see
+	 * {@link org.mifosng.platform.infrastructure.TomcatJdbcDataSourcePerTenantService}).
+	 */
+	private static final long CONNECTION_TOUCH_INTERVAL_MILLIS = 10000;
+
 	private final DataSource dataSource;
 
 	@Autowired
@@ -38,44 +45,69 @@ public class GenericDataServiceImpl implements GenericDataService {
 	}
 
 	@Override
-	public CachedRowSet getCachedResultSet(String sql, String sqlErrorMsg) {
+	public void updateSQL(String sql, String sqlErrorMsg) {
 
 		long startTime = System.currentTimeMillis();
 		Connection db_connection = null;
 		Statement db_statement = null;
-		CachedRowSet crs = null;
 		try {
 			db_connection = dataSource.getConnection();
 			db_statement = db_connection.createStatement();
-			ResultSet rs = db_statement.executeQuery(sql);
-			crs = new CachedRowSetImpl();
-
-			crs.populate(rs);
-			// logger.info("RS Size: " + crs.size() +
-			// "     getCachedResultSet sql: " + sql);
+			db_statement.executeUpdate(sql);
 		} catch (SQLException e) {
 			throw new PlatformDataIntegrityException("error.msg.sql.error",
 					e.getMessage(), sqlErrorMsg);
 		} finally {
 			dbClose(db_statement, db_connection);
-
 		}
 
 		long elapsed = System.currentTimeMillis() - startTime;
-		logger.info("Elapsed Time: " + elapsed + "    SQL: " + sql);
-		return crs;
+		logger.info("Elapsed Time FOR UPDATE: " + elapsed + "    SQL: " + sql);
 	}
 
 	@Override
-	public void updateSQL(String sql, String sqlErrorMsg) {
+	@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+	public GenericResultsetData fillGenericResultSet(final String sql) {
+
+		GenericResultsetDataCollector collector = new GenericResultsetDataCollector();
+		try {
+			processGenericResultSet(sql, collector);
+		} catch (IOException e) {
+			// collector does no I/O
+			throw new IllegalStateException(e);
+		}
+		return collector.toGenericResultsetData();
+	}
 
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+	public GenericResultsetData fillGenericResultSet(final String sql, final List<String> parameters) {
+
+		GenericResultsetDataCollector collector = new GenericResultsetDataCollector();
+		try {
+			processGenericResultSet(sql, parameters, collector);
+		} catch (IOException e) {
+			// collector does no I/O
+			throw new IllegalStateException(e);
+		}
+		return collector.toGenericResultsetData();
+	}
+
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+	public void processGenericResultSet(final String sql, final GenericResultsetRowHandler handler) throws IOException {
+
+		String sqlErrorMsg = "Sql: " + sql;
 		long startTime = System.currentTimeMillis();
+		int rowCount = 0;
 		Connection db_connection = null;
 		Statement db_statement = null;
 		try {
 			db_connection = dataSource.getConnection();
-			db_statement = db_connection.createStatement();
-			db_statement.executeUpdate(sql);
+			db_statement = db_connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			// with mysql connector/j this streams rows one at a time rather than reading the entire resultset into memory
+			db_statement.setFetchSize(Integer.MIN_VALUE);
+			rowCount = processResultSet(db_connection, db_statement.executeQuery(sql), handler);
 		} catch (SQLException e) {
 			throw new PlatformDataIntegrityException("error.msg.sql.error",
 					e.getMessage(), sqlErrorMsg);
@@ -84,48 +116,73 @@ public class GenericDataServiceImpl implements GenericDataService {
 		}
 
 		long elapsed = System.currentTimeMillis() - startTime;
-		logger.info("Elapsed Time FOR UPDATE: " + elapsed + "    SQL: " + sql);
+		logger.info("Elapsed Time: " + elapsed + "    Rows: " + rowCount + "    SQL: " + sql);
 	}
 
 	@Override
-	public GenericResultsetData fillGenericResultSet(final String sql) {
-
-		String sqlErrorMsg = "Sql: " + sql;
-		CachedRowSet rs = getCachedResultSet(sql, sqlErrorMsg);
-
-		List<ResultsetColumnHeader> columnHeaders = new ArrayList<ResultsetColumnHeader>();
-		List<ResultsetDataRow> resultsetDataRows = new ArrayList<ResultsetDataRow>();
+	@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+	public void processGenericResultSet(final String sql, final List<String> parameters, final GenericResultsetRowHandler handler)
+			throws IOException {
 
+		String sqlErrorMsg = "Sql: " + sql + "    Parameters: " + parameters;
+		long startTime = System.currentTimeMillis();
+		int rowCount = 0;
+		Connection db_connection = null;
+		PreparedStatement db_statement = null;
 		try {
-
-			ResultSetMetaData rsmd = rs.getMetaData();
-			String columnName = null;
-			String columnValue = null;
-			for (int i = 0; i < rsmd.getColumnCount(); i++) {
-				ResultsetColumnHeader rsch = new ResultsetColumnHeader();
-				rsch.setColumnName(rsmd.getColumnName(i + 1));
-				rsch.setColumnType(rsmd.getColumnTypeName(i + 1));
-				columnHeaders.add(rsch);
-			}
-
-			ResultsetDataRow resultsetDataRow;
-			while (rs.next()) {
-				resultsetDataRow = new ResultsetDataRow();
-				List<String> columnValues = new ArrayList<String>();
-				for (int i = 0; i < rsmd.getColumnCount(); i++) {
-					columnName = rsmd.getColumnName(i + 1);
-					columnValue = rs.getString(columnName);
-					columnValues.add(columnValue);
-				}
-				resultsetDataRow.setRow(columnValues);
-				resultsetDataRows.add(resultsetDataRow);
+			db_connection = dataSource.getConnection();
+			db_statement = db_connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			db_statement.setFetchSize(Integer.MIN_VALUE);
+			for (int i = 0; i < parameters.size(); i++) {
+				db_statement.setString(i + 1, parameters.get(i));
 			}
-
-			return new GenericResultsetData(columnHeaders, resultsetDataRows);
+			rowCount = processResultSet(db_connection, db_statement.executeQuery(), handler);
 		} catch (SQLException e) {
 			throw new PlatformDataIntegrityException("error.msg.sql.error",
 					e.getMessage(), sqlErrorMsg);
+		} finally {
+			dbClose(db_statement, db_connection);
 		}
+
+		long elapsed = System.currentTimeMillis() - startTime;
+		logger.info("Elapsed Time: " + elapsed + "    Rows: " + rowCount + "    SQL: " + sql);
+	}
+
+	private int processResultSet(final Connection db_connection, final ResultSet rs, final GenericResultsetRowHandler handler)
+			throws SQLException, IOException {
+
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+
+		List<ResultsetColumnHeader> columnHeaders = new ArrayList<ResultsetColumnHeader>();
+		for (int i = 0; i < columnCount; i++) {
+			ResultsetColumnHeader rsch = new ResultsetColumnHeader();
+			rsch.setColumnName(rsmd.getColumnName(i + 1));
+			rsch.setColumnType(rsmd.getColumnTypeName(i + 1));
+			columnHeaders.add(rsch);
+		}
+		handler.processColumnHeaders(columnHeaders);
+
+		int rowCount = 0;
+		long lastTouched = System.currentTimeMillis();
+		String[] columnValues = new String[columnCount];
+		while (rs.next()) {
+			for (int i = 0; i < columnCount; i++) {
+				columnValues[i] = rs.getString(i + 1);
+			}
+			handler.processRow(columnValues);
+			rowCount++;
+
+			// reading rows does not reset the abandon timer of the pool, calls on the connection do
+			long now = System.currentTimeMillis();
+			if (now - lastTouched > CONNECTION_TOUCH_INTERVAL_MILLIS) {
+				db_connection.isClosed();
+				lastTouched = now;
+			}
+		}
+		handler.processEnd();
+
+		return rowCount;
 	}
 
 	@Override
@@ -0,0 +1,105 @@
+package org.mifosng.platform.noncore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import org.mifosng.platform.api.data.ResultsetColumnHeader;
+
+/**
+ * Writes the rows of a generic resultset as CSV (RFC 4180) as they are read
+ * from the database.
+ *
+ * Column names and non numeric values are always quoted with any quotes in
+ * them doubled, numeric values are written as is and null values are left
+ * empty. The output is flushed after the header line and then every
+ * {@link #ROWS_BETWEEN_FLUSHES} rows so a client receiving the file
+ * uncompressed starts receiving it straight away.
+ */
+public class GenericResultsetCsvWriter implements GenericResultsetRowHandler {
+
+	static final int ROWS_BETWEEN_FLUSHES = 500;
+
+	private static final String LINE_SEPARATOR = "\r\n";
+
+	private final Writer writer;
+	private boolean[] numericColumns = new boolean[0];
+	private int rowsSinceFlush = 0;
+
+	public GenericResultsetCsvWriter(final OutputStream output) throws IOException {
+		this(new BufferedWriter(new OutputStreamWriter(output, "UTF-8")));
+	}
+
+	GenericResultsetCsvWriter(final Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public void processColumnHeaders(final List<ResultsetColumnHeader> columnHeaders) throws IOException {
+
+		this.numericColumns = new boolean[columnHeaders.size()];
+		for (int i = 0; i < columnHeaders.size(); i++) {
+			if (i > 0) {
+				this.writer.write(',');
+			}
+			writeQuoted(columnHeaders.get(i).getColumnName());
+			this.numericColumns[i] = isNumeric(columnHeaders.get(i).getColumnType());
+		}
+		this.writer.write(LINE_SEPARATOR);
+		this.writer.flush();
+	}
+
+	@Override
+	public void processRow(final String[] columnValues) throws IOException {
+
+		for (int i = 0; i < columnValues.length; i++) {
+			if (i > 0) {
+				this.writer.write(',');
+			}
+			String columnValue = columnValues[i];
+			if (columnValue != null) {
+				if (this.numericColumns[i]) {
+					this.writer.write(columnValue);
+				} else {
+					writeQuoted(columnValue);
+				}
+			}
+		}
+		this.writer.write(LINE_SEPARATOR);
+
+		this.rowsSinceFlush++;
+		if (this.rowsSinceFlush == ROWS_BETWEEN_FLUSHES) {
+			this.writer.flush();
+			this.rowsSinceFlush = 0;
+		}
+	}
+
+	@Override
+	public void processEnd() throws IOException {
+		this.writer.flush();
+	}
+
+	private void writeQuoted(final String value) throws IOException {
+		this.writer.write('"');
+		if (value != null) {
+			int start = 0;
+			int quote = value.indexOf('"');
+			while (quote != -1) {
+				this.writer.write(value, start, quote + 1 - start);
+				this.writer.write('"');
+				start = quote + 1;
+				quote = value.indexOf('"', start);
+			}
+			this.writer.write(value, start, value.length() - start);
+		}
+		this.writer.write('"');
+	}
+
+	private static boolean isNumeric(final String columnType) {
+		return "DECIMAL".equals(columnType) || "DOUBLE".equals(columnType) || "BIGINT".equals(columnType)
+				|| "SMALLINT".equals(columnType) || "INT".equals(columnType);
+	}
+}
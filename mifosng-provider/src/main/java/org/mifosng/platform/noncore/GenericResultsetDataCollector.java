@@ -0,0 +1,44 @@
+package org.mifosng.platform.noncore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mifosng.platform.api.data.GenericResultsetData;
+import org.mifosng.platform.api.data.ResultsetColumnHeader;
+import org.mifosng.platform.api.data.ResultsetDataRow;
+
+/**
+ * {@link GenericResultsetRowHandler} that collects the rows into
+ * {@link GenericResultsetData} for when the entire resultset is needed.
+ */
+public class GenericResultsetDataCollector implements GenericResultsetRowHandler {
+
+	private List<ResultsetColumnHeader> columnHeaders = new ArrayList<ResultsetColumnHeader>();
+	private final List<ResultsetDataRow> resultsetDataRows = new ArrayList<ResultsetDataRow>();
+
+	@Override
+	public void processColumnHeaders(final List<ResultsetColumnHeader> columnHeaders) {
+		this.columnHeaders = columnHeaders;
+	}
+
+	@Override
+	public void processRow(final String[] columnValues) {
+		ResultsetDataRow resultsetDataRow = new ResultsetDataRow();
+		resultsetDataRow.setRow(new ArrayList<String>(Arrays.asList(columnValues)));
+		this.resultsetDataRows.add(resultsetDataRow);
+	}
+
+	@Override
+	public void processEnd() {
+		// nothing to do
+	}
+
+	public List<ResultsetDataRow> getResultsetDataRows() {
+		return this.resultsetDataRows;
+	}
+
+	public GenericResultsetData toGenericResultsetData() {
+		return new GenericResultsetData(this.columnHeaders, this.resultsetDataRows);
+	}
+}
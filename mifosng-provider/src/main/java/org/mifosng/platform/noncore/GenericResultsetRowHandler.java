@@ -0,0 +1,24 @@
+package org.mifosng.platform.noncore;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.mifosng.platform.api.data.ResultsetColumnHeader;
+
+/**
+ * Callback used by {@link GenericDataService} to pass the rows of a generic
+ * resultset one at a time as they are read from the database, rather than
+ * holding the entire resultset in memory.
+ */
+public interface GenericResultsetRowHandler {
+
+	void processColumnHeaders(List<ResultsetColumnHeader> columnHeaders) throws IOException;
+
+	/**
+	 * The array of column values (in column header order) is reused for each
+	 * row so must be copied if it is to be held on to.
+	 */
+	void processRow(String[] columnValues) throws IOException;
+
+	void processEnd() throws IOException;
+}
@@ -1,5 +1,6 @@
 package org.mifosng.platform.noncore;
 
+import java.io.IOException;
 import java.util.Map;
 
 import javax.ws.rs.core.Response;
@@ -15,6 +16,14 @@ public interface ReadReportingService {
 	GenericResultsetData retrieveGenericResultset(String name, String type,
 			Map<String, String> extractedQueryParams);
 
+	/**
+	 * Passes the rows of the report to the handler as they are read rather
+	 * than holding the entire report in memory.
+	 */
+	void processGenericResultset(String name, String type,
+			Map<String, String> extractedQueryParams,
+			GenericResultsetRowHandler handler) throws IOException;
+
 	Response processPentahoRequest(String reportName, String outputType,
 			Map<String, String> queryParams);
 
@@ -1,23 +1,19 @@
 package org.mifosng.platform.noncore;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.sql.Date;
-import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
-import javax.sql.rowset.CachedRowSet;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
 import org.mifosng.platform.api.data.GenericResultsetData;
-import org.mifosng.platform.api.data.ResultsetColumnHeader;
 import org.mifosng.platform.api.data.ResultsetDataRow;
 import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
 import org.mifosng.platform.exceptions.ReportNotFoundException;
@@ -49,6 +45,22 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 	private final static Logger logger = LoggerFactory
 			.getLogger(ReadReportingServiceImpl.class);
 
+	private static final ReportSqlTemplate PERMITTED_REPORTS_SQL = ReportSqlTemplate
+			.compile("select r.report_id, r.report_name, r.report_type, r.report_subtype, r.report_category,"
+					+ " rp.parameter_id, rp.report_parameter_name, p.parameter_name"
+					+ " from stretchy_report r"
+					+ " left join stretchy_report_parameter rp on rp.report_id = r.report_id"
+					+ " left join stretchy_parameter p on p.parameter_id = rp.parameter_id"
+					+ " where exists"
+					+ " (select 'f'"
+					+ " from m_appuser_role ur "
+					+ " join m_role r on r.id = ur.role_id"
+					+ " left join m_role_permission rp on rp.role_id = r.id"
+					+ " left join m_permission p on p.id = rp.permission_id"
+					+ " where ur.appuser_id = ${currentUserId}"
+					+ " and (p.code in ('ALL_FUNCTIONS', 'ALL_FUNCTIONS_READ') or p.code = concat('CAN_RUN_', r.report_name))) "
+					+ " order by r.report_name, rp.parameter_id");
+
 	private Boolean noPentaho = false;
 
 	@Autowired
@@ -63,6 +75,9 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 	@Autowired
 	private GenericDataService genericDataService;
 
+	@Autowired
+	private ReportSqlTemplateCache reportSqlTemplateCache;
+
 	@Override
 	public StreamingOutput retrieveReportCSV(final String name,
 			final String type, final Map<String, String> queryParams) {
@@ -70,198 +85,105 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 		return new StreamingOutput() {
 
 			@Override
-			public void write(OutputStream out) {
-				try {
-
-					GenericResultsetData result = retrieveGenericResultset(
-							name, type, queryParams);
-					StringBuffer sb = generateCsvFileBuffer(result);
-
-					InputStream in = new ByteArrayInputStream(sb.toString()
-							.getBytes("UTF-8"));
-
-					byte[] outputByte = new byte[4096];
-					Integer readLen = in.read(outputByte, 0, 4096);
-
-					while (readLen != -1) {
-						out.write(outputByte, 0, readLen);
-						readLen = in.read(outputByte, 0, 4096);
-					}
-					// in.close();
-					// out.flush();
-					// out.close();
-				} catch (Exception e) {
-					throw new PlatformDataIntegrityException(
-							"error.msg.exception.error", e.getMessage());
-				}
+			public void write(final OutputStream out) throws IOException {
+				processGenericResultset(name, type, queryParams,
+						new GenericResultsetCsvWriter(out));
 			}
 		};
 
 	}
 
-	private static StringBuffer generateCsvFileBuffer(
-			GenericResultsetData result) {
-		StringBuffer writer = new StringBuffer();
-
-		List<ResultsetColumnHeader> columnHeaders = result.getColumnHeaders();
-		logger.info("NO. of Columns: " + columnHeaders.size());
-		Integer chSize = columnHeaders.size();
-		for (int i = 0; i < chSize; i++) {
-			writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-			if (i < (chSize - 1))
-				writer.append(",");
-		}
-		writer.append('\n');
-
-		List<ResultsetDataRow> data = result.getData();
-		List<String> row;
-		Integer rSize;
-		// String currCol;
-		String currColType;
-		String currVal;
-		logger.info("NO. of Rows: " + data.size());
-		for (int i = 0; i < data.size(); i++) {
-			row = data.get(i).getRow();
-			rSize = row.size();
-			for (int j = 0; j < rSize; j++) {
-				// currCol = columnHeaders.get(j).getColumnName();
-				currColType = columnHeaders.get(j).getColumnType();
-				currVal = row.get(j);
-				if (currVal != null) {
-					if (currColType.equals("DECIMAL")
-							|| currColType.equals("DOUBLE")
-							|| currColType.equals("BIGINT")
-							|| currColType.equals("SMALLINT")
-							|| currColType.equals("INT"))
-						writer.append(currVal);
-					else
-						writer.append('"' + currVal + '"');
-				}
-				if (j < (rSize - 1))
-					writer.append(",");
-			}
-			writer.append('\n');
-		}
+	@Override
+	public GenericResultsetData retrieveGenericResultset(final String name,
+			final String type, final Map<String, String> queryParams) {
 
-		return writer;
+		GenericResultsetDataCollector collector = new GenericResultsetDataCollector();
+		try {
+			processGenericResultset(name, type, queryParams, collector);
+		} catch (IOException e) {
+			// collector does no I/O
+			throw new IllegalStateException(e);
+		}
+		return collector.toGenericResultsetData();
 	}
 
 	@Override
-	public GenericResultsetData retrieveGenericResultset(final String name,
-			final String type, final Map<String, String> queryParams) {
+	public void processGenericResultset(final String name,
+			final String type, final Map<String, String> queryParams,
+			final GenericResultsetRowHandler handler) throws IOException {
 
 		long startTime = System.currentTimeMillis();
 		logger.info("STARTING REPORT: " + name + "   Type: " + type);
 
-		String sql;
+		ReportSqlTemplate template;
 		if (name.equals(".")) {
 			// this is to support api /reports - which isn't an important
 			// call. It isn't used in the default reporting UI. But there is a
 			// need to provide an api that does bring back 'permitted' reports
-			// PERMITTED REPORTS SQL
-			sql = "select r.report_id, r.report_name, r.report_type, r.report_subtype, r.report_category,"
-					+ " rp.parameter_id, rp.report_parameter_name, p.parameter_name"
-					+ " from stretchy_report r"
-					+ " left join stretchy_report_parameter rp on rp.report_id = r.report_id"
-					+ " left join stretchy_parameter p on p.parameter_id = rp.parameter_id"
-					+ " where exists"
-					+ " (select 'f'"
-					+ " from m_appuser_role ur "
-					+ " join m_role r on r.id = ur.role_id"
-					+ " left join m_role_permission rp on rp.role_id = r.id"
-					+ " left join m_permission p on p.id = rp.permission_id"
-					+ " where ur.appuser_id = "
-					+ context.authenticatedUser().getId()
-					+ " and (p.code in ('ALL_FUNCTIONS', 'ALL_FUNCTIONS_READ') or p.code = concat('CAN_RUN_', r.report_name))) "
-					+ " order by r.report_name, rp.parameter_id";
+			template = PERMITTED_REPORTS_SQL;
 		} else {
-			sql = getSQLtoRun(name, type, queryParams);
-		}
-
-		GenericResultsetData result = genericDataService
-				.fillGenericResultSet(sql);
-
-		long elapsed = System.currentTimeMillis() - startTime;
-		logger.info("FINISHING Report/Request Name: " + name + " - " + type
-				+ "     Elapsed Time: " + elapsed);
-		return result;
-	}
-
-	private String getSQLtoRun(final String name, final String type,
-			final Map<String, String> queryParams) {
-
-		String sql = getSql(name, type);
-
-		Set<String> keys = queryParams.keySet();
-		for (String key : keys) {
-			String pValue = queryParams.get(key);
-			// logger.info("(" + key + " : " + pValue + ")");
-			sql = genericDataService.replace(sql, key, pValue);
+			template = getSqlTemplate(name, type);
 		}
 
+		Map<String, String> parameterValues = new HashMap<String, String>(
+				queryParams);
 		AppUser currentUser = context.authenticatedUser();
 		// Allows sql query to restrict data by office hierarchy if required
-		sql = genericDataService.replace(sql, "${currentUserHierarchy}",
-				currentUser.getOffice().getHierarchy());
+		parameterValues.put("${currentUserHierarchy}", currentUser.getOffice()
+				.getHierarchy());
 		// Allows sql query to restrict data by current user Id if required
 		// (typically used to return report lists containing only reports
 		// permitted to be run by the user
-		sql = genericDataService.replace(sql, "${currentUserId}", currentUser
-				.getId().toString());
+		parameterValues.put("${currentUserId}", currentUser.getId().toString());
 
-		sql = genericDataService.wrapSQL(sql);
-
-		return sql;
+		if (template.isBindable()) {
+			genericDataService.processGenericResultSet(template.getSql(),
+					template.bindValues(parameterValues), handler);
+		} else {
+			genericDataService.processGenericResultSet(
+					template.replaceParameters(parameterValues), handler);
+		}
 
+		long elapsed = System.currentTimeMillis() - startTime;
+		logger.info("FINISHING Report/Request Name: " + name + " - " + type
+				+ "     Elapsed Time: " + elapsed);
 	}
 
-	private String getSql(String name, String type) {
+	private ReportSqlTemplate getSqlTemplate(final String name,
+			final String type) {
 
-		String inputSql = "select " + type + "_sql as the_sql from stretchy_"
-				+ type + " where " + type + "_name = '" + name + "'";
-		inputSql = genericDataService.wrapSQL(inputSql);
+		ReportSqlTemplate template = reportSqlTemplateCache.get(type, name);
+		if (template == null) {
+			template = ReportSqlTemplate.compile(genericDataService
+					.wrapSQL(getSql(name, type)));
+			reportSqlTemplateCache.put(type, name, template);
+		}
+		return template;
+	}
 
-		String sqlErrorMsg = "Sql: " + inputSql;
-		CachedRowSet rs = genericDataService.getCachedResultSet(inputSql,
-				sqlErrorMsg);
+	private String getSql(final String name, final String type) {
 
-		try {
-			if (rs.next()) {
-				return rs.getString("the_sql");
-			}
-			throw new ReportNotFoundException(inputSql);
+		String inputSql = "select " + type + "_sql as the_sql from stretchy_"
+				+ type + " where " + type + "_name = ?";
 
-		} catch (SQLException e) {
-			logger.info("msg: " + e.getMessage() + "   sql: " + inputSql);
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
+		List<ResultsetDataRow> rows = genericDataService.fillGenericResultSet(
+				inputSql, Arrays.asList(name)).getData();
+		if (rows.isEmpty()) {
+			throw new ReportNotFoundException(inputSql + "   Name: " + name);
 		}
-
+		return rows.get(0).getRow().get(0);
 	}
 
 	@Override
 	public String getReportType(String reportName) {
-		String sql = "SELECT ifnull(report_type,'') as report_type FROM `stretchy_report` where report_name = '"
-				+ reportName + "'";
-
-		sql = genericDataService.wrapSQL(sql);
-
-		String sqlErrorMsg = "Report Name: " + reportName + "   Sql: " + sql;
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql,
-				sqlErrorMsg);
-
-		try {
-
-			if (rs.next()) {
-				return rs.getString("report_type");
-			}
-			throw new ReportNotFoundException(sql);
+		String sql = "SELECT ifnull(report_type,'') as report_type FROM `stretchy_report` where report_name = ?";
 
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
+		List<ResultsetDataRow> rows = genericDataService.fillGenericResultSet(
+				sql, Arrays.asList(reportName)).getData();
+		if (rows.isEmpty()) {
+			throw new ReportNotFoundException(sql + "   Name: " + reportName);
 		}
-
+		return rows.get(0).getRow().get(0);
 	}
 
 	@Override
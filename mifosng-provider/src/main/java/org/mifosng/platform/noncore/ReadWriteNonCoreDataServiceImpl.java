@@ -1,15 +1,13 @@
 package org.mifosng.platform.noncore;
 
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.sql.rowset.CachedRowSet;
-
 import org.apache.commons.lang.StringUtils;
 import org.mifosng.platform.api.data.AdditionalFieldsSetData;
 import org.mifosng.platform.api.data.ApiParameterError;
@@ -23,7 +21,6 @@ import org.mifosng.platform.exceptions.DataTableNotFoundException;
 import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
 import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
 import org.mifosng.platform.security.PlatformSecurityContext;
-import org.mifosng.platform.user.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,11 +49,15 @@ public class ReadWriteNonCoreDataServiceImpl implements
 		long startTime = System.currentTimeMillis();
 		List<AdditionalFieldsSetData> additionalFieldsSets = new ArrayList<AdditionalFieldsSetData>();
 
+		List<String> parameters = new ArrayList<String>();
+		parameters.add(context.authenticatedUser().getId().toString());
+
 		String andClause;
 		if (type == null) {
 			andClause = "";
 		} else {
-			andClause = " and t.`name` = '" + type + "'";
+			andClause = " and t.`name` = ?";
+			parameters.add(type);
 		}
 		// PERMITTED ADDITIONAL FIELDS datasets
 		String sql = "select d.id, d.`name` as 'set', t.`name` as 'type' "
@@ -67,27 +68,14 @@ public class ReadWriteNonCoreDataServiceImpl implements
 				+ " join m_role r on r.id = ur.role_id"
 				+ " left join m_role_permission rp on rp.role_id = r.id"
 				+ " left join m_permission p on p.id = rp.permission_id"
-				+ " where ur.appuser_id = "
-				+ context.authenticatedUser().getId()
+				+ " where ur.appuser_id = ?"
 				+ " and (p.code in ('ALL_FUNCTIONS', 'ALL_FUNCTIONS_READ') or p.code = concat('CAN_READ_', t.`name`, '_x', d.`name`))) "
 				+ andClause + " order by d.`name`";
 
-		sql = genericDataService.wrapSQL(sql);
-		String sqlErrorMsg = "Additional Fields Type: " + type + "   sql: "
-				+ sql;
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql,
-				sqlErrorMsg);
-
-		try {
-			while (rs.next()) {
-				additionalFieldsSets.add(new AdditionalFieldsSetData(rs
-						.getInt("id"), rs.getString("set"), rs
-						.getString("type")));
-			}
-
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
+		for (ResultsetDataRow dataset : fillResultSetDataRows(sql, parameters)) {
+			List<String> values = dataset.getRow();
+			additionalFieldsSets.add(new AdditionalFieldsSetData(Integer
+					.parseInt(values.get(0)), values.get(1), values.get(2)));
 		}
 
 		long elapsed = System.currentTimeMillis() - startTime;
@@ -105,12 +93,12 @@ public class ReadWriteNonCoreDataServiceImpl implements
 
 		checkMainResourceExistsWithinScope(type, id);
 
-		CachedRowSet columnDefinitions = getAdditionalFieldsMetaData(type, set);
+		List<ResultsetDataRow> columnDefinitions = getAdditionalFieldsMetaData(
+				type, set);
 
 		String sqlErrorMsg = "Additional Fields Type: " + type + "   Set: "
 				+ set + "   Id: " + id;
-		List<ResultsetColumnHeader> columnHeaders = getResultsetColumnHeaders(
-				columnDefinitions, sqlErrorMsg);
+		List<ResultsetColumnHeader> columnHeaders = getResultsetColumnHeaders(columnDefinitions);
 
 		String selectFieldList = getSelectFieldListFromColumnHeaders(columnHeaders);
 
@@ -149,19 +137,16 @@ public class ReadWriteNonCoreDataServiceImpl implements
 		return selectFieldList;
 	}
 
-	private CachedRowSet getAdditionalFieldsMetaData(String type, String set) {
+	private List<ResultsetDataRow> getAdditionalFieldsMetaData(String type,
+			String set) {
 		String sql = "select f.`name`, f.data_type, f.data_length, f.display_type, f.code_id "
 				+ " from stretchydata_datasettype t "
 				+ " join stretchydata_dataset d on d.datasettype_id = t.id "
 				+ " join stretchydata_dataset_fields f on f.dataset_id = d.id "
-				+ " where d.`name` = '"
-				+ set
-				+ "' and t.`name` = '"
-				+ type
-				+ "' order by f.id";
+				+ " where d.`name` = ? and t.`name` = ? order by f.id";
 
-		CachedRowSet columnDefinitions = genericDataService.getCachedResultSet(
-				sql, "SQL: " + sql);
+		List<ResultsetDataRow> columnDefinitions = fillResultSetDataRows(sql,
+				Arrays.asList(set, type));
 
 		if (columnDefinitions.size() > 0)
 			return columnDefinitions;
@@ -170,7 +155,7 @@ public class ReadWriteNonCoreDataServiceImpl implements
 	}
 
 	private List<ResultsetColumnHeader> getResultsetColumnHeaders(
-			CachedRowSet columnDefinitions, String sqlErrorMsg) {
+			List<ResultsetDataRow> columnDefinitions) {
 
 		List<ResultsetColumnHeader> columnHeaders = new ArrayList<ResultsetColumnHeader>();
 		ResultsetColumnHeader rschId = new ResultsetColumnHeader();
@@ -178,82 +163,47 @@ public class ReadWriteNonCoreDataServiceImpl implements
 		rschId.setColumnType("Integer");
 		columnHeaders.add(rschId);
 
-		try {
-
-			Integer codeId;
-			while (columnDefinitions.next()) {
-				ResultsetColumnHeader rsch = new ResultsetColumnHeader();
-				rsch.setColumnName(columnDefinitions.getString("name"));
-
-				rsch.setColumnType(columnDefinitions.getString("data_type"));
-				if (columnDefinitions.getInt("data_length") > 0)
-					rsch.setColumnLength(columnDefinitions
-							.getLong("data_length"));
-
-				rsch.setColumnDisplayType(columnDefinitions
-						.getString("display_type"));
-				codeId = columnDefinitions.getInt("code_id");
-
-				if (codeId > 0) {
-					String sql = "select code_value from m_code_value where code_id = "
-							+ codeId + " order by order_position, id";
-					CachedRowSet rsValues = genericDataService
-							.getCachedResultSet(sql, "SQL: " + sql);
-					while (rsValues.next()) {
-						rsch.getColumnValues().add(
-								rsValues.getString("code_value"));
-					}
+		// columns: name, data_type, data_length, display_type, code_id
+		for (ResultsetDataRow columnDefinition : columnDefinitions) {
+			List<String> values = columnDefinition.getRow();
+			ResultsetColumnHeader rsch = new ResultsetColumnHeader();
+			rsch.setColumnName(values.get(0));
+
+			rsch.setColumnType(values.get(1));
+			long dataLength = toLong(values.get(2));
+			if (dataLength > 0)
+				rsch.setColumnLength(dataLength);
+
+			rsch.setColumnDisplayType(values.get(3));
+
+			long codeId = toLong(values.get(4));
+			if (codeId > 0) {
+				String sql = "select code_value from m_code_value where code_id = ? order by order_position, id";
+				for (ResultsetDataRow codeValue : fillResultSetDataRows(sql,
+						Arrays.asList(String.valueOf(codeId)))) {
+					rsch.getColumnValues().add(codeValue.getRow().get(0));
 				}
-				columnHeaders.add(rsch);
 			}
-			;
-			return columnHeaders;
-
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
+			columnHeaders.add(rsch);
 		}
-
+		return columnHeaders;
 	}
 
 	private List<ResultsetDataRow> getResultsetDataRows(
 			List<ResultsetColumnHeader> columnHeaders, String sql,
 			String sqlErrorMsg) {
 
-		List<ResultsetDataRow> resultsetDataRows = null;
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql,
-				sqlErrorMsg);
+		// the select field list is built from the column headers so values
+		// come back in column header order
+		List<ResultsetDataRow> resultsetDataRows = fillDatatableResultSetDataRows(sql);
 
-		if (rs.size() != 1)
+		if (resultsetDataRows.size() != 1)
 			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					"Expected One Entry to be Returned But " + rs.size()
-							+ " were Found - " + sqlErrorMsg);
-
-		String columnName = null;
-		String columnValue = null;
-		resultsetDataRows = new ArrayList<ResultsetDataRow>();
-		ResultsetDataRow resultsetDataRow;
-
-		try {
-			while (rs.next()) {
-				resultsetDataRow = new ResultsetDataRow();
-				List<String> columnValues = new ArrayList<String>();
-
-				for (int i = 0; i < columnHeaders.size(); i++) {
-					columnName = columnHeaders.get(i).getColumnName();
-					columnValue = rs.getString(columnName);
-					columnValues.add(columnValue);
-				}
-				resultsetDataRow.setRow(columnValues);
-				resultsetDataRows.add(resultsetDataRow);
-			}
-			return resultsetDataRows;
-
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
-		}
+					"Expected One Entry to be Returned But "
+							+ resultsetDataRows.size() + " were Found - "
+							+ sqlErrorMsg);
 
+		return resultsetDataRows;
 	}
 
 	@Override
@@ -438,14 +388,14 @@ public class ReadWriteNonCoreDataServiceImpl implements
 			Long appTableId) {
 
 		String unscopedSql = "select t.id from " + appTable
-				+ " t ${dataScopeCriteria} where t.id = " + appTableId;
+				+ " t ${dataScopeCriteria} where t.id = ?";
 
 		String sql = dataScopedSQL(unscopedSql, appTable);
 
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql, "SQL : "
-				+ sql);
-
-		if (rs.size() == 0)
+		String hierarchy = context.authenticatedUser().getOffice()
+				.getHierarchy();
+		if (fillResultSetDataRows(sql,
+				Arrays.asList(hierarchy + "%", appTableId.toString())).isEmpty())
 			throw new DataTableNotFoundException(appTable, appTableId);
 	}
 
@@ -457,17 +407,17 @@ public class ReadWriteNonCoreDataServiceImpl implements
 		 * loan. They are the main application tables. But if additional fields
 		 * are needed on other tables like group, loan_transaction or others the
 		 * same applies (hardcoding of some sort)
+		 *
+		 * the office hierarchy pattern of the user is bound as the first
+		 * parameter
 		 */
 
-		AppUser currentUser = context.authenticatedUser();
 		if (appTable.equalsIgnoreCase("m_client")) {
-			dataScopeCriteria = " join m_office o on o.id = t.office_id and o.hierarchy like '"
-					+ currentUser.getOffice().getHierarchy() + "%'";
+			dataScopeCriteria = " join m_office o on o.id = t.office_id and o.hierarchy like ?";
 		}
 		if (appTable.equalsIgnoreCase("m_loan")) {
 			dataScopeCriteria = " join m_client c on c.id = t.client_id "
-					+ " join m_office o on o.id = c.office_id and o.hierarchy like '"
-					+ currentUser.getOffice().getHierarchy() + "%'";
+					+ " join m_office o on o.id = c.office_id and o.hierarchy like ?";
 		}
 
 		if (dataScopeCriteria == null) {
@@ -606,11 +556,15 @@ public class ReadWriteNonCoreDataServiceImpl implements
 
 		long startTime = System.currentTimeMillis();
 
+		List<String> parameters = new ArrayList<String>();
+		parameters.add(context.authenticatedUser().getId().toString());
+
 		String andClause;
 		if (appTable == null) {
 			andClause = "";
 		} else {
-			andClause = " and application_table_name = '" + appTable + "'";
+			andClause = " and application_table_name = ?";
+			parameters.add(appTable);
 		}
 		// PERMITTED datatables
 		String sql = "select application_table_name, registered_table_name, registered_table_label"
@@ -621,30 +575,16 @@ public class ReadWriteNonCoreDataServiceImpl implements
 				+ " join m_role r on r.id = ur.role_id"
 				+ " left join m_role_permission rp on rp.role_id = r.id"
 				+ " left join m_permission p on p.id = rp.permission_id"
-				+ " where ur.appuser_id = "
-				+ context.authenticatedUser().getId()
+				+ " where ur.appuser_id = ?"
 				+ " and (p.code in ('ALL_FUNCTIONS', 'ALL_FUNCTIONS_READ') or p.code = concat('CAN_READ_', registered_table_name))) "
 				+ andClause
 				+ " order by application_table_name, registered_table_name";
 
-		// sql = genericDataService.wrapSQL(sql);
-		String sqlErrorMsg = "Application Table Name: " + appTable + "   sql: "
-				+ sql;
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql,
-				sqlErrorMsg);
-
 		List<DatatableData> datatables = new ArrayList<DatatableData>();
-		try {
-			while (rs.next()) {
-				datatables.add(new DatatableData(rs
-						.getString("application_table_name"), rs
-						.getString("registered_table_name"), rs
-						.getString("registered_table_label")));
-			}
-
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
+		for (ResultsetDataRow datatable : fillResultSetDataRows(sql, parameters)) {
+			List<String> values = datatable.getRow();
+			datatables.add(new DatatableData(values.get(0), values.get(1),
+					values.get(2)));
 		}
 
 		long elapsed = System.currentTimeMillis() - startTime;
@@ -713,82 +653,47 @@ public class ReadWriteNonCoreDataServiceImpl implements
 	private List<ResultsetDataRow> fillDatatableResultSetDataRows(
 			final String sql) {
 
-		String sqlErrorMsg = "Sql: " + sql;
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql,
-				sqlErrorMsg);
-
-		List<ResultsetDataRow> resultsetDataRows = new ArrayList<ResultsetDataRow>();
-
+		GenericResultsetDataCollector collector = new GenericResultsetDataCollector();
 		try {
+			genericDataService.processGenericResultSet(sql, collector);
+		} catch (IOException e) {
+			// collector does no I/O
+			throw new IllegalStateException(e);
+		}
+		return collector.getResultsetDataRows();
+	}
 
-			ResultSetMetaData rsmd = rs.getMetaData();
-			int columnCount = rsmd.getColumnCount();
-
-			ResultsetDataRow resultsetDataRow;
-			String columnName = null;
-			String columnValue = null;
-			while (rs.next()) {
-				resultsetDataRow = new ResultsetDataRow();
-				List<String> columnValues = new ArrayList<String>();
-				for (int i = 0; i < columnCount; i++) {
-					columnName = rsmd.getColumnName(i + 1);
-					columnValue = rs.getString(columnName);
-					columnValues.add(columnValue);
-				}
-				resultsetDataRow.setRow(columnValues);
-				resultsetDataRows.add(resultsetDataRow);
-			}
+	private List<ResultsetDataRow> fillResultSetDataRows(final String sql,
+			final List<String> parameters) {
+		return genericDataService.fillGenericResultSet(sql, parameters)
+				.getData();
+	}
 
-			return resultsetDataRows;
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage(), sqlErrorMsg);
-		}
+	private static long toLong(final String value) {
+		// as ResultSet.getLong, null is read as zero
+		return value == null ? 0 : Long.parseLong(value);
 	}
 
 	private String getWithinScopeApplicationTableName(String datatable,
 			Long appTableId) {
-		String sql = "SELECT application_table_name FROM x_registered_table where registered_table_name = '"
-				+ datatable + "'";
-
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql, "SQL : "
-				+ sql);
 
-		if (rs.size() == 0)
-			throw new DataTableNotFoundException(datatable);
+		String appTable = getApplicationTableName(datatable);
 
-		try {
-			rs.next();
-			String appTable = rs.getString("application_table_name");
+		checkMainResourceExistsWithinScope(appTable, appTableId);
 
-			checkMainResourceExistsWithinScope(appTable, appTableId);
-
-			return appTable;
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage());
-		}
+		return appTable;
 	}
 
 	private String getApplicationTableName(String datatable) {
-		// TODO - only used for update... can probably remove this after as its
-		// a reread
-		String sql = "SELECT application_table_name FROM x_registered_table where registered_table_name = '"
-				+ datatable + "'";
+		String sql = "SELECT application_table_name FROM x_registered_table where registered_table_name = ?";
 
-		CachedRowSet rs = genericDataService.getCachedResultSet(sql, "SQL : "
-				+ sql);
+		List<ResultsetDataRow> rows = fillResultSetDataRows(sql,
+				Arrays.asList(datatable));
 
-		if (rs.size() == 0)
+		if (rows.size() == 0)
 			throw new DataTableNotFoundException(datatable);
 
-		try {
-			rs.next();
-			return rs.getString("application_table_name");
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage());
-		}
+		return rows.get(0).getRow().get(0);
 	}
 
 	private String getFKField(String applicationTableName) {
@@ -796,15 +701,14 @@ public class ReadWriteNonCoreDataServiceImpl implements
 		return applicationTableName.substring(2) + "_id";
 	}
 
-	private CachedRowSet getDatatableMetaData(String datatable) {
+	private List<ResultsetDataRow> getDatatableMetaData(String datatable) {
 
 		String sql = "select COLUMN_NAME, IS_NULLABLE, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, COLUMN_KEY"
 				+ " from INFORMATION_SCHEMA.COLUMNS "
-				+ " where TABLE_SCHEMA = schema() and TABLE_NAME = '"
-				+ datatable + "'order by ORDINAL_POSITION";
+				+ " where TABLE_SCHEMA = schema() and TABLE_NAME = ? order by ORDINAL_POSITION";
 
-		CachedRowSet columnDefinitions = genericDataService.getCachedResultSet(
-				sql, "SQL: " + sql);
+		List<ResultsetDataRow> columnDefinitions = fillResultSetDataRows(sql,
+				Arrays.asList(datatable));
 
 		if (columnDefinitions.size() > 0)
 			return columnDefinitions;
@@ -815,56 +719,48 @@ public class ReadWriteNonCoreDataServiceImpl implements
 	private List<ResultsetColumnHeader> getDatatableResultsetColumnHeaders(
 			String datatable) {
 
-		CachedRowSet columnDefinitions = getDatatableMetaData(datatable);
+		List<ResultsetDataRow> columnDefinitions = getDatatableMetaData(datatable);
 
 		List<ResultsetColumnHeader> columnHeaders = new ArrayList<ResultsetColumnHeader>();
 
-		try {
+		// columns: COLUMN_NAME, IS_NULLABLE, DATA_TYPE,
+		// CHARACTER_MAXIMUM_LENGTH, COLUMN_KEY
+		for (ResultsetDataRow columnDefinition : columnDefinitions) {
+			List<String> values = columnDefinition.getRow();
+			ResultsetColumnHeader rsch = new ResultsetColumnHeader();
 
-			while (columnDefinitions.next()) {
-				ResultsetColumnHeader rsch = new ResultsetColumnHeader();
+			rsch.setColumnName(values.get(0));
 
-				rsch.setColumnName(columnDefinitions.getString("COLUMN_NAME"));
-
-				String isNullable = columnDefinitions.getString("IS_NULLABLE");
-				if (isNullable.equalsIgnoreCase("YES"))
-					rsch.setColumnNullable(true);
-				else
-					rsch.setColumnNullable(false);
-
-				String isPrimaryKey = columnDefinitions.getString("COLUMN_KEY");
-				if (isPrimaryKey.equalsIgnoreCase("PRI"))
-					rsch.setColumnPrimaryKey(true);
-				else
-					rsch.setColumnPrimaryKey(false);
+			String isNullable = values.get(1);
+			if (isNullable.equalsIgnoreCase("YES"))
+				rsch.setColumnNullable(true);
+			else
+				rsch.setColumnNullable(false);
 
-				Long columnLength = columnDefinitions
-						.getLong("CHARACTER_MAXIMUM_LENGTH");
-				if (columnLength > 0)
-					rsch.setColumnLength(columnDefinitions
-							.getLong("CHARACTER_MAXIMUM_LENGTH"));
+			String isPrimaryKey = values.get(4);
+			if (isPrimaryKey.equalsIgnoreCase("PRI"))
+				rsch.setColumnPrimaryKey(true);
+			else
+				rsch.setColumnPrimaryKey(false);
 
-				rsch.setColumnType(columnDefinitions.getString("DATA_TYPE"));
+			long columnLength = toLong(values.get(3));
+			if (columnLength > 0)
+				rsch.setColumnLength(columnLength);
 
-				rsch.setColumnDisplayType(null);
+			rsch.setColumnType(values.get(2));
 
-				/* look for codes */
-				if (rsch.getColumnType().equalsIgnoreCase("varchar"))
-					addCodesValueIfNecessary(rsch, "_cv");
+			rsch.setColumnDisplayType(null);
 
-				if (rsch.getColumnType().equalsIgnoreCase("int"))
-					addCodesValueIfNecessary(rsch, "_cd");
+			/* look for codes */
+			if (rsch.getColumnType().equalsIgnoreCase("varchar"))
+				addCodesValueIfNecessary(rsch, "_cv");
 
-				columnHeaders.add(rsch);
-			}
-			;
-			return columnHeaders;
+			if (rsch.getColumnType().equalsIgnoreCase("int"))
+				addCodesValueIfNecessary(rsch, "_cd");
 
-		} catch (SQLException e) {
-			throw new PlatformDataIntegrityException("error.msg.sql.error",
-					e.getMessage());
+			columnHeaders.add(rsch);
 		}
-
+		return columnHeaders;
 	}
 
 	private void addCodesValueIfNecessary(ResultsetColumnHeader rsch,
@@ -875,21 +771,14 @@ public class ReadWriteNonCoreDataServiceImpl implements
 
 			String sql = "select v.id, v.code_value from m_code m "
 					+ " join m_code_value v on v.code_id = m.id "
-					+ " where m.code_name = '" + codeName
-					+ "' order by v.order_position, v.id";
-
-			CachedRowSet rsValues = genericDataService.getCachedResultSet(sql,
-					"SQL: " + sql);
-
-			try {
-				while (rsValues.next()) {
-					rsch.getColumnValuesNew().add(
-							new ResultsetColumnValue(rsValues.getInt("id"),
-									rsValues.getString("code_value")));
-				}
-			} catch (SQLException e) {
-				throw new PlatformDataIntegrityException("error.msg.sql.error",
-						e.getMessage());
+					+ " where m.code_name = ? order by v.order_position, v.id";
+
+			for (ResultsetDataRow codeValue : fillResultSetDataRows(sql,
+					Arrays.asList(codeName))) {
+				List<String> values = codeValue.getRow();
+				rsch.getColumnValuesNew().add(
+						new ResultsetColumnValue(Integer.parseInt(values.get(0)),
+								values.get(1)));
 			}
 		}
 
@@ -0,0 +1,163 @@
+package org.mifosng.platform.noncore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
+
+/**
+ * The sql of a stretchy report or parameter parsed once into sql with
+ * positional bind parameters so it can be run as a prepared statement.
+ *
+ * A <code>${name}</code> placeholder is replaced by a <code>?</code> when it
+ * stands on its own (e.g. <code>o.id = ${officeId}</code>) or is the whole of
+ * a quoted literal (e.g. <code>'${startDate}'</code>). Placeholders within a
+ * larger literal (e.g. <code>'%${name}%'</code>) cannot be bound so reports
+ * containing them are run by replacing the placeholders in the sql text as
+ * before.
+ */
+public final class ReportSqlTemplate {
+
+	private final String originalSql;
+	private final String sql;
+	private final List<String> parameterNames;
+	private final boolean bindable;
+
+	public static ReportSqlTemplate compile(final String originalSql) {
+
+		final StringBuilder sql = new StringBuilder(originalSql.length());
+		final List<String> parameterNames = new ArrayList<String>();
+		boolean bindable = true;
+
+		int i = 0;
+		final int length = originalSql.length();
+		while (i < length) {
+			final char c = originalSql.charAt(i);
+
+			if ((c == '-' && originalSql.startsWith("--", i)) || c == '#') {
+				final int end = endOfLineComment(originalSql, i);
+				sql.append(originalSql, i, end);
+				i = end;
+			} else if (c == '/' && originalSql.startsWith("/*", i)) {
+				final int close = originalSql.indexOf("*/", i + 2);
+				final int end = close == -1 ? length : close + 2;
+				sql.append(originalSql, i, end);
+				i = end;
+			} else if (c == '$' && originalSql.startsWith("${", i) && originalSql.indexOf('}', i) != -1) {
+				final int end = originalSql.indexOf('}', i) + 1;
+				parameterNames.add(originalSql.substring(i, end));
+				sql.append('?');
+				i = end;
+			} else if (c == '\'' || c == '"' || c == '`') {
+				final int end = endOfQuoted(originalSql, i);
+				final String quoted = originalSql.substring(i, end);
+				final String inner = quoted.length() >= 2 ? quoted.substring(1, quoted.length() - 1) : "";
+
+				if (c != '`' && isSinglePlaceholder(inner)) {
+					parameterNames.add(inner);
+					sql.append('?');
+				} else {
+					if (c != '`' && inner.contains("${")) {
+						bindable = false;
+					}
+					sql.append(quoted);
+				}
+				i = end;
+			} else {
+				sql.append(c);
+				i++;
+			}
+		}
+
+		return new ReportSqlTemplate(originalSql, sql.toString(), parameterNames, bindable);
+	}
+
+	private ReportSqlTemplate(final String originalSql, final String sql, final List<String> parameterNames, final boolean bindable) {
+		this.originalSql = originalSql;
+		this.sql = sql;
+		this.parameterNames = Collections.unmodifiableList(parameterNames);
+		this.bindable = bindable;
+	}
+
+	public boolean isBindable() {
+		return this.bindable;
+	}
+
+	/**
+	 * The sql with <code>?</code> in place of each placeholder.
+	 */
+	public String getSql() {
+		return this.sql;
+	}
+
+	/**
+	 * The placeholders (e.g. <code>${officeId}</code>) in the order of the bind parameters.
+	 */
+	public List<String> getParameterNames() {
+		return this.parameterNames;
+	}
+
+	/**
+	 * Returns the values of the bind parameters in order from the values of
+	 * the placeholders.
+	 */
+	public List<String> bindValues(final Map<String, String> parameterValues) {
+		final List<String> values = new ArrayList<String>(this.parameterNames.size());
+		for (String parameterName : this.parameterNames) {
+			values.add(valueOf(parameterName, parameterValues));
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the sql with the placeholders replaced by their values, used
+	 * when the template is not bindable.
+	 */
+	public String replaceParameters(final Map<String, String> parameterValues) {
+		String result = this.originalSql;
+		for (Map.Entry<String, String> parameter : parameterValues.entrySet()) {
+			result = result.replace(parameter.getKey(), parameter.getValue());
+		}
+		return result;
+	}
+
+	private static String valueOf(final String parameterName, final Map<String, String> parameterValues) {
+		final String value = parameterValues.get(parameterName);
+		if (value == null) {
+			throw new PlatformDataIntegrityException("error.msg.reporting.error", "Report Parameter: " + parameterName + " - not Provided",
+					parameterName);
+		}
+		return value;
+	}
+
+	private static boolean isSinglePlaceholder(final String value) {
+		return value.startsWith("${") && value.endsWith("}") && value.indexOf('}') == value.length() - 1;
+	}
+
+	private static int endOfLineComment(final String sql, final int start) {
+		final int newLine = sql.indexOf('\n', start);
+		return newLine == -1 ? sql.length() : newLine + 1;
+	}
+
+	private static int endOfQuoted(final String sql, final int start) {
+		final char quote = sql.charAt(start);
+		int i = start + 1;
+		while (i < sql.length()) {
+			final char c = sql.charAt(i);
+			if (c == '\\' && quote != '`') {
+				i += 2;
+			} else if (c == quote) {
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+					i += 2;
+				} else {
+					return i + 1;
+				}
+			} else {
+				i++;
+			}
+		}
+		return sql.length();
+	}
+}
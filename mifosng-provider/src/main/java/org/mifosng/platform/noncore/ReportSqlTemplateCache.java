@@ -0,0 +1,93 @@
+package org.mifosng.platform.noncore;
+
+import org.mifosng.platform.infrastructure.PlatformCache;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of compiled {@link ReportSqlTemplate}s per tenant so the sql of a
+ * report is not read from the stretchy tables and parsed on every run.
+ *
+ * Report definitions are maintained directly in the tenant database so
+ * cached templates expire after a time to live; they can also be evicted
+ * over JMX straight after a report definition is changed.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=ReportSqlTemplateCache", description = "Cache of compiled report sql per tenant.")
+public class ReportSqlTemplateCache {
+
+	private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000L;
+	private static final int DEFAULT_MAXIMUM_SIZE = 5000;
+
+	private final PlatformCache<String, ReportSqlTemplate> cache = PlatformCache.perTenant(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_MAXIMUM_SIZE);
+
+	/**
+	 * Returns the cached template of the report (or parameter) of the current
+	 * tenant or null if it is not cached.
+	 */
+	public ReportSqlTemplate get(final String type, final String name) {
+		return this.cache.get(key(type, name));
+	}
+
+	public void put(final String type, final String name, final ReportSqlTemplate template) {
+		this.cache.put(key(type, name), template);
+	}
+
+	@ManagedOperation(description = "Evicts the compiled sql of the named report of all tenants.")
+	public void evict(final String reportName) {
+		for (String type : new String[] { "report", "parameter" }) {
+			this.cache.evictOfAllTenants(key(type, reportName));
+		}
+	}
+
+	@ManagedOperation(description = "Evicts the compiled sql of all reports of all tenants.")
+	public void evictAll() {
+		this.cache.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of report runs that used cached sql.")
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of report runs that read the sql from the database.")
+	public long getMissCount() {
+		return this.cache.getMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of cached report sql entries evicted.")
+	public long getEvictionCount() {
+		return this.cache.getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Number of report sql entries currently cached across all tenants.")
+	public int getSize() {
+		return this.cache.getSize();
+	}
+
+	@ManagedAttribute
+	public long getTimeToLiveMillis() {
+		return this.cache.getTimeToLiveMillis();
+	}
+
+	@ManagedAttribute
+	public void setTimeToLiveMillis(final long timeToLiveMillis) {
+		this.cache.setTimeToLiveMillis(timeToLiveMillis);
+	}
+
+	@ManagedAttribute
+	public int getMaximumSize() {
+		return this.cache.getMaximumSize();
+	}
+
+	@ManagedAttribute
+	public void setMaximumSize(final int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+
+	private static String key(final String type, final String name) {
+		return type + ":" + name;
+	}
+}
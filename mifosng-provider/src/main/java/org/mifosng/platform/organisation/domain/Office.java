@@ -1,21 +1,20 @@
 package org.mifosng.platform.organisation.domain;
 
 import java.util.Date;
-import java.util.LinkedList;
-import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
-import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.api.commands.OfficeCommand;
 import org.mifosng.platform.exceptions.CannotUpdateOfficeWithParentOfficeSameAsSelf;
@@ -28,12 +27,9 @@ import org.mifosng.platform.user.domain.AppUser;
 												@UniqueConstraint(columnNames = {"name"}, name="name_org"), 
 												@UniqueConstraint(columnNames = {"external_id"}, name="externalid_org")
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Office extends AbstractAuditableCustom<AppUser, Long> {
 
-    @OneToMany(fetch = FetchType.EAGER)
-    @JoinColumn(name = "parent_id")
-    private final List<Office> children = new LinkedList<Office>();
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     private Office       parent;
@@ -71,10 +67,6 @@ public class Office extends AbstractAuditableCustom<AppUser, Long> {
     private Office(final Office parent, final String name, final LocalDate openingDate, final String externalId) {
         this.parent = parent;
         this.openingDate = openingDate.toDateMidnight().toDate();
-        if (parent != null) {
-            this.parent.addChild(this);
-        } 
-        
         if (StringUtils.isNotBlank(name)) {
         	this.name = name.trim();
         } else {
@@ -87,10 +79,6 @@ public class Office extends AbstractAuditableCustom<AppUser, Long> {
 		}
     }
 
-	private void addChild(final Office office) {
-        this.children.add(office);
-    }
-    
 	public void update(final OfficeCommand command) {
 		
 		if (command.isNameChanged()) {
@@ -156,30 +144,4 @@ public class Office extends AbstractAuditableCustom<AppUser, Long> {
 		}
 		return isParent;
 	}
-	
-	public boolean doesNotHaveAnOfficeInHierarchyWithId(Long officeId) {
-		return !this.hasAnOfficeInHierarchyWithId(officeId);
-	}
-	
-	private boolean hasAnOfficeInHierarchyWithId(Long officeId) {
-		
-		boolean match = false;
-		
-		if (identifiedBy(officeId)) {
-			match = true;
-		}
-		
-		if (!match) {
-			for (Office child : this.children) {
-				boolean result = child.hasAnOfficeInHierarchyWithId(officeId);
-				
-				if (result) {
-					match = result;
-					break;
-				}
-			}
-		}
-		
-		return match;
-	}
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package org.mifosng.platform.organisation.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the office hierarchy of an organisation built from
+ * the materialised hierarchy paths of offices (e.g. <code>.1.4.9.</code>).
+ *
+ * An office is within the hierarchy of another when its path starts with the
+ * path of the other office, so ancestor/descendant checks need no traversal
+ * of the office tree. Ordering the paths places each office immediately before
+ * its descendants so the subtree of an office is a contiguous range.
+ */
+public final class OfficeHierarchy {
+
+	private final Map<Long, String> hierarchyByOfficeId;
+	private final TreeMap<String, Long> officeIdByHierarchy;
+
+	public OfficeHierarchy(final Map<Long, String> hierarchyByOfficeId) {
+		this.hierarchyByOfficeId = new HashMap<Long, String>(hierarchyByOfficeId);
+		this.officeIdByHierarchy = new TreeMap<String, Long>();
+		for (Map.Entry<Long, String> office : hierarchyByOfficeId.entrySet()) {
+			this.officeIdByHierarchy.put(office.getValue(), office.getKey());
+		}
+	}
+
+	public boolean contains(final Long officeId) {
+		return this.hierarchyByOfficeId.containsKey(officeId);
+	}
+
+	public String hierarchyOf(final Long officeId) {
+		return this.hierarchyByOfficeId.get(officeId);
+	}
+
+	/**
+	 * Returns true if the office is the same as or lower in the hierarchy than
+	 * the given ancestor office.
+	 */
+	public boolean isSameOrDescendantOf(final Long officeId, final Long ancestorOfficeId) {
+		final String hierarchy = this.hierarchyByOfficeId.get(officeId);
+		final String ancestorHierarchy = this.hierarchyByOfficeId.get(ancestorOfficeId);
+		return hierarchy != null && ancestorHierarchy != null && hierarchy.startsWith(ancestorHierarchy);
+	}
+
+	/**
+	 * Returns the identifiers of the office and all offices below it in
+	 * hierarchy order, or an empty list if the office is not known.
+	 */
+	public List<Long> subtreeOf(final Long officeId) {
+		final String hierarchy = this.hierarchyByOfficeId.get(officeId);
+		if (hierarchy == null) {
+			return Collections.emptyList();
+		}
+		final Map<String, Long> subtree = this.officeIdByHierarchy.subMap(hierarchy, hierarchy + Character.MAX_VALUE);
+		return Collections.unmodifiableList(new ArrayList<Long>(subtree.values()));
+	}
+
+	public int size() {
+		return this.hierarchyByOfficeId.size();
+	}
+}
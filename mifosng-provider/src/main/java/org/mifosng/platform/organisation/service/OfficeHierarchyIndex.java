@@ -0,0 +1,177 @@
+package org.mifosng.platform.organisation.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosng.platform.infrastructure.DataSourcePerTenantService;
+import org.mifosng.platform.infrastructure.PlatformCache;
+import org.mifosng.platform.organisation.domain.OfficeHierarchy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * In memory {@link OfficeHierarchy} of each tenant loaded from the hierarchy
+ * paths of <code>m_office</code>, so checks on whether an office is within the
+ * hierarchy of a users office do not load the office tree.
+ *
+ * The hierarchy of a tenant is reloaded after offices are created or moved
+ * on this node (see {@link #refresh()}) and once it is older than its time to
+ * live, which bounds how long changes made on other nodes go unseen.
+ *
+ * An office it does not know of (e.g. just created on another node) causes a
+ * reload at most once per reload interval, so requests for unknown office ids
+ * cannot force a reload each. Until then the office is treated as outside any
+ * hierarchy, which denies rather than grants access to it.
+ *
+ * The hierarchy is always read from the primary database of the tenant, as
+ * one read from a read replica that is behind would be cached for longer than
+ * the replica lags.
+ */
+@Service
+@ManagedResource(objectName = "mifosng:type=OfficeHierarchyIndex", description = "Office hierarchy of each tenant.")
+public class OfficeHierarchyIndex {
+
+	private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000L;
+	private static final long DEFAULT_UNKNOWN_OFFICE_RELOAD_INTERVAL_MILLIS = 10 * 1000L;
+
+	// the hierarchy is the only entry of each tenant
+	private static final String HIERARCHY = "hierarchy";
+
+	private final DataSourcePerTenantService dataSourcePerTenantService;
+	private final PlatformCache<String, OfficeHierarchy> cache = PlatformCache.perTenant(DEFAULT_TIME_TO_LIVE_MILLIS, Integer.MAX_VALUE);
+
+	private long unknownOfficeReloadIntervalMillis = DEFAULT_UNKNOWN_OFFICE_RELOAD_INTERVAL_MILLIS;
+
+	private final AtomicLong unknownOfficeCount = new AtomicLong();
+
+	private final PlatformCache.Loader<OfficeHierarchy> loader = new PlatformCache.Loader<OfficeHierarchy>() {
+		@Override
+		public OfficeHierarchy load() {
+			return new OfficeHierarchy(readHierarchyByOfficeId());
+		}
+	};
+
+	@Autowired
+	public OfficeHierarchyIndex(final DataSourcePerTenantService dataSourcePerTenantService) {
+		this.dataSourcePerTenantService = dataSourcePerTenantService;
+	}
+
+	/**
+	 * Returns true if the office is the same as or lower in the hierarchy than
+	 * the given ancestor office.
+	 */
+	public boolean isSameOrDescendantOf(final Long officeId, final Long ancestorOfficeId) {
+		OfficeHierarchy hierarchy = currentHierarchy();
+		if (!hierarchy.contains(officeId) || !hierarchy.contains(ancestorOfficeId)) {
+			hierarchy = reloadForUnknownOffice();
+		}
+		return hierarchy.isSameOrDescendantOf(officeId, ancestorOfficeId);
+	}
+
+	/**
+	 * Returns the identifiers of the office and all offices below it.
+	 */
+	public List<Long> subtreeOf(final Long officeId) {
+		OfficeHierarchy hierarchy = currentHierarchy();
+		if (!hierarchy.contains(officeId)) {
+			hierarchy = reloadForUnknownOffice();
+		}
+		return hierarchy.subtreeOf(officeId);
+	}
+
+	/**
+	 * Returns the hierarchy of the current tenant, loading it if it is not
+	 * loaded or older than the time to live.
+	 */
+	public OfficeHierarchy currentHierarchy() {
+		return this.cache.get(HIERARCHY, this.loader);
+	}
+
+	/**
+	 * Drops the hierarchy of the current tenant now and again once the
+	 * current transaction completes so that it is reloaded with the changes
+	 * (or without them if rolled back).
+	 */
+	public void refresh() {
+		this.cache.evictAfterCompletion(HIERARCHY);
+	}
+
+	@ManagedOperation(description = "Drops the office hierarchy of all tenants so they are reloaded on next use.")
+	public void evictAll() {
+		this.cache.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of times the office hierarchy of a tenant has been loaded.")
+	public long getLoadCount() {
+		return this.cache.getMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of checks on an office not in the loaded hierarchy.")
+	public long getUnknownOfficeCount() {
+		return this.unknownOfficeCount.get();
+	}
+
+	@ManagedAttribute(description = "Number of tenants with a loaded office hierarchy.")
+	public int getSize() {
+		return this.cache.getSize();
+	}
+
+	@ManagedAttribute
+	public long getTimeToLiveMillis() {
+		return this.cache.getTimeToLiveMillis();
+	}
+
+	@ManagedAttribute
+	public void setTimeToLiveMillis(final long timeToLiveMillis) {
+		this.cache.setTimeToLiveMillis(timeToLiveMillis);
+	}
+
+	@ManagedAttribute
+	public long getUnknownOfficeReloadIntervalMillis() {
+		return this.unknownOfficeReloadIntervalMillis;
+	}
+
+	@ManagedAttribute
+	public void setUnknownOfficeReloadIntervalMillis(final long unknownOfficeReloadIntervalMillis) {
+		this.unknownOfficeReloadIntervalMillis = unknownOfficeReloadIntervalMillis;
+	}
+
+	/**
+	 * Reloads the hierarchy of the current tenant unless it was loaded within
+	 * the reload interval. Only one thread loads the hierarchy of a tenant at
+	 * a time, others waiting for it use the hierarchy it loaded.
+	 */
+	private OfficeHierarchy reloadForUnknownOffice() {
+		this.unknownOfficeCount.incrementAndGet();
+		return this.cache.get(HIERARCHY, System.currentTimeMillis() - this.unknownOfficeReloadIntervalMillis, this.loader);
+	}
+
+	/**
+	 * Reads the hierarchy path of every office of the current tenant from its
+	 * primary database, on a connection of its own rather than one bound to
+	 * the current (possibly read replica) transaction.
+	 */
+	protected Map<Long, String> readHierarchyByOfficeId() {
+
+		final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourcePerTenantService.retrieveTenantAwareDataSource());
+
+		final Map<Long, String> hierarchyByOfficeId = new HashMap<Long, String>();
+		jdbcTemplate.query("select o.id as id, o.hierarchy as hierarchy from m_office o", new RowCallbackHandler() {
+			@Override
+			public void processRow(final ResultSet rs) throws SQLException {
+				hierarchyByOfficeId.put(rs.getLong("id"), rs.getString("hierarchy"));
+			}
+		});
+
+		return hierarchyByOfficeId;
+	}
+}
@@ -32,16 +32,19 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 	private final OfficeRepository officeRepository;
 	private final OfficeTransactionRepository officeMonetaryTransferRepository;
 	private final ApplicationCurrencyRepository applicationCurrencyRepository;
+	private final OfficeHierarchyIndex officeHierarchyIndex;
 
 	@Autowired
 	public OfficeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, 
 			final OfficeRepository officeRepository, 
 			final OfficeTransactionRepository officeMonetaryTransferRepository,
-			final ApplicationCurrencyRepository applicationCurrencyRepository) {
+			final ApplicationCurrencyRepository applicationCurrencyRepository,
+			final OfficeHierarchyIndex officeHierarchyIndex) {
 		this.context = context;
 		this.officeRepository = officeRepository;
 		this.officeMonetaryTransferRepository = officeMonetaryTransferRepository;
 		this.applicationCurrencyRepository = applicationCurrencyRepository;
+		this.officeHierarchyIndex = officeHierarchyIndex;
 	}
 
 	@Transactional
@@ -65,6 +68,8 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 			
 			this.officeRepository.saveAndFlush(office);
 			
+			this.officeHierarchyIndex.refresh();
+			
 			return office.getId();
 		} catch (DataIntegrityViolationException dve) {
 			 handleOfficeDataIntegrityIssues(command, dve);
@@ -92,6 +97,10 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 			}
 	
 			this.officeRepository.saveAndFlush(office);
+			
+			if (command.isParentChanged()) {
+				this.officeHierarchyIndex.refresh();
+			}
 	
 			return office.getId();
 		} catch (DataIntegrityViolationException dve) {
@@ -164,7 +173,7 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 			throw new OfficeNotFoundException(currentUser.getOffice().getId());
 		}
 		
-		if (userOffice.doesNotHaveAnOfficeInHierarchyWithId(officeId)) {
+		if (!this.officeHierarchyIndex.isSameOrDescendantOf(officeId, userOffice.getId())) {
 			throw new NoAuthorizationException("User does not have sufficient priviledges to act on the provided office.");
 		}
 		
@@ -15,14 +15,17 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.hibernate.annotations.GenericGenerator;
 import org.joda.time.LocalDate;
 import org.mifosng.platform.currency.domain.MonetaryCurrency;
 import org.mifosng.platform.currency.domain.Money;
-import org.springframework.data.jpa.domain.AbstractPersistable;
+import org.mifosng.platform.infrastructure.AbstractPersistableCustom;
+import org.mifosng.platform.infrastructure.TenantAwarePooledIdGenerator;
 
 @Entity
 @Table(name="m_deposit_account_transaction")
-public class DepositAccountTransaction extends AbstractPersistable<Long> {
+@GenericGenerator(name = AbstractPersistableCustom.ENTITY_ID_GENERATOR, strategy = TenantAwarePooledIdGenerator.STRATEGY)
+public class DepositAccountTransaction extends AbstractPersistableCustom<Long> {
 	
 	@SuppressWarnings("unused")
 	@ManyToOne(optional = false)
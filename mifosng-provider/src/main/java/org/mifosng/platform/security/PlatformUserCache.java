@@ -0,0 +1,17 @@
+package org.mifosng.platform.security;
+
+import org.springframework.security.core.userdetails.UserCache;
+
+/**
+ * Interface to hide implementation detail of spring security's
+ * {@link UserCache} from the platform services that must evict users when
+ * they, their roles or their permissions change.
+ */
+public interface PlatformUserCache extends UserCache {
+
+	/**
+	 * Removes all users of the current tenant from the cache, used when a
+	 * change (e.g. to a role) could affect any number of users.
+	 */
+	void removeAllUsersFromCache();
+}
@@ -0,0 +1,99 @@
+package org.mifosng.platform.security;
+
+import org.mifosng.platform.infrastructure.PlatformCache;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+/**
+ * Used in securityContext.xml as the user cache of the
+ * DaoAuthenticationProvider so that the stateless basic authentication of
+ * each API request does not load the user along with their roles and
+ * permissions from the tenant database.
+ *
+ * Users are cached per tenant (usernames are only unique within a tenant) for
+ * a short time to live. The password presented is still checked against the
+ * cached user on every request; when that check fails the provider reloads
+ * the user from the database, so a changed password is picked up immediately.
+ *
+ * Evictions requested within a transaction are applied again after it
+ * completes so that a concurrent request cannot re-cache the state from
+ * before the change. Once the cache is full the least recently used user of
+ * any tenant is evicted.
+ */
+@Service(value = "userCache")
+@ManagedResource(objectName = "mifosng:type=UserCache", description = "Cache of authenticated users per tenant.")
+public class TenantAwarePlatformUserCache implements PlatformUserCache {
+
+	private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 1000L;
+	private static final int DEFAULT_MAXIMUM_SIZE = 5000;
+
+	private final PlatformCache<String, UserDetails> cache = PlatformCache.perTenant(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_MAXIMUM_SIZE);
+
+	@Override
+	public UserDetails getUserFromCache(final String username) {
+		return this.cache.get(username);
+	}
+
+	@Override
+	public void putUserInCache(final UserDetails user) {
+		this.cache.put(user.getUsername(), user);
+	}
+
+	@Override
+	public void removeUserFromCache(final String username) {
+		this.cache.evictAfterCompletion(username);
+	}
+
+	@Override
+	public void removeAllUsersFromCache() {
+		this.cache.evictAllOfTenantAfterCompletion();
+	}
+
+	@ManagedOperation(description = "Evicts the cached users of all tenants.")
+	public void evictAll() {
+		this.cache.evictAll();
+	}
+
+	@ManagedAttribute(description = "Number of authentications that used a cached user.")
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of authentications that loaded the user from the database.")
+	public long getMissCount() {
+		return this.cache.getMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of cached users evicted due to changes, expiry or size.")
+	public long getEvictionCount() {
+		return this.cache.getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Number of users currently cached across all tenants.")
+	public int getSize() {
+		return this.cache.getSize();
+	}
+
+	@ManagedAttribute
+	public long getTimeToLiveMillis() {
+		return this.cache.getTimeToLiveMillis();
+	}
+
+	@ManagedAttribute
+	public void setTimeToLiveMillis(final long timeToLiveMillis) {
+		this.cache.setTimeToLiveMillis(timeToLiveMillis);
+	}
+
+	@ManagedAttribute
+	public int getMaximumSize() {
+		return this.cache.getMaximumSize();
+	}
+
+	@ManagedAttribute
+	public void setMaximumSize(final int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+}
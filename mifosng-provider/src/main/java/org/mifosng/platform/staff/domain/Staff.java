@@ -8,6 +8,8 @@ import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.commands.StaffCommand;
 import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
 import org.mifosng.platform.organisation.domain.Office;
@@ -15,6 +17,7 @@ import org.mifosng.platform.user.domain.AppUser;
 
 @Entity
 @Table(name = "m_staff", uniqueConstraints = { @UniqueConstraint(columnNames = { "display_name" }, name = "display_name") })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Staff extends AbstractAuditableCustom<AppUser, Long> {
 
 	@Column(name = "firstname", length = 50)
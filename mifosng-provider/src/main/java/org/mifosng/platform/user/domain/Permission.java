@@ -6,11 +6,14 @@ import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.data.PermissionData;
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
 @Entity
 @Table(name = "m_permission")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Permission extends AbstractPersistable<Long> {
 
     @Column(name = "code", nullable = false, length=100)
@@ -14,6 +14,8 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosng.platform.api.commands.RoleCommand;
 import org.mifosng.platform.api.data.PermissionData;
 import org.mifosng.platform.api.data.RoleData;
@@ -21,6 +23,7 @@ import org.mifosng.platform.infrastructure.AbstractAuditableCustom;
 
 @Entity
 @Table(name = "m_role")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Role extends AbstractAuditableCustom<AppUser, Long> {
 
     @Column(name="name", nullable=false, length=100)
@@ -31,6 +34,7 @@ public class Role extends AbstractAuditableCustom<AppUser, Long> {
 
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "m_role_permission", joinColumns = @JoinColumn(name = "role_id"), inverseJoinColumns = @JoinColumn(name = "permission_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Permission> permissions;
 
     protected Role() {
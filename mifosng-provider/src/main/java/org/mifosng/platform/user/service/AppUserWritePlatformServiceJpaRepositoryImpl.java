@@ -20,6 +20,7 @@ import org.mifosng.platform.infrastructure.PlatformUser;
 import org.mifosng.platform.organisation.domain.Office;
 import org.mifosng.platform.organisation.domain.OfficeRepository;
 import org.mifosng.platform.security.PlatformSecurityContext;
+import org.mifosng.platform.security.PlatformUserCache;
 import org.mifosng.platform.user.domain.AppUser;
 import org.mifosng.platform.user.domain.AppUserRepository;
 import org.mifosng.platform.user.domain.Role;
@@ -44,16 +45,19 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
 	private final AppUserRepository appUserRepository;
 	private final OfficeRepository officeRepository;
 	private final RoleRepository roleRepository;
+	private final PlatformUserCache userCache;
 	
 	@Autowired
 	public AppUserWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final AppUserRepository appUserRepository, final UserDomainService userDomainService,
-			final OfficeRepository officeRepository, final RoleRepository roleRepository, final PlatformPasswordEncoder platformPasswordEncoder) {
+			final OfficeRepository officeRepository, final RoleRepository roleRepository, final PlatformPasswordEncoder platformPasswordEncoder,
+			final PlatformUserCache userCache) {
 		this.context = context;
 		this.appUserRepository = appUserRepository;
 		this.userDomainService = userDomainService;
 		this.officeRepository = officeRepository;
 		this.roleRepository = roleRepository;
 		this.platformPasswordEncoder = platformPasswordEncoder;
+		this.userCache = userCache;
 	}
 	
 	@Transactional
@@ -123,6 +127,9 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
 				throw new UserNotFoundException(command.getId());
 			}
 			
+			// evict under username held before update in case username is changed
+			this.userCache.removeUserFromCache(userToUpdate.getUsername());
+			
 			userToUpdate.update(allRoles, office, command);
 			this.appUserRepository.saveAndFlush(userToUpdate);
 			
@@ -178,6 +185,8 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
 			throw new UserNotFoundException(userId);
 		}
 		
+		this.userCache.removeUserFromCache(user.getUsername());
+		
 		user.delete();
 		this.appUserRepository.save(user);
 	}
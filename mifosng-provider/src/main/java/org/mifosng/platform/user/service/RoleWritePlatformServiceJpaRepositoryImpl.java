@@ -7,6 +7,7 @@ import java.util.List;
 import org.mifosng.platform.api.commands.RoleCommand;
 import org.mifosng.platform.exceptions.RoleNotFoundException;
 import org.mifosng.platform.security.PlatformSecurityContext;
+import org.mifosng.platform.security.PlatformUserCache;
 import org.mifosng.platform.user.domain.Permission;
 import org.mifosng.platform.user.domain.PermissionRepository;
 import org.mifosng.platform.user.domain.Role;
@@ -23,12 +24,15 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
 	private final RoleRepository roleRepository;
 
 	private final PermissionRepository permissionRepository;
+	private final PlatformUserCache userCache;
 	
 	@Autowired
-	public RoleWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final RoleRepository roleRepository, final PermissionRepository permissionRepository) {
+	public RoleWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final RoleRepository roleRepository, final PermissionRepository permissionRepository,
+			final PlatformUserCache userCache) {
 		this.context = context;
 		this.roleRepository = roleRepository;
 		this.permissionRepository = permissionRepository;
+		this.userCache = userCache;
 	}
 	
 	@Transactional
@@ -68,6 +72,9 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
 		
 		this.roleRepository.save(role);
 		
+		// permissions of any user holding this role may have changed
+		this.userCache.removeAllUsersFromCache();
+		
 		return role.getId();
 	}
 	
@@ -0,0 +1,68 @@
+package org.mifosng.platform.api.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.api.commands.LoanTransactionCommand;
+import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApiDataConversionServiceImplTest {
+
+	private final ApiDataConversionServiceImpl apiDataConversionService = new ApiDataConversionServiceImpl();
+
+	/**
+	 * Scenario 1: Each repayment of a bulk request is read in request order with the date format and locale of the
+	 * request.
+	 */
+	@Test
+	public void givenRepaymentsShouldReadEachWithDateFormatOfRequest() {
+
+		List<LoanTransactionCommand> commands = this.apiDataConversionService.convertJsonToLoanTransactionCommands(repaymentsJson(2));
+
+		assertThat(commands.size(), is(2));
+		assertThat(commands.get(0).getLoanId(), is(Long.valueOf(1)));
+		assertThat(commands.get(1).getLoanId(), is(Long.valueOf(2)));
+		assertThat(commands.get(1).getTransactionDate(), is(new LocalDate(2012, 1, 2)));
+		assertThat(commands.get(1).getTransactionAmount().compareTo(new BigDecimal("10.5")), is(0));
+	}
+
+	/**
+	 * Scenario 2: A bulk request with more repayments than the maximum is rejected, as they would all be made in one
+	 * transaction holding the lock of every loan.
+	 */
+	@Test
+	public void givenMoreRepaymentsThanMaximumShouldReject() {
+
+		int maximum = ApiDataConversionServiceImpl.MAXIMUM_NUMBER_OF_LOAN_TRANSACTIONS;
+		assertThat(this.apiDataConversionService.convertJsonToLoanTransactionCommands(repaymentsJson(maximum)).size(), is(maximum));
+
+		try {
+			this.apiDataConversionService.convertJsonToLoanTransactionCommands(repaymentsJson(maximum + 1));
+			fail("expected PlatformApiDataValidationException");
+		} catch (PlatformApiDataValidationException e) {
+			assertThat(e.getErrors().size(), is(1));
+			assertThat(e.getErrors().get(0).getParameterName(), is("transactions"));
+			assertThat(e.getErrors().get(0).getUserMessageGlobalisationCode(), is("validation.msg.loan.transaction.transactions.exceeds.max.length"));
+		}
+	}
+
+	private static String repaymentsJson(final int numberOfRepayments) {
+		StringBuilder json = new StringBuilder("{\"dateFormat\": \"dd MMMM yyyy\", \"locale\": \"en\", \"transactions\": [");
+		for (int loanId = 1; loanId <= numberOfRepayments; loanId++) {
+			if (loanId > 1) {
+				json.append(", ");
+			}
+			json.append("{\"loanId\": \"").append(loanId).append("\", \"transactionDate\": \"02 January 2012\", \"transactionAmount\": \"10.5\"}");
+		}
+		return json.append("]}").toString();
+	}
+}
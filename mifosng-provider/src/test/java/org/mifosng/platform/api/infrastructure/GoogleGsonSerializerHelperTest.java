@@ -0,0 +1,117 @@
+package org.mifosng.platform.api.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.api.errorhandling.UnsupportedParameterException;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.gson.Gson;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GoogleGsonSerializerHelperTest {
+
+	private static final Set<String> SUPPORTED_PARAMETERS = new HashSet<String>(Arrays.asList("id", "name", "externalId"));
+
+	private final GoogleGsonSerializerHelper helper = new GoogleGsonSerializerHelper(2);
+
+	/**
+	 * Scenario 1: Given the same response parameters requested again, the serializer built first is reused and only writes those fields.
+	 */
+	@Test
+	public void givenSameResponseParametersShouldReuseSerializer() {
+
+		Gson first = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("id", "name"));
+		Gson second = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("name", "id"));
+
+		assertThat(second, is(sameInstance(first)));
+		assertThat(second.toJson(new Data(1L, "one", "ext-1")), is("{\"id\":1,\"name\":\"one\"}"));
+	}
+
+	/**
+	 * Scenario 2: Given no response parameters, the serializer without exclusions is used and nothing is cached.
+	 */
+	@Test
+	public void givenNoResponseParametersShouldUseSerializerWithoutExclusions() {
+
+		Gson gson = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, true, Collections.<String> emptySet());
+
+		assertThat(gson, is(sameInstance(this.helper.createGsonBuilder(true))));
+		assertThat(this.helper.getNumberOfCachedSerializers(), is(0));
+	}
+
+	/**
+	 * Scenario 3: Given unsupported response parameters requested twice, both requests are rejected.
+	 */
+	@Test
+	public void givenUnsupportedResponseParametersShouldAlwaysBeRejected() {
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			try {
+				this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("id", "balance"));
+				throw new AssertionError("expected unsupported parameter to be rejected");
+			} catch (UnsupportedParameterException e) {
+				assertThat(e.getUnsupportedParameters(), is(Arrays.asList("balance")));
+			}
+		}
+		assertThat(this.helper.getNumberOfCachedSerializers(), is(0));
+	}
+
+	/**
+	 * Scenario 4: Given more distinct requests than the cache holds, the least recently used serializer is evicted.
+	 */
+	@Test
+	public void givenCacheIsFullShouldEvictLeastRecentlyUsedSerializer() {
+
+		Gson idOnly = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("id"));
+		Gson nameOnly = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("name"));
+		this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("id"));
+		this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("externalId"));
+
+		assertThat(this.helper.getNumberOfCachedSerializers(), is(2));
+		assertThat(this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("id")), is(sameInstance(idOnly)));
+		assertThat(this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, parameters("name")), is(not(sameInstance(nameOnly))));
+	}
+
+	/**
+	 * Scenario 5: Given supported parameters built anew on each call, the serializer built first is still reused.
+	 */
+	@Test
+	public void givenEqualSupportedParametersShouldReuseSerializer() {
+
+		Gson first = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(parameters("loanId", "transactionId"), false,
+				parameters("loanId", "transactionId"));
+		Gson second = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(parameters("loanId", "transactionId"), false,
+				parameters("loanId", "transactionId"));
+
+		assertThat(second, is(sameInstance(first)));
+		assertThat(this.helper.getNumberOfCachedSerializers(), is(1));
+	}
+
+	private static Set<String> parameters(final String... names) {
+		return new HashSet<String>(Arrays.asList(names));
+	}
+
+	@SuppressWarnings("unused")
+	private static final class Data {
+
+		private final Long id;
+		private final String name;
+		private final String externalId;
+
+		public Data(final Long id, final String name, final String externalId) {
+			this.id = id;
+			this.name = name;
+			this.externalId = externalId;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package org.mifosng.platform.client.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientListCursorTest {
+
+	/**
+	 * Scenario 1: A cursor passed back by an API client is positioned at the same names and id, a missing name
+	 * staying distinct from an empty one.
+	 */
+	@Test
+	public void givenTokenOfCursorShouldRestoreSamePosition() {
+
+		assertRoundTrip(ClientListCursor.at("Smith", "John", Long.valueOf(7)));
+		assertRoundTrip(ClientListCursor.at("Acme Ltd", null, Long.valueOf(8)));
+		assertRoundTrip(ClientListCursor.at("Acme Ltd", "", Long.valueOf(9)));
+		assertRoundTrip(ClientListCursor.at(null, null, Long.valueOf(10)));
+		assertRoundTrip(ClientListCursor.at("", "", Long.valueOf(11)));
+	}
+
+	/**
+	 * Scenario 2: After a named client the next page starts at a later lastname, or at a later firstname for the
+	 * same lastname, or at a later id for clients with the same names.
+	 *
+	 * Expectation
+	 * - names are compared as stored so the (lastname, firstname, id) index can be used
+	 */
+	@Test
+	public void givenNamedClientShouldContinueAfterTiesOnBothNamesById() {
+
+		final StringBuilder sqlBuilder = new StringBuilder();
+		final List<Object> params = new ArrayList<Object>();
+
+		ClientListCursor.at("Smith", "John", Long.valueOf(7)).appendCriteriaForClientsAfter(sqlBuilder, params);
+
+		assertThat(sqlBuilder.toString(), is(" and (c.lastname > ? or (c.lastname = ? and (c.firstname > ? or (c.firstname = ? and c.id > ?))))"));
+		assertThat(params, is(Arrays.<Object> asList("Smith", "Smith", "John", "John", Long.valueOf(7))));
+	}
+
+	/**
+	 * Scenario 3: After a business client without a firstname the next page starts at any client of the same
+	 * lastname with a firstname (including an empty one), or at a later id for clients also without one.
+	 */
+	@Test
+	public void givenClientWithoutFirstnameShouldContinueWithNamedClientsOfSameLastname() {
+
+		final StringBuilder sqlBuilder = new StringBuilder();
+		final List<Object> params = new ArrayList<Object>();
+
+		ClientListCursor.at("Acme Ltd", null, Long.valueOf(8)).appendCriteriaForClientsAfter(sqlBuilder, params);
+
+		assertThat(sqlBuilder.toString(),
+				is(" and (c.lastname > ? or (c.lastname = ? and (c.firstname is not null or (c.firstname is null and c.id > ?))))"));
+		assertThat(params, is(Arrays.<Object> asList("Acme Ltd", "Acme Ltd", Long.valueOf(8))));
+	}
+
+	/**
+	 * Scenario 4: After a client without any names, which are listed first, the next page starts at any client with a
+	 * lastname or at a later id for clients also without names.
+	 */
+	@Test
+	public void givenClientWithoutNamesShouldContinueWithAnyNamedClient() {
+
+		final StringBuilder sqlBuilder = new StringBuilder();
+		final List<Object> params = new ArrayList<Object>();
+
+		ClientListCursor.at(null, null, Long.valueOf(10)).appendCriteriaForClientsAfter(sqlBuilder, params);
+
+		assertThat(sqlBuilder.toString(),
+				is(" and (c.lastname is not null or (c.lastname is null and (c.firstname is not null or (c.firstname is null and c.id > ?))))"));
+		assertThat(params, is(Arrays.<Object> asList(Long.valueOf(10))));
+	}
+
+	/**
+	 * Scenario 5: After a client with an empty firstname the next page does not start again at clients of the same
+	 * lastname without a firstname, which are listed before it.
+	 */
+	@Test
+	public void givenClientWithEmptyFirstnameShouldNotContinueWithClientsWithoutFirstname() {
+
+		final StringBuilder sqlBuilder = new StringBuilder();
+		final List<Object> params = new ArrayList<Object>();
+
+		ClientListCursor.at("Acme Ltd", "", Long.valueOf(9)).appendCriteriaForClientsAfter(sqlBuilder, params);
+
+		assertThat(sqlBuilder.toString(), is(" and (c.lastname > ? or (c.lastname = ? and (c.firstname > ? or (c.firstname = ? and c.id > ?))))"));
+		assertThat(params, is(Arrays.<Object> asList("Acme Ltd", "Acme Ltd", "", "", Long.valueOf(9))));
+	}
+
+	/**
+	 * Scenario 6: Tokens that were not issued as a cursor are rejected as an invalid parameter.
+	 */
+	@Test
+	public void givenTokenNotIssuedAsCursorShouldReject() {
+
+		assertRejected("zz");
+		assertRejected("abc");
+		// lastname, firstname and id without the markers for missing names
+		assertRejected(ClientListCursor.at("Smith", "John", Long.valueOf(7)).toToken().substring(2));
+		assertRejected(hex("+Smith\n+John"));
+		assertRejected(hex("+Smith\n+John\nseven"));
+	}
+
+	private static void assertRoundTrip(final ClientListCursor cursor) {
+		final ClientListCursor restored = ClientListCursor.fromToken(cursor.toToken());
+
+		assertThat(restored.getLastname(), is(cursor.getLastname()));
+		assertThat(restored.getFirstname(), is(cursor.getFirstname()));
+		assertThat(restored.getId(), is(cursor.getId()));
+	}
+
+	private static void assertRejected(final String token) {
+		try {
+			ClientListCursor.fromToken(token);
+			fail("expected PlatformApiDataValidationException");
+		} catch (PlatformApiDataValidationException e) {
+			assertThat(e.getErrors().get(0).getParameterName(), is("cursor"));
+		}
+	}
+
+	private static String hex(final String value) {
+		final StringBuilder hex = new StringBuilder();
+		for (char c : value.toCharArray()) {
+			hex.append(String.format("%02x", Integer.valueOf(c)));
+		}
+		return hex.toString();
+	}
+}
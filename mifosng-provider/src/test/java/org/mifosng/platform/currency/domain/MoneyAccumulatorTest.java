@@ -0,0 +1,98 @@
+package org.mifosng.platform.currency.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Checks that {@link MoneyAccumulator} rounds exactly like {@link Money}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MoneyAccumulatorTest {
+
+	private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2);
+	private final MonetaryCurrency westAfricanFrancs = new MonetaryCurrency("XOF", 0);
+
+	@Test
+	public void givenAmountsWithMoreDigitsThanCurrencyShouldRoundLikeMoneyOf() {
+
+		String[] amounts = { "0.005", "0.015", "0.025", "-0.005", "-0.015", "1.004999", "1.005000", "1.125000", "99.995", "100.000000", "0" };
+
+		for (String amount : amounts) {
+			BigDecimal value = new BigDecimal(amount);
+
+			assertThat(amount, MoneyAccumulator.zero(usDollars).add(Money.of(usDollars, value)).toMoney().toString(), is(Money.of(usDollars, value).toString()));
+			assertThat(amount, MoneyAccumulator.zero(westAfricanFrancs).add(Money.of(westAfricanFrancs, value)).toMoney().toString(), is(Money.of(westAfricanFrancs, value).toString()));
+		}
+	}
+
+	@Test
+	public void givenRunningTotalOfBigDecimalsShouldMatchMoneyPlus() {
+
+		Random random = new Random(1234L);
+
+		for (MonetaryCurrency currency : new MonetaryCurrency[] { usDollars, westAfricanFrancs }) {
+			Money moneyTotal = Money.zero(currency);
+			MoneyAccumulator accumulatedTotal = MoneyAccumulator.zero(currency);
+
+			for (int i = 0; i < 10000; i++) {
+				// mix of amounts at currency scale, at database scale and exactly half way values
+				BigDecimal amount = BigDecimal.valueOf(random.nextInt(2000000) - 500000, random.nextInt(7));
+				if (i % 10 == 0) {
+					amount = BigDecimal.valueOf(random.nextInt(2000) * 10 + 5, currency.getDigitsAfterDecimal() + 1);
+				}
+
+				if (i % 3 == 0) {
+					moneyTotal = moneyTotal.minus(amount);
+					accumulatedTotal.subtract(amount);
+				} else {
+					moneyTotal = moneyTotal.plus(amount);
+					accumulatedTotal.add(amount);
+				}
+
+				assertThat(accumulatedTotal.toMoney().toString(), is(moneyTotal.toString()));
+			}
+		}
+	}
+
+	@Test
+	public void givenRunningTotalOfMoneyShouldMatchMoneyPlusAndMinus() {
+
+		Random random = new Random(4321L);
+
+		Money moneyTotal = Money.zero(usDollars);
+		MoneyAccumulator accumulatedTotal = MoneyAccumulator.zero(usDollars);
+
+		for (int i = 0; i < 10000; i++) {
+			Money amount = Money.of(usDollars, BigDecimal.valueOf(random.nextInt(1000000), 4));
+
+			if (i % 2 == 0) {
+				moneyTotal = moneyTotal.minus(amount);
+				accumulatedTotal.subtract(amount);
+			} else {
+				moneyTotal = moneyTotal.plus(amount);
+				accumulatedTotal.add(amount);
+			}
+		}
+
+		assertThat(accumulatedTotal.toMoney().toString(), is(moneyTotal.toString()));
+		assertThat(accumulatedTotal.isGreaterThanZero(), is(moneyTotal.isGreaterThanZero()));
+		assertThat(accumulatedTotal.isZero(), is(moneyTotal.isZero()));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void givenOverflowShouldThrowArithmeticException() {
+		MoneyAccumulator.zero(usDollars).addMinorUnits(Long.MAX_VALUE).addMinorUnits(1L);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenDifferentCurrencyShouldThrowUnsupportedOperationException() {
+		MoneyAccumulator.zero(usDollars).add(Money.zero(westAfricanFrancs));
+	}
+}
@@ -0,0 +1,132 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingTenantDetailsServiceTest {
+
+	private final CountingTenantDetailsService tenantsDatabase = new CountingTenantDetailsService();
+
+	/**
+	 * Scenario 1: Repeated lookups of the same tenant only query the tenants database once.
+	 */
+	@Test
+	public void givenKnownTenantShouldOnlyLoadOnce() {
+
+		CachingTenantDetailsService cachingService = new CachingTenantDetailsService(tenantsDatabase, 60000L, 10, 60000L, 10);
+
+		MifosPlatformTenant first = cachingService.loadTenantById("default");
+		MifosPlatformTenant second = cachingService.loadTenantById("default");
+
+		assertThat(second == first, is(true));
+		assertThat(tenantsDatabase.numberOfLoads, is(1));
+		assertThat(cachingService.getHitCount(), is(1L));
+		assertThat(cachingService.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: Unknown tenant identifiers are rejected from cache without querying the tenants database again.
+	 */
+	@Test
+	public void givenUnknownTenantShouldCacheRejection() {
+
+		CachingTenantDetailsService cachingService = new CachingTenantDetailsService(tenantsDatabase, 60000L, 10, 60000L, 10);
+
+		for (int attempt = 0; attempt < 3; attempt++) {
+			try {
+				cachingService.loadTenantById("unknown");
+				fail("expected InvalidTenantIdentiferException");
+			} catch (InvalidTenantIdentiferException e) {
+				assertThat(e.getMessage(), is("The tenant identifier: unknown is not valid."));
+			}
+		}
+
+		assertThat(tenantsDatabase.numberOfLoads, is(1));
+		assertThat(cachingService.getUnknownTenantHitCount(), is(2L));
+	}
+
+	/**
+	 * Scenario 3: Expired and evicted entries are loaded again from the tenants database.
+	 */
+	@Test
+	public void givenExpiredOrEvictedTenantShouldLoadAgain() {
+
+		CachingTenantDetailsService expiringService = new CachingTenantDetailsService(tenantsDatabase, 0L, 10, 0L, 10);
+		expiringService.loadTenantById("default");
+		expiringService.loadTenantById("default");
+		assertThat(tenantsDatabase.numberOfLoads, is(2));
+
+		CachingTenantDetailsService cachingService = new CachingTenantDetailsService(tenantsDatabase, 60000L, 10, 60000L, 10);
+		cachingService.loadTenantById("default");
+		cachingService.evict("default");
+		cachingService.loadTenantById("default");
+		assertThat(tenantsDatabase.numberOfLoads, is(4));
+	}
+
+	/**
+	 * Scenario 4: Cache never holds more than its maximum size.
+	 */
+	@Test
+	public void givenMoreTenantsThanMaximumSizeShouldEvict() {
+
+		CachingTenantDetailsService cachingService = new CachingTenantDetailsService(tenantsDatabase, 60000L, 2, 60000L, 10);
+
+		cachingService.loadTenantById("default");
+		cachingService.loadTenantById("tenant2");
+		cachingService.loadTenantById("tenant3");
+
+		assertThat(cachingService.getSize(), is(2));
+		assertThat(cachingService.getEvictionCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 5: Requests cycling through unknown tenant identifiers do not evict the details of known tenants.
+	 */
+	@Test
+	public void givenManyUnknownTenantsShouldKeepKnownTenantsCached() {
+
+		CachingTenantDetailsService cachingService = new CachingTenantDetailsService(tenantsDatabase, 60000L, 2, 60000L, 3);
+		cachingService.loadTenantById("default");
+
+		for (int attempt = 0; attempt < 10; attempt++) {
+			try {
+				cachingService.loadTenantById("unknown" + attempt);
+				fail("expected InvalidTenantIdentiferException");
+			} catch (InvalidTenantIdentiferException e) {
+				// expected
+			}
+		}
+		cachingService.loadTenantById("default");
+
+		assertThat(tenantsDatabase.numberOfLoads, is(11));
+		assertThat(cachingService.getSize(), is(1));
+		assertThat(cachingService.getUnknownTenantSize(), is(3));
+	}
+
+	private static class CountingTenantDetailsService implements TenantDetailsService {
+
+		private int numberOfLoads = 0;
+
+		@Override
+		public MifosPlatformTenant loadTenantById(final String tenantIdentifier) {
+			numberOfLoads++;
+			if (tenantIdentifier.startsWith("unknown")) {
+				throw new InvalidTenantIdentiferException("The tenant identifier: " + tenantIdentifier + " is not valid.");
+			}
+			return new MifosPlatformTenant(Long.valueOf(numberOfLoads), tenantIdentifier, "mifostenant-" + tenantIdentifier, "localhost", "3306", "root", "mysql");
+		}
+
+		@Override
+		public List<MifosPlatformTenant> findAllTenants() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PlatformCacheTest {
+
+	private final PlatformCache<String, String> cache = PlatformCache.perTenant(60000L, 10);
+
+	@After
+	public void clearTenantAndSynchronization() {
+		ThreadLocalContextUtil.clearTenant();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	/**
+	 * Scenario 1: Repeated reads of the same entry only load it once.
+	 */
+	@Test
+	public void givenCachedEntryShouldOnlyLoadOnce() {
+
+		CountingLoader funds = new CountingLoader("funds");
+
+		String first = cache.get("funds", funds);
+		String second = cache.get("funds", funds);
+
+		assertThat(first, is("funds"));
+		assertThat(second == first, is(true));
+		assertThat(funds.numberOfLoads, is(1));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: Entries of one tenant are not returned to another tenant, and evicting all entries of a tenant leaves
+	 * those of other tenants cached.
+	 */
+	@Test
+	public void givenDifferentTenantsShouldCacheSeparately() {
+
+		inTenant(1L);
+		cache.put("funds", "funds of tenant one");
+
+		inTenant(2L);
+		assertThat(cache.get("funds"), is(nullValue()));
+		cache.put("funds", "funds of tenant two");
+		assertThat(cache.get("funds"), is("funds of tenant two"));
+		assertThat(cache.getSize(), is(2));
+
+		cache.evictAllOfTenantAfterCompletion();
+
+		assertThat(cache.get("funds"), is(nullValue()));
+		inTenant(1L);
+		assertThat(cache.get("funds"), is("funds of tenant one"));
+	}
+
+	/**
+	 * Scenario 3: An entry read while it is evicted is not cached as it may be from before the change.
+	 */
+	@Test
+	public void givenEvictionDuringLoadShouldNotCacheLoadedValue() {
+
+		final CountingLoader funds = new CountingLoader("funds");
+		cache.get("funds", new PlatformCache.Loader<String>() {
+			@Override
+			public String load() {
+				cache.evictAfterCompletion("funds");
+				return "funds from before the change";
+			}
+		});
+
+		String reloaded = cache.get("funds", funds);
+
+		assertThat(reloaded, is("funds"));
+		assertThat(funds.numberOfLoads, is(1));
+	}
+
+	/**
+	 * Scenario 4: An entry re-cached whilst the transaction changing it is still open is evicted again once it
+	 * completes.
+	 */
+	@Test
+	public void givenEntryRecachedBeforeChangeCompletesShouldEvictAgainAfterCompletion() {
+
+		cache.put("funds", "funds");
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.evictAfterCompletion("funds");
+
+		// concurrent request reading the state from before the change
+		cache.put("funds", "funds from before the change");
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+
+		assertThat(cache.get("funds"), is(nullValue()));
+		assertThat(cache.getEvictionCount(), is(2L));
+	}
+
+	/**
+	 * Scenario 5: Entries expire after the time to live of the cache or their own, and an entry cached before the
+	 * time asked for is loaded again.
+	 */
+	@Test
+	public void givenExpiredOrOlderEntriesShouldLoadAgain() {
+
+		CountingLoader funds = new CountingLoader("funds");
+		cache.put("unknown", "not found", -1L);
+		cache.get("funds", funds);
+
+		assertThat(cache.get("unknown"), is(nullValue()));
+		assertThat(cache.get("funds"), is("funds"));
+
+		cache.get("funds", System.currentTimeMillis() + 1, funds);
+		assertThat(funds.numberOfLoads, is(2));
+
+		cache.setTimeToLiveMillis(-1L);
+		assertThat(cache.get("funds"), is(nullValue()));
+	}
+
+	/**
+	 * Scenario 6: Once the cache is full the least recently used entry is evicted, also when the maximum size is
+	 * lowered.
+	 */
+	@Test
+	public void givenCacheIsFullShouldEvictLeastRecentlyUsed() {
+
+		PlatformCache<String, String> sharedCache = PlatformCache.shared(PlatformCache.NEVER_EXPIRES, 2);
+		sharedCache.put("funds", "funds");
+		sharedCache.put("charges", "charges");
+		sharedCache.get("funds");
+		sharedCache.put("offices", "offices");
+
+		assertThat(sharedCache.get("charges"), is(nullValue()));
+		assertThat(sharedCache.get("funds"), is("funds"));
+		assertThat(sharedCache.get("offices"), is("offices"));
+
+		sharedCache.setMaximumSize(1);
+
+		assertThat(sharedCache.get("funds"), is(nullValue()));
+		assertThat(sharedCache.get("offices"), is("offices"));
+		assertThat(sharedCache.getEvictionCount(), is(2L));
+	}
+
+	/**
+	 * Scenario 7: Entries are loaded from the primary database rather than a read replica.
+	 */
+	@Test
+	public void givenCacheMissShouldLoadFromPrimary() {
+
+		final boolean[] loadedFromPrimary = new boolean[1];
+		cache.get("funds", new PlatformCache.Loader<String>() {
+			@Override
+			public String load() {
+				loadedFromPrimary[0] = ReadReplicaRoutingContext.isReadingFromPrimary();
+				return "funds";
+			}
+		});
+
+		assertThat(loadedFromPrimary[0], is(true));
+		assertThat(ReadReplicaRoutingContext.isReadingFromPrimary(), is(false));
+	}
+
+	private static void inTenant(final long tenantId) {
+		ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(Long.valueOf(tenantId), "tenant" + tenantId, "mifostenant-" + tenantId,
+				"localhost", "3306", "root", "mysql"));
+	}
+
+	private static class CountingLoader implements PlatformCache.Loader<String> {
+
+		private final String value;
+		private int numberOfLoads = 0;
+
+		public CountingLoader(final String value) {
+			this.value = value;
+		}
+
+		@Override
+		public String load() {
+			this.numberOfLoads++;
+			return this.value;
+		}
+	}
+}
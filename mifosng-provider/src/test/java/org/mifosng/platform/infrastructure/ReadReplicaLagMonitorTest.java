@@ -0,0 +1,145 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReadReplicaLagMonitorTest {
+
+	/**
+	 * Scenario 1: A replica without a maximum lag (e.g. a stand-in replica) is used without reading its lag.
+	 */
+	@Test
+	public void givenNoMaximumLagShouldUseReplicaWithoutCheckingLag() {
+
+		StubbedLagMonitor monitor = new StubbedLagMonitor(Long.valueOf(600));
+
+		assertThat(monitor.isWithinAllowedLag(tenantWithReplica(null), null), is(true));
+		assertThat(monitor.numberOfChecks, is(0));
+		assertThat(monitor.getReplicaCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: A replica behind by no more than the maximum lag is used.
+	 */
+	@Test
+	public void givenLagWithinMaximumShouldUseReplica() {
+
+		StubbedLagMonitor monitor = new StubbedLagMonitor(Long.valueOf(5));
+
+		assertThat(monitor.isWithinAllowedLag(tenantWithReplica(Integer.valueOf(5)), null), is(true));
+		assertThat(monitor.lagSecondsOf(Long.valueOf(1)), is(5L));
+	}
+
+	/**
+	 * Scenario 3: A replica too far behind, or not replicating, is not used.
+	 */
+	@Test
+	public void givenLagAboveMaximumOrNotReplicatingShouldFallBackToPrimary() {
+
+		StubbedLagMonitor laggingMonitor = new StubbedLagMonitor(Long.valueOf(6));
+		assertThat(laggingMonitor.isWithinAllowedLag(tenantWithReplica(Integer.valueOf(5)), null), is(false));
+
+		StubbedLagMonitor stoppedMonitor = new StubbedLagMonitor(null);
+		assertThat(stoppedMonitor.isWithinAllowedLag(tenantWithReplica(Integer.valueOf(5)), null), is(false));
+		assertThat(stoppedMonitor.lagSecondsOf(Long.valueOf(1)), is(-1L));
+		assertThat(stoppedMonitor.getLagFallbackCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 4: The lag is read once per check interval and again after it has passed or been evicted.
+	 */
+	@Test
+	public void givenRepeatedUseShouldOnlyReadLagOncePerInterval() {
+
+		MifosPlatformTenant tenant = tenantWithReplica(Integer.valueOf(5));
+
+		StubbedLagMonitor monitor = new StubbedLagMonitor(Long.valueOf(0));
+		monitor.isWithinAllowedLag(tenant, null);
+		monitor.isWithinAllowedLag(tenant, null);
+		assertThat(monitor.numberOfChecks, is(1));
+
+		monitor.evictAll();
+		monitor.isWithinAllowedLag(tenant, null);
+		assertThat(monitor.numberOfChecks, is(2));
+
+		monitor.setCheckIntervalMillis(-1L);
+		monitor.isWithinAllowedLag(tenant, null);
+		assertThat(monitor.numberOfChecks, is(3));
+	}
+
+	/**
+	 * Scenario 5: Requests finding the lag check expired at the same time only read the lag once, the others using
+	 * the lag it read.
+	 */
+	@Test
+	public void givenConcurrentUseOnceCheckExpiredShouldOnlyReadLagOnce() throws Exception {
+
+		final MifosPlatformTenant tenant = tenantWithReplica(Integer.valueOf(5));
+		final StubbedLagMonitor monitor = new StubbedLagMonitor(Long.valueOf(0));
+		monitor.readingLag = new CountDownLatch(1);
+		monitor.lagRead = new CountDownLatch(1);
+
+		Thread first = checkInBackground(monitor, tenant);
+		monitor.readingLag.await();
+		Thread second = checkInBackground(monitor, tenant);
+		second.join(100);
+
+		monitor.lagRead.countDown();
+		first.join();
+		second.join();
+
+		assertThat(monitor.numberOfChecks, is(1));
+		assertThat(monitor.getReplicaCount(), is(2L));
+	}
+
+	private static Thread checkInBackground(final ReadReplicaLagMonitor monitor, final MifosPlatformTenant tenant) {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				monitor.isWithinAllowedLag(tenant, null);
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static MifosPlatformTenant tenantWithReplica(final Integer replicaMaxLagSeconds) {
+		return new MifosPlatformTenant(Long.valueOf(1), "default", "mifostenant-default", "localhost", "3306", "root", "mysql", 5, 1, 4, 5,
+				"localhost", "3307", replicaMaxLagSeconds);
+	}
+
+	private static class StubbedLagMonitor extends ReadReplicaLagMonitor {
+
+		private final Long lagSeconds;
+		private volatile int numberOfChecks = 0;
+		private CountDownLatch readingLag;
+		private CountDownLatch lagRead;
+
+		public StubbedLagMonitor(final Long lagSeconds) {
+			this.lagSeconds = lagSeconds;
+		}
+
+		@Override
+		protected Long readLagSeconds(final MifosPlatformTenant tenant, final DataSource replica) {
+			numberOfChecks++;
+			if (readingLag != null) {
+				readingLag.countDown();
+				try {
+					lagRead.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return lagSeconds;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReferenceDataCacheTest {
+
+	private final ReferenceDataCache cache = new ReferenceDataCache();
+
+	/**
+	 * Scenario 1: Repeated lookups of the same reference data only read it from the database once.
+	 */
+	@Test
+	public void givenCachedRegionShouldOnlyLoadOnce() {
+
+		CountingLoader funds = new CountingLoader("funds");
+
+		String first = cache.get(ReferenceDataCache.FUNDS, funds);
+		String second = cache.get(ReferenceDataCache.FUNDS, funds);
+
+		assertThat(first, is("funds"));
+		assertThat(second == first, is(true));
+		assertThat(funds.numberOfLoads, is(1));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: Reference data of one tenant is not returned to another tenant.
+	 */
+	@Test
+	public void givenDifferentTenantsShouldCacheSeparately() {
+
+		try {
+			ThreadLocalContextUtil.setTenant(tenant(1L));
+			cache.get(ReferenceDataCache.FUNDS, new CountingLoader("funds of tenant one"));
+
+			ThreadLocalContextUtil.setTenant(tenant(2L));
+			String funds = cache.get(ReferenceDataCache.FUNDS, new CountingLoader("funds of tenant two"));
+
+			assertThat(funds, is("funds of tenant two"));
+			assertThat(cache.getSize(), is(2));
+		} finally {
+			ThreadLocalContextUtil.clearTenant();
+		}
+	}
+
+	/**
+	 * Scenario 3: Evicting a region reloads it on the next lookup and leaves other regions cached.
+	 */
+	@Test
+	public void givenEvictedRegionShouldReloadOnlyThatRegion() {
+
+		CountingLoader funds = new CountingLoader("funds");
+		CountingLoader currencies = new CountingLoader("currencies");
+		cache.get(ReferenceDataCache.FUNDS, funds);
+		cache.get(ReferenceDataCache.CURRENCIES, currencies);
+
+		cache.evict(ReferenceDataCache.FUNDS);
+
+		cache.get(ReferenceDataCache.FUNDS, funds);
+		cache.get(ReferenceDataCache.CURRENCIES, currencies);
+
+		assertThat(funds.numberOfLoads, is(2));
+		assertThat(currencies.numberOfLoads, is(1));
+		assertThat(cache.getEvictionCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 4: Reference data read while the region is evicted is not cached as it may be from before the change.
+	 */
+	@Test
+	public void givenEvictionDuringLoadShouldNotCacheLoadedValue() {
+
+		final CountingLoader funds = new CountingLoader("funds");
+		cache.get(ReferenceDataCache.FUNDS, new ReferenceDataCache.Loader<String>() {
+			@Override
+			public String load() {
+				cache.evict(ReferenceDataCache.FUNDS);
+				return "funds from before the change";
+			}
+		});
+
+		String reloaded = cache.get(ReferenceDataCache.FUNDS, funds);
+
+		assertThat(reloaded, is("funds"));
+		assertThat(funds.numberOfLoads, is(1));
+	}
+
+	private static MifosPlatformTenant tenant(final Long id) {
+		return new MifosPlatformTenant(id, "tenant" + id, "mifostenant-" + id, "localhost", "3306", "root", "mysql");
+	}
+
+	private static class CountingLoader implements ReferenceDataCache.Loader<String> {
+
+		private final String value;
+		private int numberOfLoads = 0;
+
+		public CountingLoader(final String value) {
+			this.value = value;
+		}
+
+		@Override
+		public String load() {
+			this.numberOfLoads++;
+			return this.value;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TenantAwarePooledIdGeneratorTest {
+
+	private final MifosPlatformTenant defaultTenant = tenant(1L, "default");
+	private final MifosPlatformTenant otherTenant = tenant(2L, "other");
+
+	private StubbedTenantAwarePooledIdGenerator generator;
+
+	@Before
+	public void setUpGenerator() {
+		this.generator = new StubbedTenantAwarePooledIdGenerator();
+		this.generator.configure(null, new Properties(), null);
+	}
+
+	@After
+	public void clearTenant() {
+		ThreadLocalContextUtil.clearTenant();
+	}
+
+	/**
+	 * Scenario 1: Ids of a tenant are taken from one generator for that tenant, which is not used for another tenant
+	 * as its blocks are only valid in the tenant's own database.
+	 */
+	@Test
+	public void givenDifferentTenantsShouldTakeIdsFromGeneratorOfEach() {
+
+		ThreadLocalContextUtil.setTenant(this.defaultTenant);
+		assertThat(this.generator.generate(null, null), is((Serializable) Long.valueOf(1)));
+		assertThat(this.generator.generate(null, null), is((Serializable) Long.valueOf(2)));
+
+		ThreadLocalContextUtil.setTenant(this.otherTenant);
+		assertThat(this.generator.generate(null, null), is((Serializable) Long.valueOf(1)));
+
+		ThreadLocalContextUtil.setTenant(this.defaultTenant);
+		assertThat(this.generator.generate(null, null), is((Serializable) Long.valueOf(3)));
+
+		// one created up front by configure to check the parameters, one for each tenant
+		assertThat(this.generator.created.size(), is(3));
+	}
+
+	/**
+	 * Scenario 2: Ids generated without a tenant, e.g. by schema tooling, are taken from a generator of their own.
+	 */
+	@Test
+	public void givenNoTenantShouldTakeIdsFromGeneratorWithoutTenant() {
+
+		ThreadLocalContextUtil.setTenant(this.defaultTenant);
+		this.generator.generate(null, null);
+		ThreadLocalContextUtil.clearTenant();
+
+		assertThat(this.generator.generate(null, null), is((Serializable) Long.valueOf(1)));
+		assertThat(this.generator.generate(null, null), is((Serializable) Long.valueOf(2)));
+		assertThat(this.generator.created.size(), is(3));
+	}
+
+	/**
+	 * Scenario 3: The pooled id table and block size are used unless the entity's generator parameters override them,
+	 * and parameters hibernate passes for the entity are kept.
+	 */
+	@Test
+	public void givenEntityParametersShouldOverrideDefaults() {
+
+		final Properties params = new Properties();
+		params.setProperty(TableGenerator.INCREMENT_PARAM, "20");
+		params.setProperty("target_table", "m_loan");
+
+		final Properties configured = TenantAwarePooledIdGenerator.withPooledIdTableDefaults(params);
+
+		assertThat(configured.getProperty(TableGenerator.TABLE_PARAM), is("m_pooled_id"));
+		assertThat(configured.getProperty(TableGenerator.SEGMENT_COLUMN_PARAM), is("entity_table"));
+		assertThat(configured.getProperty(TableGenerator.VALUE_COLUMN_PARAM), is("next_id"));
+		assertThat(configured.getProperty(TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY), is("true"));
+		assertThat(configured.getProperty(TableGenerator.OPT_PARAM), is("pooled-lo"));
+		assertThat(configured.getProperty(TableGenerator.INCREMENT_PARAM), is("20"));
+		assertThat(configured.getProperty("target_table"), is("m_loan"));
+	}
+
+	private static MifosPlatformTenant tenant(final long id, final String name) {
+		return new MifosPlatformTenant(Long.valueOf(id), name, "mifostenant-" + name, "localhost", "3306", "root", "mysql");
+	}
+
+	private static class StubbedTenantAwarePooledIdGenerator extends TenantAwarePooledIdGenerator {
+
+		private final List<TableGenerator> created = new ArrayList<TableGenerator>();
+
+		@Override
+		protected TableGenerator newGenerator() {
+			final TableGenerator generator = new CountingTableGenerator();
+			this.created.add(generator);
+			return generator;
+		}
+	}
+
+	private static class CountingTableGenerator extends TableGenerator {
+
+		private long lastId = 0;
+
+		@Override
+		public synchronized Serializable generate(@SuppressWarnings("unused") final SessionImplementor session,
+				@SuppressWarnings("unused") final Object obj) {
+			return Long.valueOf(++this.lastId);
+		}
+	}
+}
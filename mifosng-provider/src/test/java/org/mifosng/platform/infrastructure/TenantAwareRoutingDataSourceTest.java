@@ -0,0 +1,123 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TenantAwareRoutingDataSourceTest {
+
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replica = mock(DataSource.class);
+	private final StubbedDataSourcePerTenantService dataSourcePerTenantService = new StubbedDataSourcePerTenantService();
+	private final TenantAwareRoutingDataSource dataSource = new TenantAwareRoutingDataSource(dataSourcePerTenantService);
+
+	@After
+	public void clearRoutingContext() {
+		ReadReplicaRoutingContext.clear();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	/**
+	 * Scenario 1: Read only work goes to the replica, and a read only transaction begun on it is flagged so it does
+	 * not populate the second level cache.
+	 */
+	@Test
+	public void givenReadOnlyWorkShouldUseReplica() {
+
+		ReadReplicaRoutingContext.beginningReadOnlyTransaction(true);
+
+		assertThat(dataSource.determineTargetDataSource(), is(replica));
+		assertThat(ReadReplicaRoutingContext.hasTransactionBegunOnReplica(), is(true));
+		assertThat(ReadReplicaRoutingContext.hasWritten(), is(false));
+	}
+
+	/**
+	 * Scenario 2: Once the request has taken a connection for other work its later reads go to the primary, also on
+	 * other threads working on the request, so it sees its own writes.
+	 */
+	@Test
+	public void givenRequestHasWrittenShouldReadItsWritesFromPrimary() {
+
+		assertThat(dataSource.determineTargetDataSource(), is(primary));
+		assertThat(ReadReplicaRoutingContext.hasWritten(), is(true));
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertThat(dataSource.determineTargetDataSource(), is(primary));
+
+		ReadReplicaRoutingContext.clear();
+		ReadReplicaRoutingContext.setWritten(true);
+		assertThat(dataSource.determineTargetDataSource(), is(primary));
+	}
+
+	/**
+	 * Scenario 3: Read only work goes to the primary when the replica is missing or too far behind, and the request
+	 * may still use the replica once it has caught up.
+	 */
+	@Test
+	public void givenReplicaUnavailableShouldReadFromPrimaryWithoutMarkingWritten() {
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		dataSourcePerTenantService.replicaAvailable = false;
+
+		assertThat(dataSource.determineTargetDataSource(), is(primary));
+		assertThat(ReadReplicaRoutingContext.hasWritten(), is(false));
+
+		dataSourcePerTenantService.replicaAvailable = true;
+		assertThat(dataSource.determineTargetDataSource(), is(replica));
+	}
+
+	/**
+	 * Scenario 4: Values loaded into a cache are read from the primary, without sending the rest of the request to
+	 * the primary.
+	 */
+	@Test
+	public void givenReadingFromPrimaryShouldNotUseReplicaNorMarkWritten() {
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		final boolean wasReadingFromPrimary = ReadReplicaRoutingContext.beginReadingFromPrimary();
+		try {
+			assertThat(dataSource.determineTargetDataSource(), is(primary));
+		} finally {
+			ReadReplicaRoutingContext.endReadingFromPrimary(wasReadingFromPrimary);
+		}
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		ReadReplicaRoutingContext.beginReadingFromPrimary();
+		assertThat(dataSource.determineTargetDataSource(), is(primary));
+		ReadReplicaRoutingContext.endReadingFromPrimary(false);
+
+		assertThat(ReadReplicaRoutingContext.hasWritten(), is(false));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertThat(dataSource.determineTargetDataSource(), is(replica));
+	}
+
+	private class StubbedDataSourcePerTenantService implements DataSourcePerTenantService {
+
+		private boolean replicaAvailable = true;
+
+		@Override
+		public DataSource retrieveTenantAwareDataSource() {
+			return primary;
+		}
+
+		@Override
+		public DataSource retrieveTenantAwareReadReplicaDataSource() {
+			return replicaAvailable ? replica : null;
+		}
+
+		@Override
+		public DataSource retrieveTenantAwareLongRunningDataSource() {
+			return primary;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.exceptions.PlatformInternalServerException;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TenantAwareTaskExecutorTest {
+
+	private final MifosPlatformTenant tenant = new MifosPlatformTenant(Long.valueOf(1), "default", "mifostenant-default", "localhost",
+			"3306", "root", "mysql");
+
+	/**
+	 * Scenario 1: A read started by a request runs against the tenant of that request.
+	 */
+	@Test
+	public void givenTenantOfRequestShouldRunReadAgainstSameTenant() {
+
+		TenantAwareTaskExecutor executor = new TenantAwareTaskExecutor(2, 10);
+		try {
+			ThreadLocalContextUtil.setTenant(tenant);
+
+			Future<MifosPlatformTenant> result = executor.submit(new Callable<MifosPlatformTenant>() {
+				@Override
+				public MifosPlatformTenant call() {
+					return ThreadLocalContextUtil.getTenant();
+				}
+			});
+
+			assertThat(executor.join(result) == tenant, is(true));
+		} finally {
+			ThreadLocalContextUtil.clearTenant();
+			executor.destroy();
+		}
+	}
+
+	/**
+	 * Scenario 2: A runtime exception thrown by a read is rethrown as is when joined.
+	 */
+	@Test
+	public void givenReadThatFailsShouldRethrowItsExceptionWhenJoined() {
+
+		TenantAwareTaskExecutor executor = new TenantAwareTaskExecutor(2, 10);
+		try {
+			Future<Object> result = executor.submit(new Callable<Object>() {
+				@Override
+				public Object call() {
+					throw new PlatformInternalServerException("error.msg.test", "Read failed.");
+				}
+			});
+
+			executor.join(result);
+			fail("expected the exception of the read to be rethrown");
+		} catch (PlatformInternalServerException e) {
+			assertThat(e.getGlobalisationMessageCode(), is("error.msg.test"));
+		} finally {
+			executor.destroy();
+		}
+	}
+
+	/**
+	 * Scenario 3: A read run on the requests own thread because the pool is full leaves the tenant of the request in place.
+	 */
+	@Test
+	public void givenReadRunOnRequestThreadShouldRestoreTenantOfRequest() {
+
+		TenantAwareTaskExecutor executor = new TenantAwareTaskExecutor(1, 1);
+		try {
+			ThreadLocalContextUtil.setTenant(tenant);
+
+			final Object lock = new Object();
+			Future<Object> blocking;
+			Future<Object> queued;
+			Future<Thread> callerRuns;
+			synchronized (lock) {
+				blocking = executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() {
+						synchronized (lock) {
+							return null;
+						}
+					}
+				});
+				queued = executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() {
+						return null;
+					}
+				});
+				callerRuns = executor.submit(new Callable<Thread>() {
+					@Override
+					public Thread call() {
+						return Thread.currentThread();
+					}
+				});
+			}
+			executor.join(blocking);
+			executor.join(queued);
+
+			assertThat(executor.join(callerRuns) == Thread.currentThread(), is(true));
+			assertThat(ThreadLocalContextUtil.getTenant() == tenant, is(true));
+		} finally {
+			ThreadLocalContextUtil.clearTenant();
+			executor.destroy();
+		}
+	}
+}
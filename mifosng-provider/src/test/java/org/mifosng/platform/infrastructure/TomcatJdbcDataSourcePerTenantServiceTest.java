@@ -0,0 +1,162 @@
+package org.mifosng.platform.infrastructure;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+	/**
+	 * Scenario 1: Pool sizes that are consistent with each other are accepted, including the defaults.
+	 */
+	@Test
+	public void givenConsistentPoolSettingsShouldAccept() {
+
+		TomcatJdbcDataSourcePerTenantService.validatePoolSettingsOf(tenantWithPool(5, 1, 4, 5));
+		TomcatJdbcDataSourcePerTenantService.validatePoolSettingsOf(tenantWithPool(0, 0, 0, 1));
+		TomcatJdbcDataSourcePerTenantService.validatePoolSettingsOf(tenantWithPool(10, 10, 10, 10));
+		TomcatJdbcDataSourcePerTenantService.validatePoolSettingsOf(new MifosPlatformTenant(Long.valueOf(1), "default",
+				"mifostenant-default", "localhost", "3306", "root", "mysql"));
+	}
+
+	/**
+	 * Scenario 2: Each inconsistent pool size is rejected with a message naming the tenant and the setting.
+	 */
+	@Test
+	public void givenInconsistentPoolSettingsShouldReject() {
+
+		assertRejected(tenantWithPool(0, 0, 0, 0), "maximum active connections must be greater than zero.");
+		assertRejected(tenantWithPool(6, 1, 4, 5), "initial size must be between zero and the maximum active connections.");
+		assertRejected(tenantWithPool(-1, 1, 4, 5), "initial size must be between zero and the maximum active connections.");
+		assertRejected(tenantWithPool(5, 5, 4, 5), "minimum idle connections must be between zero and the maximum idle connections.");
+		assertRejected(tenantWithPool(5, -1, 4, 5), "minimum idle connections must be between zero and the maximum idle connections.");
+		assertRejected(tenantWithPool(5, 1, 6, 5), "maximum idle connections must not exceed the maximum active connections.");
+	}
+
+	/**
+	 * Scenario 3: No pool is created or kept for a tenant whose pool sizes are inconsistent.
+	 */
+	@Test
+	public void givenInconsistentPoolSettingsShouldNotCreatePool() {
+
+		TomcatJdbcDataSourcePerTenantService service = new TomcatJdbcDataSourcePerTenantService(null, null, null);
+		MifosPlatformTenant tenant = tenantWithPool(6, 1, 4, 5);
+
+		try {
+			service.retrieveDataSourceFor(tenant);
+			fail("expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			assertThat(service.retrieveExistingDataSourceFor(tenant), is(nullValue()));
+		}
+	}
+
+	/**
+	 * Scenario 4: A connection of the tenants pool held longer than the abandon
+	 * timeout while the pool is half full is removed as abandoned.
+	 */
+	@Test
+	public void givenConnectionHeldLongerThanAbandonTimeoutShouldBeRemovedFromTenantsPool() throws Exception {
+
+		PoolConfiguration poolConfiguration = TomcatJdbcDataSourcePerTenantService.poolConfigurationFor(tenantWithPool(0, 0, 1, 2), "localhost",
+				"3306", "default_pool");
+
+		assertThat(isClosedAfterBeingHeldPastAbandonTimeout(poolConfiguration), is(true));
+	}
+
+	/**
+	 * Scenario 5: A connection of the long running pool (e.g. the streaming
+	 * connection of the loan portfolio recomputation) held longer than the
+	 * abandon timeout is kept open.
+	 */
+	@Test
+	public void givenConnectionHeldLongerThanAbandonTimeoutShouldBeKeptInLongRunningPool() throws Exception {
+
+		PoolConfiguration poolConfiguration = TomcatJdbcDataSourcePerTenantService.longRunningPoolConfigurationFor(tenantWithPool(0, 0, 1, 2));
+
+		assertThat(poolConfiguration.isRemoveAbandoned(), is(false));
+		assertThat(poolConfiguration.getMaxActive(), is(TomcatJdbcDataSourcePerTenantService.LONG_RUNNING_POOL_MAX_ACTIVE));
+		assertThat(isClosedAfterBeingHeldPastAbandonTimeout(poolConfiguration), is(false));
+	}
+
+	/**
+	 * Holds one connection of a pool over stubbed connections past its abandon
+	 * timeout (scaled down from 60 seconds to one) while the pool cleaner runs.
+	 */
+	private static boolean isClosedAfterBeingHeldPastAbandonTimeout(final PoolConfiguration poolConfiguration) throws SQLException,
+			InterruptedException {
+
+		poolConfiguration.setDataSource(stubbedDataSource());
+		poolConfiguration.setTestOnBorrow(false);
+		poolConfiguration.setRemoveAbandonedTimeout(1);
+		poolConfiguration.setTimeBetweenEvictionRunsMillis(100);
+
+		org.apache.tomcat.jdbc.pool.DataSource dataSource = new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
+		try {
+			Connection connection = dataSource.getConnection();
+			Thread.sleep(2000);
+			return connection.isClosed();
+		} finally {
+			dataSource.close(true);
+		}
+	}
+
+	/**
+	 * A data source handing out connections that answer every call with the
+	 * default value of its return type.
+	 */
+	private static DataSource stubbedDataSource() {
+		return stub(DataSource.class);
+	}
+
+	private static <T> T stub(final Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) {
+				Class<?> returnType = method.getReturnType();
+				if (method.getName().equals("equals")) {
+					return Boolean.valueOf(proxy == args[0]);
+				} else if (method.getName().equals("hashCode")) {
+					return Integer.valueOf(System.identityHashCode(proxy));
+				} else if (returnType.equals(Boolean.TYPE)) {
+					return Boolean.FALSE;
+				} else if (returnType.equals(Integer.TYPE)) {
+					return Integer.valueOf(0);
+				} else if (returnType.equals(Long.TYPE)) {
+					return Long.valueOf(0);
+				} else if (returnType.isInterface()) {
+					return stub(returnType);
+				}
+				return null;
+			}
+		}));
+	}
+
+	private static void assertRejected(final MifosPlatformTenant tenant, final String reason) {
+		try {
+			TomcatJdbcDataSourcePerTenantService.validatePoolSettingsOf(tenant);
+			fail("expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), is("Connection pool of tenant default: " + reason));
+		}
+	}
+
+	private static MifosPlatformTenant tenantWithPool(final int initialSize, final int minIdle, final int maxIdle, final int maxActive) {
+		return new MifosPlatformTenant(Long.valueOf(1), "default", "mifostenant-default", "localhost", "3306", "root", "mysql", initialSize,
+				minIdle, maxIdle, maxActive);
+	}
+}
@@ -0,0 +1,62 @@
+package org.mifosng.platform.loan.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoanArrearsSummaryTest {
+
+	private final LocalDate july2nd = new LocalDate(2012, 7, 2);
+	private final LocalDate august2nd = new LocalDate(2012, 8, 2);
+	private final LocalDate september2nd = new LocalDate(2012, 9, 2);
+	private final LocalDate october2nd = new LocalDate(2012, 10, 2);
+
+	/**
+	 * Scenario 1: Unpaid installments due before the as of date are overdue and the earliest of the rest is next due.
+	 */
+	@Test
+	public void givenUnpaidInstallmentsDueBeforeAsOfDateShouldBeInArrears() {
+
+		LoanArrearsSummary summary = new LoanArrearsSummary(Long.valueOf(1), august2nd.plusDays(1));
+		summary.addInstallment(july2nd, amount("100"), null, amount("20"), null, null);
+		summary.addInstallment(august2nd, amount("100"), null, amount("20"), null, null);
+		summary.addInstallment(september2nd, amount("100"), null, amount("20"), null, null);
+		summary.addInstallment(october2nd, amount("100"), null, amount("20"), null, null);
+
+		assertThat(summary.isInArrears(), is(true));
+		assertThat(summary.getTotalOutstanding(), is(amount("480")));
+		assertThat(summary.getTotalOverdue(), is(amount("240")));
+		assertThat(summary.getOverdueSinceDate(), is(july2nd));
+		assertThat(summary.getNextDueDate(), is(september2nd));
+		assertThat(summary.getNextDueAmount(), is(amount("120")));
+	}
+
+	/**
+	 * Scenario 2: Paid and waived amounts are not outstanding and a fully paid installment is neither overdue nor next due.
+	 */
+	@Test
+	public void givenPaidAndWaivedInstallmentsShouldOnlyCountAmountsStillDue() {
+
+		LoanArrearsSummary summary = new LoanArrearsSummary(Long.valueOf(1), august2nd);
+		summary.addInstallment(july2nd, amount("100"), amount("100"), amount("20"), amount("15"), amount("5"));
+		summary.addInstallment(august2nd, amount("100"), amount("40"), amount("20"), amount("20"), null);
+
+		assertThat(summary.isInArrears(), is(false));
+		assertThat(summary.getOverdueSinceDate(), is(nullValue()));
+		assertThat(summary.getTotalOutstanding(), is(amount("60")));
+		assertThat(summary.getNextDueDate(), is(august2nd));
+		assertThat(summary.getNextDueAmount(), is(amount("60")));
+	}
+
+	private static BigDecimal amount(final String amount) {
+		return new BigDecimal(amount);
+	}
+}
@@ -0,0 +1,297 @@
+package org.mifosng.platform.loan.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Differential test which checks that re-processing from a checkpoint gives
+ * identical results to a full replay of the loan schedule for each of the
+ * {@link LoanRepaymentScheduleTransactionProcessor}'s.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoanRepaymentScheduleCheckpointsTest {
+
+	private static final int NUMBER_OF_WEEKLY_INSTALLMENTS = 52;
+	private static final int NUMBER_OF_REPAYMENTS = 40;
+
+	private LocalDate firstDueDate = new LocalDate(2012, 1, 2);
+	private long nextTransactionId = 1;
+	private MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+
+	private List<LoanRepaymentScheduleTransactionProcessor> allProcessors() {
+		return Arrays.asList(
+				new MifosStyleLoanRepaymentScheduleTransactionProcessor(),
+				new HeavensFamilyLoanRepaymentScheduleTransactionProcessor(),
+				new CreocoreLoanRepaymentScheduleTransactionProcessor(),
+				new AdhikarLoanRepaymentScheduleTransactionProcessor());
+	}
+
+	/**
+	 * Scenario 1: A backdated repayment is added to a loan with existing repayment history.
+	 *
+	 * Expectation:
+	 *     - derived fields on installments and transactions are identical to that of a full replay
+	 *     - only the transactions from the checkpoint before the backdated repayment are re-processed
+	 */
+	@Test
+	public void givenBackdatedRepaymentCheckpointedReprocessingMatchesFullReplay() {
+
+		for (LoanRepaymentScheduleTransactionProcessor processor : allProcessors()) {
+
+			// setup
+			List<LoanRepaymentScheduleInstallment> checkpointedInstallments = weeklySchedule();
+			List<LoanTransaction> checkpointedRepayments = repaymentHistory();
+			LoanRepaymentScheduleCheckpoints checkpoints = newCheckpoints();
+			checkpoints.reprocess(processor, checkpointedRepayments, usDollars, checkpointedInstallments);
+
+			List<LoanRepaymentScheduleInstallment> replayedInstallments = weeklySchedule();
+			List<LoanTransaction> replayedRepayments = repaymentHistory();
+
+			// execute test
+			LocalDate backdatedOn = firstDueDate.plusWeeks(30).plusDays(3);
+			checkpointedRepayments = withBackdatedRepayment(checkpointedRepayments, backdatedOn);
+			int processed = checkpoints.reprocess(processor, checkpointedRepayments, usDollars, checkpointedInstallments);
+
+			replayedRepayments = withBackdatedRepayment(replayedRepayments, backdatedOn);
+			processor.handleTransaction(replayedRepayments, usDollars, replayedInstallments);
+
+			// verification
+			assertTrue("Expected only transactions after the latest valid checkpoint to be re-processed", processed < checkpointedRepayments.size());
+			assertThatSchedulesAreIdentical(replayedInstallments, checkpointedInstallments);
+			assertThatTransactionsAreIdentical(replayedRepayments, checkpointedRepayments);
+		}
+	}
+
+	/**
+	 * Scenario 2: An existing repayment in the middle of the loan history is reversed (contra) and replaced.
+	 *
+	 * Expectation:
+	 *     - derived fields on installments and transactions are identical to that of a full replay
+	 */
+	@Test
+	public void givenAdjustedRepaymentCheckpointedReprocessingMatchesFullReplay() {
+
+		for (LoanRepaymentScheduleTransactionProcessor processor : allProcessors()) {
+
+			// setup
+			List<LoanRepaymentScheduleInstallment> checkpointedInstallments = weeklySchedule();
+			List<LoanTransaction> checkpointedRepayments = repaymentHistory();
+			LoanRepaymentScheduleCheckpoints checkpoints = newCheckpoints();
+			checkpoints.reprocess(processor, checkpointedRepayments, usDollars, checkpointedInstallments);
+
+			List<LoanRepaymentScheduleInstallment> replayedInstallments = weeklySchedule();
+			List<LoanTransaction> replayedRepayments = repaymentHistory();
+
+			// execute test
+			int adjustedIndex = NUMBER_OF_REPAYMENTS / 2;
+			checkpointedRepayments = withAdjustedRepayment(checkpointedRepayments, adjustedIndex);
+			checkpoints.reprocess(processor, checkpointedRepayments, usDollars, checkpointedInstallments);
+
+			replayedRepayments = withAdjustedRepayment(replayedRepayments, adjustedIndex);
+			processor.handleTransaction(replayedRepayments, usDollars, replayedInstallments);
+
+			// verification
+			assertThatSchedulesAreIdentical(replayedInstallments, checkpointedInstallments);
+			assertThatTransactionsAreIdentical(replayedRepayments, checkpointedRepayments);
+		}
+	}
+
+	/**
+	 * Scenario 3: The checkpoints were taken against a schedule with a different number of installments.
+	 *
+	 * Expectation:
+	 *     - checkpoints taken against the old installments are not used and all transactions are re-processed
+	 */
+	@Test
+	public void givenScheduleWithOtherInstallmentsCheckpointsAreNotUsed() {
+
+		LoanRepaymentScheduleTransactionProcessor processor = new MifosStyleLoanRepaymentScheduleTransactionProcessor();
+
+		// setup
+		List<LoanTransaction> repayments = repaymentHistory();
+		LoanRepaymentScheduleCheckpoints checkpoints = newCheckpoints();
+		checkpoints.reprocess(processor, repayments, usDollars, weeklySchedule());
+
+		// execute test
+		List<LoanRepaymentScheduleInstallment> otherInstallments = weeklySchedule().subList(0, NUMBER_OF_WEEKLY_INSTALLMENTS - 1);
+		repayments = withBackdatedRepayment(repayments, firstDueDate.plusWeeks(30).plusDays(3));
+		int processed = checkpoints.reprocess(processor, repayments, usDollars, otherInstallments);
+
+		// verification
+		assertThat(processed, is(repayments.size()));
+	}
+
+	/**
+	 * Scenario 4: The loan is loaded again between each of two backdated repayments.
+	 *
+	 * Expectation:
+	 *     - the checkpoints saved with the loan are used by the later commands
+	 *     - derived fields on installments and transactions are identical to that of a full replay
+	 */
+	@Test
+	public void givenLoanLoadedAgainBetweenTransactionsCheckpointsAreUsed() {
+
+		for (LoanRepaymentScheduleTransactionProcessor processor : allProcessors()) {
+
+			// setup
+			List<LoanRepaymentScheduleCheckpoint> savedCheckpoints = new ArrayList<LoanRepaymentScheduleCheckpoint>();
+			List<LoanRepaymentScheduleInstallment> savedInstallments = weeklySchedule();
+			List<LoanTransaction> savedRepayments = repaymentHistory();
+			new LoanRepaymentScheduleCheckpoints(null, savedCheckpoints).reprocess(processor, savedRepayments, usDollars, savedInstallments);
+
+			List<LoanRepaymentScheduleInstallment> replayedInstallments = weeklySchedule();
+			List<LoanTransaction> replayedRepayments = repaymentHistory();
+
+			// execute test
+			LocalDate firstBackdatedOn = firstDueDate.plusWeeks(30).plusDays(3);
+			List<LoanRepaymentScheduleInstallment> loadedInstallments = scheduleLoadedAgain(savedInstallments);
+			List<LoanTransaction> loadedRepayments = withBackdatedRepayment(transactionsLoadedAgain(savedRepayments), firstBackdatedOn);
+			int firstProcessed = new LoanRepaymentScheduleCheckpoints(null, savedCheckpoints).reprocess(processor, loadedRepayments, usDollars, loadedInstallments);
+
+			LocalDate secondBackdatedOn = firstDueDate.plusWeeks(35).plusDays(1);
+			loadedInstallments = scheduleLoadedAgain(loadedInstallments);
+			loadedRepayments = withBackdatedRepayment(transactionsLoadedAgain(loadedRepayments), secondBackdatedOn);
+			int secondProcessed = new LoanRepaymentScheduleCheckpoints(null, savedCheckpoints).reprocess(processor, loadedRepayments, usDollars, loadedInstallments);
+
+			replayedRepayments = withBackdatedRepayment(withBackdatedRepayment(replayedRepayments, firstBackdatedOn), secondBackdatedOn);
+			processor.handleTransaction(replayedRepayments, usDollars, replayedInstallments);
+
+			// verification
+			assertTrue("Expected the first command to restore a saved checkpoint", firstProcessed < NUMBER_OF_REPAYMENTS + 1);
+			assertTrue("Expected the second command to restore a saved checkpoint", secondProcessed < NUMBER_OF_REPAYMENTS + 2);
+			assertThatSchedulesAreIdentical(replayedInstallments, loadedInstallments);
+			assertThatTransactionsAreIdentical(replayedRepayments, loadedRepayments);
+		}
+	}
+
+	private LoanRepaymentScheduleCheckpoints newCheckpoints() {
+		return new LoanRepaymentScheduleCheckpoints(null, new ArrayList<LoanRepaymentScheduleCheckpoint>());
+	}
+
+	/**
+	 * New installments with the same state as those passed, as if they were
+	 * saved and loaded again.
+	 */
+	private List<LoanRepaymentScheduleInstallment> scheduleLoadedAgain(final List<LoanRepaymentScheduleInstallment> savedInstallments) {
+		List<LoanRepaymentScheduleInstallment> loaded = weeklySchedule();
+		for (int index = 0; index < loaded.size(); index++) {
+			loaded.get(index).restoreDerivedComponents(savedInstallments.get(index).derivedComponents());
+		}
+		return loaded;
+	}
+
+	/**
+	 * New transactions with the same state as those passed, as if they were
+	 * saved and loaded again. Transactions not saved before are given an id.
+	 */
+	private List<LoanTransaction> transactionsLoadedAgain(final List<LoanTransaction> savedTransactions) {
+		List<LoanTransaction> loaded = new ArrayList<LoanTransaction>();
+		for (LoanTransaction saved : savedTransactions) {
+			Long id = saved.getId() == null ? Long.valueOf(nextTransactionId++) : saved.getId();
+			LoanTransaction loadedTransaction = new LoanTransactionBuilder().repayment().withId(id).with(saved.getTransactionDate())
+					.with(saved.getAmount(usDollars)).build();
+			loadedTransaction.updateComponents(saved.getPrincipalPortion(usDollars), saved.getInterestPortion(usDollars),
+					saved.getInterestWaivedPortion(usDollars));
+			loaded.add(loadedTransaction);
+		}
+		return loaded;
+	}
+
+	private List<LoanRepaymentScheduleInstallment> weeklySchedule() {
+		List<LoanRepaymentScheduleInstallment> installments = new ArrayList<LoanRepaymentScheduleInstallment>();
+		for (int installmentNumber = 1; installmentNumber <= NUMBER_OF_WEEKLY_INSTALLMENTS; installmentNumber++) {
+			installments.add(new LoanRepaymentScheduleInstallmentBuilder(usDollars)
+					.withInstallmentNumber(installmentNumber)
+					.withDueDate(firstDueDate.plusWeeks(installmentNumber - 1))
+					.withPrincipal("100.00")
+					.withInterest("15.50")
+					.build());
+		}
+		return installments;
+	}
+
+	/**
+	 * A mix of on-time, partial, late and in advance repayments.
+	 */
+	private List<LoanTransaction> repaymentHistory() {
+		List<LoanTransaction> repayments = new ArrayList<LoanTransaction>();
+		for (int week = 0; week < NUMBER_OF_REPAYMENTS; week++) {
+			String amount = "115.50";
+			LocalDate paidOn = firstDueDate.plusWeeks(week);
+			if (week % 7 == 3) {
+				amount = "40.25";
+			} else if (week % 7 == 5) {
+				amount = "250.00";
+				paidOn = paidOn.minusDays(4);
+			} else if (week % 5 == 4) {
+				paidOn = paidOn.plusDays(9);
+			}
+			repayments.add(savedRepayment(amount, paidOn));
+		}
+		return sorted(repayments);
+	}
+
+	private List<LoanTransaction> withBackdatedRepayment(final List<LoanTransaction> repayments, final LocalDate backdatedOn) {
+		List<LoanTransaction> withBackdated = new ArrayList<LoanTransaction>(repayments);
+		withBackdated.add(repayment("77.77", backdatedOn));
+		return sorted(withBackdated);
+	}
+
+	private List<LoanTransaction> withAdjustedRepayment(final List<LoanTransaction> repayments, final int adjustedIndex) {
+		List<LoanTransaction> withAdjusted = new ArrayList<LoanTransaction>(repayments);
+		LoanTransaction adjusted = withAdjusted.remove(adjustedIndex);
+		withAdjusted.add(repayment("12.34", adjusted.getTransactionDate()));
+		return sorted(withAdjusted);
+	}
+
+	private LoanTransaction savedRepayment(final String amount, final LocalDate paidOn) {
+		Money repaymentAmount = new MoneyBuilder().with(usDollars).with(amount).build();
+		return new LoanTransactionBuilder().repayment().withId(Long.valueOf(nextTransactionId++)).with(paidOn).with(repaymentAmount).build();
+	}
+
+	private LoanTransaction repayment(final String amount, final LocalDate paidOn) {
+		Money repaymentAmount = new MoneyBuilder().with(usDollars).with(amount).build();
+		return new LoanTransactionBuilder().repayment().with(paidOn).with(repaymentAmount).build();
+	}
+
+	private List<LoanTransaction> sorted(final List<LoanTransaction> repayments) {
+		Collections.sort(repayments, new LoanTransactionComparator());
+		return repayments;
+	}
+
+	private void assertThatSchedulesAreIdentical(final List<LoanRepaymentScheduleInstallment> expected, final List<LoanRepaymentScheduleInstallment> actual) {
+		for (int index = 0; index < expected.size(); index++) {
+			LoanRepaymentScheduleInstallment expectedInstallment = expected.get(index);
+			LoanRepaymentScheduleInstallment actualInstallment = actual.get(index);
+
+			assertThat("principal completed not as expected: ", actualInstallment.getPrincipalCompleted(usDollars).toString(), is(expectedInstallment.getPrincipalCompleted(usDollars).toString()));
+			assertThat("interest completed not as expected: ", actualInstallment.getInterestCompleted(usDollars).toString(), is(expectedInstallment.getInterestCompleted(usDollars).toString()));
+			assertThat("interest waived not as expected: ", actualInstallment.getInterestWaived(usDollars).toString(), is(expectedInstallment.getInterestWaived(usDollars).toString()));
+			assertThat("completed not as expected: ", actualInstallment.isFullyCompleted(), is(expectedInstallment.isFullyCompleted()));
+		}
+	}
+
+	private void assertThatTransactionsAreIdentical(final List<LoanTransaction> expected, final List<LoanTransaction> actual) {
+		for (int index = 0; index < expected.size(); index++) {
+			LoanTransaction expectedTransaction = expected.get(index);
+			LoanTransaction actualTransaction = actual.get(index);
+
+			assertThat("Principal portion of transaction not as expected: ", actualTransaction.getPrincipalPortion(usDollars).toString(), is(expectedTransaction.getPrincipalPortion(usDollars).toString()));
+			assertThat("Interest portion of transaction not as expected: ", actualTransaction.getInterestPortion(usDollars).toString(), is(expectedTransaction.getInterestPortion(usDollars).toString()));
+			assertThat("Interest waived portion of transaction not as expected: ", actualTransaction.getInterestWaivedPortion(usDollars).toString(), is(expectedTransaction.getInterestWaivedPortion(usDollars).toString()));
+		}
+	}
+}
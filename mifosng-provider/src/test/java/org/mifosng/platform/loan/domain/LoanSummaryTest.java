@@ -0,0 +1,78 @@
+package org.mifosng.platform.loan.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoanSummaryTest {
+
+	private final LocalDate july2nd = new LocalDate(2012, 7, 2);
+	private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+
+	/**
+	 * Scenario 1: Given first installment paid, summary has paid and outstanding totals and next due installment.
+	 */
+	@Test
+	public void givenFirstInstallmentPaidShouldSummariseRemainingInstallmentsAsOutstanding() {
+
+		List<LoanRepaymentScheduleInstallment> installments = LoanScheduleTestDataHelper.createSimpleLoanScheduleWithFirstInstallmentFullyPaid(july2nd, usDollars);
+
+		LoanSummary summary = new LoanSummary();
+		summary.update(usDollars, installments, new BigDecimal("50.00"), july2nd.plusDays(1));
+
+		assertThat(summary.getTotalPrincipalAndInterestExpected(usDollars).isEqualTo(money("3600.00")), is(true));
+		assertThat(summary.getTotalRepayment(usDollars).isEqualTo(money("1200.00")), is(true));
+		assertThat(summary.getTotalOutstanding(usDollars).isEqualTo(money("2400.00")), is(true));
+		assertThat(summary.getTotalOverdue(usDollars).isZero(), is(true));
+		assertThat(summary.getNextDueDate(), is(july2nd.plusMonths(1)));
+		assertThat(summary.isRepaidInFull(usDollars), is(false));
+	}
+
+	/**
+	 * Scenario 2: Given unpaid installments due before the as of date, their amounts are overdue.
+	 */
+	@Test
+	public void givenUnpaidInstallmentsDueBeforeAsOfDateShouldBeOverdue() {
+
+		List<LoanRepaymentScheduleInstallment> installments = LoanScheduleTestDataHelper.createSimpleLoanSchedule(july2nd, usDollars);
+
+		LoanSummary summary = new LoanSummary();
+		summary.update(usDollars, installments, null, july2nd.plusMonths(1).plusDays(1));
+
+		assertThat(summary.getTotalOverdue(usDollars).isEqualTo(money("2400.00")), is(true));
+		assertThat(summary.getNextDueDate(), is(july2nd.plusMonths(2)));
+	}
+
+	/**
+	 * Scenario 3: Given all installments paid, summary shows loan repaid in full.
+	 */
+	@Test
+	public void givenAllInstallmentsPaidShouldBeRepaidInFull() {
+
+		List<LoanRepaymentScheduleInstallment> installments = LoanScheduleTestDataHelper.createSimpleLoanSchedule(july2nd, usDollars);
+		for (LoanRepaymentScheduleInstallment installment : installments) {
+			installment.payInterestComponent(installment.getInterest(usDollars));
+			installment.payPrincipalComponent(installment.getPrincipal(usDollars));
+		}
+
+		LoanSummary summary = new LoanSummary();
+		summary.update(usDollars, installments, null, july2nd);
+
+		assertThat(summary.isRepaidInFull(usDollars), is(true));
+		assertThat(summary.getNextDueDate() == null, is(true));
+	}
+
+	private Money money(final String amount) {
+		return new MoneyBuilder().with(usDollars).with(amount).build();
+	}
+}
@@ -1,5 +1,7 @@
 package org.mifosng.platform.loan.domain;
 
+import java.lang.reflect.Field;
+
 import org.joda.time.LocalDate;
 import org.mifosng.platform.currency.domain.Money;
 
@@ -8,6 +10,7 @@ public class LoanTransactionBuilder {
 	private Money transactionAmount = new MoneyBuilder().build();
 	private LocalDate transactionDate = LocalDate.now();
 	private boolean repayment = false;
+	private Long id = null;
 
 	public LoanTransaction build() {
 		
@@ -17,6 +20,10 @@ public class LoanTransactionBuilder {
 			transaction = LoanTransaction.repayment(transactionAmount, transactionDate);
 		}
 		
+		if (id != null) {
+			assignId(transaction, id);
+		}
+		
 		return transaction;
 	}
 
@@ -30,8 +37,33 @@ public class LoanTransactionBuilder {
 		return this;
 	}
 	
+	/**
+	 * Builds the transaction as if it was already saved with the id given.
+	 */
+	public LoanTransactionBuilder withId(final Long withId) {
+		this.id = withId;
+		return this;
+	}
+	
 	public LoanTransactionBuilder repayment() {
 		this.repayment = true;
 		return this;
 	}
-}
+
+	private static void assignId(final LoanTransaction transaction, final Long id) {
+		Class<?> type = transaction.getClass();
+		while (type != null) {
+			try {
+				Field idField = type.getDeclaredField("id");
+				idField.setAccessible(true);
+				idField.set(transaction, id);
+				return;
+			} catch (NoSuchFieldException e) {
+				type = type.getSuperclass();
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		throw new IllegalStateException("No id field on " + transaction.getClass());
+	}
+}
\ No newline at end of file
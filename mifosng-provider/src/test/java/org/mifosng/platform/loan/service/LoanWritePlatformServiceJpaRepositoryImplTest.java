@@ -0,0 +1,187 @@
+package org.mifosng.platform.loan.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.api.commands.LoanTransactionCommand;
+import org.mifosng.platform.api.data.LoanTransactionIdentifier;
+import org.mifosng.platform.client.domain.ClientRepository;
+import org.mifosng.platform.client.domain.NoteRepository;
+import org.mifosng.platform.currency.domain.MonetaryCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.exceptions.InvalidLoanStateTransitionException;
+import org.mifosng.platform.exceptions.PlatformApiDataValidationException;
+import org.mifosng.platform.loan.domain.Loan;
+import org.mifosng.platform.loan.domain.LoanLifecycleStateMachine;
+import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
+import org.mifosng.platform.loan.domain.LoanProductRepository;
+import org.mifosng.platform.loan.domain.LoanRepository;
+import org.mifosng.platform.loan.domain.LoanTransaction;
+import org.mifosng.platform.loan.domain.LoanTransactionRepository;
+import org.mifosng.platform.security.PlatformSecurityContext;
+import org.mifosng.platform.user.domain.AppUser;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoanWritePlatformServiceJpaRepositoryImplTest {
+
+	private final LocalDate today = new LocalDate();
+	private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2);
+
+	@Mock
+	private PlatformSecurityContext context;
+	@Mock
+	private LoanRepository loanRepository;
+	@Mock
+	private LoanTransactionRepository loanTransactionRepository;
+	@Mock
+	private NoteRepository noteRepository;
+
+	private LoanWritePlatformServiceJpaRepositoryImpl loanWritePlatformService;
+
+	@Before
+	public void setUpService() {
+		when(this.context.authenticatedUser()).thenReturn(mock(AppUser.class));
+		this.loanWritePlatformService = new LoanWritePlatformServiceJpaRepositoryImpl(this.context, null, this.loanRepository,
+				this.loanTransactionRepository, this.noteRepository, null, mock(ClientRepository.class), mock(LoanProductRepository.class));
+	}
+
+	/**
+	 * Scenario 1: Repayments on every loan are made together and identified in request order.
+	 */
+	@Test
+	public void givenRepaymentsOnDifferentLoansShouldMakeAllInRequestOrder() {
+
+		Loan first = disbursedLoan(1L);
+		Loan second = disbursedLoan(2L);
+		when(this.loanRepository.findAll(loanIds(2L, 1L))).thenReturn(Arrays.asList(first, second));
+
+		List<LoanTransactionIdentifier> identifiers = this.loanWritePlatformService.makeLoanRepayments(
+				Arrays.asList(repaymentOn(2L, "10"), repaymentOn(1L, "20")));
+
+		assertThat(identifiers.size(), is(2));
+		assertThat(identifiers.get(0).getLoanId(), is(Long.valueOf(2)));
+		assertThat(identifiers.get(1).getLoanId(), is(Long.valueOf(1)));
+		verify(first, times(1)).makeRepayment(any(LoanTransaction.class), any(LoanLifecycleStateMachine.class));
+		verify(second, times(1)).makeRepayment(any(LoanTransaction.class), any(LoanLifecycleStateMachine.class));
+		verify(this.loanTransactionRepository, times(1)).save(Mockito.<Iterable<LoanTransaction>> any());
+		verify(this.loanRepository, times(1)).save(Mockito.<Iterable<Loan>> any());
+	}
+
+	/**
+	 * Scenario 2: Repayments on a loan that does not exist are reported by position and no repayment is made.
+	 *
+	 * Expectation
+	 * - loans are read with one query for all loan ids of the request
+	 */
+	@Test
+	public void givenLoanIdsNotFoundShouldReportEachAndMakeNoRepayment() {
+
+		Loan existing = disbursedLoan(1L);
+		when(this.loanRepository.findAll(loanIds(1L, 7L, 8L))).thenReturn(Arrays.asList(existing));
+
+		try {
+			this.loanWritePlatformService.makeLoanRepayments(Arrays.asList(repaymentOn(1L, "10"), repaymentOn(7L, "10"), repaymentOn(8L, "10")));
+			fail("expected PlatformApiDataValidationException");
+		} catch (PlatformApiDataValidationException e) {
+			assertThat(e.getErrors().size(), is(2));
+			assertThat(e.getErrors().get(0).getParameterName(), is("transactions[1].loanId"));
+			assertThat(e.getErrors().get(1).getParameterName(), is("transactions[2].loanId"));
+		}
+
+		verify(this.loanRepository, times(1)).findAll(loanIds(1L, 7L, 8L));
+		verify(existing, never()).makeRepayment(any(LoanTransaction.class), any(LoanLifecycleStateMachine.class));
+		verifyNothingSaved();
+	}
+
+	/**
+	 * Scenario 3: Several repayments on the same loan read the loan once and are all made on it in request order.
+	 */
+	@Test
+	public void givenDuplicateLoanIdsShouldReadLoanOnceAndMakeEachRepayment() {
+
+		Loan loan = disbursedLoan(1L);
+		when(this.loanRepository.findAll(loanIds(1L))).thenReturn(Arrays.asList(loan));
+
+		List<LoanTransactionIdentifier> identifiers = this.loanWritePlatformService.makeLoanRepayments(
+				Arrays.asList(repaymentOn(1L, "10"), repaymentOn(1L, "15")));
+
+		verify(this.loanRepository, times(1)).findAll(loanIds(1L));
+		verify(loan, times(2)).makeRepayment(any(LoanTransaction.class), any(LoanLifecycleStateMachine.class));
+		assertThat(identifiers.size(), is(2));
+		assertThat(identifiers.get(0).getLoanId(), is(Long.valueOf(1)));
+		assertThat(identifiers.get(1).getLoanId(), is(Long.valueOf(1)));
+	}
+
+	/**
+	 * Scenario 4: A repayment failing part way through the request leaves nothing saved, and the transaction the
+	 * repayments are made in is rolled back by the exception.
+	 */
+	@Test
+	public void givenRepaymentFailingPartWayShouldSaveNothing() throws Exception {
+
+		Loan first = disbursedLoan(1L);
+		Loan closed = disbursedLoan(2L);
+		when(this.loanRepository.findAll(loanIds(1L, 2L))).thenReturn(Arrays.asList(first, closed));
+		doThrow(new InvalidLoanStateTransitionException("repayment", "cannot.be.made.on.closed.loan", "Loan is closed."))
+				.when(closed).makeRepayment(any(LoanTransaction.class), any(LoanLifecycleStateMachine.class));
+
+		try {
+			this.loanWritePlatformService.makeLoanRepayments(Arrays.asList(repaymentOn(1L, "10"), repaymentOn(2L, "10")));
+			fail("expected InvalidLoanStateTransitionException");
+		} catch (InvalidLoanStateTransitionException e) {
+			verify(first, times(1)).makeRepayment(any(LoanTransaction.class), any(LoanLifecycleStateMachine.class));
+		}
+
+		verifyNothingSaved();
+		assertThat(LoanWritePlatformServiceJpaRepositoryImpl.class.getMethod("makeLoanRepayments", List.class).getAnnotation(Transactional.class),
+				is(notNullValue()));
+	}
+
+	private void verifyNothingSaved() {
+		verify(this.loanRepository, never()).save(Mockito.<Iterable<Loan>> any());
+		verify(this.loanRepository, never()).save(any(Loan.class));
+		verifyZeroInteractions(this.loanTransactionRepository, this.noteRepository);
+	}
+
+	private Loan disbursedLoan(final long id) {
+		LoanProductRelatedDetail loanDetail = mock(LoanProductRelatedDetail.class);
+		when(loanDetail.getPrincipal()).thenReturn(Money.of(this.usDollars, BigDecimal.valueOf(1000)));
+
+		Loan loan = mock(Loan.class);
+		when(loan.getId()).thenReturn(Long.valueOf(id));
+		when(loan.getDisbursementDate()).thenReturn(this.today.minusMonths(1));
+		when(loan.repaymentScheduleDetail()).thenReturn(loanDetail);
+		return loan;
+	}
+
+	private LoanTransactionCommand repaymentOn(final long loanId, final String amount) {
+		return new LoanTransactionCommand(Long.valueOf(loanId), this.today, new BigDecimal(amount), null);
+	}
+
+	private static Iterable<Long> loanIds(final Long... loanIds) {
+		return new HashSet<Long>(Arrays.asList(loanIds));
+	}
+}
@@ -0,0 +1,156 @@
+package org.mifosng.platform.loanschedule.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.api.LoanScheduleNewData;
+import org.mifosng.platform.currency.domain.ApplicationCurrency;
+import org.mifosng.platform.currency.domain.Money;
+import org.mifosng.platform.loan.domain.AmortizationMethod;
+import org.mifosng.platform.loan.domain.InterestCalculationPeriodMethod;
+import org.mifosng.platform.loan.domain.InterestMethod;
+import org.mifosng.platform.loan.domain.LoanCharge;
+import org.mifosng.platform.loan.domain.LoanProductRelatedDetail;
+import org.mifosng.platform.loan.domain.MonetaryCurrencyBuilder;
+import org.mifosng.platform.loan.domain.PeriodFrequencyType;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingLoanScheduleGeneratorFactoryTest {
+
+	private final ApplicationCurrency currency = new ApplicationCurrency("USD", "US Dollar", 2, "currency.USD", "$");
+	private final LocalDate disbursementDate = new LocalDate(2012, 1, 2);
+	private final LocalDate firstRepaymentDate = new LocalDate(2012, 2, 2);
+	private final Set<LoanCharge> noCharges = new HashSet<LoanCharge>();
+
+	private CachingLoanScheduleGeneratorFactory factory;
+
+	@Before
+	public void setupForEachTest() {
+		this.factory = new CachingLoanScheduleGeneratorFactory(new DefaultLoanScheduleGeneratorFactory(), 10);
+	}
+
+	/**
+	 * Scenario 1: Given the same terms twice, the schedule generated first is returned the second time.
+	 */
+	@Test
+	public void givenSameTermsShouldReturnCachedSchedule() {
+
+		LoanScheduleNewData first = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+		LoanScheduleNewData second = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+
+		assertThat(second, is(sameInstance(first)));
+		assertThat(this.factory.getHitCount(), is(1L));
+		assertThat(this.factory.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: Given different terms or interest method, a new schedule is generated.
+	 */
+	@Test
+	public void givenDifferentTermsShouldGenerateNewSchedule() {
+
+		LoanScheduleNewData first = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+		LoanScheduleNewData differentPrincipal = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("12000"));
+		LoanScheduleNewData differentInterestMethod = generate(InterestMethod.FLAT, monthlyLoan("10000"));
+
+		assertThat(differentPrincipal, is(not(sameInstance(first))));
+		assertThat(differentInterestMethod, is(not(sameInstance(first))));
+		assertThat(differentPrincipal.totalOutstanding().compareTo(first.totalOutstanding()) > 0, is(true));
+		assertThat(this.factory.getMissCount(), is(3L));
+		assertThat(this.factory.getSize(), is(3));
+	}
+
+	/**
+	 * Scenario 3: Given the cache is full, the least recently used schedule is evicted to cache a new one.
+	 */
+	@Test
+	public void givenCacheIsFullShouldEvictLeastRecentlyUsedSchedule() {
+
+		this.factory.setMaximumSize(2);
+
+		LoanScheduleNewData first = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+		LoanScheduleNewData second = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("12000"));
+		generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+		generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("14000"));
+
+		assertThat(generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000")), is(sameInstance(first)));
+		assertThat(generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("12000")), is(not(sameInstance(second))));
+		assertThat(this.factory.getSize(), is(2));
+		assertThat(this.factory.getHitCount(), is(2L));
+		assertThat(this.factory.getMissCount(), is(4L));
+		assertThat(this.factory.getEvictionCount(), is(2L));
+	}
+
+	/**
+	 * Scenario 4: Given the maximum size is lowered, the least recently used schedules over it are evicted straight away.
+	 */
+	@Test
+	public void givenMaximumSizeLoweredShouldEvictLeastRecentlyUsedSchedules() {
+
+		generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+		generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("12000"));
+		LoanScheduleNewData mostRecentlyUsed = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("14000"));
+
+		this.factory.setMaximumSize(1);
+
+		assertThat(this.factory.getSize(), is(1));
+		assertThat(this.factory.getEvictionCount(), is(2L));
+		assertThat(generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("14000")), is(sameInstance(mostRecentlyUsed)));
+	}
+
+	/**
+	 * Scenario 5: Given the same amounts written with a different scale, the cached schedule is returned.
+	 */
+	@Test
+	public void givenSameAmountsWithDifferentScaleShouldReturnCachedSchedule() {
+
+		LoanScheduleNewData first = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000"));
+		LoanScheduleNewData second = generate(InterestMethod.DECLINING_BALANCE, monthlyLoan("10000.00"));
+		assertThat(second, is(sameInstance(first)));
+
+		assertThat(keyWithChargeDueAtDisbursement("10"), is(keyWithChargeDueAtDisbursement("10.00")));
+		assertThat(keyWithChargeDueAtDisbursement("0"), is(keyWithChargeDueAtDisbursement("0.00")));
+		assertThat(keyWithChargeDueAtDisbursement("10").equals(keyWithChargeDueAtDisbursement("10.01")), is(false));
+	}
+
+	private CachingLoanScheduleGeneratorFactory.ScheduleKey keyWithChargeDueAtDisbursement(final String amount) {
+		Set<LoanCharge> charges = new HashSet<LoanCharge>();
+		charges.add(new LoanCharge() {
+			@Override
+			public boolean isDueAtDisbursement() {
+				return true;
+			}
+
+			@Override
+			public BigDecimal calculateMonetaryAmount(@SuppressWarnings("unused") final Money principalDisbursed) {
+				return new BigDecimal(amount);
+			}
+		});
+		return CachingLoanScheduleGeneratorFactory.ScheduleKey.of(InterestMethod.FLAT, this.currency, monthlyLoan("10000"), Integer.valueOf(12),
+				PeriodFrequencyType.MONTHS, this.disbursementDate, this.firstRepaymentDate, null, charges);
+	}
+
+	private LoanScheduleNewData generate(final InterestMethod interestMethod, final LoanProductRelatedDetail loanScheduleInfo) {
+		return this.factory.create(interestMethod).generate(this.currency, loanScheduleInfo, Integer.valueOf(12), PeriodFrequencyType.MONTHS,
+				this.disbursementDate, this.firstRepaymentDate, null, this.noCharges);
+	}
+
+	private LoanProductRelatedDetail monthlyLoan(final String principal) {
+		// 2% per month, 24% per year
+		return new LoanProductRelatedDetail(new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build(),
+				new BigDecimal(principal), new BigDecimal("2"), PeriodFrequencyType.MONTHS, new BigDecimal("24"),
+				InterestMethod.DECLINING_BALANCE, InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD, Integer.valueOf(1),
+				PeriodFrequencyType.MONTHS, Integer.valueOf(12), AmortizationMethod.EQUAL_INSTALLMENTS, BigDecimal.ZERO);
+	}
+}
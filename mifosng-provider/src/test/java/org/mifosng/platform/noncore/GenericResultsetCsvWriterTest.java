@@ -0,0 +1,109 @@
+package org.mifosng.platform.noncore;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.api.data.ResultsetColumnHeader;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GenericResultsetCsvWriterTest {
+
+	/**
+	 * Scenario 1: values with commas, quotes and line breaks are quoted with quotes doubled (RFC 4180).
+	 */
+	@Test
+	public void givenValuesWithSpecialCharactersShouldQuoteAndEscapeThem() throws Exception {
+
+		StringWriter output = new StringWriter();
+		GenericResultsetCsvWriter csvWriter = new GenericResultsetCsvWriter(output);
+
+		csvWriter.processColumnHeaders(columnHeaders("id", "INT", "display \"name\"", "VARCHAR", "notes", "VARCHAR"));
+		csvWriter.processRow(new String[] { "1", "Smith, John", "said \"hello\"" });
+		csvWriter.processRow(new String[] { "2", "multi\r\nline", null });
+		csvWriter.processEnd();
+
+		assertThat(output.toString(), is(
+				"\"id\",\"display \"\"name\"\"\",\"notes\"\r\n"
+				+ "1,\"Smith, John\",\"said \"\"hello\"\"\"\r\n"
+				+ "2,\"multi\r\nline\",\r\n"));
+	}
+
+	/**
+	 * Scenario 2: numeric values are written unquoted and null values are left empty.
+	 */
+	@Test
+	public void givenNumericAndNullValuesShouldWriteThemUnquotedAndEmpty() throws Exception {
+
+		StringWriter output = new StringWriter();
+		GenericResultsetCsvWriter csvWriter = new GenericResultsetCsvWriter(output);
+
+		csvWriter.processColumnHeaders(columnHeaders("amount", "DECIMAL", "count", "BIGINT", "date", "DATE"));
+		csvWriter.processRow(new String[] { "1500.000000", null, "2012-08-01" });
+		csvWriter.processRow(new String[] { null, "3", null });
+		csvWriter.processEnd();
+
+		assertThat(output.toString(), is("\"amount\",\"count\",\"date\"\r\n1500.000000,,\"2012-08-01\"\r\n,3,\r\n"));
+	}
+
+	/**
+	 * Scenario 3: output is flushed after the header line and then periodically rather than only at the end.
+	 */
+	@Test
+	public void givenManyRowsShouldFlushAfterHeaderAndPeriodically() throws Exception {
+
+		CountingFlushWriter output = new CountingFlushWriter();
+		GenericResultsetCsvWriter csvWriter = new GenericResultsetCsvWriter(output);
+
+		csvWriter.processColumnHeaders(columnHeaders("id", "INT"));
+		assertThat(output.flushCount, is(1));
+
+		String[] row = new String[1];
+		for (int i = 0; i < GenericResultsetCsvWriter.ROWS_BETWEEN_FLUSHES * 2; i++) {
+			row[0] = Integer.toString(i);
+			csvWriter.processRow(row);
+		}
+		assertThat(output.flushCount, is(3));
+
+		csvWriter.processEnd();
+		assertThat(output.flushCount, is(4));
+	}
+
+	private static List<ResultsetColumnHeader> columnHeaders(final String... namesAndTypes) {
+		List<ResultsetColumnHeader> columnHeaders = new ArrayList<ResultsetColumnHeader>();
+		for (int i = 0; i < namesAndTypes.length; i += 2) {
+			ResultsetColumnHeader columnHeader = new ResultsetColumnHeader();
+			columnHeader.setColumnName(namesAndTypes[i]);
+			columnHeader.setColumnType(namesAndTypes[i + 1]);
+			columnHeaders.add(columnHeader);
+		}
+		return columnHeaders;
+	}
+
+	private static class CountingFlushWriter extends Writer {
+
+		private int flushCount = 0;
+
+		@Override
+		public void write(final char[] cbuf, final int off, final int len) {
+			// discard
+		}
+
+		@Override
+		public void flush() {
+			this.flushCount++;
+		}
+
+		@Override
+		public void close() {
+			// nothing to do
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package org.mifosng.platform.noncore;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.exceptions.PlatformDataIntegrityException;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReportSqlTemplateTest {
+
+	/**
+	 * Scenario 1: placeholders on their own and placeholders that are a whole quoted literal become bind parameters.
+	 */
+	@Test
+	public void givenPlaceholdersOnTheirOwnOrAsWholeLiteralsShouldCompileToBindParameters() {
+
+		ReportSqlTemplate template = ReportSqlTemplate.compile("select * from m_office o where o.id = ${officeId}"
+				+ " and o.hierarchy like concat('${currentUserHierarchy}', '%')"
+				+ " and (l.currency_code = \"${currencyId}\" or \"-1\" = \"${currencyId}\")"
+				+ " and l.disbursedon_date between '${startDate}' and '${endDate}'");
+
+		assertThat(template.isBindable(), is(true));
+		assertThat(template.getSql(), is("select * from m_office o where o.id = ?"
+				+ " and o.hierarchy like concat(?, '%')"
+				+ " and (l.currency_code = ? or \"-1\" = ?)"
+				+ " and l.disbursedon_date between ? and ?"));
+		assertThat(template.getParameterNames(), is(Arrays.asList("${officeId}", "${currentUserHierarchy}", "${currencyId}",
+				"${currencyId}", "${startDate}", "${endDate}")));
+
+		Map<String, String> parameterValues = new HashMap<String, String>();
+		parameterValues.put("${officeId}", "1");
+		parameterValues.put("${currentUserHierarchy}", ".");
+		parameterValues.put("${currencyId}", "USD");
+		parameterValues.put("${startDate}", "2012-01-01");
+		parameterValues.put("${endDate}", "2012-12-31");
+
+		assertThat(template.bindValues(parameterValues), is(Arrays.asList("1", ".", "USD", "USD", "2012-01-01", "2012-12-31")));
+	}
+
+	/**
+	 * Scenario 2: placeholder text within comments, identifiers and other literals is left alone.
+	 */
+	@Test
+	public void givenPlaceholderTextInCommentsAndOtherLiteralsShouldLeaveItAlone() {
+
+		ReportSqlTemplate template = ReportSqlTemplate.compile("select 'it''s ${a}', 'b\\'s ${b}', `${c}` -- ${notAParameter}\n"
+				+ "from t /* ${alsoNot} */ where t.id = ${id}");
+
+		assertThat(template.getSql(), is("select 'it''s ${a}', 'b\\'s ${b}', `${c}` -- ${notAParameter}\n"
+				+ "from t /* ${alsoNot} */ where t.id = ?"));
+		assertThat(template.getParameterNames(), is(Arrays.asList("${id}")));
+	}
+
+	/**
+	 * Scenario 3: placeholders within a larger literal cannot be bound so values are replaced in the sql text.
+	 */
+	@Test
+	public void givenPlaceholderWithinLargerLiteralShouldNotBeBindableAndReplaceText() {
+
+		ReportSqlTemplate template = ReportSqlTemplate.compile("select * from m_client c where c.lastname like '%${name}%' and c.office_id = ${officeId}");
+
+		Map<String, String> parameterValues = new HashMap<String, String>();
+		parameterValues.put("${name}", "Smith");
+		parameterValues.put("${officeId}", "1");
+
+		assertThat(template.isBindable(), is(false));
+		assertThat(template.replaceParameters(parameterValues), is("select * from m_client c where c.lastname like '%Smith%' and c.office_id = 1"));
+	}
+
+	/**
+	 * Scenario 4: a placeholder without a value is rejected rather than run.
+	 */
+	@Test(expected = PlatformDataIntegrityException.class)
+	public void givenMissingParameterValueShouldThrowPlatformDataIntegrityException() {
+		ReportSqlTemplate.compile("select * from m_office o where o.id = ${officeId}").bindValues(new HashMap<String, String>());
+	}
+}
@@ -0,0 +1,76 @@
+package org.mifosng.platform.organisation.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OfficeHierarchyTest {
+
+	private OfficeHierarchy hierarchy;
+
+	/*
+	 * head office 1 with branches 2 and 3, branch 2 has sub branches 4 and 23, sub branch 4 has sub branch 5
+	 */
+	@Before
+	public void setUpHierarchy() {
+		Map<Long, String> hierarchyByOfficeId = new HashMap<Long, String>();
+		hierarchyByOfficeId.put(Long.valueOf(1), ".");
+		hierarchyByOfficeId.put(Long.valueOf(2), ".2.");
+		hierarchyByOfficeId.put(Long.valueOf(3), ".3.");
+		hierarchyByOfficeId.put(Long.valueOf(4), ".2.4.");
+		hierarchyByOfficeId.put(Long.valueOf(23), ".2.23.");
+		hierarchyByOfficeId.put(Long.valueOf(5), ".2.4.5.");
+		this.hierarchy = new OfficeHierarchy(hierarchyByOfficeId);
+	}
+
+	/**
+	 * Scenario 1: offices are within the hierarchy of themselves and their ancestors only.
+	 */
+	@Test
+	public void givenOfficesShouldOnlyBeWithinHierarchyOfSelfAndAncestors() {
+
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(5), Long.valueOf(1)), is(true));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(5), Long.valueOf(2)), is(true));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(5), Long.valueOf(5)), is(true));
+
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(2), Long.valueOf(5)), is(false));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(5), Long.valueOf(3)), is(false));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(23), Long.valueOf(3)), is(false));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(23), Long.valueOf(4)), is(false));
+	}
+
+	/**
+	 * Scenario 2: unknown offices are never within a hierarchy.
+	 */
+	@Test
+	public void givenUnknownOfficeShouldNotBeWithinAnyHierarchy() {
+
+		assertThat(this.hierarchy.contains(Long.valueOf(99)), is(false));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(99), Long.valueOf(1)), is(false));
+		assertThat(this.hierarchy.isSameOrDescendantOf(Long.valueOf(1), Long.valueOf(99)), is(false));
+	}
+
+	/**
+	 * Scenario 3: subtree is the office followed by all offices below it.
+	 */
+	@Test
+	public void givenOfficeShouldReturnItselfAndAllOfficesBelowInSubtree() {
+
+		assertThat(this.hierarchy.subtreeOf(Long.valueOf(1)), is(Arrays.asList(Long.valueOf(1), Long.valueOf(2), Long.valueOf(23),
+				Long.valueOf(4), Long.valueOf(5), Long.valueOf(3))));
+		assertThat(this.hierarchy.subtreeOf(Long.valueOf(2)), is(Arrays.asList(Long.valueOf(2), Long.valueOf(23), Long.valueOf(4),
+				Long.valueOf(5))));
+		assertThat(this.hierarchy.subtreeOf(Long.valueOf(3)), is(Arrays.asList(Long.valueOf(3))));
+		assertThat(this.hierarchy.subtreeOf(Long.valueOf(99)), is(Collections.<Long> emptyList()));
+	}
+}
@@ -0,0 +1,111 @@
+package org.mifosng.platform.organisation.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OfficeHierarchyIndexTest {
+
+	private final StubbedOfficeHierarchyIndex index = new StubbedOfficeHierarchyIndex();
+
+	/**
+	 * Scenario 1: Repeated checks within the time to live only read the hierarchy once.
+	 */
+	@Test
+	public void givenKnownOfficesShouldOnlyLoadOnce() {
+
+		index.offices.put(Long.valueOf(1), ".");
+		index.offices.put(Long.valueOf(2), ".2.");
+
+		assertThat(index.isSameOrDescendantOf(Long.valueOf(2), Long.valueOf(1)), is(true));
+		assertThat(index.isSameOrDescendantOf(Long.valueOf(1), Long.valueOf(2)), is(false));
+		assertThat(index.subtreeOf(Long.valueOf(1)).size(), is(2));
+
+		assertThat(index.numberOfReads, is(1));
+		assertThat(index.getLoadCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: Unknown offices cause at most one reload per reload interval and are treated as outside the
+	 * hierarchy until then.
+	 */
+	@Test
+	public void givenUnknownOfficesShouldReloadAtMostOncePerInterval() {
+
+		index.offices.put(Long.valueOf(1), ".");
+		index.currentHierarchy();
+
+		for (long unknownOfficeId = 100; unknownOfficeId < 110; unknownOfficeId++) {
+			assertThat(index.isSameOrDescendantOf(Long.valueOf(unknownOfficeId), Long.valueOf(1)), is(false));
+			assertThat(index.subtreeOf(Long.valueOf(unknownOfficeId)).isEmpty(), is(true));
+		}
+
+		assertThat(index.numberOfReads, is(1));
+		assertThat(index.getUnknownOfficeCount(), is(20L));
+	}
+
+	/**
+	 * Scenario 3: An office created on another node is found once the reload interval has passed.
+	 */
+	@Test
+	public void givenOfficeCreatedElsewhereShouldFindItAfterReloadInterval() {
+
+		index.offices.put(Long.valueOf(1), ".");
+		index.currentHierarchy();
+
+		index.offices.put(Long.valueOf(3), ".3.");
+		index.setUnknownOfficeReloadIntervalMillis(-1L);
+
+		assertThat(index.isSameOrDescendantOf(Long.valueOf(3), Long.valueOf(1)), is(true));
+		assertThat(index.numberOfReads, is(2));
+	}
+
+	/**
+	 * Scenario 4: An office moved on another node is seen in its new place once the time to live has passed, and
+	 * straight away when moved on this node.
+	 */
+	@Test
+	public void givenOfficeMovedShouldReloadAfterTimeToLiveOrRefresh() {
+
+		index.offices.put(Long.valueOf(1), ".");
+		index.offices.put(Long.valueOf(2), ".2.");
+		index.offices.put(Long.valueOf(3), ".2.3.");
+		assertThat(index.isSameOrDescendantOf(Long.valueOf(3), Long.valueOf(2)), is(true));
+
+		index.offices.put(Long.valueOf(3), ".3.");
+		assertThat(index.isSameOrDescendantOf(Long.valueOf(3), Long.valueOf(2)), is(true));
+
+		index.setTimeToLiveMillis(-1L);
+		assertThat(index.isSameOrDescendantOf(Long.valueOf(3), Long.valueOf(2)), is(false));
+
+		index.setTimeToLiveMillis(60000L);
+		index.offices.put(Long.valueOf(3), ".2.3.");
+		index.refresh();
+		assertThat(index.subtreeOf(Long.valueOf(2)), is(Arrays.asList(Long.valueOf(2), Long.valueOf(3))));
+		assertThat(index.numberOfReads, is(3));
+	}
+
+	private static class StubbedOfficeHierarchyIndex extends OfficeHierarchyIndex {
+
+		private final Map<Long, String> offices = new HashMap<Long, String>();
+		private int numberOfReads = 0;
+
+		public StubbedOfficeHierarchyIndex() {
+			super(null);
+		}
+
+		@Override
+		protected Map<Long, String> readHierarchyByOfficeId() {
+			numberOfReads++;
+			return new HashMap<Long, String>(offices);
+		}
+	}
+}
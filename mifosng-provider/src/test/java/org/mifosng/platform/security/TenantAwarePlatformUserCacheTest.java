@@ -0,0 +1,166 @@
+package org.mifosng.platform.security;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosng.platform.infrastructure.MifosPlatformTenant;
+import org.mifosng.platform.infrastructure.ThreadLocalContextUtil;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TenantAwarePlatformUserCacheTest {
+
+	private final TenantAwarePlatformUserCache userCache = new TenantAwarePlatformUserCache();
+
+	@After
+	public void clearTenantAndSynchronization() {
+		ThreadLocalContextUtil.clearTenant();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	/**
+	 * Scenario 1: A cached user is only returned for the tenant it was cached for.
+	 */
+	@Test
+	public void givenSameUsernameInTwoTenantsShouldCacheUsersSeparately() {
+
+		UserDetails defaultAdmin = user("mifos");
+		UserDetails otherAdmin = user("mifos");
+
+		inTenant(1L);
+		userCache.putUserInCache(defaultAdmin);
+
+		inTenant(2L);
+		assertThat(userCache.getUserFromCache("mifos"), is(nullValue()));
+		userCache.putUserInCache(otherAdmin);
+		assertThat(userCache.getUserFromCache("mifos") == otherAdmin, is(true));
+
+		inTenant(1L);
+		assertThat(userCache.getUserFromCache("mifos") == defaultAdmin, is(true));
+
+		assertThat(userCache.getSize(), is(2));
+		assertThat(userCache.getHitCount(), is(2L));
+		assertThat(userCache.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 2: Users are no longer returned once their time to live has passed.
+	 */
+	@Test
+	public void givenExpiredUserShouldLoadAgain() {
+
+		inTenant(1L);
+		userCache.setTimeToLiveMillis(0L);
+		userCache.putUserInCache(user("mifos"));
+
+		assertThat(userCache.getUserFromCache("mifos"), is(nullValue()));
+		assertThat(userCache.getSize(), is(0));
+		assertThat(userCache.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 3: Updating a user evicts only that user of the current tenant.
+	 */
+	@Test
+	public void givenUserUpdatedShouldEvictThatUserOfCurrentTenant() {
+
+		inTenant(2L);
+		userCache.putUserInCache(user("mifos"));
+		inTenant(1L);
+		userCache.putUserInCache(user("mifos"));
+		userCache.putUserInCache(user("clerk"));
+
+		userCache.removeUserFromCache("mifos");
+
+		assertThat(userCache.getUserFromCache("mifos"), is(nullValue()));
+		assertThat(userCache.getUserFromCache("clerk").getUsername(), is("clerk"));
+		inTenant(2L);
+		assertThat(userCache.getUserFromCache("mifos").getUsername(), is("mifos"));
+		assertThat(userCache.getEvictionCount(), is(1L));
+	}
+
+	/**
+	 * Scenario 4: Updating a role evicts all users of the current tenant.
+	 */
+	@Test
+	public void givenRoleUpdatedShouldEvictAllUsersOfCurrentTenant() {
+
+		inTenant(2L);
+		userCache.putUserInCache(user("mifos"));
+		inTenant(1L);
+		userCache.putUserInCache(user("mifos"));
+		userCache.putUserInCache(user("clerk"));
+
+		userCache.removeAllUsersFromCache();
+
+		assertThat(userCache.getUserFromCache("mifos"), is(nullValue()));
+		assertThat(userCache.getUserFromCache("clerk"), is(nullValue()));
+		inTenant(2L);
+		assertThat(userCache.getUserFromCache("mifos").getUsername(), is("mifos"));
+		assertThat(userCache.getEvictionCount(), is(2L));
+	}
+
+	/**
+	 * Scenario 5: A user re-cached whilst the transaction updating it is still open is evicted again once it completes.
+	 */
+	@Test
+	public void givenUserRecachedBeforeUpdateCommitsShouldEvictAgainAfterCommit() {
+
+		inTenant(1L);
+		userCache.putUserInCache(user("mifos"));
+
+		TransactionSynchronizationManager.initSynchronization();
+		userCache.removeUserFromCache("mifos");
+
+		// concurrent request authenticating with the state from before the change
+		userCache.putUserInCache(user("mifos"));
+		assertThat(userCache.getUserFromCache("mifos").getUsername(), is("mifos"));
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+
+		assertThat(userCache.getUserFromCache("mifos"), is(nullValue()));
+		assertThat(userCache.getEvictionCount(), is(2L));
+	}
+
+	/**
+	 * Scenario 6: Cache never holds more users than its maximum size, evicting the least recently used.
+	 */
+	@Test
+	public void givenMoreUsersThanMaximumSizeShouldEvictLeastRecentlyUsed() {
+
+		inTenant(1L);
+		userCache.setMaximumSize(2);
+
+		userCache.putUserInCache(user("mifos"));
+		userCache.putUserInCache(user("clerk"));
+		userCache.getUserFromCache("mifos");
+		userCache.putUserInCache(user("teller"));
+
+		assertThat(userCache.getSize(), is(2));
+		assertThat(userCache.getUserFromCache("clerk"), is(nullValue()));
+		assertThat(userCache.getUserFromCache("mifos").getUsername(), is("mifos"));
+		assertThat(userCache.getUserFromCache("teller").getUsername(), is("teller"));
+	}
+
+	private static void inTenant(final long tenantId) {
+		ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(Long.valueOf(tenantId), "tenant" + tenantId, "mifostenant-" + tenantId,
+				"localhost", "3306", "root", "mysql"));
+	}
+
+	private static UserDetails user(final String username) {
+		return new User(username, "password", AuthorityUtils.NO_AUTHORITIES);
+	}
+}